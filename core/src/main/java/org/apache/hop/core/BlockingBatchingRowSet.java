@@ -17,6 +17,7 @@
 
 package org.apache.hop.core;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -153,6 +154,34 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return row;
   }
 
+  /** Empties the current output buffer and the buffers that are ready, without waiting. */
+  @Override
+  public int getRowsImmediate(List<Object[]> rows, int maxRows) {
+    int nrGot = 0;
+    while (nrGot < maxRows) {
+      if (outputBuffer == null) {
+        outputBuffer = getArray.poll();
+        if (outputBuffer == null) {
+          break;
+        }
+        getIndex = 0;
+      }
+
+      Object[] row = outputBuffer[getIndex];
+      outputBuffer[getIndex++] = null; // prevent any hold-up to GC
+      if (getIndex == size) {
+        putArray.offer(outputBuffer);
+        outputBuffer = null;
+      }
+      if (row == null) {
+        break; // end of a partially filled buffer
+      }
+      rows.add(row);
+      nrGot++;
+    }
+    return nrGot;
+  }
+
   @Override
   public int size() {
     // does BlockingQueue.size() grab a lock? If so, frequent call to this method
@@ -17,6 +17,7 @@
 
 package org.apache.hop.core;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -114,6 +115,12 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     }
   }
 
+  /** Takes all the available rows out of the queue at once, the queue is only locked once. */
+  @Override
+  public int getRowsImmediate(List<Object[]> rows, int maxRows) {
+    return queArray.drainTo(rows, maxRows);
+  }
+
   @Override
   public int size() {
     return queArray.size();
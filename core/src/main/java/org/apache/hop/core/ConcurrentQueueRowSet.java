@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A thread-safe row set without a size limit which never blocks. It is used when transforms are
+ * scheduled as tasks on a pool of worker threads: a transform only gets to process rows when rows
+ * are available, so waiting for rows (or for space) would only keep a worker thread busy.
+ *
+ * <p>A listener can be set which is called when rows become available in an empty row set or when
+ * the row set is flagged as done. This is used to schedule the transform reading from this row
+ * set.
+ */
+public class ConcurrentQueueRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  private final ConcurrentLinkedQueue<Object[]> buffer;
+
+  /**
+   * ConcurrentLinkedQueue.size() has to traverse the queue so we keep count ourselves. A row is
+   * added to the queue before it is counted and a reader claims a counted row before it takes it
+   * from the queue. That way the count never exceeds the rows in the queue and never goes below
+   * zero, so a reader which sees rows in size() is sure to get them.
+   */
+  private final AtomicInteger size;
+
+  private volatile Runnable rowsAvailableListener;
+
+  public ConcurrentQueueRowSet() {
+    super();
+    buffer = new ConcurrentLinkedQueue<>();
+    size = new AtomicInteger(0);
+  }
+
+  @Override
+  public Object[] getRow() {
+    if (claim(1) == 0) {
+      return null;
+    }
+    return buffer.poll();
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return getRow();
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    return getRow();
+  }
+
+  @Override
+  public int getRowsImmediate(List<Object[]> rows, int maxRows) {
+    int nrGot = claim(maxRows);
+    for (int i = 0; i < nrGot; i++) {
+      rows.add(buffer.poll());
+    }
+    return nrGot;
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    if (rowData == null) {
+      return false;
+    }
+    this.rowMeta = rowMeta;
+    buffer.add(rowData);
+    if (size.incrementAndGet() == 1) {
+      fireRowsAvailable();
+    }
+    return true;
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    return putRow(rowMeta, rowData);
+  }
+
+  @Override
+  public int putRowsWait(IRowMeta rowMeta, List<Object[]> rows, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    int nrPut = 0;
+    for (Object[] row : rows) {
+      if (row == null) {
+        break;
+      }
+      buffer.add(row);
+      nrPut++;
+    }
+    if (nrPut > 0 && size.addAndGet(nrPut) == nrPut) {
+      fireRowsAvailable();
+    }
+    return nrPut;
+  }
+
+  @Override
+  public void setDone() {
+    super.setDone();
+    fireRowsAvailable();
+  }
+
+  @Override
+  public boolean isLockFree() {
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size.get();
+  }
+
+  @Override
+  public void clear() {
+    int nrRows = claim(Integer.MAX_VALUE);
+    for (int i = 0; i < nrRows; i++) {
+      buffer.poll();
+    }
+    done.set(false);
+  }
+
+  /**
+   * Claim up to the given number of counted rows. The claimed rows are guaranteed to be in the
+   * queue since rows are only counted after they were added.
+   *
+   * @param maxRows The maximum number of rows to claim
+   * @return The number of rows claimed, to be taken from the queue by the caller
+   */
+  private int claim(int maxRows) {
+    while (true) {
+      int available = size.get();
+      if (available <= 0) {
+        return 0;
+      }
+      int claimed = Math.min(available, maxRows);
+      if (size.compareAndSet(available, available - claimed)) {
+        return claimed;
+      }
+    }
+  }
+
+  private void fireRowsAvailable() {
+    Runnable listener = rowsAvailableListener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Gets rowsAvailableListener
+   *
+   * @return value of rowsAvailableListener
+   */
+  public Runnable getRowsAvailableListener() {
+    return rowsAvailableListener;
+  }
+
+  /**
+   * @param rowsAvailableListener Called when rows become available in this empty row set or when
+   *     the row set is flagged as done. The listener is called on the thread writing the rows.
+   */
+  public void setRowsAvailableListener(Runnable rowsAvailableListener) {
+    this.rowsAvailableListener = rowsAvailableListener;
+  }
+}
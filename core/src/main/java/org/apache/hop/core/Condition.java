@@ -35,10 +35,20 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopPluginException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.exception.HopXmlException;
+import org.apache.hop.core.row.ColumnarRowBatch;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.columnar.BooleanColumnVector;
+import org.apache.hop.core.row.columnar.DoubleColumnVector;
+import org.apache.hop.core.row.columnar.IColumnVector;
+import org.apache.hop.core.row.columnar.LongColumnVector;
+import org.apache.hop.core.row.columnar.ObjectColumnVector;
+import org.apache.hop.core.row.value.SortKeyEncoder;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
 import org.apache.hop.core.row.value.ValueMetaFactory;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.xml.XmlHandler;
@@ -568,6 +578,310 @@ public class Condition implements Cloneable {
     return evaluation;
   }
 
+  /**
+   * Evaluate the condition for all the rows in a batch. Comparisons of Integer, Number and Boolean
+   * fields with a constant or with another field of the same type are done directly on the column
+   * vectors of the batch. Everything else is evaluated row by row.
+   *
+   * @param batch the rows to evaluate
+   * @return one flag per row in the batch, true if the condition evaluates to true for that row.
+   */
+  public boolean[] evaluate(ColumnarRowBatch batch) {
+    boolean[] result = new boolean[batch.size()];
+    evaluate(batch, result);
+    return result;
+  }
+
+  private void evaluate(ColumnarRowBatch batch, boolean[] result) {
+    IRowMeta rowMeta = batch.getRowMeta();
+    int size = batch.size();
+
+    if (isAtomic()) {
+      if (!evaluateColumns(batch, result)) {
+        for (int i = 0; i < size; i++) {
+          result[i] = evaluate(rowMeta, batch.getRow(i));
+        }
+      }
+      return;
+    }
+
+    children.get(0).evaluate(batch, result);
+
+    boolean[] other = null;
+    for (int c = 1; c < children.size(); c++) {
+      Condition cb = children.get(c);
+      if (cb.isColumnar(batch)) {
+        if (other == null) {
+          other = new boolean[size];
+        }
+        cb.evaluate(batch, other);
+        for (int i = 0; i < size; i++) {
+          switch (cb.getOperator()) {
+            case OR:
+              result[i] = result[i] || other[i];
+              break;
+            case AND:
+              result[i] = result[i] && other[i];
+              break;
+            case OR_NOT:
+              result[i] = result[i] || !other[i];
+              break;
+            case AND_NOT:
+              result[i] = result[i] && !other[i];
+              break;
+            case XOR:
+              result[i] = result[i] ^ other[i];
+              break;
+            default:
+              break;
+          }
+        }
+      } else {
+        // Row by row, only evaluating the rows for which the outcome isn't known yet
+        //
+        for (int i = 0; i < size; i++) {
+          switch (cb.getOperator()) {
+            case OR:
+              result[i] = result[i] || cb.evaluate(rowMeta, batch.getRow(i));
+              break;
+            case AND:
+              result[i] = result[i] && cb.evaluate(rowMeta, batch.getRow(i));
+              break;
+            case OR_NOT:
+              result[i] = result[i] || (!cb.evaluate(rowMeta, batch.getRow(i)));
+              break;
+            case AND_NOT:
+              result[i] = result[i] && (!cb.evaluate(rowMeta, batch.getRow(i)));
+              break;
+            case XOR:
+              result[i] = result[i] ^ cb.evaluate(rowMeta, batch.getRow(i));
+              break;
+            default:
+              break;
+          }
+        }
+      }
+    }
+
+    if (isNegated()) {
+      for (int i = 0; i < size; i++) {
+        result[i] = !result[i];
+      }
+    }
+  }
+
+  /**
+   * @return true if this condition and all its sub-conditions can be evaluated on the column
+   *     vectors of the batch
+   */
+  private boolean isColumnar(ColumnarRowBatch batch) {
+    if (isAtomic()) {
+      return function == TRUE || prepareColumns(batch) != null;
+    }
+    for (Condition child : children) {
+      if (!child.isColumnar(batch)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Evaluate an atomic condition on the column vectors of a batch.
+   *
+   * @return false if this condition can't be evaluated on the column vectors
+   */
+  private boolean evaluateColumns(ColumnarRowBatch batch, boolean[] result) {
+    int size = batch.size();
+    if (function == TRUE) {
+      Arrays.fill(result, 0, size, !negated);
+      return true;
+    }
+    ColumnComparison comparison = prepareColumns(batch);
+    if (comparison == null) {
+      return false;
+    }
+    IColumnVector left = comparison.left;
+    IColumnVector right = comparison.right;
+
+    if (function == NULL || function == NOT_NULL) {
+      for (int i = 0; i < size; i++) {
+        result[i] = left.isNull(i) == (function == NULL);
+      }
+    } else {
+      int[] cmp = compareColumns(comparison, size);
+      for (int i = 0; i < size; i++) {
+        boolean leftNull = left.isNull(i);
+        boolean rightNull = right != null && right.isNull(i);
+        if (leftNull || rightNull) {
+          // Same as IValueMeta.compare(): null is smaller than any value
+          cmp[i] = leftNull ? (rightNull ? 0 : -1) : 1;
+        }
+        switch (function) {
+          case EQUAL:
+            result[i] = cmp[i] == 0;
+            break;
+          case NOT_EQUAL:
+            result[i] = cmp[i] != 0;
+            break;
+          case SMALLER:
+            result[i] = !leftNull && cmp[i] < 0;
+            break;
+          case SMALLER_EQUAL:
+            result[i] = !leftNull && cmp[i] <= 0;
+            break;
+          case LARGER:
+            result[i] = cmp[i] > 0;
+            break;
+          case LARGER_EQUAL:
+            result[i] = cmp[i] >= 0;
+            break;
+          default:
+            return false;
+        }
+      }
+    }
+
+    if (negated) {
+      for (int i = 0; i < size; i++) {
+        result[i] = !result[i];
+      }
+    }
+    return true;
+  }
+
+  private static int[] compareColumns(ColumnComparison comparison, int size) {
+    int[] cmp = new int[size];
+    if (comparison.left instanceof LongColumnVector left) {
+      long[] values = left.getValues();
+      if (comparison.right instanceof LongColumnVector right) {
+        long[] values2 = right.getValues();
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Long.compare(values[i], values2[i]);
+        }
+      } else {
+        long constant = (Long) comparison.constant;
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Long.compare(values[i], constant);
+        }
+      }
+    } else if (comparison.left instanceof DoubleColumnVector left) {
+      double[] values = left.getValues();
+      if (comparison.right instanceof DoubleColumnVector right) {
+        double[] values2 = right.getValues();
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Double.compare(values[i], values2[i]);
+        }
+      } else {
+        double constant = (Double) comparison.constant;
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Double.compare(values[i], constant);
+        }
+      }
+    } else if (comparison.left instanceof BooleanColumnVector left) {
+      boolean[] values = left.getValues();
+      if (comparison.right instanceof BooleanColumnVector right) {
+        boolean[] values2 = right.getValues();
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Boolean.compare(values[i], values2[i]);
+        }
+      } else {
+        boolean constant = (Boolean) comparison.constant;
+        for (int i = 0; i < size; i++) {
+          cmp[i] = Boolean.compare(values[i], constant);
+        }
+      }
+    }
+    return cmp;
+  }
+
+  /**
+   * Look up the columns (and the constant) this atomic condition compares. Only the simple
+   * comparisons of plain Integer, Number and Boolean values are supported, giving the exact same
+   * result as evaluating the condition row by row.
+   *
+   * @return The columns to compare or null if this condition needs to be evaluated row by row
+   */
+  private ColumnComparison prepareColumns(ColumnarRowBatch batch) {
+    switch (function) {
+      case EQUAL, NOT_EQUAL, SMALLER, SMALLER_EQUAL, LARGER, LARGER_EQUAL, NULL, NOT_NULL:
+        break;
+      default:
+        return null;
+    }
+    IRowMeta rowMeta = batch.getRowMeta();
+    if (StringUtils.isNotEmpty(leftValueName)) {
+      leftFieldIndex = rowMeta.indexOfValue(leftValueName);
+    }
+    if (StringUtils.isNotEmpty(rightValueName)) {
+      rightFieldIndex = rowMeta.indexOfValue(rightValueName);
+      rightValue = null;
+    }
+    if (leftFieldIndex < 0) {
+      return null;
+    }
+    IValueMeta leftMeta = rowMeta.getValueMeta(leftFieldIndex);
+    if (!isColumnarType(leftMeta)) {
+      return null;
+    }
+    ColumnComparison comparison = new ColumnComparison();
+    comparison.left = batch.getColumn(leftFieldIndex);
+    if (comparison.left instanceof ObjectColumnVector) {
+      // Data which doesn't match its metadata
+      return null;
+    }
+    if (function == NULL || function == NOT_NULL) {
+      return comparison;
+    }
+
+    try {
+      if (rightFieldIndex >= 0) {
+        IValueMeta rightMeta = rowMeta.getValueMeta(rightFieldIndex);
+        if (rightMeta.getType() != leftMeta.getType() || !isColumnarType(rightMeta)) {
+          return null;
+        }
+        comparison.right = batch.getColumn(rightFieldIndex);
+        if (comparison.right.getClass() != comparison.left.getClass()) {
+          return null;
+        }
+      } else if (rightFieldIndex == -2 && rightValue != null) {
+        Object constant = rightValue.createValueData();
+        if (constant == null) {
+          return null;
+        }
+        comparison.constant = leftMeta.convertData(rightValue.createValueMeta(), constant);
+        if (comparison.constant == null) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    } catch (HopException e) {
+      // Let the row by row evaluation report the problem
+      return null;
+    }
+    return comparison;
+  }
+
+  private static boolean isColumnarType(IValueMeta valueMeta) {
+    // Other implementations of these types, custom comparators or collation rules can have a
+    // different way of comparing values: the same restrictions as for binary sort keys.
+    Class<?> valueMetaClass = valueMeta.getClass();
+    return (valueMetaClass == ValueMetaInteger.class
+            || valueMetaClass == ValueMetaNumber.class
+            || valueMetaClass == ValueMetaBoolean.class)
+        && SortKeyEncoder.isSupported(valueMeta)
+        && valueMeta.isStorageNormal()
+        && !valueMeta.isSortedDescending();
+  }
+
+  /** The columns an atomic condition compares, the right column is null for a constant. */
+  private static final class ColumnComparison {
+    private IColumnVector left;
+    private IColumnVector right;
+    private Object constant;
+  }
+
   public void addCondition(Condition cb) {
     if (isAtomic() && getLeftValueName() != null) {
       /*
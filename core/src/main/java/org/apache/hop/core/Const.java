@@ -176,6 +176,50 @@ public class Const {
       description = "A comma separated list pointing to folders with JDBC drivers to add.")
   public static final String HOP_SHARED_JDBC_FOLDERS = "HOP_SHARED_JDBC_FOLDERS";
 
+  /** Set this variable to Y to re-use database connections through a connection pool */
+  @Variable(
+      value = "N",
+      description =
+          "Set this variable to 'Y' to re-use database connections through a connection pool which is shared by all the pipelines and workflows running in the same JVM. Closed connections are kept open to be handed out again for the same database, URL and user.")
+  public static final String HOP_DATABASE_CONNECTION_POOLING = "HOP_DATABASE_CONNECTION_POOLING";
+
+  /** The maximum number of idle connections kept in the pool per database */
+  @Variable(
+      value = "8",
+      description =
+          "The maximum number of idle connections the database connection pool keeps open per database, URL and user.")
+  public static final String HOP_DATABASE_POOL_MAX_IDLE = "HOP_DATABASE_POOL_MAX_IDLE";
+
+  /** The time after which an idle pooled connection is closed (ms) */
+  @Variable(
+      value = "600000",
+      description =
+          "The time in milliseconds after which an idle connection in the database connection pool is closed.")
+  public static final String HOP_DATABASE_POOL_IDLE_TIMEOUT = "HOP_DATABASE_POOL_IDLE_TIMEOUT";
+
+  /** The maximum lifetime of a pooled connection (ms) */
+  @Variable(
+      value = "1800000",
+      description =
+          "The maximum time in milliseconds a connection in the database connection pool is used, after which it is closed and replaced by a new connection. Use 0 for no limit.")
+  public static final String HOP_DATABASE_POOL_MAX_LIFETIME = "HOP_DATABASE_POOL_MAX_LIFETIME";
+
+  /** The time after which a connection which is not given back to the pool is reported (ms) */
+  @Variable(
+      value = "0",
+      description =
+          "The time in milliseconds after which a connection which isn't given back to the database connection pool is logged as a possible leak, with the stack trace of where it was taken from the pool. Use 0 to disable leak detection.")
+  public static final String HOP_DATABASE_POOL_LEAK_DETECTION_THRESHOLD =
+      "HOP_DATABASE_POOL_LEAK_DETECTION_THRESHOLD";
+
+  /** The number of prepared statements row driven SQL transforms keep per connection */
+  @Variable(
+      value = "0",
+      description =
+          "The number of prepared statements which row driven SQL transforms like 'Dynamic SQL row' and 'Execute row SQL script' keep open per connection, to re-use for repeated SQL. The least recently used statement is closed when the cache is full. The cache is disabled by default (0).")
+  public static final String HOP_DATABASE_STATEMENT_CACHE_SIZE =
+      "HOP_DATABASE_STATEMENT_CACHE_SIZE";
+
   /** The operating system the hop platform runs on */
   @Variable(
       scope = VariableScope.SYSTEM,
@@ -661,6 +705,16 @@ public class Const {
           "Set this variable to 'Y' if you want to test a more efficient batching row set.")
   public static final String HOP_BATCHING_ROWSET = "HOP_BATCHING_ROWSET";
 
+  /**
+   * Set this variable to N if you want to disable the lock-free row set which is used on hops
+   * between a single copy of one transform and a single copy of another. (default = Y)
+   */
+  @Variable(
+      value = "Y",
+      description =
+          "Set this variable to 'N' to disable the lock-free single producer/single consumer row set used on hops between one transform copy and one other transform copy.")
+  public static final String HOP_SPSC_ROWSET = "HOP_SPSC_ROWSET";
+
   /**
    * Set this variable to limit max number of files the Text File Output transform can have open at
    * one time.
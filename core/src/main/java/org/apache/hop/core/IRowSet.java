@@ -17,6 +17,7 @@
 
 package org.apache.hop.core;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.row.IRowMeta;
 
@@ -44,6 +45,50 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a batch of rows to this rowset. All rows share the same description (metadata).
+   * Implementations can hand over the rows in one go to lower the synchronization overhead per row.
+   * If the buffer is full, wait (block) for a period of time defined in this call.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the rows of data
+   * @param time The number of units of time
+   * @param tu The unit of time to use
+   * @return the number of rows, counting from the start of the list, which were added to the
+   *     rowset.
+   */
+  default int putRowsWait(IRowMeta rowMeta, List<Object[]> rows, long time, TimeUnit tu) {
+    int nrPut = 0;
+    for (Object[] row : rows) {
+      if (!putRowWait(rowMeta, row, time, tu)) {
+        break;
+      }
+      nrPut++;
+    }
+    return nrPut;
+  }
+
+  /**
+   * Get the rows which are available immediately, up to a maximum number of rows. This method
+   * doesn't wait for new rows to arrive.
+   *
+   * @param rows the list to add the rows to
+   * @param maxRows the maximum number of rows to get
+   * @return the number of rows added to the list.
+   */
+  default int getRowsImmediate(List<Object[]> rows, int maxRows) {
+    int nrGot = 0;
+    while (nrGot < maxRows) {
+      Object[] row = getRowImmediate();
+      if (row == null) {
+        break;
+      }
+      rows.add(row);
+      nrGot++;
+    }
+    return nrGot;
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -131,6 +176,14 @@ public interface IRowSet {
    */
   boolean isBlocking();
 
+  /**
+   * @return true if putting and getting rows doesn't involve locking. Transforms don't need to
+   *     throttle themselves to limit the lock contention on such a row set.
+   */
+  default boolean isLockFree() {
+    return false;
+  }
+
   /** Clear this rowset: remove all rows and remove the "done" flag. */
   void clear();
 }
@@ -0,0 +1,409 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A lock-free row buffer for exactly one writing thread and one reading thread. The rows are kept
+ * in a ring buffer, the read and write positions are padded to avoid false sharing between the
+ * producing and consuming transform copies.
+ *
+ * <p>When the buffer is full (on put) or empty (on get) the calling thread spins for a short while
+ * and then parks. The other side unparks it as soon as it made space available, published new rows
+ * or flagged the row set as done, so waiting transforms don't use any CPU and wake up immediately.
+ * Otherwise a waiting thread only wakes up when the timeout given by the caller passed.
+ *
+ * <p>This row set is only safe to use if a single thread puts rows and a single thread gets rows.
+ * The pipeline uses it for hops between one copy of a transform and one copy of another.
+ */
+public class SpscRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+  private static final int SPIN_TRIES = 100;
+
+  private static final VarHandle WAITING_PRODUCER;
+  private static final VarHandle WAITING_CONSUMER;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      WAITING_PRODUCER =
+          lookup.findVarHandle(SpscRowSet.class, "waitingProducer", Thread.class);
+      WAITING_CONSUMER =
+          lookup.findVarHandle(SpscRowSet.class, "waitingConsumer", Thread.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Object[][] buffer;
+  private final int mask;
+  private final int capacity;
+
+  /** The next position to write to, only modified by the producer */
+  private final Sequence putSequence;
+
+  /** The next position to read from, only modified by the consumer */
+  private final Sequence getSequence;
+
+  /** The producer's last known read position, avoids reading the consumer's sequence every row */
+  private long putLimitCache;
+
+  /** The consumer's last known write position, avoids reading the producer's sequence every row */
+  private long getLimitCache;
+
+  /** The producer thread parked until space becomes available, null if it isn't waiting */
+  private volatile Thread waitingProducer;
+
+  /** The consumer thread parked until rows become available, null if it isn't waiting */
+  private volatile Thread waitingConsumer;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create new lock-free single producer / single consumer row set with maxSize capacity.
+   *
+   * @param maxSize the maximum number of rows in this row set
+   */
+  public SpscRowSet(int maxSize) {
+    super();
+
+    capacity = Math.max(1, maxSize);
+    int bufferSize = Integer.highestOneBit(capacity);
+    if (bufferSize < capacity) {
+      bufferSize <<= 1;
+    }
+    buffer = new Object[bufferSize][];
+    mask = bufferSize - 1;
+
+    putSequence = new Sequence();
+    getSequence = new Sequence();
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      // Same behavior as the blocking queue based row set
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    if (offer(rowData)) {
+      return true;
+    }
+    for (int i = 0; i < SPIN_TRIES; i++) {
+      Thread.onSpinWait();
+      if (offer(rowData)) {
+        return true;
+      }
+    }
+
+    // Park until the consumer signals that space is available
+    //
+    long deadline = System.nanoTime() + tu.toNanos(time);
+    try {
+      while (true) {
+        waitingProducer = Thread.currentThread();
+        VarHandle.fullFence();
+        if (offer(rowData)) {
+          return true;
+        }
+        if (!park(deadline)) {
+          return false;
+        }
+      }
+    } finally {
+      waitingProducer = null;
+    }
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return poll();
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    Object[] row = poll();
+    if (row != null) {
+      return row;
+    }
+    for (int i = 0; i < SPIN_TRIES; i++) {
+      Thread.onSpinWait();
+      row = poll();
+      if (row != null) {
+        return row;
+      }
+    }
+
+    // Park until the producer signals that rows are available
+    //
+    long deadline = System.nanoTime() + tu.toNanos(timeout);
+    try {
+      while (true) {
+        waitingConsumer = Thread.currentThread();
+        VarHandle.fullFence();
+        row = poll();
+        if (row != null) {
+          return row;
+        }
+        if (isDone()) {
+          // The rows put before the row set was flagged as done are visible now
+          return poll();
+        }
+        if (!park(deadline)) {
+          return null;
+        }
+      }
+    } finally {
+      waitingConsumer = null;
+    }
+  }
+
+  /** Writes as many rows as fit in the buffer and publishes them in one go. */
+  @Override
+  public int putRowsWait(IRowMeta rowMeta, List<Object[]> rows, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+
+    int nrPut = offer(rows, 0);
+    if (nrPut == rows.size()) {
+      return nrPut;
+    }
+    long deadline = System.nanoTime() + tu.toNanos(time);
+    try {
+      while (true) {
+        waitingProducer = Thread.currentThread();
+        VarHandle.fullFence();
+        nrPut += offer(rows, nrPut);
+        if (nrPut == rows.size() || !park(deadline)) {
+          return nrPut;
+        }
+      }
+    } finally {
+      waitingProducer = null;
+    }
+  }
+
+  @Override
+  public int getRowsImmediate(List<Object[]> rows, int maxRows) {
+    long get = getSequence.getPlain();
+    if (get >= getLimitCache) {
+      getLimitCache = putSequence.getAcquire();
+    }
+    int nrGot = (int) Math.min(getLimitCache - get, maxRows);
+    for (int i = 0; i < nrGot; i++) {
+      int index = (int) (get + i) & mask;
+      rows.add(buffer[index]);
+      buffer[index] = null; // prevent any hold-up to GC
+    }
+    if (nrGot > 0) {
+      getSequence.setRelease(get + nrGot);
+      signal(WAITING_PRODUCER);
+    }
+    return Math.max(nrGot, 0);
+  }
+
+  private int offer(List<Object[]> rows, int offset) {
+    long put = putSequence.getPlain();
+    int wanted = rows.size() - offset;
+    if (put + wanted - putLimitCache > capacity) {
+      putLimitCache = getSequence.getAcquire();
+    }
+    int nrPut = (int) Math.min(wanted, capacity - (put - putLimitCache));
+    for (int i = 0; i < nrPut; i++) {
+      Object[] row = rows.get(offset + i);
+      if (row == null) {
+        // Same behavior as the blocking queue based row set: stop at a null row
+        nrPut = i;
+        break;
+      }
+      buffer[(int) (put + i) & mask] = row;
+    }
+    if (nrPut > 0) {
+      putSequence.setRelease(put + nrPut);
+      signal(WAITING_CONSUMER);
+    }
+    return Math.max(nrPut, 0);
+  }
+
+  private boolean offer(Object[] rowData) {
+    long put = putSequence.getPlain();
+    if (put - putLimitCache >= capacity) {
+      putLimitCache = getSequence.getAcquire();
+      if (put - putLimitCache >= capacity) {
+        return false;
+      }
+    }
+    buffer[(int) put & mask] = rowData;
+    putSequence.setRelease(put + 1);
+    signal(WAITING_CONSUMER);
+    return true;
+  }
+
+  private Object[] poll() {
+    long get = getSequence.getPlain();
+    if (get >= getLimitCache) {
+      getLimitCache = putSequence.getAcquire();
+      if (get >= getLimitCache) {
+        return null;
+      }
+    }
+    int index = (int) get & mask;
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+    getSequence.setRelease(get + 1);
+    signal(WAITING_PRODUCER);
+    return row;
+  }
+
+  /**
+   * Wake up the other side if it is parked. A waiting thread first announces itself, then fences
+   * and checks the buffer once more before it parks. Here the fence orders the update of the buffer
+   * before reading the announcement (Dekker style): either the waiter sees the update or we see the
+   * waiter, so a signal is never lost. Only when somebody waits it costs an unpark.
+   */
+  private void signal(VarHandle waiting) {
+    VarHandle.fullFence();
+    if (waiting.getOpaque(this) != null) {
+      Thread thread = (Thread) waiting.getAndSet(this, null);
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  /**
+   * Park the current thread until it is signalled or until the deadline passed.
+   *
+   * @param deadline the System.nanoTime() after which we give up
+   * @return true if another attempt should be made, false if we timed out or got interrupted.
+   */
+  private boolean park(long deadline) {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      return false;
+    }
+    LockSupport.parkNanos(this, remaining);
+    // Consume the interrupt like the blocking queue based row set does. If we left the flag set,
+    // every following wait would return at once and the caller would spin at full CPU.
+    //
+    return !Thread.interrupted();
+  }
+
+  /** Flag the row set as done and wake up the consumer if it waits for rows. */
+  @Override
+  public void setDone() {
+    super.setDone();
+    signal(WAITING_CONSUMER);
+  }
+
+  @Override
+  public boolean isLockFree() {
+    return true;
+  }
+
+  @Override
+  public int size() {
+    long size = putSequence.getAcquire() - getSequence.getAcquire();
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+
+  @Override
+  public void clear() {
+    long get = getSequence.getPlain();
+    long put = putSequence.getAcquire();
+    for (long i = get; i < put; i++) {
+      buffer[(int) i & mask] = null;
+    }
+    getSequence.setRelease(put);
+    getLimitCache = put;
+    putLimitCache = put;
+    done.set(false);
+  }
+
+  /** Padding to the left of the sequence value */
+  @SuppressWarnings("unused")
+  private static class LeftPadding {
+    protected long p1;
+    protected long p2;
+    protected long p3;
+    protected long p4;
+    protected long p5;
+    protected long p6;
+    protected long p7;
+  }
+
+  private static class SequenceValue extends LeftPadding {
+    protected volatile long value;
+  }
+
+  /** A position in the ring buffer, padded to its own cache line. */
+  @SuppressWarnings("unused")
+  private static final class Sequence extends SequenceValue {
+    private static final VarHandle VALUE;
+
+    static {
+      try {
+        VALUE =
+            MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    protected long p9;
+    protected long p10;
+    protected long p11;
+    protected long p12;
+    protected long p13;
+    protected long p14;
+    protected long p15;
+
+    long getPlain() {
+      return (long) VALUE.get(this);
+    }
+
+    long getAcquire() {
+      return (long) VALUE.getAcquire(this);
+    }
+
+    void setRelease(long newValue) {
+      VALUE.setRelease(this, newValue);
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A bulk loader which sends the rows as CSV: fields separated by a comma, strings enclosed in
+ * double quotes with embedded quotes doubled and rows ending with a newline. Null values are
+ * written as an unquoted null marker which differs per database. Booleans are written as 1 or 0
+ * for databases with a boolean data type and as Y or N otherwise, the same as the values bound in
+ * regular inserts. The rows are encoded in a buffer which is handed to the database whenever it's
+ * full.
+ */
+public abstract class BaseCsvBulkLoader implements IBulkLoader {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final IRowMeta rowMeta;
+  private final String nullValue;
+  private final boolean booleanDataType;
+  private final CharsetEncoder encoder;
+  private final StringBuilder text;
+  private final ByteBuffer bytes;
+  private final SimpleDateFormat dateFormat;
+
+  private long rows;
+  private boolean finished;
+
+  /**
+   * @param rowMeta The layout of the rows to load
+   * @param charset The character set to send the rows in
+   * @param nullValue The text representing a null value
+   * @param booleanDataType true if the database has a boolean data type, false to load booleans as
+   *     Y or N
+   */
+  protected BaseCsvBulkLoader(
+      IRowMeta rowMeta, Charset charset, String nullValue, boolean booleanDataType) {
+    this.rowMeta = rowMeta;
+    this.nullValue = nullValue;
+    this.booleanDataType = booleanDataType;
+    this.encoder = charset.newEncoder();
+    this.text = new StringBuilder(BUFFER_SIZE);
+    this.bytes = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()) + 1024);
+    this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+  }
+
+  /**
+   * See if rows with the given layout can be loaded as CSV: only strings, numbers, booleans and
+   * dates are supported.
+   *
+   * @param rowMeta The layout of the rows
+   * @return true if the rows can be loaded
+   */
+  public static boolean isSupported(IRowMeta rowMeta) {
+    for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+      switch (valueMeta.getType()) {
+        case IValueMeta.TYPE_STRING,
+            IValueMeta.TYPE_INTEGER,
+            IValueMeta.TYPE_NUMBER,
+            IValueMeta.TYPE_BIGNUMBER,
+            IValueMeta.TYPE_BOOLEAN,
+            IValueMeta.TYPE_DATE,
+            IValueMeta.TYPE_TIMESTAMP:
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void addRow(Object[] row) throws HopDatabaseException {
+    try {
+      for (int i = 0; i < rowMeta.size(); i++) {
+        if (i > 0) {
+          text.append(',');
+        }
+        appendValue(rowMeta.getValueMeta(i), row[i]);
+      }
+      text.append('\n');
+    } catch (HopValueException e) {
+      throw new HopDatabaseException("Unable to convert a row for the bulk load", e);
+    }
+    rows++;
+    if (text.length() >= BUFFER_SIZE) {
+      flush();
+    }
+  }
+
+  private void appendValue(IValueMeta valueMeta, Object value) throws HopValueException {
+    if (valueMeta.isNull(value)) {
+      text.append(nullValue);
+      return;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        text.append(valueMeta.getInteger(value).longValue());
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        text.append(valueMeta.getNumber(value).doubleValue());
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal bigNumber = valueMeta.getBigNumber(value);
+        text.append(bigNumber.toPlainString());
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        boolean bool = Boolean.TRUE.equals(valueMeta.getBoolean(value));
+        if (booleanDataType) {
+          text.append(bool ? '1' : '0');
+        } else {
+          text.append(bool ? 'Y' : 'N');
+        }
+        break;
+      case IValueMeta.TYPE_DATE, IValueMeta.TYPE_TIMESTAMP:
+        Date date = valueMeta.getDate(value);
+        if (date instanceof Timestamp timestamp) {
+          text.append(timestamp);
+        } else {
+          text.append(dateFormat.format(date));
+        }
+        break;
+      default:
+        String string = valueMeta.getString(value);
+        text.append('"');
+        for (int i = 0; i < string.length(); i++) {
+          char c = string.charAt(i);
+          if (c == '"') {
+            text.append('"');
+          }
+          text.append(c);
+        }
+        text.append('"');
+        break;
+    }
+  }
+
+  /** Encode the buffered rows and hand them to the database */
+  private void flush() throws HopDatabaseException {
+    if (text.length() == 0) {
+      return;
+    }
+    encoder.reset();
+    CharBuffer chars = CharBuffer.wrap(text);
+    boolean encoding = true;
+    boolean done = false;
+    while (!done) {
+      bytes.clear();
+      CoderResult result = encoding ? encoder.encode(chars, bytes, true) : encoder.flush(bytes);
+      if (result.isError()) {
+        throw new HopDatabaseException(
+            "Unable to encode the rows for the bulk load: " + result.toString());
+      }
+      if (result.isUnderflow()) {
+        if (encoding) {
+          // All characters are encoded, flush the encoder into the remaining space
+          //
+          encoding = false;
+          result = encoder.flush(bytes);
+        }
+        done = result.isUnderflow();
+      }
+      if (bytes.position() > 0) {
+        writeData(bytes.array(), bytes.position());
+      }
+    }
+    text.setLength(0);
+  }
+
+  @Override
+  public long finish() throws HopDatabaseException {
+    flush();
+    long loaded = endLoad();
+    finished = true;
+    return loaded < 0 ? rows : loaded;
+  }
+
+  @Override
+  public void close() {
+    if (!finished) {
+      finished = true;
+      abortLoad();
+    }
+  }
+
+  /**
+   * Gets the number of rows added
+   *
+   * @return The number of rows added
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Hand a block of encoded rows to the database.
+   *
+   * @param data The encoded rows
+   * @param length The number of bytes to send
+   * @throws HopDatabaseException In case the data can't be sent
+   */
+  protected abstract void writeData(byte[] data, int length) throws HopDatabaseException;
+
+  /**
+   * All rows are sent, wait until they are loaded.
+   *
+   * @return The number of rows loaded according to the database or -1 if it isn't known
+   * @throws HopDatabaseException In case the rows couldn't be loaded
+   */
+  protected abstract long endLoad() throws HopDatabaseException;
+
+  /** Cancel the load, the rows sent so far are not loaded */
+  protected abstract void abortLoad();
+}
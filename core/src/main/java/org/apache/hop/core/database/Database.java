@@ -21,6 +21,9 @@ import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.BatchUpdateException;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -38,13 +41,16 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
@@ -130,6 +136,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   private PreparedStatement pstmtSeq;
   private CallableStatement cstmt;
 
+  /** The prepared statements kept open for repeated SQL, null if statements are not cached */
+  private PreparedStatementCache statementCache;
+
   private DatabaseMetaData dbmd;
 
   private IRowMeta rowMeta;
@@ -459,11 +468,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
               url += ";instanceName=" + instance;
             }
           }
-          connection = DriverManager.getConnection(url, properties);
-        } else {
-          // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
         }
+        // else: perhaps the username is in the URL or no username is required...
       } else {
         if (!Utils.isEmpty(username)) {
           properties.put("user", username);
@@ -471,15 +477,167 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         if (!Utils.isEmpty(password)) {
           properties.put("password", password);
         }
-
-        connection = DriverManager.getConnection(url, properties);
       }
+
+      connection = openConnection(classname, url, properties);
     } catch (Exception e) {
       throw new HopDatabaseException(
           "Error connecting to database: (using class " + classname + ")", e);
     }
   }
 
+  /**
+   * Open a new connection or, if connection pooling is enabled, get one from the pool.
+   *
+   * @see Const#HOP_DATABASE_CONNECTION_POOLING
+   */
+  private Connection openConnection(String classname, String url, Properties properties)
+      throws SQLException {
+    if (!isUsingConnectionPool()) {
+      return DriverManager.getConnection(url, properties);
+    }
+
+    // Connections can be shared for the same driver, URL and properties (user, password, ...)
+    // The connect SQL can change the session (schema, time zone, ...) so it is part of the key.
+    //
+    String key =
+        getConnectionPoolKey(classname, url, properties, resolve(databaseMeta.getConnectSql()));
+
+    DatabaseConnectionPool.Settings settings =
+        new DatabaseConnectionPool.Settings(
+            Const.toInt(getVariable(Const.HOP_DATABASE_POOL_MAX_IDLE), 8),
+            Const.toLong(getVariable(Const.HOP_DATABASE_POOL_IDLE_TIMEOUT), 600000L),
+            Const.toLong(getVariable(Const.HOP_DATABASE_POOL_MAX_LIFETIME), 1800000L),
+            Const.toLong(getVariable(Const.HOP_DATABASE_POOL_LEAK_DETECTION_THRESHOLD), 0L));
+
+    return DatabaseConnectionPool.getInstance()
+        .getConnection(
+            key,
+            databaseMeta.getName(),
+            settings,
+            () -> DriverManager.getConnection(url, properties));
+  }
+
+  /**
+   * Get the key of the connections which can be shared in the pool. The URL and properties can hold
+   * credentials, so the key only contains a hash of them.
+   *
+   * @param classname The class of the driver
+   * @param url The URL to connect to
+   * @param properties The connection properties, including the user and password
+   * @param connectSql The resolved SQL executed after connecting, can be null
+   * @return The key
+   */
+  static String getConnectionPoolKey(
+      String classname, String url, Properties properties, String connectSql) {
+    TreeMap<Object, Object> sortedProperties = new TreeMap<>(Comparator.comparing(String::valueOf));
+    sortedProperties.putAll(properties);
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash =
+          digest.digest(
+              (url + "|" + sortedProperties + "|" + Const.NVL(connectSql, ""))
+                  .getBytes(StandardCharsets.UTF_8));
+      return classname + "|" + HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform supports SHA-256
+      throw new IllegalStateException("Unable to calculate the connection pool key", e);
+    }
+  }
+
+  /**
+   * @return true if connections are taken from the JVM wide connection pool
+   */
+  public boolean isUsingConnectionPool() {
+    return ValueMetaBase.convertStringToBoolean(
+        Const.NVL(getVariable(Const.HOP_DATABASE_CONNECTION_POOLING), "N"));
+  }
+
+  /**
+   * Keep up to the given number of prepared statements open to re-use them when the same SQL is
+   * executed again with {@link #openQuery(String, IRowMeta, Object[])} or {@link
+   * #execStatement(String, IRowMeta, Object[])}. Statements without parameters are prepared as well
+   * while the cache is enabled.
+   * An open result set of a cached statement is closed when the same SQL is executed again. The
+   * cache is disabled by default and is cleared after DDL executed through this connection.
+   *
+   * @param size The maximum number of cached statements, 0 to disable the cache
+   * @see Const#HOP_DATABASE_STATEMENT_CACHE_SIZE
+   */
+  public void setStatementCacheSize(int size) {
+    clearStatementCache();
+    statementCache = size > 0 ? new PreparedStatementCache(size) : null;
+  }
+
+  /**
+   * @return The cache of prepared statements or null if statements are not cached
+   */
+  public PreparedStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /** Close all the statements in the cache, for example because the tables they use changed. */
+  public void clearStatementCache() {
+    if (statementCache == null) {
+      return;
+    }
+    if (log.isDetailed() && statementCache.getHits() + statementCache.getMisses() > 0) {
+      log.logDetailed(
+          "Prepared statement cache: "
+              + statementCache.getHits()
+              + " hits, "
+              + statementCache.getMisses()
+              + " misses, "
+              + statementCache.getEvictions()
+              + " evictions");
+    }
+    try {
+      statementCache.clear();
+    } catch (SQLException ex) {
+      // cannot do anything about this but log it
+      log.logError("Error closing cached statement:" + Const.CR + ex.getMessage());
+      log.logError(Const.getStackTracker(ex));
+    }
+  }
+
+  /** Get a statement from the cache, recording hits, misses and evictions as metrics. */
+  private PreparedStatement getCachedStatement(
+      String sql, PreparedStatementCache.IStatementFactory factory) throws SQLException {
+    long misses = statementCache.getMisses();
+    long evictions = statementCache.getEvictions();
+    PreparedStatement statement = statementCache.get(sql, sql, factory);
+    if (statementCache.getMisses() == misses) {
+      log.snap(Metrics.METRIC_DATABASE_STATEMENT_CACHE_HIT, databaseMeta.getName());
+    } else {
+      log.snap(Metrics.METRIC_DATABASE_STATEMENT_CACHE_MISS, databaseMeta.getName());
+    }
+    if (statementCache.getEvictions() != evictions) {
+      log.snap(Metrics.METRIC_DATABASE_STATEMENT_CACHE_EVICTION, databaseMeta.getName());
+    }
+    return statement;
+  }
+
+  /**
+   * SQL without parameters is only prepared if it has no question marks, which some databases use
+   * as operators rather than parameter markers.
+   */
+  private boolean useStatementCache(String sql, IRowMeta params) {
+    return statementCache != null && (params != null || sql.indexOf('?') < 0);
+  }
+
+  /** Statements which change the definition of tables, views, indexes, sequences, ... */
+  private static boolean isDdl(String upperSql) {
+    return upperSql.startsWith("CREATE")
+        || upperSql.startsWith("ALTER")
+        || upperSql.startsWith("DROP")
+        || upperSql.startsWith("TRUNCATE")
+        || upperSql.startsWith("RENAME");
+  }
+
+  private boolean isCachedStatement(PreparedStatement statement) {
+    return statementCache != null && statementCache.isCached(statement);
+  }
+
   /** close() and disconnect() are the same. */
   @Override
   public synchronized void close() {
@@ -501,6 +659,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       log.logError(Const.getStackTracker(ex));
     }
 
+    clearStatementCache();
     if (pstmt != null) {
       try {
         pstmt.close();
@@ -599,7 +758,16 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   public synchronized void closeConnectionOnly() throws HopDatabaseException {
     try {
       if (connection != null) {
-        connection.close();
+        // Pooled connections are given back to the pool and stay open.
+        // The next user mustn't inherit our statements and open cursors.
+        //
+        DatabaseConnectionPool connectionPool = DatabaseConnectionPool.getInstance();
+        if (connectionPool.isActive(connection)) {
+          closeStatements();
+        }
+        if (!connectionPool.releaseConnection(connection)) {
+          connection.close();
+        }
         connection = null;
       }
 
@@ -611,6 +779,39 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /** Close all the statements which are still open on the connection */
+  private void closeStatements() {
+    clearStatementCache();
+    closeStatementQuietly(selStmt, "query");
+    selStmt = null;
+    closeStatementQuietly(pstmt, "prepared");
+    pstmt = null;
+    closeStatementQuietly(prepStatementLookup, "lookup");
+    prepStatementLookup = null;
+    closeStatementQuietly(prepStatementInsert, "insert");
+    prepStatementInsert = null;
+    closeStatementQuietly(prepStatementUpdate, "update");
+    prepStatementUpdate = null;
+    closeStatementQuietly(pstmtSeq, "seq");
+    pstmtSeq = null;
+    closeStatementQuietly(cstmt, "procedure");
+    cstmt = null;
+  }
+
+  private void closeStatementQuietly(Statement statement, String type) {
+    if (statement == null) {
+      return;
+    }
+    try {
+      if (!statement.isClosed()) {
+        statement.close();
+      }
+    } catch (SQLException ex) {
+      // cannot do anything about this but log it
+      log.logError("Error closing " + type + " statement:" + Const.CR + ex.getMessage());
+    }
+  }
+
   /**
    * Cancel the open/running queries on the database connection
    *
@@ -826,7 +1027,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   }
 
   public void closePreparedStatement(PreparedStatement ps) throws HopDatabaseException {
-    if (ps != null) {
+    if (isCachedStatement(ps)) {
+      statementCache.release(ps);
+    } else if (ps != null) {
       try {
         ps.close();
       } catch (SQLException e) {
@@ -1083,6 +1286,28 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     return ins.toString();
   }
 
+  /**
+   * Create a loader to stream rows into a table with the native bulk load mechanism of the
+   * database, in the current transaction of this connection.
+   *
+   * @param schemaName The schema of the table
+   * @param tableName The name of the table
+   * @param fields The layout of the rows, the names of the values are the column names
+   * @return The bulk loader
+   * @throws HopDatabaseException In case the database doesn't support bulk loading or in case the
+   *     load can't be started
+   * @see IDatabase#supportsBulkLoad(IRowMeta)
+   */
+  public IBulkLoader createBulkLoader(String schemaName, String tableName, IRowMeta fields)
+      throws HopDatabaseException {
+    String schemaTable = databaseMeta.getQuotedSchemaTableCombination(this, schemaName, tableName);
+    String[] columns = new String[fields.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = databaseMeta.quoteField(fields.getValueMeta(i).getName());
+    }
+    return databaseMeta.getIDatabase().createBulkLoader(connection, schemaTable, columns, fields);
+  }
+
   public void insertRow() throws HopDatabaseException {
     insertRow(prepStatementInsert);
   }
@@ -1349,7 +1574,19 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     try {
       boolean resultSet;
       int count;
-      if (params != null) {
+      if (useStatementCache(sql, params)) {
+        PreparedStatement prepStmt =
+            getCachedStatement(databaseMeta.stripCR(sql), connection::prepareStatement);
+        if (params != null) {
+          setValues(params, data, prepStmt); // set the parameters!
+        }
+        try {
+          resultSet = prepStmt.execute();
+          count = prepStmt.getUpdateCount();
+        } finally {
+          statementCache.release(prepStmt);
+        }
+      } else if (params != null) {
         PreparedStatement prepStmt = connection.prepareStatement(databaseMeta.stripCR(sql));
         setValues(params, data, prepStmt); // set the parameters!
         resultSet = prepStmt.execute();
@@ -1385,6 +1622,10 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           || upperSql.startsWith("CREATE TABLE")) {
         DbCache.getInstance().clear(databaseMeta.getName());
       }
+      if (isDdl(upperSql)) {
+        // Statements prepared against the old definitions might no longer be valid
+        clearStatementCache();
+      }
     } catch (SQLException ex) {
       throw new HopDatabaseException("Couldn't execute SQL: " + sql + Const.CR, ex);
     } catch (Exception e) {
@@ -1533,16 +1774,30 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     // Create a Statement
     try {
       log.snap(Metrics.METRIC_DATABASE_OPEN_QUERY_START, databaseMeta.getName());
-      if (params != null) {
+      boolean cached = useStatementCache(sql, params);
+      if (params != null || cached) {
         log.snap(Metrics.METRIC_DATABASE_PREPARE_SQL_START, databaseMeta.getName());
-        pstmt =
-            connection.prepareStatement(
-                databaseMeta.stripCR(sql), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        if (cached) {
+          pstmt =
+              getCachedStatement(
+                  databaseMeta.stripCR(sql),
+                  s ->
+                      connection.prepareStatement(
+                          s, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+        } else {
+          pstmt =
+              connection.prepareStatement(
+                  databaseMeta.stripCR(sql),
+                  ResultSet.TYPE_FORWARD_ONLY,
+                  ResultSet.CONCUR_READ_ONLY);
+        }
         log.snap(Metrics.METRIC_DATABASE_PREPARE_SQL_STOP, databaseMeta.getName());
 
-        log.snap(Metrics.METRIC_DATABASE_SQL_VALUES_START, databaseMeta.getName());
-        setValues(params, data); // set the dates etc!
-        log.snap(Metrics.METRIC_DATABASE_SQL_VALUES_STOP, databaseMeta.getName());
+        if (params != null) {
+          log.snap(Metrics.METRIC_DATABASE_SQL_VALUES_START, databaseMeta.getName());
+          setValues(params, data); // set the dates etc!
+          log.snap(Metrics.METRIC_DATABASE_SQL_VALUES_STOP, databaseMeta.getName());
+        }
 
         if (canWeSetFetchSize(pstmt)) {
           int maxRows = pstmt.getMaxRows();
@@ -2286,7 +2541,12 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         selStmt = null;
       }
       if (pstmt != null) {
-        pstmt.close();
+        // Cached statements stay open to be used again
+        if (isCachedStatement(pstmt)) {
+          statementCache.release(pstmt);
+        } else {
+          pstmt.close();
+        }
         pstmt = null;
       }
     } catch (SQLException ex) {
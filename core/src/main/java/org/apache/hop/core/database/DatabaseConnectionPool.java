@@ -0,0 +1,400 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.LogChannel;
+
+/**
+ * A pool of JDBC connections which is shared by everything running in the JVM: transforms,
+ * actions, pipelines executed on a Hop server, ... Connections are pooled per key, typically the
+ * driver class, URL, user name and password of the resolved database connection.
+ *
+ * <p>A connection which is given back is reset to the state it had when it was created
+ * (auto-commit, read-only, transaction isolation and catalog) and kept idle for the next user of
+ * the same key. The statements opened on it have to be closed before it is given back: {@link
+ * Database} does this for the statements it keeps open. Connections which were idle for a while
+ * are validated before they are handed out again. A housekeeping thread closes connections which
+ * were idle too long or exceed their maximum lifetime and reports connections which aren't given
+ * back in time.
+ */
+public class DatabaseConnectionPool {
+
+  /** Connections used more recently than this are handed out without validation (ms) */
+  private static final long VALIDATION_BYPASS_TIME = 500L;
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+  private static final long HOUSEKEEPING_INTERVAL = 30000L;
+
+  private static final DatabaseConnectionPool pool = new DatabaseConnectionPool();
+
+  private final ILogChannel log;
+
+  /** The idle connections per key, most recently used first */
+  private final Map<String, Deque<PooledConnection>> idleConnections;
+
+  /** The connections which are in use */
+  private final Map<Connection, PooledConnection> activeConnections;
+
+  private ScheduledExecutorService housekeeper;
+
+  /** Creates a new physical connection */
+  @FunctionalInterface
+  public interface IConnectionFactory {
+    Connection createConnection() throws SQLException;
+  }
+
+  /** The pool settings, taken from the variables of the database which asks for a connection */
+  public static class Settings {
+    private final int maxIdle;
+    private final long idleTimeout;
+    private final long maxLifetime;
+    private final long leakDetectionThreshold;
+
+    /**
+     * @param maxIdle The maximum number of idle connections to keep per key
+     * @param idleTimeout The time after which an idle connection is closed (ms), 0 for no limit
+     * @param maxLifetime The time after which a connection is closed (ms), 0 for no limit
+     * @param leakDetectionThreshold The time after which a connection in use is reported as a
+     *     possible leak (ms), 0 to disable
+     */
+    public Settings(int maxIdle, long idleTimeout, long maxLifetime, long leakDetectionThreshold) {
+      this.maxIdle = maxIdle;
+      this.idleTimeout = idleTimeout;
+      this.maxLifetime = maxLifetime;
+      this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getMaxIdle() {
+      return maxIdle;
+    }
+
+    public long getIdleTimeout() {
+      return idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+      return maxLifetime;
+    }
+
+    public long getLeakDetectionThreshold() {
+      return leakDetectionThreshold;
+    }
+  }
+
+  private static class PooledConnection {
+    private final String key;
+    private final String name;
+    private final Connection connection;
+    private final long creationTime;
+    private final boolean autoCommit;
+    private final boolean readOnly;
+    private final int transactionIsolation;
+    private final String catalog;
+
+    private Settings settings;
+    private long lastUsedTime;
+    private long borrowTime;
+    private Exception borrowStack;
+    private boolean leakReported;
+
+    PooledConnection(String key, String name, Connection connection, long now)
+        throws SQLException {
+      this.key = key;
+      this.name = name;
+      this.connection = connection;
+      this.creationTime = now;
+      this.lastUsedTime = now;
+      this.autoCommit = connection.getAutoCommit();
+      this.readOnly = connection.isReadOnly();
+      this.transactionIsolation = connection.getTransactionIsolation();
+      this.catalog = connection.getCatalog();
+    }
+
+    boolean isExpired(long now) {
+      return (settings.maxLifetime > 0 && now - creationTime >= settings.maxLifetime)
+          || (settings.idleTimeout > 0 && now - lastUsedTime >= settings.idleTimeout);
+    }
+
+    /** Undo what the previous user changed on the connection */
+    void reset() throws SQLException {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+      }
+      if (connection.getAutoCommit() != autoCommit) {
+        connection.setAutoCommit(autoCommit);
+      }
+      if (connection.isReadOnly() != readOnly) {
+        connection.setReadOnly(readOnly);
+      }
+      if (connection.getTransactionIsolation() != transactionIsolation) {
+        connection.setTransactionIsolation(transactionIsolation);
+      }
+      if (catalog != null && !catalog.equals(connection.getCatalog())) {
+        connection.setCatalog(catalog);
+      }
+      connection.clearWarnings();
+    }
+  }
+
+  private DatabaseConnectionPool() {
+    log = new LogChannel("Database connection pool");
+    idleConnections = new HashMap<>();
+    activeConnections = new IdentityHashMap<>();
+  }
+
+  public static DatabaseConnectionPool getInstance() {
+    return pool;
+  }
+
+  /**
+   * Get a connection from the pool. An idle connection with the same key is re-used if there is
+   * one, otherwise a new connection is created.
+   *
+   * @param key The key which identifies connections which can be used interchangeably
+   * @param name The name of the database connection, used for logging
+   * @param settings The pool settings
+   * @param factory Creates a new connection if there is no idle connection
+   * @return The connection. Give it back with {@link #releaseConnection(Connection)} instead of
+   *     closing it.
+   * @throws SQLException In case a new connection can't be created
+   */
+  public Connection getConnection(
+      String key, String name, Settings settings, IConnectionFactory factory) throws SQLException {
+    PooledConnection pooled;
+    while ((pooled = pollIdleConnection(key)) != null) {
+      if (System.currentTimeMillis() - pooled.lastUsedTime < VALIDATION_BYPASS_TIME
+          || isValid(pooled.connection)) {
+        break;
+      }
+      if (log.isDebug()) {
+        log.logDebug("Closing invalid pooled connection to " + pooled.name);
+      }
+      closeQuietly(pooled);
+    }
+
+    if (pooled == null) {
+      pooled =
+          new PooledConnection(key, name, factory.createConnection(), System.currentTimeMillis());
+      if (log.isDebug()) {
+        log.logDebug("Created a new pooled connection to " + name);
+      }
+    }
+
+    pooled.settings = settings;
+    pooled.borrowTime = System.currentTimeMillis();
+    pooled.leakReported = false;
+    pooled.borrowStack =
+        settings.leakDetectionThreshold > 0
+            ? new Exception("The connection was taken from the pool here")
+            : null;
+    synchronized (this) {
+      activeConnections.put(pooled.connection, pooled);
+      startHousekeeping();
+    }
+    return pooled.connection;
+  }
+
+  /**
+   * Give a connection back to the pool.
+   *
+   * @param connection The connection to give back
+   * @return false if the connection doesn't come from this pool, in which case it is not touched
+   */
+  public boolean releaseConnection(Connection connection) {
+    PooledConnection pooled;
+    synchronized (this) {
+      pooled = activeConnections.remove(connection);
+    }
+    if (pooled == null) {
+      return false;
+    }
+
+    long now = System.currentTimeMillis();
+    try {
+      if (connection.isClosed()) {
+        return true;
+      }
+      pooled.reset();
+    } catch (SQLException e) {
+      log.logDetailed("Unable to reset pooled connection, closing it: " + e.getMessage());
+      closeQuietly(pooled);
+      return true;
+    }
+
+    pooled.lastUsedTime = now;
+    if (pooled.isExpired(now)) {
+      closeQuietly(pooled);
+      return true;
+    }
+
+    boolean keep;
+    synchronized (this) {
+      Deque<PooledConnection> idle =
+          idleConnections.computeIfAbsent(pooled.key, k -> new ArrayDeque<>());
+      keep = idle.size() < pooled.settings.maxIdle;
+      if (keep) {
+        idle.addFirst(pooled);
+      }
+    }
+    if (!keep) {
+      closeQuietly(pooled);
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the connection was handed out by this pool and wasn't given back yet
+   */
+  public synchronized boolean isActive(Connection connection) {
+    return activeConnections.containsKey(connection);
+  }
+
+  /**
+   * @return The number of idle connections for the given key
+   */
+  public synchronized int getNrIdleConnections(String key) {
+    Deque<PooledConnection> idle = idleConnections.get(key);
+    return idle == null ? 0 : idle.size();
+  }
+
+  /**
+   * @return The number of connections in use
+   */
+  public synchronized int getNrActiveConnections() {
+    return activeConnections.size();
+  }
+
+  /** Close all the idle connections. Connections in use are closed when they are given back. */
+  public void closeIdleConnections() {
+    List<PooledConnection> toClose = new ArrayList<>();
+    synchronized (this) {
+      for (Deque<PooledConnection> idle : idleConnections.values()) {
+        toClose.addAll(idle);
+      }
+      idleConnections.clear();
+    }
+    toClose.forEach(this::closeQuietly);
+  }
+
+  private PooledConnection pollIdleConnection(String key) {
+    List<PooledConnection> expired = new ArrayList<>();
+    PooledConnection pooled = null;
+    synchronized (this) {
+      Deque<PooledConnection> idle = idleConnections.get(key);
+      if (idle != null) {
+        long now = System.currentTimeMillis();
+        while ((pooled = idle.pollFirst()) != null && pooled.isExpired(now)) {
+          expired.add(pooled);
+        }
+      }
+    }
+    // Closing can take a while, don't block the other users of the pool
+    //
+    expired.forEach(this::closeQuietly);
+    return pooled;
+  }
+
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (SQLException e) {
+      return false;
+    } catch (AbstractMethodError e) {
+      // Old drivers don't implement isValid(): assume the connection is fine
+      return true;
+    }
+  }
+
+  private void closeQuietly(PooledConnection pooled) {
+    try {
+      pooled.connection.close();
+    } catch (SQLException e) {
+      log.logDebug("Error closing pooled connection: " + e.getMessage());
+    }
+  }
+
+  private void startHousekeeping() {
+    if (housekeeper == null) {
+      housekeeper =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "Database connection pool housekeeping");
+                thread.setDaemon(true);
+                return thread;
+              });
+      housekeeper.scheduleWithFixedDelay(
+          this::houseKeeping, HOUSEKEEPING_INTERVAL, HOUSEKEEPING_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Close expired idle connections and report connections which aren't given back in time. */
+  void houseKeeping() {
+    long now = System.currentTimeMillis();
+    List<PooledConnection> toClose = new ArrayList<>();
+    List<PooledConnection> leaks = new ArrayList<>();
+    synchronized (this) {
+      for (Iterator<Deque<PooledConnection>> it = idleConnections.values().iterator();
+          it.hasNext(); ) {
+        Deque<PooledConnection> idle = it.next();
+        idle.removeIf(
+            pooled -> {
+              if (pooled.isExpired(now)) {
+                toClose.add(pooled);
+                return true;
+              }
+              return false;
+            });
+        if (idle.isEmpty()) {
+          it.remove();
+        }
+      }
+      for (PooledConnection pooled : activeConnections.values()) {
+        long threshold = pooled.settings.leakDetectionThreshold;
+        if (threshold > 0 && !pooled.leakReported && now - pooled.borrowTime >= threshold) {
+          pooled.leakReported = true;
+          leaks.add(pooled);
+        }
+      }
+    }
+    toClose.forEach(this::closeQuietly);
+    for (PooledConnection pooled : leaks) {
+      log.logError(
+          "Possible connection leak: a connection to "
+              + pooled.name
+              + " was taken from the pool "
+              + ((now - pooled.borrowTime) / 1000)
+              + " seconds ago and wasn't given back yet",
+          pooled.borrowStack);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+
+/**
+ * Streams rows into a table with the native bulk load mechanism of a database, for example COPY
+ * or LOAD DATA. The rows are part of the current transaction of the connection the loader was
+ * created for.
+ *
+ * @see IDatabase#createBulkLoader(java.sql.Connection, String, String[],
+ *     org.apache.hop.core.row.IRowMeta)
+ */
+public interface IBulkLoader extends AutoCloseable {
+
+  /**
+   * Add a row to load.
+   *
+   * @param row The row, in the layout the loader was created for
+   * @throws HopDatabaseException In case the row can't be sent to the database
+   */
+  void addRow(Object[] row) throws HopDatabaseException;
+
+  /**
+   * Send the remaining rows and wait until the database loaded all of them.
+   *
+   * @return The number of rows loaded
+   * @throws HopDatabaseException In case the rows couldn't be loaded
+   */
+  long finish() throws HopDatabaseException;
+
+  /** Release the resources of the loader, the load is cancelled if it isn't finished. */
+  @Override
+  void close();
+}
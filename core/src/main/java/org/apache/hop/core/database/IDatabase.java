@@ -17,6 +17,7 @@
 
 package org.apache.hop.core.database;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -25,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.metadata.api.HopMetadataObject;
@@ -1119,6 +1121,40 @@ public interface IDatabase extends Cloneable {
     return "";
   }
 
+  /**
+   * @return true if the database can load rows in bulk with {@link #createBulkLoader(Connection,
+   *     String, String[], IRowMeta)}, for example with COPY or LOAD DATA
+   */
+  default boolean supportsBulkLoad() {
+    return false;
+  }
+
+  /**
+   * @param rowMeta The layout of the rows to load
+   * @return true if rows with this layout can be loaded in bulk
+   */
+  default boolean supportsBulkLoad(IRowMeta rowMeta) {
+    return supportsBulkLoad();
+  }
+
+  /**
+   * Create a loader which streams rows into a table with the native bulk load mechanism of the
+   * database. The rows are loaded in the current transaction of the connection.
+   *
+   * @param connection The connection to load the rows over
+   * @param schemaTable The quoted schema and table name to load into
+   * @param columns The quoted names of the columns to load, in the order of the rows
+   * @param rowMeta The layout of the rows to load
+   * @return The bulk loader
+   * @throws HopDatabaseException In case the load can't be started
+   */
+  default IBulkLoader createBulkLoader(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    throw new HopDatabaseException(
+        "Bulk loading is not supported for database type " + getPluginName());
+  }
+
   /**
    * Allows to get the column name for JDBC drivers with different behavior for aliases depending on
    * the connector version.
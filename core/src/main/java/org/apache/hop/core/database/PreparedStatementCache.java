@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded cache of the prepared statements of a single connection, keyed by their SQL. When the
+ * cache is full the least recently used statement is closed to make room. The statements are owned
+ * by the cache: users execute them but never close them. Instead they {@link
+ * #release(PreparedStatement)} a statement once they are done with its results, until then it is
+ * never closed to make room for others.
+ */
+public class PreparedStatementCache {
+
+  /** Prepares a statement for the given SQL when it isn't in the cache */
+  @FunctionalInterface
+  public interface IStatementFactory {
+    PreparedStatement prepare(String sql) throws SQLException;
+  }
+
+  private final int maxSize;
+  private final LinkedHashMap<String, PreparedStatement> statements;
+  private final Set<PreparedStatement> cached;
+  private final Set<PreparedStatement> inUse;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * @param maxSize The maximum number of statements kept open
+   */
+  public PreparedStatementCache(int maxSize) {
+    this.maxSize = Math.max(1, maxSize);
+    this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    this.cached = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Get the statement for the given key from the cache or prepare and cache a new one. The
+   * statement is in use until it is released.
+   *
+   * @param key The key of the statement, the SQL and any options it is prepared with
+   * @param sql The SQL to prepare
+   * @param factory Prepares the statement when it isn't cached (or was closed)
+   * @return The prepared statement, which stays owned by the cache
+   * @throws SQLException In case the statement can't be prepared
+   */
+  public PreparedStatement get(String key, String sql, IStatementFactory factory)
+      throws SQLException {
+    PreparedStatement statement = statements.get(key);
+    if (statement != null) {
+      if (!statement.isClosed()) {
+        hits++;
+        inUse.add(statement);
+        return statement;
+      }
+      statements.remove(key);
+      cached.remove(statement);
+      inUse.remove(statement);
+    }
+
+    misses++;
+    statement = factory.prepare(sql);
+    statements.put(key, statement);
+    cached.add(statement);
+    inUse.add(statement);
+
+    evict();
+    return statement;
+  }
+
+  /**
+   * Mark a statement as no longer in use, for example when its result set was closed. If the cache
+   * grew beyond its maximum size while all statements were in use, it is trimmed again.
+   *
+   * @param statement The statement which was returned by {@link #get(String, String,
+   *     IStatementFactory)}
+   */
+  public void release(PreparedStatement statement) {
+    if (statement != null && inUse.remove(statement)) {
+      evict();
+    }
+  }
+
+  /**
+   * Close the least recently used statements which aren't in use until the cache fits its maximum
+   * size again. Statements still in use are skipped: closing them would close the result set their
+   * user is reading.
+   */
+  private void evict() {
+    Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+    while (statements.size() > maxSize && iterator.hasNext()) {
+      PreparedStatement eldest = iterator.next().getValue();
+      if (inUse.contains(eldest)) {
+        continue;
+      }
+      iterator.remove();
+      cached.remove(eldest);
+      evictions++;
+      try {
+        eldest.close();
+      } catch (SQLException e) {
+        // The statement is released with the connection at the latest
+      }
+    }
+  }
+
+  /**
+   * @param statement The statement to check
+   * @return true if the statement was returned by the cache and not released yet
+   */
+  public boolean isInUse(PreparedStatement statement) {
+    return statement != null && inUse.contains(statement);
+  }
+
+  /**
+   * @param statement The statement to check
+   * @return true if the statement is owned by this cache and should not be closed by its user
+   */
+  public boolean isCached(PreparedStatement statement) {
+    return statement != null && cached.contains(statement);
+  }
+
+  /**
+   * Close all the cached statements, for example after the tables they use changed.
+   *
+   * @throws SQLException The first error closing a statement, after all were closed
+   */
+  public void clear() throws SQLException {
+    List<PreparedStatement> toClose = new ArrayList<>(statements.values());
+    statements.clear();
+    cached.clear();
+    inUse.clear();
+
+    SQLException exception = null;
+    for (PreparedStatement statement : toClose) {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        if (exception == null) {
+          exception = e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  public int size() {
+    return statements.size();
+  }
+
+  /**
+   * Gets maxSize
+   *
+   * @return value of maxSize
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Gets hits
+   *
+   * @return The number of times a cached statement was re-used
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets misses
+   *
+   * @return The number of statements which had to be prepared
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets evictions
+   *
+   * @return The number of statements closed to make room for others
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * Hash map of byte array keys to long values, for example the encoded natural key of a dimension
+ * to its technical key. The entries are stored in an {@link OffHeapStore}. The only object on the
+ * heap is the index: an array of longs with the address of the entry in every used slot. Collisions
+ * are resolved with linear probing.
+ *
+ * <p>An entry is stored as the hash code and length of the key, the value and the bytes of the
+ * key. Removed entries keep their bytes in the store until most of the store is no longer in use.
+ * The remaining entries are then copied to a new store so that the memory used stays in line with
+ * the number of entries.
+ */
+public class OffHeapLongHashMap implements Closeable {
+
+  private static final int STANDARD_INDEX_SIZE = 1024;
+  private static final float MAX_LOAD_FACTOR = 0.6f;
+
+  private static final long EMPTY = 0L;
+  private static final long REMOVED = -1L;
+
+  private static final int HASH_OFFSET = 0;
+  private static final int LENGTH_OFFSET = 4;
+  private static final int VALUE_OFFSET = 8;
+  private static final int KEY_OFFSET = 16;
+
+  /**
+   * Only compact the store when more than this number of bytes is no longer in use, to avoid
+   * copying small stores over and over
+   */
+  private static final long MIN_COMPACT_BYTES = 1024 * 1024;
+
+  private OffHeapStore store;
+
+  /** The address + 1 of the entry in every slot, EMPTY or REMOVED */
+  private long[] slots;
+
+  private int size;
+  private int usedSlots;
+
+  /** The number of bytes in the store taken by the entries in the map */
+  private long liveBytes;
+  private int resizeThreshold;
+
+  /**
+   * @param store The store to keep the entries in. The map owns the store: it moves the entries to
+   *     a new store when it compacts them and closing the map closes the store.
+   * @param initialSize The expected number of entries
+   */
+  public OffHeapLongHashMap(OffHeapStore store, int initialSize) {
+    this.store = store;
+    int capacity = STANDARD_INDEX_SIZE;
+    while (capacity * MAX_LOAD_FACTOR < initialSize && capacity < (1 << 30)) {
+      capacity <<= 1;
+    }
+    this.slots = new long[capacity];
+    this.resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  private static int hash(byte[] key) {
+    int hash = Arrays.hashCode(key);
+    return hash ^ (hash >>> 16);
+  }
+
+  /** Find the slot of the key or the empty slot where it should go */
+  private int findSlot(byte[] key, int hash) {
+    int mask = slots.length - 1;
+    int slot = hash & mask;
+    while (slots[slot] != EMPTY) {
+      if (slots[slot] != REMOVED) {
+        long address = slots[slot] - 1;
+        if (store.getInt(address + HASH_OFFSET) == hash
+            && store.getInt(address + LENGTH_OFFSET) == key.length
+            && store.equalBytes(address + KEY_OFFSET, key)) {
+          return slot;
+        }
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Get the value of a key.
+   *
+   * @param key The key
+   * @param defaultValue The value to return if the key is not in the map
+   * @return The value of the key or the default value
+   */
+  public long get(byte[] key, long defaultValue) {
+    int slot = findSlot(key, hash(key));
+    if (slots[slot] == EMPTY) {
+      return defaultValue;
+    }
+    return store.getLong(slots[slot] - 1 + VALUE_OFFSET);
+  }
+
+  /**
+   * Store the value of a key, replace the value if the key is already in the map.
+   *
+   * @param key The key
+   * @param value The value
+   * @throws HopException In case the off-heap memory can't be reserved
+   */
+  public void put(byte[] key, long value) throws HopException {
+    int hash = hash(key);
+    int slot = findSlot(key, hash);
+    if (slots[slot] != EMPTY) {
+      store.putLong(slots[slot] - 1 + VALUE_OFFSET, value);
+      return;
+    }
+
+    long address = store.allocate(KEY_OFFSET + key.length);
+    store.putInt(address + HASH_OFFSET, hash);
+    store.putInt(address + LENGTH_OFFSET, key.length);
+    store.putLong(address + VALUE_OFFSET, value);
+    store.putBytes(address + KEY_OFFSET, key);
+    slots[slot] = address + 1;
+    liveBytes += KEY_OFFSET + key.length;
+    size++;
+    usedSlots++;
+
+    if (usedSlots > resizeThreshold) {
+      resize();
+    }
+  }
+
+  /** Grow the index if needed, drop the removed entries from it */
+  private void resize() {
+    int capacity = slots.length;
+    if (size > resizeThreshold / 2 && capacity < (1 << 30)) {
+      capacity <<= 1;
+    }
+    long[] oldSlots = slots;
+    slots = new long[capacity];
+    resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+    usedSlots = size;
+
+    int mask = capacity - 1;
+    for (long entry : oldSlots) {
+      if (entry != EMPTY && entry != REMOVED) {
+        int slot = store.getInt(entry - 1 + HASH_OFFSET) & mask;
+        while (slots[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry;
+      }
+    }
+  }
+
+  /**
+   * Remove all the entries with a value which matches the predicate. When more than half of the
+   * store is no longer in use afterwards, the remaining entries are moved to a new store.
+   *
+   * @param predicate The test on the values
+   * @return The number of entries removed
+   * @throws HopException In case the off-heap memory for the compacted store can't be reserved
+   */
+  public int removeValues(LongPredicate predicate) throws HopException {
+    int removed = 0;
+    for (int slot = 0; slot < slots.length; slot++) {
+      long entry = slots[slot];
+      if (entry != EMPTY
+          && entry != REMOVED
+          && predicate.test(store.getLong(entry - 1 + VALUE_OFFSET))) {
+        liveBytes -= KEY_OFFSET + store.getInt(entry - 1 + LENGTH_OFFSET);
+        slots[slot] = REMOVED;
+        removed++;
+      }
+    }
+    size -= removed;
+
+    long unusedBytes = store.getBytesUsed() - liveBytes;
+    if (unusedBytes > liveBytes && unusedBytes > MIN_COMPACT_BYTES) {
+      compact();
+    }
+    return removed;
+  }
+
+  /**
+   * Copy the entries to a new store and close the current one. The map only switches to the new
+   * slots and store once all the entries are copied: if that fails the map is left untouched.
+   */
+  private void compact() throws HopException {
+    OffHeapStore newStore = store.createEmptyCopy();
+    long[] newSlots = new long[slots.length];
+    try {
+      for (int slot = 0; slot < slots.length; slot++) {
+        long entry = slots[slot];
+        if (entry != EMPTY && entry != REMOVED) {
+          int length = KEY_OFFSET + store.getInt(entry - 1 + LENGTH_OFFSET);
+          long address = newStore.allocate(length);
+          newStore.putBytes(address, store.getBytes(entry - 1, length));
+          newSlots[slot] = address + 1;
+        } else {
+          newSlots[slot] = entry;
+        }
+      }
+    } catch (HopException e) {
+      newStore.close();
+      throw e;
+    }
+    store.close();
+    store = newStore;
+    slots = newSlots;
+  }
+
+  /**
+   * Pass every value to a consumer, in no particular order.
+   *
+   * @param consumer The consumer of the values
+   */
+  public void forEachValue(LongConsumer consumer) {
+    for (long entry : slots) {
+      if (entry != EMPTY && entry != REMOVED) {
+        consumer.accept(store.getLong(entry - 1 + VALUE_OFFSET));
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return The number of bytes reserved in the off-heap store, including removed entries
+   */
+  public long getBytesUsed() {
+    return store.getBytesUsed();
+  }
+
+  /** Remove all entries and close the off-heap store */
+  @Override
+  public void close() {
+    store.close();
+    slots = new long[STANDARD_INDEX_SIZE];
+    resizeThreshold = (int) (slots.length * MAX_LOAD_FACTOR);
+    size = 0;
+    usedSlots = 0;
+    liveBytes = 0;
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * Memory outside of the Java heap to keep large caches in: direct memory or a memory mapped
+ * temporary file. The memory is reserved in large chunks and handed out in blocks. A block is
+ * addressed with a long: the number of the chunk in the high 32 bits and the position in the chunk
+ * in the low 32 bits. A block never spans two chunks, so the bytes of a block can be addressed by
+ * adding their position in the block to the address.
+ *
+ * <p>Blocks are not freed one by one. To get rid of unused blocks the blocks still in use are
+ * copied to a new store created with {@link #createEmptyCopy()} after which this store is closed.
+ * Closing a store drops its references to the memory and deletes the memory mapped file, but the
+ * memory itself is only given back when the garbage collector frees the direct or mapped buffers.
+ * A store is not thread-safe.
+ */
+public class OffHeapStore implements Closeable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+  /**
+   * The files which couldn't be deleted when their store was closed, typically because the
+   * operating system doesn't delete a file while it is still mapped. Deleting them is tried again
+   * whenever a store is closed.
+   */
+  private static final Set<File> undeletedFiles = ConcurrentHashMap.newKeySet();
+
+  private final String directory;
+  private final int chunkSize;
+  private final List<ByteBuffer> chunks;
+  private ByteBuffer current;
+  private long bytesUsed;
+
+  private File file;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel channel;
+  private long fileSize;
+
+  /**
+   * Create a store in direct memory or in a memory mapped file.
+   *
+   * @param directory The local directory to create the memory mapped file in, or null (empty) to
+   *     use direct memory
+   * @throws HopException In case the file can't be created
+   */
+  public OffHeapStore(String directory) throws HopException {
+    this(directory, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Create a store in direct memory or in a memory mapped file.
+   *
+   * @param directory The local directory to create the memory mapped file in, or null (empty) to
+   *     use direct memory
+   * @param chunkSize The number of bytes to reserve at once
+   * @throws HopException In case the file can't be created
+   */
+  public OffHeapStore(String directory, int chunkSize) throws HopException {
+    this.directory = directory;
+    this.chunkSize = chunkSize;
+    this.chunks = new ArrayList<>();
+
+    if (!Utils.isEmpty(directory)) {
+      try {
+        file = File.createTempFile("hop-offheap-", ".bin", new File(directory));
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+      } catch (IOException e) {
+        close();
+        throw new HopException(
+            "Unable to create a memory mapped file for an off-heap cache in directory " + directory,
+            e);
+      }
+    }
+  }
+
+  /**
+   * Reserve a block of bytes.
+   *
+   * @param length The size of the block
+   * @return The address of the block
+   * @throws HopException In case the memory can't be reserved
+   */
+  public long allocate(int length) throws HopException {
+    if (current == null || current.remaining() < length) {
+      newChunk(Math.max(chunkSize, length));
+    }
+    int position = current.position();
+    current.position(position + length);
+    bytesUsed += length;
+    return ((long) (chunks.size() - 1) << 32) | position;
+  }
+
+  /**
+   * Create a new empty store of the same kind: in direct memory or in a new memory mapped file in
+   * the same directory, with the same chunk size.
+   *
+   * @return The new store
+   * @throws HopException In case the file can't be created
+   */
+  public OffHeapStore createEmptyCopy() throws HopException {
+    return new OffHeapStore(directory, chunkSize);
+  }
+
+  private void newChunk(int size) throws HopException {
+    if (channel == null) {
+      current = ByteBuffer.allocateDirect(size);
+    } else {
+      try {
+        current = channel.map(FileChannel.MapMode.READ_WRITE, fileSize, size);
+        fileSize += size;
+      } catch (IOException e) {
+        throw new HopException("Unable to map " + size + " bytes of file " + file, e);
+      }
+    }
+    chunks.add(current);
+  }
+
+  private ByteBuffer chunk(long address) {
+    return chunks.get((int) (address >>> 32));
+  }
+
+  private static int position(long address) {
+    return (int) address;
+  }
+
+  public void putInt(long address, int value) {
+    chunk(address).putInt(position(address), value);
+  }
+
+  public int getInt(long address) {
+    return chunk(address).getInt(position(address));
+  }
+
+  public void putLong(long address, long value) {
+    chunk(address).putLong(position(address), value);
+  }
+
+  public long getLong(long address) {
+    return chunk(address).getLong(position(address));
+  }
+
+  public void putBytes(long address, byte[] bytes) {
+    chunk(address).put(position(address), bytes);
+  }
+
+  public byte[] getBytes(long address, int length) {
+    byte[] bytes = new byte[length];
+    chunk(address).get(position(address), bytes);
+    return bytes;
+  }
+
+  /**
+   * Compare stored bytes with the given bytes without copying them to the heap.
+   *
+   * @param address The address of the stored bytes
+   * @param bytes The bytes to compare with, all of them
+   * @return true if the stored bytes are the same
+   */
+  public boolean equalBytes(long address, byte[] bytes) {
+    ByteBuffer chunk = chunk(address);
+    int position = position(address);
+    for (int i = 0; i < bytes.length; i++) {
+      if (chunk.get(position + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets bytesUsed
+   *
+   * @return The number of bytes handed out in blocks
+   */
+  public long getBytesUsed() {
+    return bytesUsed;
+  }
+
+  /**
+   * @return true if the store is a memory mapped file, false if it's in direct memory
+   */
+  public boolean isMemoryMapped() {
+    return file != null;
+  }
+
+  /**
+   * Drop all the blocks and delete the memory mapped file if there is one. The memory is released
+   * once the garbage collector frees the buffers. If the file can't be deleted yet, deleting it is
+   * tried again when another store is closed.
+   */
+  @Override
+  public void close() {
+    chunks.clear();
+    current = null;
+    bytesUsed = 0;
+    try {
+      if (channel != null) {
+        channel.close();
+      }
+      if (randomAccessFile != null) {
+        randomAccessFile.close();
+      }
+    } catch (IOException e) {
+      // Nothing more we can do, the file is deleted below
+    } finally {
+      channel = null;
+      randomAccessFile = null;
+      if (file != null && !file.delete()) {
+        undeletedFiles.add(file);
+      }
+      file = null;
+      undeletedFiles.removeIf(undeleted -> undeleted.delete() || !undeleted.exists());
+    }
+  }
+}
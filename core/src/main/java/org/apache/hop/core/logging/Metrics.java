@@ -105,6 +105,21 @@ public class Metrics implements IMetrics {
           MetricsSnapshotType.MAX,
           "METRIC_DATABASE_GET_ROW_MAX_TIME",
           "Get row from DB (max time)");
+  public static final Metrics METRIC_DATABASE_STATEMENT_CACHE_HIT =
+      new Metrics(
+          MetricsSnapshotType.COUNT,
+          "METRIC_DATABASE_STATEMENT_CACHE_HIT",
+          "Prepared statement re-used from the cache (count)");
+  public static final Metrics METRIC_DATABASE_STATEMENT_CACHE_MISS =
+      new Metrics(
+          MetricsSnapshotType.COUNT,
+          "METRIC_DATABASE_STATEMENT_CACHE_MISS",
+          "Prepared statement not in the cache (count)");
+  public static final Metrics METRIC_DATABASE_STATEMENT_CACHE_EVICTION =
+      new Metrics(
+          MetricsSnapshotType.COUNT,
+          "METRIC_DATABASE_STATEMENT_CACHE_EVICTION",
+          "Prepared statement closed to make room in the cache (count)");
 
   // Pipeline
   //
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.row.columnar.BooleanColumnVector;
+import org.apache.hop.core.row.columnar.DoubleColumnVector;
+import org.apache.hop.core.row.columnar.IColumnVector;
+import org.apache.hop.core.row.columnar.LongColumnVector;
+import org.apache.hop.core.row.columnar.ObjectColumnVector;
+import org.apache.hop.core.row.columnar.StringColumnVector;
+
+/**
+ * A batch of rows stored column by column. Integer, Number and Boolean values are kept in
+ * primitive arrays with a null bitmap and Strings are dictionary encoded. All other values, and
+ * values which are not stored in their normal form, are kept as objects.
+ *
+ * <p>A batch is either built column by column, or created from a list of rows with {@link
+ * #fromRows(IRowMeta, List)}. In the latter case the rows are kept and a column is only converted
+ * when it is asked for. Handing the batch back as rows then doesn't cost anything. The columns of a
+ * batch created from rows are read-only views: changes to them are not reflected in {@link
+ * #getRows()}.
+ *
+ * <p>A batch created from rows can be given the next rows with {@link #resetRows(IRowMeta, List)}.
+ * The column vectors converted so far are then filled again instead of allocated anew.
+ */
+public class ColumnarRowBatch {
+  private IRowMeta rowMeta;
+  private IColumnVector[] columns;
+
+  /** The rows this batch was created from, null if the batch was built column by column */
+  private List<Object[]> rows;
+
+  /** The column vectors of the previous rows, to be filled again when a column is converted */
+  private IColumnVector[] spareColumns;
+
+  private int size;
+
+  /**
+   * Create an empty batch which is built column by column.
+   *
+   * @param rowMeta The layout of the rows
+   * @param capacity The expected number of rows
+   */
+  public ColumnarRowBatch(IRowMeta rowMeta, int capacity) {
+    this.rowMeta = rowMeta;
+    this.rows = null;
+    this.columns = new IColumnVector[rowMeta.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = createColumnVector(rowMeta.getValueMeta(i), capacity);
+    }
+  }
+
+  private ColumnarRowBatch(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+    this.rows = rows;
+    this.columns = new IColumnVector[rowMeta.size()];
+    this.spareColumns = new IColumnVector[rowMeta.size()];
+    this.size = rows.size();
+  }
+
+  /**
+   * Create a batch from a list of rows. The columns are converted when they are first accessed.
+   *
+   * @param rowMeta The layout of the rows
+   * @param rows The rows
+   * @return The batch
+   */
+  public static ColumnarRowBatch fromRows(IRowMeta rowMeta, List<Object[]> rows) {
+    return new ColumnarRowBatch(rowMeta, rows);
+  }
+
+  /**
+   * Replace the rows of a batch created with {@link #fromRows(IRowMeta, List)} with the next rows.
+   * The columns converted for the previous rows are cleared and reused when the same columns of the
+   * new rows are accessed. Columns handed out before are no longer valid after this call.
+   *
+   * @param rowMeta The layout of the new rows
+   * @param rows The new rows
+   */
+  public void resetRows(IRowMeta rowMeta, List<Object[]> rows) {
+    if (this.rows == null) {
+      throw new IllegalStateException("Only the rows of a batch created from rows can be reset");
+    }
+    if (rowMeta != this.rowMeta) {
+      // Another layout, the column buffers of the previous rows don't fit
+      //
+      columns = new IColumnVector[rowMeta.size()];
+      spareColumns = new IColumnVector[rowMeta.size()];
+    } else {
+      for (int i = 0; i < columns.length; i++) {
+        IColumnVector column = columns[i];
+        // Don't keep an object column which only replaced a typed one because of bad data
+        //
+        if (column != null
+            && (!(column instanceof ObjectColumnVector)
+                || isObjectColumn(rowMeta.getValueMeta(i)))) {
+          spareColumns[i] = column;
+        }
+        columns[i] = null;
+      }
+    }
+    this.rowMeta = rowMeta;
+    this.rows = rows;
+    this.size = rows.size();
+  }
+
+  /**
+   * Create an empty column vector to hold values described by the given value metadata.
+   *
+   * @param valueMeta The value metadata
+   * @param capacity The initial capacity
+   * @return The column vector
+   */
+  public static IColumnVector createColumnVector(IValueMeta valueMeta, int capacity) {
+    if (isObjectColumn(valueMeta)) {
+      return new ObjectColumnVector(capacity);
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return new LongColumnVector(capacity);
+      case IValueMeta.TYPE_NUMBER:
+        return new DoubleColumnVector(capacity);
+      case IValueMeta.TYPE_BOOLEAN:
+        return new BooleanColumnVector(capacity);
+      case IValueMeta.TYPE_STRING:
+        return new StringColumnVector(capacity);
+      default:
+        return new ObjectColumnVector(capacity);
+    }
+  }
+
+  private static boolean isObjectColumn(IValueMeta valueMeta) {
+    if (!valueMeta.isStorageNormal()) {
+      return true;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+      case IValueMeta.TYPE_NUMBER:
+      case IValueMeta.TYPE_BOOLEAN:
+      case IValueMeta.TYPE_STRING:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Get a column of this batch. When the batch was created from rows the column is converted the
+   * first time it is accessed. If a value doesn't match the data type of the column (bad data) the
+   * column is returned as an {@link ObjectColumnVector}.
+   *
+   * @param index The index of the field in the row metadata
+   * @return The column vector
+   */
+  public IColumnVector getColumn(int index) {
+    IColumnVector column = columns[index];
+    if (column == null) {
+      column = convertColumn(index);
+      columns[index] = column;
+    }
+    return column;
+  }
+
+  private IColumnVector convertColumn(int index) {
+    IColumnVector column = spareColumns[index];
+    if (column != null) {
+      spareColumns[index] = null;
+      column.clear();
+      column.ensureCapacity(size);
+    } else {
+      column = createColumnVector(rowMeta.getValueMeta(index), size);
+    }
+    for (int row = 0; row < size; row++) {
+      Object[] rowData = rows.get(row);
+      Object value = index < rowData.length ? rowData[index] : null;
+      if (!column.setObject(row, value)) {
+        column = new ObjectColumnVector(size);
+        for (int r = 0; r < size; r++) {
+          Object[] data = rows.get(r);
+          column.setObject(r, index < data.length ? data[index] : null);
+        }
+        break;
+      }
+    }
+    return column;
+  }
+
+  /**
+   * Add a row at the end of this batch.
+   *
+   * @param row The row data, described by the row metadata of this batch
+   */
+  public void addRow(Object[] row) {
+    if (rows != null) {
+      rows.add(row);
+      for (int i = 0; i < columns.length; i++) {
+        if (columns[i] != null && !columns[i].setObject(size, row[i])) {
+          // Convert again when it is asked for
+          columns[i] = null;
+        }
+      }
+    } else {
+      for (int i = 0; i < columns.length; i++) {
+        if (!columns[i].setObject(size, row[i])) {
+          IColumnVector objects = new ObjectColumnVector(size + 1);
+          for (int r = 0; r < size; r++) {
+            objects.setObject(r, columns[i].getObject(r));
+          }
+          objects.setObject(size, row[i]);
+          columns[i] = objects;
+        }
+      }
+    }
+    size++;
+  }
+
+  /**
+   * Get a row of this batch. For a batch built column by column a new row is allocated.
+   *
+   * @param index The row index
+   * @return The row data
+   */
+  public Object[] getRow(int index) {
+    if (rows != null) {
+      return rows.get(index);
+    }
+    Object[] row = RowDataUtil.allocateRowData(rowMeta.size());
+    for (int i = 0; i < columns.length; i++) {
+      row[i] = columns[i].getObject(index);
+    }
+    return row;
+  }
+
+  /**
+   * @return All rows in this batch
+   */
+  public List<Object[]> getRows() {
+    if (rows != null) {
+      return rows;
+    }
+    List<Object[]> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(getRow(i));
+    }
+    return result;
+  }
+
+  /**
+   * Get the rows which are selected.
+   *
+   * @param selected One flag per row in this batch, true if the row needs to be returned
+   * @return The selected rows, in the same order
+   */
+  public List<Object[]> getRows(boolean[] selected) {
+    List<Object[]> result = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (selected[i]) {
+        result.add(getRow(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Set the number of rows in a batch which was built by setting the values of the columns
+   * directly.
+   *
+   * @param size The number of rows
+   */
+  public void setSize(int size) {
+    if (rows != null) {
+      throw new IllegalStateException("The size of a batch created from rows can't be changed");
+    }
+    this.size = size;
+  }
+
+  /**
+   * @return The number of rows in this batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if there are no rows in this batch
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets rowMeta
+   *
+   * @return value of rowMeta
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hop.core.exception.HopValueException;
+
+/**
+ * Row metadata which can't be changed anymore. A transform typically freezes its output row
+ * metadata once the layout is determined while processing the first row.
+ *
+ * <p>Since the list of values can't change, the methods called for every row (size, getValueMeta,
+ * indexOfValue, cloneRow, compare, ...) don't need any locking: they are plain array reads. Value
+ * names are looked up with a perfect hash table which is calculated when the row metadata is
+ * frozen.
+ *
+ * <p>Methods which change the list of values throw an {@link UnsupportedOperationException}. The
+ * value metadata objects themselves are shared with the original row metadata. Use {@link
+ * #clone()} to get row metadata which can be modified again.
+ */
+public class FrozenRowMeta extends RowMeta {
+
+  /** The maximum size of the name hash table, relative to the number of values */
+  private static final int MAX_TABLE_FACTOR = 64;
+
+  private static final int SEED_ATTEMPTS = 32;
+
+  private final IValueMeta[] valueMetas;
+  private final List<IValueMeta> valueMetaView;
+  private final String[] fieldNames;
+  private final int[] realCloneIndexes;
+
+  /** Value index + 1 for every slot, 0 for empty slots. Null if no perfect hash was found. */
+  private final int[] nameTable;
+
+  private final int nameMask;
+  private final int nameSeed;
+
+  private FrozenRowMeta(IRowMeta rowMeta) {
+    this(rowMeta.getValueMetaList().toArray(new IValueMeta[0]));
+  }
+
+  private FrozenRowMeta(IValueMeta[] valueMetas) {
+    super(Collections.unmodifiableList(Arrays.asList(valueMetas)), new RowMetaCache());
+    this.valueMetas = valueMetas;
+    this.valueMetaView = Collections.unmodifiableList(Arrays.asList(valueMetas));
+
+    fieldNames = new String[valueMetas.length];
+    List<Integer> realClones = new ArrayList<>();
+    for (int i = 0; i < valueMetas.length; i++) {
+      String name = valueMetas[i].getName();
+      fieldNames[i] = name == null ? "" : name;
+      if (valueMetas[i].requiresRealClone()) {
+        realClones.add(i);
+      }
+    }
+    realCloneIndexes = realClones.stream().mapToInt(Integer::intValue).toArray();
+    needRealClone = Collections.unmodifiableList(realClones);
+
+    // Find a table size and seed for which every name gets a slot of its own
+    //
+    int[] table = null;
+    int mask = 0;
+    int seed = 0;
+    int size = Integer.highestOneBit(Math.max(2, valueMetas.length * 2 - 1)) << 1;
+    int maxSize = Math.max(size, Integer.highestOneBit(valueMetas.length * MAX_TABLE_FACTOR));
+    while (table == null && size <= maxSize) {
+      for (int s = 0; s < SEED_ATTEMPTS && table == null; s++) {
+        table = buildNameTable(size - 1, s);
+        mask = size - 1;
+        seed = s;
+      }
+      size <<= 1;
+    }
+    nameTable = table;
+    nameMask = mask;
+    nameSeed = seed;
+  }
+
+  /**
+   * Freeze the given row metadata.
+   *
+   * @param rowMeta The row metadata to freeze
+   * @return Frozen row metadata with the same values, the same object if it is frozen already
+   */
+  public static FrozenRowMeta of(IRowMeta rowMeta) {
+    if (rowMeta instanceof FrozenRowMeta frozenRowMeta) {
+      return frozenRowMeta;
+    }
+    return new FrozenRowMeta(rowMeta);
+  }
+
+  /**
+   * @return the hash table for the value names or null if the seed leads to a collision
+   */
+  private int[] buildNameTable(int mask, int seed) {
+    int[] table = new int[mask + 1];
+    for (int i = 0; i < valueMetas.length; i++) {
+      String name = valueMetas[i].getName();
+      if (name == null || name.isEmpty()) {
+        continue;
+      }
+      int slot = slot(hashIgnoreCase(name), mask, seed);
+      if (table[slot] == 0) {
+        table[slot] = i + 1;
+      } else if (!name.equalsIgnoreCase(valueMetas[table[slot] - 1].getName())) {
+        return null;
+      }
+      // The same name in a different case: indexOfValue() returns the first one
+    }
+    return table;
+  }
+
+  private static int hashIgnoreCase(String name) {
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      hash = 31 * hash + Character.toLowerCase(name.charAt(i));
+    }
+    return hash;
+  }
+
+  private static int slot(int hash, int mask, int seed) {
+    int h = (hash ^ seed) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  @Override
+  public int size() {
+    return valueMetas.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return valueMetas.length == 0;
+  }
+
+  @Override
+  public IValueMeta getValueMeta(int index) {
+    if (index >= 0 && index < valueMetas.length) {
+      return valueMetas[index];
+    }
+    return null;
+  }
+
+  @Override
+  public List<IValueMeta> getValueMetaList() {
+    return valueMetaView;
+  }
+
+  @Override
+  public String[] getFieldNames() {
+    return fieldNames.clone();
+  }
+
+  @Override
+  public int indexOfValue(String valueName) {
+    if (valueName == null) {
+      return -1;
+    }
+    if (nameTable != null) {
+      int index = nameTable[slot(hashIgnoreCase(valueName), nameMask, nameSeed)] - 1;
+      if (index >= 0 && valueName.equalsIgnoreCase(valueMetas[index].getName())) {
+        return index;
+      }
+    }
+    // Not in the table or a value was renamed after freezing
+    //
+    for (int i = 0; i < valueMetas.length; i++) {
+      if (valueName.equalsIgnoreCase(valueMetas[i].getName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public IValueMeta searchValueMeta(String valueName) {
+    int index = indexOfValue(valueName);
+    return index < 0 ? null : valueMetas[index];
+  }
+
+  @Override
+  public Object[] cloneRow(Object[] objects, Object[] newObjects) throws HopValueException {
+    for (int i : realCloneIndexes) {
+      newObjects[i] = valueMetas[i].cloneValueData(objects[i]);
+    }
+    return newObjects;
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2, int[] fieldnrs)
+      throws HopValueException {
+    for (int fieldnr : fieldnrs) {
+      int cmp = valueMetas[fieldnr].compare(rowData1[fieldnr], rowData2[fieldnr]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public boolean equals(Object[] rowData1, Object[] rowData2, int[] fieldnrs)
+      throws HopValueException {
+    return compare(rowData1, rowData2, fieldnrs) == 0;
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2, int[] fieldnrs1, int[] fieldnrs2)
+      throws HopValueException {
+    int len = Math.min(fieldnrs1.length, fieldnrs2.length);
+    for (int i = 0; i < len; i++) {
+      int cmp =
+          valueMetas[fieldnrs1[i]].compare(rowData1[fieldnrs1[i]], rowData2[fieldnrs2[i]]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int compare(
+      Object[] rowData1, IRowMeta rowMeta2, Object[] rowData2, int[] fieldnrs1, int[] fieldnrs2)
+      throws HopValueException {
+    int len = Math.min(fieldnrs1.length, fieldnrs2.length);
+    for (int i = 0; i < len; i++) {
+      IValueMeta valueMeta2 = rowMeta2.getValueMeta(fieldnrs2[i]);
+      int cmp =
+          valueMetas[fieldnrs1[i]].compare(
+              rowData1[fieldnrs1[i]], valueMeta2, rowData2[fieldnrs2[i]]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2) throws HopValueException {
+    for (int i = 0; i < valueMetas.length; i++) {
+      int cmp = valueMetas[i].compare(rowData1[i], rowData2[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int convertedValuesHashCode(Object[] rowData) throws HopValueException {
+    if (rowData == null) {
+      return 0;
+    }
+    int result = 1;
+    for (int i = 0; i < rowData.length; i++) {
+      result = 31 * result + valueMetas[i].hashCode();
+    }
+    return result;
+  }
+
+  @Override
+  public void setValueMetaList(List<IValueMeta> valueMetaList) {
+    throw frozen();
+  }
+
+  @Override
+  public void addValueMeta(IValueMeta meta) {
+    throw frozen();
+  }
+
+  @Override
+  public void addValueMeta(int index, IValueMeta meta) {
+    throw frozen();
+  }
+
+  @Override
+  public void setValueMeta(int index, IValueMeta valueMeta) {
+    throw frozen();
+  }
+
+  @Override
+  public void mergeRowMeta(IRowMeta r, String originTransformName) {
+    throw frozen();
+  }
+
+  @Override
+  public void clear() {
+    throw frozen();
+  }
+
+  @Override
+  public void removeValueMeta(String valueName) {
+    throw frozen();
+  }
+
+  @Override
+  public void removeValueMeta(int index) {
+    throw frozen();
+  }
+
+  private UnsupportedOperationException frozen() {
+    return new UnsupportedOperationException(
+        "This row metadata is frozen and can't be modified, clone it first");
+  }
+}
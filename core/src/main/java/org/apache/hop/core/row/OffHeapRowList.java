@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.apache.hop.core.hash.OffHeapStore;
+
+/**
+ * A list of rows which are serialized in an {@link OffHeapStore}, outside of the Java heap. Only
+ * the addresses of the rows are kept on the heap, in an array of longs. A row is de-serialized
+ * every time it's read, so this list suits large collections of rows which are written once and
+ * then searched, like a pre-loaded cache.
+ *
+ * <p>Sorting sorts the addresses, not the rows. If the rows were added in order, for example
+ * because the database sorted them, this is detected in a single pass over the rows.
+ */
+public class OffHeapRowList extends AbstractList<Object[]> implements RandomAccess, Closeable {
+
+  private final IRowMeta rowMeta;
+  private final OffHeapStore store;
+
+  private long[] addresses;
+  private int size;
+
+  private final ByteArrayOutputStream buffer;
+  private final DataOutputStream output;
+
+  /**
+   * @param rowMeta The metadata of the rows
+   * @param store The store to keep the rows in. Closing the list closes the store.
+   */
+  public OffHeapRowList(IRowMeta rowMeta, OffHeapStore store) {
+    this.rowMeta = rowMeta;
+    this.store = store;
+    this.addresses = new long[1024];
+    this.buffer = new ByteArrayOutputStream();
+    this.output = new DataOutputStream(buffer);
+  }
+
+  private long write(Object[] row) {
+    try {
+      buffer.reset();
+      rowMeta.writeData(output, row);
+      output.flush();
+      byte[] bytes = buffer.toByteArray();
+
+      long address = store.allocate(4 + bytes.length);
+      store.putInt(address, bytes.length);
+      store.putBytes(address + 4, bytes);
+      return address;
+    } catch (Exception e) {
+      throw new RuntimeException("Error storing row off-heap", e);
+    }
+  }
+
+  private Object[] read(long address) {
+    try {
+      byte[] bytes = store.getBytes(address + 4, store.getInt(address));
+      return rowMeta.readData(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (Exception e) {
+      throw new RuntimeException("Error reading row from off-heap storage", e);
+    }
+  }
+
+  @Override
+  public Object[] get(int index) {
+    Objects.checkIndex(index, size);
+    return read(addresses[index]);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean add(Object[] row) {
+    add(size, row);
+    return true;
+  }
+
+  @Override
+  public void add(int index, Object[] row) {
+    Objects.checkIndex(index, size + 1);
+    long address = write(row);
+    if (size == addresses.length) {
+      addresses = Arrays.copyOf(addresses, addresses.length * 2);
+    }
+    System.arraycopy(addresses, index, addresses, index + 1, size - index);
+    addresses[index] = address;
+    size++;
+    modCount++;
+  }
+
+  @Override
+  public Object[] set(int index, Object[] row) {
+    Object[] previous = get(index);
+    addresses[index] = write(row);
+    return previous;
+  }
+
+  @Override
+  public Object[] remove(int index) {
+    Object[] previous = get(index);
+    System.arraycopy(addresses, index + 1, addresses, index, size - index - 1);
+    size--;
+    modCount++;
+    return previous;
+  }
+
+  /**
+   * Sort the rows. Only the addresses are moved, the rows stay where they are in the store.
+   *
+   * @param comparator The row comparator
+   */
+  @Override
+  public void sort(Comparator<? super Object[]> comparator) {
+    if (isSorted(comparator)) {
+      return;
+    }
+    long[] sorted = Arrays.copyOf(addresses, size);
+    mergeSort(sorted, new long[size], 0, size, comparator);
+    System.arraycopy(sorted, 0, addresses, 0, size);
+    modCount++;
+  }
+
+  private boolean isSorted(Comparator<? super Object[]> comparator) {
+    Object[] previous = null;
+    for (int i = 0; i < size; i++) {
+      Object[] row = read(addresses[i]);
+      if (previous != null && comparator.compare(previous, row) > 0) {
+        return false;
+      }
+      previous = row;
+    }
+    return true;
+  }
+
+  private void mergeSort(
+      long[] values, long[] work, int from, int to, Comparator<? super Object[]> comparator) {
+    if (to - from < 2) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    mergeSort(values, work, from, middle, comparator);
+    mergeSort(values, work, middle, to, comparator);
+
+    // The two halves are in order already
+    //
+    if (comparator.compare(read(values[middle - 1]), read(values[middle])) <= 0) {
+      return;
+    }
+
+    System.arraycopy(values, from, work, from, to - from);
+    int left = from;
+    int right = middle;
+    Object[] leftRow = read(work[left]);
+    Object[] rightRow = read(work[right]);
+    for (int i = from; i < to; i++) {
+      if (right >= to || (left < middle && comparator.compare(leftRow, rightRow) <= 0)) {
+        values[i] = work[left++];
+        if (left < middle) {
+          leftRow = read(work[left]);
+        }
+      } else {
+        values[i] = work[right++];
+        if (right < to) {
+          rightRow = read(work[right]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets rowMeta
+   *
+   * @return value of rowMeta
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @return The number of bytes the rows take in the off-heap store
+   */
+  public long getBytesUsed() {
+    return store.getBytesUsed();
+  }
+
+  /** Remove all rows and release the off-heap memory */
+  @Override
+  public void close() {
+    store.close();
+    addresses = new long[1024];
+    size = 0;
+    modCount++;
+  }
+}
@@ -78,7 +78,7 @@ public class RowMeta implements IRowMeta {
     this.needRealClone = rowMeta.needRealClone;
   }
 
-  private RowMeta(List<IValueMeta> valueMetaList, RowMetaCache rowMetaCache) {
+  RowMeta(List<IValueMeta> valueMetaList, RowMetaCache rowMetaCache) {
     lock = new ReentrantReadWriteLock();
     this.cache = rowMetaCache;
     this.valueMetaList = valueMetaList;
@@ -88,8 +88,7 @@ public class RowMeta implements IRowMeta {
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
-    if (o == null || getClass() != o.getClass()) return false;
-    RowMeta rowMeta = (RowMeta) o;
+    if (!(o instanceof RowMeta rowMeta)) return false;
     for (int i = 0; i < valueMetaList.size(); i++) {
       IValueMeta thisValue = valueMetaList.get(i);
       IValueMeta thatValue = rowMeta.getValueMeta(i);
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+import java.util.Arrays;
+
+/** Keeps track of the size and the null values of a column vector. */
+abstract class BaseColumnVector implements IColumnVector {
+  protected static final int DEFAULT_CAPACITY = 1024;
+
+  /** One bit per row, set if the value is null */
+  protected long[] nulls;
+
+  protected int size;
+
+  protected BaseColumnVector(int capacity) {
+    nulls = new long[bitmapLength(Math.max(1, capacity))];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isNull(int row) {
+    return (nulls[row >>> 6] & (1L << row)) != 0;
+  }
+
+  @Override
+  public void setNull(int row) {
+    ensureCapacity(row + 1);
+    nulls[row >>> 6] |= 1L << row;
+    clearValue(row);
+    size = Math.max(size, row + 1);
+  }
+
+  /**
+   * Flag the value of a row as not null. The column grows as needed.
+   *
+   * @param row The row index
+   */
+  protected void setNotNull(int row) {
+    ensureCapacity(row + 1);
+    nulls[row >>> 6] &= ~(1L << row);
+    size = Math.max(size, row + 1);
+  }
+
+  @Override
+  public void ensureCapacity(int capacity) {
+    int current = capacity();
+    if (capacity > current) {
+      int newCapacity = Math.max(capacity, current + (current >> 1));
+      nulls = Arrays.copyOf(nulls, bitmapLength(newCapacity));
+      growValues(newCapacity);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (int row = 0; row < size; row++) {
+      clearValue(row);
+    }
+    Arrays.fill(nulls, 0, bitmapLength(size), 0L);
+    size = 0;
+  }
+
+  /**
+   * @return true if at least one value in this column is null
+   */
+  public boolean hasNulls() {
+    int words = bitmapLength(size);
+    for (int i = 0; i < words; i++) {
+      if (nulls[i] != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return The number of values this column can hold without growing
+   */
+  protected abstract int capacity();
+
+  /** Grow the value array to the given capacity */
+  protected abstract void growValues(int newCapacity);
+
+  /** Release the value of a null row, if needed */
+  protected void clearValue(int row) {
+    // Primitive values don't need to be cleared
+  }
+
+  private static int bitmapLength(int capacity) {
+    return (capacity + 63) >>> 6;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+import java.util.Arrays;
+
+/** A column of Boolean values, stored as primitive booleans. */
+public class BooleanColumnVector extends BaseColumnVector {
+  private boolean[] values;
+
+  public BooleanColumnVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public BooleanColumnVector(int capacity) {
+    super(capacity);
+    values = new boolean[Math.max(1, capacity)];
+  }
+
+  /**
+   * @param row The row index
+   * @return The value of the row. Check {@link #isNull(int)} first, a null value is returned as
+   *     false.
+   */
+  public boolean getBoolean(int row) {
+    return values[row];
+  }
+
+  /**
+   * Set the value of a row. The column grows as needed.
+   *
+   * @param row The row index
+   * @param value The value
+   */
+  public void setBoolean(int row, boolean value) {
+    setNotNull(row);
+    values[row] = value;
+  }
+
+  /**
+   * @return The values of this column, the array can be larger than the size of the column.
+   */
+  public boolean[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return isNull(row) ? null : values[row];
+  }
+
+  @Override
+  public boolean setObject(int row, Object value) {
+    if (value == null) {
+      setNull(row);
+      return true;
+    }
+    if (value instanceof Boolean v) {
+      setBoolean(row, v);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  protected int capacity() {
+    return values.length;
+  }
+
+  @Override
+  protected void growValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+import java.util.Arrays;
+
+/** A column of Number values, stored as primitive doubles. */
+public class DoubleColumnVector extends BaseColumnVector {
+  private double[] values;
+
+  public DoubleColumnVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public DoubleColumnVector(int capacity) {
+    super(capacity);
+    values = new double[Math.max(1, capacity)];
+  }
+
+  /**
+   * @param row The row index
+   * @return The value of the row. Check {@link #isNull(int)} first, a null value is returned as
+   *     0.0.
+   */
+  public double getDouble(int row) {
+    return values[row];
+  }
+
+  /**
+   * Set the value of a row. The column grows as needed.
+   *
+   * @param row The row index
+   * @param value The value
+   */
+  public void setDouble(int row, double value) {
+    setNotNull(row);
+    values[row] = value;
+  }
+
+  /**
+   * @return The values of this column, the array can be larger than the size of the column.
+   */
+  public double[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return isNull(row) ? null : values[row];
+  }
+
+  @Override
+  public boolean setObject(int row, Object value) {
+    if (value == null) {
+      setNull(row);
+      return true;
+    }
+    if (value instanceof Double v) {
+      setDouble(row, v);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  protected int capacity() {
+    return values.length;
+  }
+
+  @Override
+  protected void growValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+/**
+ * A column of values in a {@link org.apache.hop.core.row.ColumnarRowBatch}. The implementations
+ * store the values of a data type in a primitive array with a separate null bitmap, so that they
+ * can be processed without boxing every cell.
+ */
+public interface IColumnVector {
+
+  /**
+   * @return The number of values in this column
+   */
+  int size();
+
+  /**
+   * @param row The row index
+   * @return true if the value of the given row is null
+   */
+  boolean isNull(int row);
+
+  /**
+   * Get the value of a row as the object a row would contain: Long, Double, Boolean, String and so
+   * on.
+   *
+   * @param row The row index
+   * @return The value or null
+   */
+  Object getObject(int row);
+
+  /**
+   * Set the value of a row from the object a row would contain. The column grows as needed.
+   *
+   * @param row The row index
+   * @param value The value or null
+   * @return false if the value can't be stored in this type of column
+   */
+  boolean setObject(int row, Object value);
+
+  /**
+   * Set the value of a row to null. The column grows as needed.
+   *
+   * @param row The row index
+   */
+  void setNull(int row);
+
+  /**
+   * Make sure this column can hold at least the given number of values.
+   *
+   * @param capacity The minimum capacity
+   */
+  void ensureCapacity(int capacity);
+
+  /** Remove all values from this column but keep its buffers, so it can be filled again. */
+  void clear();
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A column of values which don't have a primitive representation like dates and big numbers, or
+ * values which are not stored in their normal form (binary strings, indexed values).
+ */
+public class ObjectColumnVector extends BaseColumnVector {
+  private Object[] values;
+
+  public ObjectColumnVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public ObjectColumnVector(int capacity) {
+    super(capacity);
+    values = new Object[Math.max(1, capacity)];
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return values[row];
+  }
+
+  @Override
+  public boolean setObject(int row, Object value) {
+    if (value == null) {
+      setNull(row);
+    } else {
+      setNotNull(row);
+      values[row] = value;
+    }
+    return true;
+  }
+
+  @Override
+  protected int capacity() {
+    return values.length;
+  }
+
+  @Override
+  protected void growValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+
+  @Override
+  protected void clearValue(int row) {
+    values[row] = null;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.row.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary encoded column of Strings. Every distinct String is stored once and the rows refer
+ * to it with an integer code. Comparing codes is a lot cheaper than comparing Strings, for example
+ * to test for equality or to group rows.
+ */
+public class StringColumnVector extends BaseColumnVector {
+  private int[] codes;
+  private final List<String> dictionary;
+  private final Map<String, Integer> dictionaryIndex;
+
+  public StringColumnVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public StringColumnVector(int capacity) {
+    super(capacity);
+    codes = new int[Math.max(1, capacity)];
+    dictionary = new ArrayList<>();
+    dictionaryIndex = new HashMap<>();
+  }
+
+  /**
+   * @param row The row index
+   * @return The String value of the row or null
+   */
+  public String getString(int row) {
+    return isNull(row) ? null : dictionary.get(codes[row]);
+  }
+
+  /**
+   * Set the value of a row. The column grows as needed.
+   *
+   * @param row The row index
+   * @param value The value or null
+   */
+  public void setString(int row, String value) {
+    if (value == null) {
+      setNull(row);
+      return;
+    }
+    setNotNull(row);
+    codes[row] = encode(value);
+  }
+
+  /**
+   * @param row The row index
+   * @return The dictionary code of the value of the row. Check {@link #isNull(int)} first.
+   */
+  public int getCode(int row) {
+    return codes[row];
+  }
+
+  /**
+   * Look up the dictionary code of a String.
+   *
+   * @param value The value to look for
+   * @return The code or -1 if no row has this value
+   */
+  public int lookupCode(String value) {
+    Integer code = dictionaryIndex.get(value);
+    return code == null ? -1 : code;
+  }
+
+  /**
+   * @return The distinct values in this column, indexed by their code
+   */
+  public List<String> getDictionary() {
+    return dictionary;
+  }
+
+  private int encode(String value) {
+    Integer code = dictionaryIndex.get(value);
+    if (code == null) {
+      code = dictionary.size();
+      dictionary.add(value);
+      dictionaryIndex.put(value, code);
+    }
+    return code;
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return getString(row);
+  }
+
+  @Override
+  public boolean setObject(int row, Object value) {
+    if (value == null || value instanceof String) {
+      setString(row, (String) value);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    dictionary.clear();
+    dictionaryIndex.clear();
+  }
+
+  @Override
+  protected int capacity() {
+    return codes.length;
+  }
+
+  @Override
+  protected void growValues(int newCapacity) {
+    codes = Arrays.copyOf(codes, newCapacity);
+  }
+}
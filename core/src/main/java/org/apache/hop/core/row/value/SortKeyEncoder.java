@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * Calculates normalized sort keys: byte arrays which, compared as unsigned bytes, give the same
+ * order as {@link IRowMeta#compare(Object[], Object[], int[])} on the same fields. Rows can then be
+ * sorted and merged with cheap byte comparisons instead of comparing the values field by field
+ * over and over again.
+ *
+ * <p>Every field starts with a marker byte for null values so that nulls sort first, followed by an
+ * order preserving encoding of the value: the sign bit flipped for integers and dates, the IEEE
+ * bits adjusted for numbers and the UTF-16 characters (case folded if needed) or the collation key
+ * for strings. Strings are terminated so that a shorter string sorts before a longer one with the
+ * same prefix. All the bytes of a field are inverted when it is sorted descending.
+ *
+ * <p>Only the standard Integer, Number, Date, Boolean and String types are supported. {@link
+ * #create(IRowMeta, int[])} returns null for other types so that the caller can fall back to
+ * comparing values. An encoder re-uses an internal buffer and is not thread-safe.
+ */
+public class SortKeyEncoder {
+
+  /** Compares sort keys as unsigned bytes */
+  public static final Comparator<byte[]> KEY_COMPARATOR = SortKeyEncoder::compare;
+
+  private static final byte NULL_MARKER = 0x00;
+  private static final byte VALUE_MARKER = 0x01;
+
+  private final IValueMeta[] valueMetas;
+  private final int[] fieldNrs;
+
+  private byte[] buffer;
+  private int length;
+
+  private SortKeyEncoder(IValueMeta[] valueMetas, int[] fieldNrs) {
+    this.valueMetas = valueMetas;
+    this.fieldNrs = fieldNrs;
+    this.buffer = new byte[64];
+  }
+
+  /**
+   * Create an encoder for the given key fields.
+   *
+   * @param rowMeta The metadata of the rows, including the sort settings of the values
+   *     (descending, case insensitive, collator)
+   * @param fieldNrs The indexes of the fields to sort on, in that order
+   * @return The encoder or null if one of the key fields can't be encoded
+   */
+  public static SortKeyEncoder create(IRowMeta rowMeta, int[] fieldNrs) {
+    IValueMeta[] valueMetas = new IValueMeta[fieldNrs.length];
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(fieldNrs[i]);
+      if (!isSupported(valueMeta)) {
+        return null;
+      }
+      valueMetas[i] = valueMeta;
+    }
+    return new SortKeyEncoder(valueMetas, fieldNrs.clone());
+  }
+
+  /**
+   * See if values of the given metadata are compared in the standard way of their type: no
+   * subclass, custom comparator, collation rules or indexed storage.
+   *
+   * @param valueMeta The value metadata
+   * @return true if the values can be encoded in sort keys
+   */
+  public static boolean isSupported(IValueMeta valueMeta) {
+    if (valueMeta == null || valueMeta.isStorageIndexed()) {
+      return false;
+    }
+    // Subclasses or custom comparators can compare in a different way
+    //
+    Class<?> clazz = valueMeta.getClass();
+    if (clazz != ValueMetaInteger.class
+        && clazz != ValueMetaNumber.class
+        && clazz != ValueMetaDate.class
+        && clazz != ValueMetaBoolean.class
+        && clazz != ValueMetaString.class) {
+      return false;
+    }
+    ValueMetaBase valueMetaBase = (ValueMetaBase) valueMeta;
+    if (valueMetaBase.comparator != null) {
+      return false;
+    }
+    return valueMetaBase.collatorDisabled || valueMetaBase.collator != null;
+  }
+
+  /**
+   * Compare two sort keys.
+   *
+   * @param key1 The first key
+   * @param key2 The second key
+   * @return a negative number, zero or a positive number if the first key is smaller than, equal to
+   *     or larger than the second key.
+   */
+  public static int compare(byte[] key1, byte[] key2) {
+    return Arrays.compareUnsigned(key1, key2);
+  }
+
+  /**
+   * Calculate the sort key of a row.
+   *
+   * @param row The row data
+   * @return The sort key
+   * @throws HopValueException In case a value can't be converted to the data type of its field
+   */
+  public byte[] encode(Object[] row) throws HopValueException {
+    length = 0;
+    for (int i = 0; i < valueMetas.length; i++) {
+      int start = length;
+      encodeValue(valueMetas[i], row[fieldNrs[i]]);
+      if (valueMetas[i].isSortedDescending()) {
+        for (int b = start; b < length; b++) {
+          buffer[b] = (byte) ~buffer[b];
+        }
+      }
+    }
+    return Arrays.copyOf(buffer, length);
+  }
+
+  private void encodeValue(IValueMeta valueMeta, Object value) throws HopValueException {
+    if (valueMeta.isNull(value)) {
+      put(NULL_MARKER);
+      return;
+    }
+    put(VALUE_MARKER);
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        putLong(valueMeta.getInteger(value) ^ Long.MIN_VALUE);
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        long bits = Double.doubleToLongBits(valueMeta.getNumber(value));
+        // Negative numbers: flip all the bits, positive numbers: flip the sign bit
+        putLong(bits ^ ((bits >> 63) | Long.MIN_VALUE));
+        break;
+      case IValueMeta.TYPE_DATE:
+        putLong(valueMeta.getDate(value).getTime() ^ Long.MIN_VALUE);
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        put(Boolean.TRUE.equals(valueMeta.getBoolean(value)) ? (byte) 1 : (byte) 0);
+        break;
+      case IValueMeta.TYPE_STRING:
+        encodeString((ValueMetaBase) valueMeta, valueMeta.getString(value));
+        break;
+      default:
+        throw new HopValueException(
+            valueMeta + " : a sort key can not be calculated for data type " + valueMeta.getType());
+    }
+  }
+
+  private void encodeString(ValueMetaBase valueMeta, String string) {
+    if (valueMeta.ignoreWhitespace) {
+      string = string.trim();
+    }
+    if (valueMeta.collatorDisabled) {
+      for (int i = 0; i < string.length(); i++) {
+        char c = string.charAt(i);
+        if (valueMeta.caseInsensitive) {
+          // The same folding as String.compareToIgnoreCase()
+          c = Character.toLowerCase(Character.toUpperCase(c));
+        }
+        putEscaped((byte) (c >>> 8));
+        putEscaped((byte) c);
+      }
+    } else {
+      for (byte b : valueMeta.collator.getCollationKey(string).toByteArray()) {
+        putEscaped(b);
+      }
+    }
+    // Terminate the string so that it sorts before longer strings with the same prefix
+    put((byte) 0x00);
+    put((byte) 0x00);
+  }
+
+  /** Zero bytes are escaped as 0x00 0xFF so that they sort after the terminator 0x00 0x00 */
+  private void putEscaped(byte b) {
+    put(b);
+    if (b == 0) {
+      put((byte) 0xFF);
+    }
+  }
+
+  private void putLong(long value) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[length++] = (byte) (value >>> shift);
+    }
+  }
+
+  private void put(byte b) {
+    ensureCapacity(1);
+    buffer[length++] = b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(length + extra, buffer.length * 2));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates virtual threads when the Java runtime supports them (Java 21 and later). Hop is compiled
+ * for an older Java release so the virtual thread builder is looked up at runtime.
+ */
+public class VirtualThreadUtil {
+  private static final MethodHandle OF_VIRTUAL;
+  private static final MethodHandle BUILDER_NAME;
+  private static final MethodHandle BUILDER_UNSTARTED;
+
+  static {
+    MethodHandle ofVirtual = null;
+    MethodHandle builderName = null;
+    MethodHandle builderUnstarted = null;
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      ofVirtual =
+          lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass));
+      builderName =
+          lookup.findVirtual(
+              builderClass, "name", MethodType.methodType(builderClass, String.class));
+      builderUnstarted =
+          lookup.findVirtual(
+              builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+
+      // On Java 19 and 20 the methods exist but are preview features: without --enable-preview
+      // they throw at runtime. Create a thread (without starting it) to be sure they work.
+      //
+      Object builder = ofVirtual.invoke();
+      builder = builderName.invoke(builder, "hop-virtual-thread-probe");
+      builderUnstarted.invoke(builder, (Runnable) () -> {});
+    } catch (Throwable e) {
+      // Virtual threads are not available in this Java runtime
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_UNSTARTED = builderUnstarted;
+  }
+
+  private VirtualThreadUtil() {}
+
+  /**
+   * @return true if the Java runtime can create virtual threads.
+   */
+  public static boolean isAvailable() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a new thread which is not yet started.
+   *
+   * @param runnable The code to run in the thread
+   * @param name The name of the thread
+   * @param virtual true if a virtual thread should be created. If the Java runtime doesn't support
+   *     virtual threads or fails to create one, a platform thread is created.
+   * @return The new thread
+   */
+  public static Thread newThread(Runnable runnable, String name, boolean virtual) {
+    if (virtual && isAvailable()) {
+      try {
+        Object builder = OF_VIRTUAL.invoke();
+        builder = BUILDER_NAME.invoke(builder, name);
+        return (Thread) BUILDER_UNSTARTED.invoke(builder, runnable);
+      } catch (Throwable e) {
+        // Fall back to a platform thread below
+      }
+    }
+    Thread thread = new Thread(runnable);
+    thread.setName(name);
+    return thread;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Test class for the non-blocking row set used by the worker pool. */
+public class ConcurrentQueueRowSetTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rm;
+  }
+
+  @Test
+  public void testPutAndGet() {
+    ConcurrentQueueRowSet set = new ConcurrentQueueRowSet();
+    IRowMeta rm = createRowMeta();
+
+    assertFalse(set.isDone());
+    assertNull(set.getRowWait(1, TimeUnit.SECONDS));
+
+    Object[] r1 = new Object[] {1L};
+    Object[] r2 = new Object[] {2L};
+    assertTrue(set.putRow(rm, r1));
+    assertTrue(set.putRowWait(rm, r2, 1, TimeUnit.MILLISECONDS));
+    assertEquals(2, set.size());
+    assertEquals(rm, set.getRowMeta());
+
+    assertArrayEquals(r1, set.getRow());
+    assertArrayEquals(r2, set.getRowImmediate());
+    assertNull(set.getRow());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testBatches() {
+    ConcurrentQueueRowSet set = new ConcurrentQueueRowSet();
+    IRowMeta rm = createRowMeta();
+
+    List<Object[]> rows = Arrays.asList(new Object[] {1L}, new Object[] {2L}, new Object[] {3L});
+    assertEquals(3, set.putRowsWait(rm, rows, 1, TimeUnit.MILLISECONDS));
+    assertEquals(3, set.size());
+
+    List<Object[]> result = new ArrayList<>();
+    assertEquals(2, set.getRowsImmediate(result, 2));
+    assertEquals(1, set.size());
+    assertEquals(1, set.getRowsImmediate(result, 10));
+    assertEquals(0, set.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertArrayEquals(rows.get(i), result.get(i));
+    }
+  }
+
+  @Test
+  public void testRowsAvailableListener() {
+    ConcurrentQueueRowSet set = new ConcurrentQueueRowSet();
+    IRowMeta rm = createRowMeta();
+    AtomicInteger calls = new AtomicInteger();
+    set.setRowsAvailableListener(calls::incrementAndGet);
+
+    // Only called when rows arrive in an empty row set
+    set.putRow(rm, new Object[] {1L});
+    set.putRow(rm, new Object[] {2L});
+    assertEquals(1, calls.get());
+
+    set.getRow();
+    set.getRow();
+    set.putRowsWait(rm, Arrays.asList(new Object[] {3L}, new Object[] {4L}), 1, TimeUnit.SECONDS);
+    assertEquals(2, calls.get());
+
+    set.setDone();
+    assertTrue(set.isDone());
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  public void testClear() {
+    ConcurrentQueueRowSet set = new ConcurrentQueueRowSet();
+    IRowMeta rm = createRowMeta();
+
+    set.putRow(rm, new Object[] {1L});
+    set.putRow(rm, new Object[] {2L});
+    set.setDone();
+    set.clear();
+
+    assertEquals(0, set.size());
+    assertFalse(set.isDone());
+    assertNull(set.getRow());
+  }
+
+  @Test(timeout = 10000)
+  public void testCountedRowsCanAlwaysBeRead() throws Exception {
+    ConcurrentQueueRowSet set = new ConcurrentQueueRowSet();
+    IRowMeta rm = createRowMeta();
+    int nrRows = 100000;
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                set.putRow(rm, new Object[] {i});
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    // A row which is counted is always there to be read
+    long expected = 0;
+    while (!set.isDone() || set.size() > 0) {
+      int size = set.size();
+      assertTrue(size >= 0);
+      if (size > 0) {
+        Object[] row = set.getRow();
+        assertNotNull(row);
+        assertEquals(expected++, row[0]);
+      }
+    }
+    producer.join();
+    assertEquals(nrRows, expected);
+    assertEquals(0, set.size());
+  }
+}
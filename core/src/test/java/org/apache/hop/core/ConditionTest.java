@@ -18,14 +18,21 @@
 package org.apache.hop.core;
 
 import static org.apache.hop.core.Condition.Function;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.row.ColumnarRowBatch;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.xml.XmlHandler;
 import org.apache.hop.junit.rules.RestoreHopEnvironment;
 import org.junit.Assert;
@@ -116,4 +123,79 @@ public class ConditionTest {
     Assert.assertNull(condition.getRightValue());
     Assert.assertEquals(Function.LARGER_EQUAL, condition.getFunction());
   }
+
+  @Test
+  public void testBatchEvaluationMatchesRowEvaluation() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaNumber("limit"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 50; i++) {
+      rows.add(
+          new Object[] {
+            i % 7 == 0 ? null : i,
+            i % 5 == 0 ? null : i * 1.5,
+            40.0,
+            i % 3 == 0 ? "A" + i : "B" + i
+          });
+    }
+
+    // id > 10 AND amount <= limit OR NOT code STARTS WITH 'A' AND id IS NOT NULL
+    //
+    Condition condition = new Condition();
+    condition.addCondition(
+        new Condition(
+            "id", Function.LARGER, null, new ValueMetaAndData(new ValueMetaInteger("c"), 10L)));
+    condition.addCondition(
+        new Condition(Condition.Operator.AND, "amount", Function.SMALLER_EQUAL, "limit", null));
+    condition.addCondition(
+        new Condition(
+            Condition.Operator.OR_NOT,
+            "code",
+            Function.STARTS_WITH,
+            null,
+            new ValueMetaAndData(new ValueMetaString("c"), "A")));
+    condition.addCondition(
+        new Condition(Condition.Operator.AND, "id", Function.NOT_NULL, null, null));
+
+    boolean[] result = condition.evaluate(ColumnarRowBatch.fromRows(rowMeta, rows));
+
+    assertEquals(rows.size(), result.length);
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals("row " + i, condition.evaluate(rowMeta, rows.get(i)), result[i]);
+    }
+  }
+
+  /**
+   * A custom comparator can order the values differently than their type does: the columnar
+   * evaluation must not be used for it, the results have to be the same as row by row.
+   */
+  @Test
+  public void testColumnarEvaluationWithCustomComparator() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(
+        new ValueMetaBase(
+            "id",
+            IValueMeta.TYPE_INTEGER,
+            (value1, value2) -> ((Long) value2).compareTo((Long) value1)));
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 20; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    Condition condition =
+        new Condition(
+            "id", Function.LARGER, null, new ValueMetaAndData(new ValueMetaInteger("c"), 10L));
+
+    boolean[] result = condition.evaluate(ColumnarRowBatch.fromRows(rowMeta, rows));
+
+    assertEquals(rows.size(), result.length);
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals("row " + i, condition.evaluate(rowMeta, rows.get(i)), result[i]);
+    }
+  }
 }
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Test class for the lock-free single producer / single consumer row set. */
+public class SpscRowSetTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rm;
+  }
+
+  @Test
+  public void testBasicCreation() {
+    IRowSet set = new SpscRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  public void testCapacityIsRespected() {
+    // 3 is not a power of two, the ring buffer is bigger but the capacity must stay 3
+    IRowSet set = new SpscRowSet(3);
+    IRowMeta rm = createRowMeta();
+
+    Object[] r1 = new Object[] {1L};
+    Object[] r2 = new Object[] {2L};
+    Object[] r3 = new Object[] {3L};
+    Object[] r4 = new Object[] {4L};
+
+    assertTrue(set.putRow(rm, r1));
+    assertTrue(set.putRow(rm, r2));
+    assertTrue(set.putRow(rm, r3));
+    assertEquals(3, set.size());
+    assertFalse(set.putRowWait(rm, r4, 1, TimeUnit.MILLISECONDS));
+    assertEquals(rm, set.getRowMeta());
+
+    assertArrayEquals(r1, set.getRow());
+    assertTrue(set.putRowWait(rm, r4, 1, TimeUnit.MILLISECONDS));
+    assertArrayEquals(r2, set.getRow());
+    assertArrayEquals(r3, set.getRowImmediate());
+    assertArrayEquals(r4, set.getRowWait(1, TimeUnit.MILLISECONDS));
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testClear() {
+    IRowSet set = new SpscRowSet(5);
+    IRowMeta rm = createRowMeta();
+    set.putRow(rm, new Object[] {1L});
+    set.putRow(rm, new Object[] {2L});
+    set.setDone();
+
+    set.clear();
+
+    assertEquals(0, set.size());
+    assertFalse(set.isDone());
+    assertNull(set.getRowImmediate());
+    assertTrue(set.putRow(rm, new Object[] {3L}));
+    assertArrayEquals(new Object[] {3L}, set.getRow());
+  }
+
+  @Test
+  public void testWaitingConsumerIsWokenUp() throws Exception {
+    final IRowSet set = new SpscRowSet(5);
+    final IRowMeta rm = createRowMeta();
+    final AtomicReference<Object[]> received = new AtomicReference<>();
+
+    Thread consumer = new Thread(() -> received.set(set.getRowWait(1, TimeUnit.MINUTES)));
+    consumer.start();
+    waitUntilParked(consumer);
+
+    // The consumer is parked and must not have returned without a row
+    assertTrue(consumer.isAlive());
+    assertNull(received.get());
+
+    set.putRow(rm, new Object[] {1L});
+    consumer.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertFalse("The consumer wasn't woken up by the new row", consumer.isAlive());
+    assertArrayEquals(new Object[] {1L}, received.get());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testWaitingProducerIsWokenUp() throws Exception {
+    final IRowSet set = new SpscRowSet(1);
+    final IRowMeta rm = createRowMeta();
+    final AtomicBoolean put = new AtomicBoolean();
+    assertTrue(set.putRow(rm, new Object[] {1L}));
+
+    Thread producer =
+        new Thread(() -> put.set(set.putRowWait(rm, new Object[] {2L}, 1, TimeUnit.MINUTES)));
+    producer.start();
+    waitUntilParked(producer);
+
+    // The producer is parked on the full buffer, the first row is still the only one
+    assertTrue(producer.isAlive());
+    assertFalse(put.get());
+    assertEquals(1, set.size());
+
+    assertArrayEquals(new Object[] {1L}, set.getRowImmediate());
+    producer.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertFalse("The producer wasn't woken up by the free space", producer.isAlive());
+    assertTrue(put.get());
+    assertArrayEquals(new Object[] {2L}, set.getRowImmediate());
+  }
+
+  @Test
+  public void testWaitingConsumerIsWokenUpWhenDone() throws Exception {
+    final IRowSet set = new SpscRowSet(5);
+    final AtomicBoolean returned = new AtomicBoolean();
+
+    Thread consumer =
+        new Thread(
+            () -> {
+              set.getRowWait(1, TimeUnit.MINUTES);
+              returned.set(true);
+            });
+    consumer.start();
+    waitUntilParked(consumer);
+
+    set.setDone();
+    consumer.join(TimeUnit.SECONDS.toMillis(10));
+
+    assertFalse("The consumer wasn't woken up when the row set was done", consumer.isAlive());
+    assertTrue(returned.get());
+  }
+
+  /**
+   * Both sides wait without a practical time limit on a buffer of a single row, so they park and
+   * signal each other for about every row. A lost signal would stall the test for a minute.
+   */
+  @Test(timeout = 30000)
+  public void testNoSignalIsLost() throws Exception {
+    final IRowSet set = new SpscRowSet(1);
+    final IRowMeta rm = createRowMeta();
+    final long nrRows = 20000L;
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                for (long i = 0; i < nrRows; i++) {
+                  assertTrue(set.putRowWait(rm, new Object[] {i}, 1, TimeUnit.MINUTES));
+                }
+                set.setDone();
+              } catch (Throwable e) {
+                error.set(e);
+              }
+            });
+    producer.start();
+
+    long expected = 0;
+    while (expected < nrRows) {
+      Object[] row = set.getRowWait(1, TimeUnit.MINUTES);
+      assertEquals(expected++, row[0]);
+    }
+    producer.join();
+
+    assertNull(error.get());
+    assertNull(set.getRowWait(1, TimeUnit.MINUTES));
+    assertTrue(set.isDone());
+  }
+
+  @Test
+  public void testOrderIsKeptBetweenThreads() throws Exception {
+    final IRowSet set = new SpscRowSet(7);
+    final IRowMeta rm = createRowMeta();
+    final long nrRows = 100000L;
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                for (long i = 0; i < nrRows; i++) {
+                  Object[] row = new Object[] {i};
+                  while (!set.putRow(rm, row)) {
+                    // buffer full, try again
+                  }
+                }
+                set.setDone();
+              } catch (Throwable e) {
+                error.set(e);
+              }
+            });
+    producer.start();
+
+    long expected = 0;
+    while (true) {
+      Object[] row = set.getRow();
+      if (row == null) {
+        if (set.isDone() && set.size() == 0) {
+          break;
+        }
+        continue;
+      }
+      assertEquals(expected++, row[0]);
+    }
+    producer.join();
+
+    assertNull(error.get());
+    assertEquals(nrRows, expected);
+  }
+
+  @Test
+  public void testInterruptIsConsumedWhileWaiting() {
+    IRowSet set = new SpscRowSet(1);
+
+    Thread.currentThread().interrupt();
+    try {
+      assertNull(set.getRowWait(10, TimeUnit.SECONDS));
+      // Same as the blocking row set: the interrupt ends this wait only
+      assertFalse(Thread.currentThread().isInterrupted());
+
+      // So the next wait parks again instead of returning at once
+      long start = System.nanoTime();
+      assertNull(set.getRowWait(50, TimeUnit.MILLISECONDS));
+      long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue("Waited only " + waited + "ms", waited >= 40);
+    } finally {
+      Thread.interrupted(); // don't leak the interrupt into other tests
+    }
+  }
+
+  /** Wait until the given thread parks in the row set, it spins for a short while first. */
+  private static void waitUntilParked(Thread thread) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (thread.getState() != Thread.State.TIMED_WAITING) {
+      assertTrue("The thread never parked", System.nanoTime() < deadline);
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+public class BaseCsvBulkLoaderTest {
+
+  private static class CapturingLoader extends BaseCsvBulkLoader {
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    private boolean ended;
+    private boolean aborted;
+
+    CapturingLoader(IRowMeta rowMeta) {
+      this(rowMeta, true);
+    }
+
+    CapturingLoader(IRowMeta rowMeta, boolean booleanDataType) {
+      super(rowMeta, StandardCharsets.UTF_8, "NULL", booleanDataType);
+    }
+
+    @Override
+    protected void writeData(byte[] bytes, int length) {
+      data.write(bytes, 0, length);
+    }
+
+    @Override
+    protected long endLoad() {
+      ended = true;
+      return -1;
+    }
+
+    @Override
+    protected void abortLoad() {
+      aborted = true;
+    }
+
+    String getText() {
+      return data.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testRowFormat() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("total"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("day"));
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    calendar.set(2024, Calendar.MARCH, 5, 14, 30, 15);
+
+    CapturingLoader loader = new CapturingLoader(rowMeta);
+    loader.addRow(
+        new Object[] {
+          "say \"hi\", bye\n",
+          42L,
+          1.5d,
+          new BigDecimal("1E+3"),
+          Boolean.TRUE,
+          calendar.getTime()
+        });
+    loader.addRow(new Object[] {null, null, null, null, Boolean.FALSE, null});
+    assertEquals(2, loader.finish());
+    loader.close();
+
+    assertEquals(
+        "\"say \"\"hi\"\", bye\n\",42,1.5,1000,1,2024-03-05 14:30:15.000\n"
+            + "NULL,NULL,NULL,NULL,0,NULL\n",
+        loader.getText());
+    assertTrue(loader.ended);
+    assertFalse(loader.aborted);
+  }
+
+  @Test
+  public void testBooleansWithoutBooleanDataType() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+
+    CapturingLoader loader = new CapturingLoader(rowMeta, false);
+    loader.addRow(new Object[] {Boolean.TRUE});
+    loader.addRow(new Object[] {Boolean.FALSE});
+    loader.addRow(new Object[] {null});
+    loader.finish();
+
+    assertEquals("Y\nN\nNULL\n", loader.getText());
+  }
+
+  @Test
+  public void testLargeLoadIsSentInBlocks() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("text"));
+
+    StringBuilder longValue = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      longValue.append('é');
+    }
+
+    CapturingLoader loader = new CapturingLoader(rowMeta);
+    int rows = 10;
+    for (int i = 0; i < rows; i++) {
+      loader.addRow(new Object[] {longValue.toString()});
+    }
+    loader.finish();
+
+    String expectedRow = "\"" + longValue + "\"\n";
+    assertEquals(expectedRow.repeat(rows), loader.getText());
+    assertEquals(rows, loader.getRows());
+  }
+
+  @Test
+  public void testCloseWithoutFinishAbortsTheLoad() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    CapturingLoader loader = new CapturingLoader(rowMeta);
+    loader.addRow(new Object[] {1L});
+    loader.close();
+
+    assertTrue(loader.aborted);
+    assertFalse(loader.ended);
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaDate("day"));
+    assertTrue(BaseCsvBulkLoader.isSupported(rowMeta));
+
+    rowMeta.addValueMeta(new ValueMetaBinary("data"));
+    assertFalse(BaseCsvBulkLoader.isSupported(rowMeta));
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class DatabaseConnectionPoolTest {
+
+  private static final DatabaseConnectionPool.Settings SETTINGS =
+      new DatabaseConnectionPool.Settings(2, 600000L, 1800000L, 0L);
+
+  private final DatabaseConnectionPool pool = DatabaseConnectionPool.getInstance();
+  private final List<Connection> created = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    pool.closeIdleConnections();
+  }
+
+  private Connection createConnection() throws SQLException {
+    Connection connection = mock(Connection.class);
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    created.add(connection);
+    return connection;
+  }
+
+  private Connection getConnection(String key) throws SQLException {
+    return pool.getConnection(key, key, SETTINGS, this::createConnection);
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    Connection connection = getConnection("reuse");
+    assertTrue(pool.isActive(connection));
+    assertTrue(pool.releaseConnection(connection));
+    assertFalse(pool.isActive(connection));
+    assertEquals(1, pool.getNrIdleConnections("reuse"));
+
+    assertSame(connection, getConnection("reuse"));
+    assertEquals(0, pool.getNrIdleConnections("reuse"));
+    assertEquals(1, created.size());
+    pool.releaseConnection(connection);
+  }
+
+  @Test
+  public void testDifferentKeyGetsNewConnection() throws Exception {
+    Connection connection1 = getConnection("key1");
+    pool.releaseConnection(connection1);
+
+    Connection connection2 = getConnection("key2");
+    assertNotSame(connection1, connection2);
+    assertEquals(2, created.size());
+    pool.releaseConnection(connection2);
+  }
+
+  @Test
+  public void testMaxIdle() throws Exception {
+    Connection connection1 = getConnection("maxIdle");
+    Connection connection2 = getConnection("maxIdle");
+    Connection connection3 = getConnection("maxIdle");
+    pool.releaseConnection(connection1);
+    pool.releaseConnection(connection2);
+    pool.releaseConnection(connection3);
+
+    assertEquals(2, pool.getNrIdleConnections("maxIdle"));
+    verify(connection1, never()).close();
+    verify(connection2, never()).close();
+    verify(connection3).close();
+  }
+
+  @Test
+  public void testConnectionIsResetOnRelease() throws Exception {
+    Connection connection = getConnection("reset");
+    when(connection.getAutoCommit()).thenReturn(false);
+    pool.releaseConnection(connection);
+
+    verify(connection).rollback();
+    verify(connection).setAutoCommit(true);
+  }
+
+  @Test
+  public void testUnknownConnectionIsNotReleased() throws Exception {
+    Connection connection = createConnection();
+    assertFalse(pool.releaseConnection(connection));
+    verify(connection, never()).close();
+  }
+
+  @Test
+  public void testInvalidIdleConnectionIsReplaced() throws Exception {
+    Connection connection = getConnection("invalid");
+    pool.releaseConnection(connection);
+    when(connection.isValid(anyInt())).thenReturn(false);
+
+    // Wait until the connection is validated before it is handed out again
+    Thread.sleep(600);
+
+    Connection other = getConnection("invalid");
+    assertNotSame(connection, other);
+    verify(connection).close();
+    pool.releaseConnection(other);
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.hop.core.database;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -47,6 +48,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.List;
+import java.util.Properties;
 import org.apache.hop.core.HopClientEnvironment;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -503,6 +505,36 @@ public class DatabaseTest {
     verify(conn, times(1)).close();
   }
 
+  @Test
+  public void testReleasePooledConnectionClosesStatements() throws Exception {
+    Connection connection = mockConnection(dbMetaData);
+    DatabaseConnectionPool pool = DatabaseConnectionPool.getInstance();
+    String key = "release-closes-statements";
+    assertEquals(
+        connection,
+        pool.getConnection(
+            key,
+            key,
+            new DatabaseConnectionPool.Settings(1, 600000L, 1800000L, 0L),
+            () -> connection));
+    try {
+      Database db = new Database(log, variables, meta);
+      db.setConnection(connection);
+      Field fieldPstmt = Database.class.getDeclaredField("prepStatementLookup");
+      fieldPstmt.setAccessible(true);
+      fieldPstmt.set(db, ps);
+
+      db.closeConnectionOnly();
+
+      // The next user of the connection doesn't get our open statement
+      verify(ps, times(1)).close();
+      verify(connection, never()).close();
+      assertEquals(1, pool.getNrIdleConnections(key));
+    } finally {
+      pool.closeIdleConnections();
+    }
+  }
+
   @Test
   public void testDisconnectConnectionGroup() throws SQLException {
     Database db = new Database(log, variables, meta);
@@ -618,4 +650,45 @@ public class DatabaseTest {
     assertEquals(columnName, iRowMeta.getValueMeta(0).getName());
     assertTrue(iRowMeta.getValueMeta(0) instanceof ValueMetaNumber);
   }
+
+  @Test
+  public void testConnectionPoolKeyHidesCredentials() {
+    Properties properties = new Properties();
+    properties.put("user", "hop");
+    properties.put("password", "secret");
+    properties.put("ssl", "true");
+    String key = getConnectionPoolKey(properties, null);
+    assertFalse(key.contains("secret"));
+    assertFalse(key.contains("host"));
+
+    // The order of the properties doesn't matter, the credentials do
+    //
+    Properties sameProperties = new Properties();
+    sameProperties.put("ssl", "true");
+    sameProperties.put("password", "secret");
+    sameProperties.put("user", "hop");
+    assertEquals(key, getConnectionPoolKey(sameProperties, null));
+
+    properties.put("password", "other");
+    assertNotEquals(key, getConnectionPoolKey(properties, null));
+  }
+
+  @Test
+  public void testConnectionPoolKeyDependsOnConnectSql() {
+    Properties properties = new Properties();
+    properties.put("user", "hop");
+    String key = getConnectionPoolKey(properties, null);
+    assertEquals(key, getConnectionPoolKey(properties, ""));
+
+    // Sessions set up with other connect SQL are not interchangeable
+    //
+    String schemaKey = getConnectionPoolKey(properties, "SET search_path TO sales");
+    assertNotEquals(key, schemaKey);
+    assertNotEquals(schemaKey, getConnectionPoolKey(properties, "SET search_path TO hr"));
+  }
+
+  private static String getConnectionPoolKey(Properties properties, String connectSql) {
+    return Database.getConnectionPoolKey(
+        "org.Driver", "jdbc:test://host/db", properties, connectSql);
+  }
 }
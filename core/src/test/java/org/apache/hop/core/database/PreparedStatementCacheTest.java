@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PreparedStatementCacheTest {
+
+  private List<PreparedStatement> prepared;
+  private PreparedStatementCache.IStatementFactory factory;
+
+  @Before
+  public void setUp() {
+    prepared = new ArrayList<>();
+    factory =
+        sql -> {
+          PreparedStatement statement = mock(PreparedStatement.class);
+          prepared.add(statement);
+          return statement;
+        };
+  }
+
+  @Test
+  public void testRepeatedSqlIsPreparedOnce() throws Exception {
+    PreparedStatementCache cache = new PreparedStatementCache(10);
+
+    PreparedStatement first = cache.get("select 1", "select 1", factory);
+    PreparedStatement second = cache.get("select 1", "select 1", factory);
+    PreparedStatement other = cache.get("select 2", "select 2", factory);
+
+    assertSame(first, second);
+    assertNotSame(first, other);
+    assertEquals(2, prepared.size());
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertTrue(cache.isCached(first));
+    assertFalse(cache.isCached(mock(PreparedStatement.class)));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() throws Exception {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+
+    PreparedStatement a = cache.get("a", "a", factory);
+    PreparedStatement b = cache.get("b", "b", factory);
+    cache.get("a", "a", factory); // a is now used more recently than b
+    cache.release(a);
+    cache.release(b);
+    cache.get("c", "c", factory);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    verify(b).close();
+    verify(a, never()).close();
+    assertFalse(cache.isCached(b));
+    assertSame(a, cache.get("a", "a", factory));
+  }
+
+  @Test
+  public void testStatementInUseIsNotEvicted() throws Exception {
+    PreparedStatementCache cache = new PreparedStatementCache(1);
+
+    // The result set of a is still being read while b is executed
+    PreparedStatement a = cache.get("a", "a", factory);
+    PreparedStatement b = cache.get("b", "b", factory);
+
+    verify(a, never()).close();
+    assertTrue(cache.isCached(a));
+    assertEquals(2, cache.size());
+    assertEquals(0, cache.getEvictions());
+
+    // Done with b: a is still in use, so b is the one to go
+    cache.release(b);
+    verify(b).close();
+    verify(a, never()).close();
+    assertFalse(cache.isCached(b));
+    assertEquals(1, cache.size());
+
+    // Done with a: the cache fits again, so a stays open to be re-used
+    cache.release(a);
+    verify(a, never()).close();
+    assertFalse(cache.isInUse(a));
+    assertSame(a, cache.get("a", "a", factory));
+  }
+
+  @Test
+  public void testClosedStatementIsPreparedAgain() throws Exception {
+    PreparedStatementCache cache = new PreparedStatementCache(2);
+
+    PreparedStatement first = cache.get("a", "a", factory);
+    when(first.isClosed()).thenReturn(true);
+    PreparedStatement second = cache.get("a", "a", factory);
+
+    assertNotSame(first, second);
+    assertEquals(2, cache.getMisses());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testClearClosesAllStatements() throws Exception {
+    PreparedStatementCache cache = new PreparedStatementCache(5);
+    cache.get("a", "a", factory);
+    cache.get("b", "b", factory);
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    for (PreparedStatement statement : prepared) {
+      verify(statement).close();
+      assertFalse(cache.isCached(statement));
+    }
+  }
+}
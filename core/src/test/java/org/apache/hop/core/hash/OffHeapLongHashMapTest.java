@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.exception.HopException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OffHeapLongHashMapTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static byte[] key(int i) {
+    return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void putAndGet(OffHeapLongHashMap map) throws Exception {
+    for (int i = 0; i < 10000; i++) {
+      map.put(key(i), i * 10L);
+    }
+    assertEquals(10000, map.size());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(i * 10L, map.get(key(i), -1L));
+    }
+    assertEquals(-1L, map.get(key(10000), -1L));
+  }
+
+  @Test
+  public void testDirectMemory() throws Exception {
+    try (OffHeapLongHashMap map = new OffHeapLongHashMap(new OffHeapStore(null, 4096), 10)) {
+      putAndGet(map);
+    }
+  }
+
+  @Test
+  public void testMemoryMappedFile() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    OffHeapStore store = new OffHeapStore(directory.getAbsolutePath(), 4096);
+    assertTrue(store.isMemoryMapped());
+    assertEquals(1, directory.list().length);
+
+    OffHeapLongHashMap map = new OffHeapLongHashMap(store, 10);
+    putAndGet(map);
+    map.close();
+    assertEquals(0, directory.list().length);
+  }
+
+  @Test
+  public void testReplaceValue() throws Exception {
+    try (OffHeapLongHashMap map = new OffHeapLongHashMap(new OffHeapStore(null), 10)) {
+      map.put(key(1), 1L);
+      map.put(key(1), 2L);
+      assertEquals(1, map.size());
+      assertEquals(2L, map.get(key(1), -1L));
+    }
+  }
+
+  @Test
+  public void testRemoveValues() throws Exception {
+    try (OffHeapLongHashMap map = new OffHeapLongHashMap(new OffHeapStore(null), 10)) {
+      for (int i = 0; i < 1000; i++) {
+        map.put(key(i), i);
+      }
+      assertEquals(500, map.removeValues(value -> value < 500));
+      assertEquals(500, map.size());
+      assertEquals(-1L, map.get(key(499), -1L));
+      assertEquals(500L, map.get(key(500), -1L));
+
+      AtomicLong sum = new AtomicLong();
+      map.forEachValue(sum::addAndGet);
+      assertEquals((500L + 999L) * 500 / 2, sum.get());
+
+      // Re-use the slots of the removed entries
+      for (int i = 0; i < 500; i++) {
+        map.put(key(i), i);
+      }
+      assertEquals(1000, map.size());
+      assertEquals(499L, map.get(key(499), -1L));
+      assertFalse(map.isEmpty());
+    }
+  }
+
+  @Test
+  public void testRemovedEntriesAreCompacted() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    try (OffHeapLongHashMap map =
+        new OffHeapLongHashMap(new OffHeapStore(directory.getAbsolutePath(), 4096), 10)) {
+      // Keep adding entries and evicting the oldest ones, like a cache with a limited size
+      //
+      for (int cycle = 0; cycle < 10; cycle++) {
+        for (int i = cycle * 100000; i < (cycle + 1) * 100000; i++) {
+          map.put(key(i), i);
+        }
+        long smallest = (cycle + 1) * 100000L - 1000;
+        map.removeValues(value -> value < smallest);
+        assertEquals(1000, map.size());
+        assertTrue(map.getBytesUsed() < 1000 * 100);
+      }
+      assertEquals(1, directory.list().length);
+      assertEquals(999999L, map.get(key(999999), -1L));
+      assertEquals(999000L, map.get(key(999000), -1L));
+      assertEquals(-1L, map.get(key(998999), -1L));
+    }
+    assertEquals(0, directory.list().length);
+  }
+
+  @Test
+  public void testFailedCompactionKeepsTheEntries() throws Exception {
+    OffHeapStore store =
+        new OffHeapStore(null, 4096) {
+          @Override
+          public OffHeapStore createEmptyCopy() throws HopException {
+            // The memory runs out halfway through copying the entries
+            //
+            return new OffHeapStore(null, 4096) {
+              private int nrAllocations;
+
+              @Override
+              public long allocate(int length) throws HopException {
+                if (++nrAllocations > 500) {
+                  throw new HopException("Out of memory");
+                }
+                return super.allocate(length);
+              }
+            };
+          }
+        };
+    try (OffHeapLongHashMap map = new OffHeapLongHashMap(store, 10)) {
+      for (int i = 0; i < 100000; i++) {
+        map.put(key(i), i);
+      }
+      assertThrows(HopException.class, () -> map.removeValues(value -> value < 99000));
+
+      // The entries are still in the old store
+      assertEquals(1000, map.size());
+      for (int i = 99000; i < 100000; i++) {
+        assertEquals(i, map.get(key(i), -1L));
+      }
+      assertEquals(-1L, map.get(key(98999), -1L));
+
+      // The map can still be used
+      map.put(key(100000), 100000L);
+      assertEquals(100000L, map.get(key(100000), -1L));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hop.core.row.columnar.DoubleColumnVector;
+import org.apache.hop.core.row.columnar.LongColumnVector;
+import org.apache.hop.core.row.columnar.ObjectColumnVector;
+import org.apache.hop.core.row.columnar.StringColumnVector;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class ColumnarRowBatchTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    return rowMeta;
+  }
+
+  @Test
+  public void testFromRows() {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {1L, 1.5, "A"});
+    rows.add(new Object[] {null, 2.5, "B"});
+    rows.add(new Object[] {3L, null, "A"});
+
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows(createRowMeta(), rows);
+    assertEquals(3, batch.size());
+    assertFalse(batch.isEmpty());
+
+    LongColumnVector ids = (LongColumnVector) batch.getColumn(0);
+    assertEquals(1L, ids.getLong(0));
+    assertTrue(ids.isNull(1));
+    assertEquals(3L, ids.getLong(2));
+    assertNull(ids.getObject(1));
+
+    DoubleColumnVector amounts = (DoubleColumnVector) batch.getColumn(1);
+    assertEquals(2.5, amounts.getDouble(1), 0.0);
+    assertTrue(amounts.isNull(2));
+
+    StringColumnVector codes = (StringColumnVector) batch.getColumn(2);
+    assertEquals(2, codes.getDictionary().size());
+    assertEquals(codes.getCode(0), codes.getCode(2));
+    assertEquals(codes.getCode(1), codes.lookupCode("B"));
+    assertEquals(-1, codes.lookupCode("C"));
+
+    // The original rows are handed back as they are
+    assertEquals(rows, batch.getRows());
+  }
+
+  @Test
+  public void testResetRowsReusesTheColumns() {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {1L, 1.5, "A"});
+    rows.add(new Object[] {2L, 2.5, "B"});
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows(rowMeta, rows);
+    LongColumnVector ids = (LongColumnVector) batch.getColumn(0);
+    StringColumnVector codes = (StringColumnVector) batch.getColumn(2);
+
+    List<Object[]> nextRows = new ArrayList<>();
+    nextRows.add(new Object[] {null, 3.5, "C"});
+    batch.resetRows(rowMeta, nextRows);
+
+    assertEquals(1, batch.size());
+    assertSame(ids, batch.getColumn(0));
+    assertEquals(1, ids.size());
+    assertTrue(ids.isNull(0));
+    assertSame(codes, batch.getColumn(2));
+    assertEquals(List.of("C"), codes.getDictionary());
+    assertEquals(3.5, ((DoubleColumnVector) batch.getColumn(1)).getDouble(0), 0.0);
+    assertEquals(nextRows, batch.getRows());
+
+    // Bad data falls back to objects, the batch after that gets a typed column again
+    //
+    batch.resetRows(rowMeta, new ArrayList<>(List.<Object[]>of(new Object[] {"x", 1.0, "A"})));
+    assertTrue(batch.getColumn(0) instanceof ObjectColumnVector);
+    batch.resetRows(rowMeta, new ArrayList<>(List.<Object[]>of(new Object[] {4L, 1.0, "A"})));
+    assertEquals(4L, ((LongColumnVector) batch.getColumn(0)).getLong(0));
+  }
+
+  @Test
+  public void testBadDataFallsBackToObjects() {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {1L, 1.0, "A"});
+    rows.add(new Object[] {"not a number", 2.0, "B"});
+
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows(createRowMeta(), rows);
+    assertTrue(batch.getColumn(0) instanceof ObjectColumnVector);
+    assertEquals(1L, batch.getColumn(0).getObject(0));
+    assertEquals("not a number", batch.getColumn(0).getObject(1));
+  }
+
+  @Test
+  public void testBuildByRow() {
+    ColumnarRowBatch batch = new ColumnarRowBatch(createRowMeta(), 2);
+    assertTrue(batch.isEmpty());
+    for (long i = 0; i < 10; i++) {
+      batch.addRow(new Object[] {i, i * 2.0, i % 2 == 0 ? "even" : null});
+    }
+    assertEquals(10, batch.size());
+    assertArrayEquals(new Object[] {4L, 8.0, "even"}, batch.getRow(4));
+    assertArrayEquals(new Object[] {5L, 10.0, null}, batch.getRow(5));
+
+    boolean[] selected = new boolean[10];
+    selected[1] = true;
+    selected[8] = true;
+    List<Object[]> rows = batch.getRows(selected);
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {1L, 2.0, null}, rows.get(0));
+    assertArrayEquals(new Object[] {8L, 16.0, "even"}, rows.get(1));
+  }
+
+  @Test
+  public void testBuildByColumn() {
+    ColumnarRowBatch batch = new ColumnarRowBatch(createRowMeta(), 3);
+    LongColumnVector ids = (LongColumnVector) batch.getColumn(0);
+    DoubleColumnVector amounts = (DoubleColumnVector) batch.getColumn(1);
+    StringColumnVector codes = (StringColumnVector) batch.getColumn(2);
+    for (int i = 0; i < 3; i++) {
+      ids.setLong(i, i);
+      amounts.setDouble(i, i / 2.0);
+      codes.setString(i, "C" + i);
+    }
+    amounts.setNull(1);
+    batch.setSize(3);
+
+    assertEquals(
+        Arrays.asList("[0, 0.0, C0]", "[1, null, C1]", "[2, 1.0, C2]"),
+        Arrays.asList(
+            Arrays.toString(batch.getRow(0)),
+            Arrays.toString(batch.getRow(1)),
+            Arrays.toString(batch.getRow(2))));
+  }
+}
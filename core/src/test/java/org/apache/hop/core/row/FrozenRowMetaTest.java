@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class FrozenRowMetaTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta(int nrFields) {
+    IRowMeta rowMeta = new RowMeta();
+    for (int i = 0; i < nrFields; i++) {
+      rowMeta.addValueMeta(new ValueMetaString("Field_" + i));
+    }
+    return rowMeta;
+  }
+
+  @Test
+  public void testIndexOfValue() {
+    IRowMeta rowMeta = createRowMeta(500);
+    FrozenRowMeta frozen = FrozenRowMeta.of(rowMeta);
+
+    assertEquals(500, frozen.size());
+    assertFalse(frozen.isEmpty());
+    for (int i = 0; i < 500; i++) {
+      assertEquals(i, frozen.indexOfValue("Field_" + i));
+      assertEquals(i, frozen.indexOfValue("FIELD_" + i));
+      assertSame(rowMeta.getValueMeta(i), frozen.getValueMeta(i));
+      assertSame(rowMeta.getValueMeta(i), frozen.searchValueMeta("field_" + i));
+    }
+    assertEquals(-1, frozen.indexOfValue("Field_500"));
+    assertEquals(-1, frozen.indexOfValue(null));
+    assertNull(frozen.getValueMeta(500));
+    assertArrayEquals(rowMeta.getFieldNames(), frozen.getFieldNames());
+    assertEquals(rowMeta, frozen);
+  }
+
+  @Test
+  public void testRenamedValueIsFound() {
+    FrozenRowMeta frozen = FrozenRowMeta.of(createRowMeta(10));
+    frozen.getValueMeta(3).setName("renamed");
+
+    assertEquals(3, frozen.indexOfValue("renamed"));
+    assertEquals(-1, frozen.indexOfValue("Field_3"));
+  }
+
+  @Test
+  public void testEmpty() {
+    FrozenRowMeta frozen = FrozenRowMeta.of(new RowMeta());
+    assertTrue(frozen.isEmpty());
+    assertEquals(-1, frozen.indexOfValue("a"));
+  }
+
+  @Test
+  public void testFreezeTwice() {
+    FrozenRowMeta frozen = FrozenRowMeta.of(createRowMeta(2));
+    assertSame(frozen, FrozenRowMeta.of(frozen));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAddValueMeta() {
+    FrozenRowMeta.of(createRowMeta(2)).addValueMeta(new ValueMetaString("extra"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRemoveValueMeta() {
+    FrozenRowMeta.of(createRowMeta(2)).removeValueMeta(0);
+  }
+
+  @Test
+  public void testCloneCanBeModified() {
+    FrozenRowMeta frozen = FrozenRowMeta.of(createRowMeta(2));
+    IRowMeta clone = frozen.clone();
+    assertFalse(clone instanceof FrozenRowMeta);
+
+    clone.addValueMeta(new ValueMetaString("extra"));
+    assertEquals(3, clone.size());
+    assertEquals(2, clone.indexOfValue("extra"));
+    assertEquals(2, frozen.size());
+  }
+
+  @Test
+  public void testCloneRowAndCompare() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaBinary("data"));
+    FrozenRowMeta frozen = FrozenRowMeta.of(rowMeta);
+
+    Object[] row = new Object[] {1L, new byte[] {1, 2}};
+    Object[] clone = frozen.cloneRow(row);
+    assertNotSame(row[1], clone[1]);
+    assertArrayEquals((byte[]) row[1], (byte[]) clone[1]);
+
+    Object[] other = new Object[] {2L, new byte[] {1, 2}};
+    assertEquals(rowMeta.compare(row, other), frozen.compare(row, other));
+    assertEquals(0, frozen.compare(row, other, new int[] {1}));
+    assertTrue(frozen.equals(row, other, new int[] {1}));
+    assertFalse(frozen.equals(row, other, new int[] {0, 1}));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.hash.OffHeapStore;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+public class OffHeapRowListTest {
+
+  private static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    return rowMeta;
+  }
+
+  private static final Comparator<Object[]> BY_ID = Comparator.comparing(row -> (Long) row[0]);
+
+  @Test
+  public void testAddAndGet() throws Exception {
+    try (OffHeapRowList list = new OffHeapRowList(createRowMeta(), new OffHeapStore(null, 1024))) {
+      for (long i = 0; i < 5000; i++) {
+        list.add(new Object[] {i, "name " + i});
+      }
+      list.add(0, new Object[] {-1L, null});
+
+      assertEquals(5001, list.size());
+      assertArrayEquals(new Object[] {-1L, null}, list.get(0));
+      assertArrayEquals(new Object[] {4999L, "name 4999"}, list.get(5000));
+    }
+  }
+
+  @Test
+  public void testSort() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    for (long i = 0; i < 2000; i++) {
+      ids.add(i);
+    }
+    Collections.shuffle(ids, new Random(42));
+
+    try (OffHeapRowList list = new OffHeapRowList(createRowMeta(), new OffHeapStore(null))) {
+      for (Long id : ids) {
+        list.add(new Object[] {id, "name " + id});
+      }
+      Collections.sort(list, BY_ID);
+
+      for (int i = 0; i < 2000; i++) {
+        assertArrayEquals(new Object[] {(long) i, "name " + i}, list.get(i));
+      }
+      assertEquals(500, Collections.binarySearch(list, new Object[] {500L, null}, BY_ID));
+    }
+  }
+}
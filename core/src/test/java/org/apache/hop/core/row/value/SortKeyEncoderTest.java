@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class SortKeyEncoderTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    String[] strings = {null, "", "a", "A", "ab", "b", "a\u0000", "é", "B "};
+    Long[] integers = {null, Long.MIN_VALUE, -5L, 0L, 7L, Long.MAX_VALUE};
+    Double[] numbers = {null, Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 2.25, Double.MAX_VALUE};
+    Date[] dates = {null, new Date(-1000L), new Date(0L), new Date(1000L)};
+    Boolean[] booleans = {null, false, true};
+
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      rows.add(
+          new Object[] {
+            strings[i % strings.length],
+            integers[(i / 3) % integers.length],
+            numbers[(i / 7) % numbers.length],
+            dates[(i / 2) % dates.length],
+            booleans[(i / 5) % booleans.length]
+          });
+    }
+    return rows;
+  }
+
+  private void assertSameOrder(IRowMeta rowMeta, int[] fieldNrs) throws Exception {
+    SortKeyEncoder encoder = SortKeyEncoder.create(rowMeta, fieldNrs);
+    assertNotNull(encoder);
+
+    List<Object[]> rows = createRows();
+    List<byte[]> keys = new ArrayList<>();
+    for (Object[] row : rows) {
+      keys.add(encoder.encode(row));
+    }
+    for (int i = 0; i < rows.size(); i++) {
+      for (int j = 0; j < rows.size(); j++) {
+        int expected = Integer.signum(rowMeta.compare(rows.get(i), rows.get(j), fieldNrs));
+        int actual = Integer.signum(SortKeyEncoder.compare(keys.get(i), keys.get(j)));
+        assertEquals("Row " + i + " compared to row " + j, expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testAllTypes() throws Exception {
+    assertSameOrder(createRowMeta(), new int[] {0, 1, 2, 3, 4});
+    assertSameOrder(createRowMeta(), new int[] {4, 3, 2, 1, 0});
+  }
+
+  @Test
+  public void testDescending() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    rowMeta.getValueMeta(0).setSortedDescending(true);
+    rowMeta.getValueMeta(2).setSortedDescending(true);
+    assertSameOrder(rowMeta, new int[] {0, 1, 2, 3});
+    assertSameOrder(rowMeta, new int[] {2, 0, 4});
+  }
+
+  @Test
+  public void testCaseInsensitiveAndWhitespace() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    rowMeta.getValueMeta(0).setCaseInsensitive(true);
+    assertSameOrder(rowMeta, new int[] {0, 1});
+
+    rowMeta.getValueMeta(0).setIgnoreWhitespace(true);
+    assertSameOrder(rowMeta, new int[] {0, 2});
+  }
+
+  @Test
+  public void testCollator() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    rowMeta.getValueMeta(0).setCollatorDisabled(false);
+    rowMeta.getValueMeta(0).setCollatorStrength(1);
+    assertSameOrder(rowMeta, new int[] {0, 1});
+  }
+
+  @Test
+  public void testUnsupportedTypes() {
+    IRowMeta rowMeta = createRowMeta();
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+
+    assertNotNull(SortKeyEncoder.create(rowMeta, new int[] {0, 1}));
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {0, 5}));
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {6}));
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {7, 1}));
+
+    IValueMeta indexed = new ValueMetaString("indexed");
+    indexed.setStorageType(IValueMeta.STORAGE_TYPE_INDEXED);
+    rowMeta.addValueMeta(indexed);
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {8}));
+  }
+}
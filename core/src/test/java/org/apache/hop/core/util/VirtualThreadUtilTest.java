@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class VirtualThreadUtilTest {
+
+  @Test
+  public void testNewThreadRunsWithOrWithoutVirtualThreads() throws Exception {
+    for (boolean virtual : new boolean[] {true, false}) {
+      AtomicBoolean ran = new AtomicBoolean();
+      Thread thread = VirtualThreadUtil.newThread(() -> ran.set(true), "test-thread", virtual);
+
+      // Whatever the Java runtime supports, we get a named thread which isn't started yet
+      assertEquals("test-thread", thread.getName());
+      assertEquals(Thread.State.NEW, thread.getState());
+
+      thread.start();
+      thread.join();
+      assertTrue(ran.get());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lookup;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.HopMetadata;
+import org.apache.hop.metadata.api.HopMetadataBase;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.api.IHopMetadata;
+
+/**
+ * A named lookup cache which is shared by all the lookup transforms in the JVM which refer to it,
+ * across transform copies and pipeline runs. The reference data loaded by one transform is kept
+ * for the next one until it expires or until the cache grows too large.
+ *
+ * @see LookupCacheRegistry
+ */
+@HopMetadata(
+    key = "lookup-cache",
+    name = "i18n::LookupCache.name",
+    description = "i18n::LookupCache.description",
+    image = "ui/images/data.svg",
+    documentationUrl = "/metadata-types/lookup-cache.html")
+public class LookupCache extends HopMetadataBase implements IHopMetadata {
+
+  @HopMetadataProperty private String description;
+
+  /** The maximum number of rows kept in the cache over all the lookups, empty or 0 for no limit */
+  @HopMetadataProperty private String maximumRows;
+
+  /** The number of minutes loaded data stays valid, empty or 0 to keep it forever */
+  @HopMetadataProperty private String timeToLive;
+
+  /** The local directory to keep a copy of the data in, empty to keep it in memory only */
+  @HopMetadataProperty private String directory;
+
+  public LookupCache() {
+    this.maximumRows = "0";
+    this.timeToLive = "60";
+  }
+
+  public LookupCache(String name) {
+    this();
+    this.name = name;
+  }
+
+  /**
+   * @param variables The variables to resolve the maximum with
+   * @return The maximum number of rows in the cache or 0 for no limit
+   */
+  public long getMaximumRows(IVariables variables) {
+    return Math.max(0L, Const.toLong(variables.resolve(maximumRows), 0L));
+  }
+
+  /**
+   * @param variables The variables to resolve the time to live with
+   * @return The number of milliseconds loaded data stays valid, 0 to keep it forever
+   */
+  public long getTimeToLiveMillis(IVariables variables) {
+    return Math.max(0L, Const.toLong(variables.resolve(timeToLive), 0L)) * 60_000L;
+  }
+
+  /**
+   * Gets description
+   *
+   * @return value of description
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @param description The description to set
+   */
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  /**
+   * Gets maximumRows
+   *
+   * @return value of maximumRows
+   */
+  public String getMaximumRows() {
+    return maximumRows;
+  }
+
+  /**
+   * @param maximumRows The maximumRows to set
+   */
+  public void setMaximumRows(String maximumRows) {
+    this.maximumRows = maximumRows;
+  }
+
+  /**
+   * Gets timeToLive
+   *
+   * @return value of timeToLive
+   */
+  public String getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * @param timeToLive The timeToLive to set
+   */
+  public void setTimeToLive(String timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * Gets directory
+   *
+   * @return value of directory
+   */
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @param directory The directory to set
+   */
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lookup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * The reference data of one lookup in a {@link LookupCache}: the rows read from a table, for
+ * example. The rows are shared by every transform which attached to the entry and must not be
+ * modified.
+ */
+public class LookupCacheEntry {
+
+  private final IRowMeta rowMeta;
+  private final List<Object[]> rows;
+
+  private String cacheName;
+  private String key;
+  private long loadTime;
+  private volatile long lastUsed;
+  private final AtomicInteger references;
+
+  /**
+   * @param rowMeta The metadata of the rows
+   * @param rows The rows
+   */
+  public LookupCacheEntry(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+    this.rows = Collections.unmodifiableList(rows);
+    this.references = new AtomicInteger();
+  }
+
+  void register(String cacheName, String key, long loadTime) {
+    this.cacheName = cacheName;
+    this.key = key;
+    this.loadTime = loadTime;
+  }
+
+  void attach(long now) {
+    references.incrementAndGet();
+    lastUsed = now;
+  }
+
+  int detach(long now) {
+    lastUsed = now;
+    return references.decrementAndGet();
+  }
+
+  boolean isExpired(long timeToLive, long now) {
+    return timeToLive > 0 && now - loadTime >= timeToLive;
+  }
+
+  boolean isInUse() {
+    return references.get() > 0;
+  }
+
+  /**
+   * Gets rowMeta
+   *
+   * @return value of rowMeta
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * Gets rows
+   *
+   * @return The rows, read-only
+   */
+  public List<Object[]> getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets cacheName
+   *
+   * @return value of cacheName
+   */
+  public String getCacheName() {
+    return cacheName;
+  }
+
+  /**
+   * Gets key
+   *
+   * @return value of key
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets loadTime
+   *
+   * @return The time the rows were loaded, in milliseconds since the epoch
+   */
+  public long getLoadTime() {
+    return loadTime;
+  }
+
+  /**
+   * Gets lastUsed
+   *
+   * @return The last time a transform attached to or released the entry
+   */
+  public long getLastUsed() {
+    return lastUsed;
+  }
+
+  /**
+   * @return The number of transforms attached to this entry
+   */
+  public int getReferences() {
+    return references.get();
+  }
+}
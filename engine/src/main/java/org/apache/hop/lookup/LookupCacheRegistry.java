@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lookup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+
+/**
+ * Keeps the entries of all the {@link LookupCache}s in the JVM. A transform attaches to an entry
+ * with the name of the cache and a key which identifies the reference data, for example the
+ * connection and the query. The first transform to attach loads the data, the others wait for it
+ * and share it. Every attached transform has to release the entry when it's done with it.
+ *
+ * <p>An entry which is older than the time to live of its cache is loaded again for the next
+ * transform which attaches to it. Entries which are no longer in use are removed, least recently
+ * used first, when a cache holds more than its maximum number of rows. If the cache has a
+ * directory, the rows are also written to a file there so that they survive a restart of the JVM.
+ */
+public class LookupCacheRegistry {
+
+  private static final LookupCacheRegistry instance = new LookupCacheRegistry();
+
+  private static final String FILE_EXTENSION = ".cache";
+
+  private final Map<String, LookupCacheEntry> entries;
+
+  /** The locks on the keys which are being attached to, removed when no thread uses them */
+  private final Map<String, KeyLock> locks;
+
+  private LookupCacheRegistry() {
+    entries = new ConcurrentHashMap<>();
+    locks = new ConcurrentHashMap<>();
+  }
+
+  public static LookupCacheRegistry getInstance() {
+    return instance;
+  }
+
+  /**
+   * Attach to the entry of a lookup, load it if it's not cached or if it expired.
+   *
+   * @param cache The lookup cache
+   * @param variables The variables to resolve the settings of the cache with
+   * @param key The unique description of the reference data, for example the query to load it
+   * @param loader The loader of the data in case it's not in the cache
+   * @return The entry, to be released with {@link #release(LookupCacheEntry)}
+   * @throws HopException In case the data can't be loaded
+   */
+  public LookupCacheEntry attach(
+      LookupCache cache, IVariables variables, String key, ILookupCacheLoader loader)
+      throws HopException {
+    String cacheName = cache.getName();
+    String entryKey = cacheName + "\n" + key;
+    long timeToLive = cache.getTimeToLiveMillis(variables);
+    String directory = variables.resolve(cache.getDirectory());
+
+    LookupCacheEntry entry;
+    KeyLock lock = lock(entryKey);
+    try {
+      synchronized (lock) {
+        entry = entries.get(entryKey);
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.isExpired(timeToLive, now)) {
+          // Transforms which are still using an expired entry keep it until they release it
+          //
+          entry = null;
+          File file = null;
+          if (!Utils.isEmpty(directory)) {
+            file = new File(directory, getFileName(entryKey));
+            if (file.exists() && (timeToLive <= 0 || now - file.lastModified() < timeToLive)) {
+              entry = readEntry(file, key);
+              if (entry != null) {
+                entry.register(cacheName, key, file.lastModified());
+              }
+            }
+          }
+          if (entry == null) {
+            entry = loader.load();
+            entry.register(cacheName, key, now);
+            if (file != null) {
+              writeEntry(file, entry);
+            }
+          }
+          entries.put(entryKey, entry);
+        }
+        entry.attach(now);
+      }
+    } finally {
+      unlock(entryKey);
+    }
+
+    evict(cacheName, cache.getMaximumRows(variables), timeToLive);
+    return entry;
+  }
+
+  private KeyLock lock(String entryKey) {
+    return locks.compute(
+        entryKey,
+        (k, lock) -> {
+          KeyLock keyLock = lock == null ? new KeyLock() : lock;
+          keyLock.users++;
+          return keyLock;
+        });
+  }
+
+  private void unlock(String entryKey) {
+    locks.computeIfPresent(entryKey, (k, lock) -> --lock.users == 0 ? null : lock);
+  }
+
+  /**
+   * @return The number of keys which are being attached to right now
+   */
+  int getNrLocks() {
+    return locks.size();
+  }
+
+  /**
+   * Release an entry, the data stays cached for the next transform until it expires or until it's
+   * evicted.
+   *
+   * @param entry The entry to release
+   */
+  public void release(LookupCacheEntry entry) {
+    if (entry != null) {
+      entry.detach(System.currentTimeMillis());
+    }
+  }
+
+  /** Remove the unused entries which expired or which don't fit in the cache anymore */
+  private synchronized void evict(String cacheName, long maximumRows, long timeToLive) {
+    long now = System.currentTimeMillis();
+    List<Map.Entry<String, LookupCacheEntry>> unused = new ArrayList<>();
+    long rows = 0;
+    for (Map.Entry<String, LookupCacheEntry> mapEntry : entries.entrySet()) {
+      LookupCacheEntry entry = mapEntry.getValue();
+      if (!cacheName.equals(entry.getCacheName())) {
+        continue;
+      }
+      if (!entry.isInUse() && entry.isExpired(timeToLive, now)) {
+        entries.remove(mapEntry.getKey(), entry);
+        continue;
+      }
+      rows += entry.getRows().size();
+      if (!entry.isInUse()) {
+        unused.add(mapEntry);
+      }
+    }
+    if (maximumRows <= 0 || rows <= maximumRows) {
+      return;
+    }
+    unused.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().getLastUsed()));
+    for (Map.Entry<String, LookupCacheEntry> mapEntry : unused) {
+      if (rows <= maximumRows) {
+        break;
+      }
+      LookupCacheEntry entry = mapEntry.getValue();
+      if (!entry.isInUse() && entries.remove(mapEntry.getKey(), entry)) {
+        rows -= entry.getRows().size();
+      }
+    }
+  }
+
+  /**
+   * Remove the entries of a cache from memory, for example because the reference data changed.
+   * The files in the directory of the cache are not removed.
+   *
+   * @param cacheName The name of the cache
+   */
+  public void clear(String cacheName) {
+    entries.values().removeIf(entry -> cacheName.equals(entry.getCacheName()));
+  }
+
+  /**
+   * Get the entries of a cache which are currently in memory.
+   *
+   * @param cacheName The name of the cache
+   * @return The entries
+   */
+  public List<LookupCacheEntry> getEntries(String cacheName) {
+    List<LookupCacheEntry> list = new ArrayList<>();
+    for (LookupCacheEntry entry : entries.values()) {
+      if (cacheName.equals(entry.getCacheName())) {
+        list.add(entry);
+      }
+    }
+    return list;
+  }
+
+  /** A lock on the key of an entry, with the number of threads using it */
+  private static class KeyLock {
+    private int users;
+  }
+
+  private static String getFileName(String entryKey) throws HopException {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(entryKey.getBytes(StandardCharsets.UTF_8));
+      StringBuilder name = new StringBuilder();
+      for (byte b : hash) {
+        name.append(String.format("%02x", b));
+      }
+      return name.append(FILE_EXTENSION).toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new HopException("Unable to calculate the lookup cache file name", e);
+    }
+  }
+
+  private static void writeEntry(File file, LookupCacheEntry entry) throws HopException {
+    File tempFile = null;
+    try {
+      tempFile = File.createTempFile("lookup-", FILE_EXTENSION + ".tmp", file.getParentFile());
+      try (DataOutputStream outputStream =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(key.length);
+        outputStream.write(key);
+        entry.getRowMeta().writeMeta(outputStream);
+        outputStream.writeInt(entry.getRows().size());
+        for (Object[] row : entry.getRows()) {
+          entry.getRowMeta().writeData(outputStream, row);
+        }
+      }
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (Exception e) {
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+      throw new HopException("Unable to write lookup cache file " + file, e);
+    }
+  }
+
+  /** Read an entry from a file, null if the file holds another key */
+  private static LookupCacheEntry readEntry(File file, String key) throws HopException {
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      byte[] fileKey = new byte[inputStream.readInt()];
+      inputStream.readFully(fileKey);
+      if (!key.equals(new String(fileKey, StandardCharsets.UTF_8))) {
+        return null;
+      }
+      IRowMeta rowMeta = new RowMeta(inputStream);
+      int size = inputStream.readInt();
+      List<Object[]> rows = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        rows.add(rowMeta.readData(inputStream));
+      }
+      return new LookupCacheEntry(rowMeta, rows);
+    } catch (IOException | HopException e) {
+      throw new HopException("Unable to read lookup cache file " + file, e);
+    }
+  }
+}
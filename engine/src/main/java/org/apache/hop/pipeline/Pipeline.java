@@ -40,6 +40,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.StringUtils;
@@ -47,6 +49,7 @@ import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.BlockingBatchingRowSet;
 import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.ConcurrentQueueRowSet;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExecutor;
 import org.apache.hop.core.IExtensionData;
@@ -55,6 +58,7 @@ import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.SpscRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
@@ -83,6 +87,7 @@ import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.util.VirtualThreadUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
 import org.apache.hop.core.vfs.HopVfs;
@@ -260,6 +265,29 @@ public abstract class Pipeline
   /** Boolean to check if pipeline is already stopped */
   private final AtomicBoolean isAlreadyStopped = new AtomicBoolean(false);
 
+  /** Run the transforms in virtual threads rather than platform threads, if available. */
+  private boolean usingVirtualThreads;
+
+  /**
+   * The number of worker threads to run all transforms on. When this is 0 every transform copy runs
+   * in a thread of its own.
+   */
+  private int nrWorkerThreads;
+
+  /**
+   * True if the transforms are actually scheduled on the worker threads: only when every transform
+   * supports it.
+   */
+  private boolean usingWorkerPool;
+
+  /**
+   * Transform threads wait on this condition until the pipeline is running. A lock is used rather
+   * than an object monitor so that waiting virtual threads don't pin their carrier thread.
+   */
+  private final ReentrantLock runningLock = new ReentrantLock();
+
+  private final Condition runningCondition = runningLock.newCondition();
+
   /** Plugins can use this to add additional data samplers to the pipeline. */
   protected List<IExecutionDataSampler<? extends IExecutionDataSamplerStore>> dataSamplers;
 
@@ -602,6 +630,20 @@ public abstract class Pipeline
 
     List<TransformMeta> hopTransforms = pipelineMeta.getPipelineHopTransforms(false);
 
+    // Transforms can only be scheduled on a fixed number of worker threads when all of them support
+    // it, otherwise every transform copy gets a thread of its own.
+    //
+    usingWorkerPool = nrWorkerThreads > 0;
+    for (TransformMeta transformMeta : hopTransforms) {
+      if (usingWorkerPool && !transformMeta.getTransform().supportsPooledExecution()) {
+        usingWorkerPool = false;
+        log.logBasic(
+            BaseMessages.getString(
+                PKG, "Pipeline.Log.WorkerThreadsNotSupported", transformMeta.getName()));
+        break;
+      }
+    }
+
     if (log.isDetailed()) {
       log.logDetailed(
           BaseMessages.getString(
@@ -702,8 +744,20 @@ public abstract class Pipeline
                 Boolean batchingRowSet =
                     ValueMetaBase.convertStringToBoolean(
                         System.getProperty(Const.HOP_BATCHING_ROWSET));
-                if (batchingRowSet != null && batchingRowSet.booleanValue()) {
+                Boolean spscRowSet =
+                    ValueMetaBase.convertStringToBoolean(
+                        System.getProperty(Const.HOP_SPSC_ROWSET));
+                if (usingWorkerPool) {
+                  // The transforms are scheduled on a worker pool and should never block
+                  //
+                  rowSet = new ConcurrentQueueRowSet();
+                } else if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
+                } else if (dispatchType == TYPE_DISP_1_1
+                    && (spscRowSet == null || spscRowSet.booleanValue())) {
+                  // Exactly one thread writes and one thread reads: no locking needed
+                  //
+                  rowSet = new SpscRowSet(rowSetSize);
                 } else {
                   rowSet = new BlockingRowSet(rowSetSize);
                 }
@@ -994,9 +1048,11 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
-      threads[i].setName(
-          "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
+      threads[i] =
+          VirtualThreadUtil.newThread(
+              initThreads[i],
+              "init of " + sid.transformName + "." + sid.copy,
+              usingVirtualThreads);
 
       ExtensionPointHandler.callExtensionPoint(
           log, this, HopExtensionPoint.TransformBeforeInitialize.id, initThreads[i]);
@@ -1256,9 +1312,6 @@ public abstract class Pipeline
         // Now start all the threads...
         //
         for (final TransformMetaDataCombi combi : transforms) {
-          RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1274,7 +1327,19 @@ public abstract class Pipeline
                 }
               });
 
-          thread.start();
+          if (!usingWorkerPool) {
+            RunThread runThread = new RunThread(combi);
+            Thread thread =
+                VirtualThreadUtil.newThread(
+                    runThread, getName() + " - " + combi.transformName, usingVirtualThreads);
+            thread.start();
+          }
+        }
+
+        // Or schedule all the transforms on a fixed number of worker threads
+        //
+        if (usingWorkerPool) {
+          new PooledPipelineExecutor(this, nrWorkerThreads).start();
         }
         break;
 
@@ -1993,6 +2058,54 @@ public abstract class Pipeline
     return safeModeEnabled;
   }
 
+  /**
+   * Run the transform threads as virtual threads. This only has an effect if the Java runtime
+   * supports virtual threads, otherwise platform threads are used.
+   *
+   * @param usingVirtualThreads true to run the transforms in virtual threads
+   */
+  public void setUsingVirtualThreads(boolean usingVirtualThreads) {
+    this.usingVirtualThreads = usingVirtualThreads;
+  }
+
+  /**
+   * Checks whether the transforms are run in virtual threads.
+   *
+   * @return true if virtual threads are requested for the transforms
+   */
+  public boolean isUsingVirtualThreads() {
+    return usingVirtualThreads;
+  }
+
+  /**
+   * Run all transforms on a fixed number of worker threads instead of giving every transform copy
+   * a thread of its own. This needs to be set before the pipeline is prepared for execution.
+   *
+   * @param nrWorkerThreads The number of worker threads, 0 to use a thread per transform copy
+   */
+  public void setNrWorkerThreads(int nrWorkerThreads) {
+    this.nrWorkerThreads = nrWorkerThreads;
+  }
+
+  /**
+   * Gets the number of worker threads the transforms are scheduled on.
+   *
+   * @return the number of worker threads or 0 if every transform copy runs in a thread of its own
+   */
+  public int getNrWorkerThreads() {
+    return nrWorkerThreads;
+  }
+
+  /**
+   * Gets usingWorkerPool
+   *
+   * @return true if the transforms are scheduled on the worker threads, false if the pipeline isn't
+   *     prepared yet, no worker threads are set or not every transform supports it
+   */
+  public boolean isUsingWorkerPool() {
+    return usingWorkerPool;
+  }
+
   /**
    * This adds a row producer to the pipeline that just got set up. It is preferable to run this
    * BEFORE execute() but after prepareExecution()
@@ -2016,7 +2129,11 @@ public abstract class Pipeline
     IRowSet rowSet;
     switch (pipelineMeta.getPipelineType()) {
       case Normal:
-        rowSet = new BlockingRowSet(rowSetSize);
+        if (usingWorkerPool) {
+          rowSet = new ConcurrentQueueRowSet();
+        } else {
+          rowSet = new BlockingRowSet(rowSetSize);
+        }
         break;
       case SingleThreaded:
         rowSet = new QueueRowSet();
@@ -2187,6 +2304,42 @@ public abstract class Pipeline
    */
   public void setRunning(boolean running) {
     status.updateAndGet(v -> running ? v | RUNNING.mask : (BIT_STATUS_SUM ^ RUNNING.mask) & v);
+    if (running) {
+      notifyRunningWaiters();
+    }
+  }
+
+  /**
+   * Wait until the pipeline is running or stopped, for at most the given time. The transform
+   * threads waiting here are woken up as soon as the pipeline starts running.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @throws InterruptedException in case the waiting thread is interrupted
+   */
+  @Override
+  public void waitUntilRunning(long timeout, TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    runningLock.lock();
+    try {
+      while (!isRunning() && !isStopped()) {
+        if (remainingNanos <= 0) {
+          return;
+        }
+        remainingNanos = runningCondition.awaitNanos(remainingNanos);
+      }
+    } finally {
+      runningLock.unlock();
+    }
+  }
+
+  private void notifyRunningWaiters() {
+    runningLock.lock();
+    try {
+      runningCondition.signalAll();
+    } finally {
+      runningLock.unlock();
+    }
   }
 
   /**
@@ -2610,6 +2763,9 @@ public abstract class Pipeline
 
   public void setStopped(boolean stopped) {
     status.updateAndGet(v -> stopped ? v | STOPPED.mask : (BIT_STATUS_SUM ^ STOPPED.mask) & v);
+    if (stopped) {
+      notifyRunningWaiters();
+    }
   }
 
   /**
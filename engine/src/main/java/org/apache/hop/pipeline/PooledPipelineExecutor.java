@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.ConcurrentQueueRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.RunThread;
+import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
+import org.apache.hop.pipeline.transform.stream.IStream;
+
+/**
+ * Runs the transforms of a pipeline as tasks on a work-stealing pool with a fixed number of worker
+ * threads. A pipeline then uses exactly as many threads as configured, regardless of the number of
+ * transform copies it contains.
+ *
+ * <p>A transform copy is only scheduled when it can make progress: when rows are available on one
+ * of its input row sets, when all input is done, or for transforms without input, as long as the
+ * rows it produced are being consumed. Every time it is scheduled a transform processes at most
+ * {@link #ROWS_PER_TASK} rows after which it goes to the back of the queue so that the other
+ * transforms get their turn. A transform copy is never run by more than one worker at a time.
+ *
+ * <p>The row sets between the transforms are {@link ConcurrentQueueRowSet}s which never block.
+ * Instead of blocking a writing transform when a row set is full, the transform isn't scheduled
+ * again until the reading transform has caught up. Info streams (Stream Lookup and so on) are the
+ * exception: the reading transform only starts once they are complete so their writers are never
+ * held back.
+ *
+ * <p>Only transforms which opt in with {@link
+ * org.apache.hop.pipeline.transform.ITransformMeta#supportsPooledExecution()} can be executed this
+ * way. The pipeline only uses this executor when all its transforms do, see {@link
+ * Pipeline#isUsingWorkerPool()}.
+ */
+public class PooledPipelineExecutor {
+
+  /** The maximum number of rows a transform processes before it lets other transforms run */
+  public static final int ROWS_PER_TASK = 1000;
+
+  private static final int STATE_IDLE = 0;
+  private static final int STATE_SCHEDULED = 1;
+  private static final int STATE_RUNNING = 2;
+  private static final int STATE_RESCHEDULE = 3;
+  private static final int STATE_DONE = 4;
+
+  private final Pipeline pipeline;
+  private final int nrWorkers;
+  private final ILogChannel log;
+
+  private ForkJoinPool pool;
+  private List<TransformTask> tasks;
+  private AtomicInteger nrActiveTasks;
+
+  /**
+   * @param pipeline The prepared pipeline to execute, using ConcurrentQueueRowSet row sets
+   * @param nrWorkers The number of worker threads to use
+   */
+  public PooledPipelineExecutor(Pipeline pipeline, int nrWorkers) {
+    this.pipeline = pipeline;
+    this.nrWorkers = Math.max(1, nrWorkers);
+    this.log = pipeline.getLogChannel();
+  }
+
+  /**
+   * Schedule all the transforms of the pipeline on the worker pool. This method doesn't wait for
+   * the transforms to finish.
+   *
+   * @throws HopException In case one of the transforms can't be run on a worker pool
+   */
+  public void start() throws HopException {
+    List<TransformMetaDataCombi> transforms = pipeline.getTransforms();
+
+    tasks = new ArrayList<>(transforms.size());
+    Map<IRowSet, TransformTask> writers = new IdentityHashMap<>();
+    Map<IRowSet, TransformTask> readers = new IdentityHashMap<>();
+    for (TransformMetaDataCombi combi : transforms) {
+      if (!supportsPooledExecution(combi)) {
+        throw new HopException(
+            "Transform '"
+                + combi.transformName
+                + "' doesn't support being executed with a fixed number of worker threads");
+      }
+      TransformTask task = new TransformTask(combi);
+      tasks.add(task);
+      for (IRowSet rowSet : combi.transform.getOutputRowSets()) {
+        writers.put(rowSet, task);
+      }
+      for (IRowSet rowSet : combi.transform.getInputRowSets()) {
+        readers.put(rowSet, task);
+      }
+    }
+
+    // Link the transforms through their row sets
+    //
+    for (TransformTask task : tasks) {
+      for (IRowSet rowSet : task.transform.getInputRowSets()) {
+        if (rowSet instanceof ConcurrentQueueRowSet queueRowSet) {
+          queueRowSet.setRowsAvailableListener(task::schedule);
+        }
+        TransformTask writer = writers.get(rowSet);
+        if (writer != null && !task.writers.contains(writer)) {
+          task.writers.add(writer);
+        }
+      }
+      for (IRowSet rowSet : task.transform.getOutputRowSets()) {
+        // An info stream is only read once it is complete, so it can't throttle its writer
+        //
+        TransformTask reader = readers.get(rowSet);
+        if (reader != null && !reader.infoRowSets.contains(rowSet)) {
+          task.outputRowSets.add(rowSet);
+          task.readers.add(reader);
+        }
+      }
+    }
+
+    nrActiveTasks = new AtomicInteger(tasks.size());
+    pool =
+        new ForkJoinPool(
+            nrWorkers,
+            forkJoinPool -> {
+              ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+              thread.setName(pipeline.getName() + " - worker " + thread.getPoolIndex());
+              return thread;
+            },
+            null,
+            true);
+
+    // Stopped transforms need to run once more to finish
+    //
+    pipeline.addExecutionStoppedListener(p -> scheduleAll());
+
+    if (log.isDetailed()) {
+      log.logDetailed(
+          "Executing " + tasks.size() + " transform copies on " + nrWorkers + " worker threads");
+    }
+    if (tasks.isEmpty()) {
+      pool.shutdown();
+      return;
+    }
+    scheduleAll();
+  }
+
+  private boolean supportsPooledExecution(TransformMetaDataCombi combi) {
+    // Transforms which wait inside processRow() until rows arrive on a specific row set, or until
+    // other transform copies are ready, would block a worker thread. Only the transforms which are
+    // known not to do that are run on the pool.
+    //
+    return combi.meta.supportsPooledExecution();
+  }
+
+  private void scheduleAll() {
+    for (TransformTask task : tasks) {
+      task.schedule();
+    }
+  }
+
+  /**
+   * @return true if all the transforms have finished running
+   */
+  public boolean isFinished() {
+    return nrActiveTasks != null && nrActiveTasks.get() == 0;
+  }
+
+  /**
+   * Gets nrWorkers
+   *
+   * @return value of nrWorkers
+   */
+  public int getNrWorkers() {
+    return nrWorkers;
+  }
+
+  /** One transform copy, scheduled on the pool whenever it can make progress. */
+  private class TransformTask implements Runnable {
+    private final ITransform transform;
+    private final RunThread runThread;
+    private final List<IRowSet> infoRowSets;
+
+    /** The output row sets which are read by other transforms in the pool, except info streams */
+    private final List<IRowSet> outputRowSets;
+
+    private final List<TransformTask> readers;
+    private final List<TransformTask> writers;
+    private final AtomicInteger state;
+
+    private boolean started;
+
+    /** Set when this transform stopped because one of its output row sets is full */
+    private volatile boolean throttled;
+
+    TransformTask(TransformMetaDataCombi combi) {
+      this.transform = combi.transform;
+      this.runThread = new RunThread(combi);
+      this.outputRowSets = new ArrayList<>();
+      this.readers = new ArrayList<>();
+      this.writers = new ArrayList<>();
+      this.state = new AtomicInteger(STATE_IDLE);
+
+      // The info streams (Stream Lookup and so on) are read completely in one go
+      //
+      infoRowSets = new ArrayList<>();
+      List<String> infoTransformNames = new ArrayList<>();
+      for (IStream infoStream : combi.meta.getTransformIOMeta().getInfoStreams()) {
+        infoTransformNames.add(infoStream.getTransformName());
+      }
+      for (IRowSet rowSet : transform.getInputRowSets()) {
+        if (infoTransformNames.contains(rowSet.getOriginTransformName())) {
+          infoRowSets.add(rowSet);
+        }
+      }
+    }
+
+    /** Make sure this task runs (again) soon. Calling this on a scheduled task does nothing. */
+    void schedule() {
+      while (true) {
+        int current = state.get();
+        if (current == STATE_IDLE) {
+          if (state.compareAndSet(STATE_IDLE, STATE_SCHEDULED)) {
+            pool.execute(this);
+            return;
+          }
+        } else if (current == STATE_RUNNING) {
+          // Let the running worker know that there might be more work
+          if (state.compareAndSet(STATE_RUNNING, STATE_RESCHEDULE)) {
+            return;
+          }
+        } else {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      state.set(STATE_RUNNING);
+      boolean moreWork;
+      try {
+        moreWork = processRows();
+      } catch (Throwable t) {
+        runThread.handleError(t);
+        finish();
+        return;
+      }
+      if (state.get() == STATE_DONE) {
+        return;
+      }
+      if (moreWork || !state.compareAndSet(STATE_RUNNING, STATE_IDLE)) {
+        state.set(STATE_SCHEDULED);
+        pool.execute(this);
+      }
+    }
+
+    /**
+     * Process rows for as long as there is input and space in the output row sets, up to {@link
+     * #ROWS_PER_TASK} rows.
+     *
+     * @return true if the transform can continue to process rows right away
+     */
+    private boolean processRows() throws HopException {
+      if (!started) {
+        runThread.startRunning();
+        started = true;
+      }
+      if (transform.isStopped()) {
+        finish();
+        return false;
+      }
+      if (!isInfoAvailable()) {
+        return false;
+      }
+
+      throttled = false;
+      int nrProcessed = 0;
+      while (nrProcessed < ROWS_PER_TASK) {
+        if (isOutputFull()) {
+          // Flag first and check again so we can't miss the reader freeing up space
+          //
+          throttled = true;
+          if (isOutputFull()) {
+            break;
+          }
+          throttled = false;
+        }
+        if (!isInputAvailable()) {
+          break;
+        }
+        boolean more = transform.processRow();
+        nrProcessed++;
+        if (!more || transform.isStopped()) {
+          finish();
+          return false;
+        }
+      }
+
+      if (nrProcessed > 0) {
+        wakeUpThrottledWriters();
+      }
+      return nrProcessed >= ROWS_PER_TASK;
+    }
+
+    private boolean isInfoAvailable() {
+      for (IRowSet rowSet : infoRowSets) {
+        if (!rowSet.isDone()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return true if processRow() can get a row without waiting or if all input is done
+     */
+    private boolean isInputAvailable() {
+      List<IRowSet> inputRowSets = transform.getInputRowSets();
+      boolean allDone = true;
+      for (IRowSet rowSet : inputRowSets) {
+        if (rowSet.size() > 0 && !infoRowSets.contains(rowSet)) {
+          return true;
+        }
+        if (!rowSet.isDone()) {
+          allDone = false;
+        }
+      }
+      return allDone;
+    }
+
+    private boolean isOutputFull() {
+      int rowSetSize = pipeline.getRowSetSize();
+      for (int i = 0; i < outputRowSets.size(); i++) {
+        if (outputRowSets.get(i).size() >= rowSetSize
+            && readers.get(i).state.get() != STATE_DONE) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void wakeUpThrottledWriters() {
+      for (TransformTask writer : writers) {
+        if (writer.throttled) {
+          writer.schedule();
+        }
+      }
+    }
+
+    private void finish() {
+      state.set(STATE_DONE);
+      try {
+        runThread.finishRunning();
+      } finally {
+        // Writers waiting for this transform to read rows don't need to wait any longer
+        //
+        for (TransformTask writer : writers) {
+          writer.schedule();
+        }
+        if (nrActiveTasks.decrementAndGet() == 0) {
+          pool.shutdown();
+        }
+      }
+    }
+  }
+}
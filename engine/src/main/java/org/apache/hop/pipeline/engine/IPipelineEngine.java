@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.engine;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.Result;
@@ -169,6 +170,22 @@ public interface IPipelineEngine<T extends PipelineMeta>
    */
   boolean isStopped();
 
+  /**
+   * Wait until the engine is running or stopped, for at most the given time. By default this polls
+   * {@link #isRunning()}. Engines can override this to wake up the waiting threads as soon as they
+   * start running.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @throws InterruptedException in case the waiting thread is interrupted
+   */
+  default void waitUntilRunning(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!isRunning() && !isStopped() && System.nanoTime() - deadline < 0) {
+      Thread.sleep(1);
+    }
+  }
+
   /** Pauses the execution (all components). */
   void pauseExecution();
 
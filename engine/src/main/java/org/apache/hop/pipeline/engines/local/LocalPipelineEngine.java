@@ -35,6 +35,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.parameters.INamedParameters;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.VirtualThreadUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.execution.ExecutionBuilder;
 import org.apache.hop.execution.ExecutionDataBuilder;
@@ -130,6 +131,14 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
     setFeedbackShown(config.isFeedbackShown());
     setFeedbackSize(Const.toInt(resolve(config.getFeedbackSize()), Const.ROWS_UPDATE));
 
+    if (config.isUsingVirtualThreads() && !VirtualThreadUtil.isAvailable()) {
+      getLogChannel()
+          .logBasic(
+              "Virtual threads are not supported by this Java runtime, the transforms will run in platform threads");
+    }
+    setUsingVirtualThreads(config.isUsingVirtualThreads());
+    setNrWorkerThreads(Const.toInt(resolve(config.getWorkerThreads()), 0));
+
     // See if we need to enable transactions...
     //
     IExtensionData parentExtensionData = getParentPipeline();
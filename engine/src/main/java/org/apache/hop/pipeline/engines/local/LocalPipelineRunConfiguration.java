@@ -143,6 +143,30 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "virtualThreads",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.ToolTip")
+  @HopMetadataProperty(key = "virtual_threads")
+  protected boolean usingVirtualThreads;
+
+  @GuiWidgetElement(
+      id = "workerThreads",
+      order = "120",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerThreads.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerThreads.ToolTip")
+  @HopMetadataProperty(key = "worker_threads")
+  protected String workerThreads;
+
   @SuppressWarnings("java:S115")
   public enum SampleType {
     None,
@@ -160,6 +184,7 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = SampleType.Last.name();
     this.sampleSize = "100";
     this.transactional = false;
+    this.usingVirtualThreads = false;
   }
 
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
@@ -174,6 +199,8 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.usingVirtualThreads = config.usingVirtualThreads;
+    this.workerThreads = config.workerThreads;
   }
 
   @Override
@@ -348,4 +375,36 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets usingVirtualThreads
+   *
+   * @return value of usingVirtualThreads
+   */
+  public boolean isUsingVirtualThreads() {
+    return usingVirtualThreads;
+  }
+
+  /**
+   * @param usingVirtualThreads The usingVirtualThreads to set
+   */
+  public void setUsingVirtualThreads(boolean usingVirtualThreads) {
+    this.usingVirtualThreads = usingVirtualThreads;
+  }
+
+  /**
+   * Gets workerThreads
+   *
+   * @return value of workerThreads
+   */
+  public String getWorkerThreads() {
+    return workerThreads;
+  }
+
+  /**
+   * @param workerThreads The workerThreads to set
+   */
+  public void setWorkerThreads(String workerThreads) {
+    this.workerThreads = workerThreads;
+  }
 }
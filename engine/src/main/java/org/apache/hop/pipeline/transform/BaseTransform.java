@@ -34,7 +34,9 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.BlockingRowSet;
@@ -51,6 +53,7 @@ import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.logging.LogLevel;
 import org.apache.hop.core.logging.LoggingObjectType;
+import org.apache.hop.core.row.ColumnarRowBatch;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -193,6 +196,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   /** The rowsets on the input, size() == nr of source transforms */
   private List<IRowSet> inputRowSets;
 
+  /** The input rowset the last row was read from */
+  private IRowSet lastInputRowSet;
+
+  /** The batch handed out by getRowBatch(), reused for the next batch */
+  private ColumnarRowBatch inputRowBatch;
+
   private final ReentrantReadWriteLock inputRowSetsLock = new ReentrantReadWriteLock();
 
   /** the rowsets on the output, size() == nr of target transforms */
@@ -213,6 +222,14 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private AtomicBoolean paused;
 
+  /**
+   * Threads wait on this condition while the transform is paused. A lock is used rather than an
+   * object monitor so that waiting virtual threads don't pin their carrier thread.
+   */
+  private final ReentrantLock pauseLock = new ReentrantLock();
+
+  private final Condition pauseCondition = pauseLock.newCondition();
+
   private final boolean init;
 
   /** the copy number of this thread */
@@ -285,6 +302,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private static final int NR_OF_ROWS_IN_BLOCK = 500;
 
+  /** The maximum time to wait before checking the paused, stopped and running states again */
+  private static final long STATE_CHECK_INTERVAL_MILLIS = 100L;
+
   private int blockPointer;
 
   private List<ITransformFinishedListener> transformFinishedListeners;
@@ -661,6 +681,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void addLinesRead(long nrLines) {
+    synchronized (statusCountersLock) {
+      linesRead += nrLines;
+    }
+  }
+
   /**
    * Decrements the number of lines read from previous transforms by one
    *
@@ -784,6 +810,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void addLinesWritten(long nrLines) {
+    synchronized (statusCountersLock) {
+      linesWritten += nrLines;
+    }
+  }
+
   /**
    * Decrements the number of lines written to next transforms by one
    *
@@ -1011,6 +1043,42 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    checkEmptyFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRow(rowMeta, row);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * putRows is used to pass a batch of rows with the same layout to the next transform(s). The
+   * checks and locking which putRow() does for every row are done only once for the whole batch.
+   * The rows end up in the output rowsets in the same order and in the same way as when they would
+   * have been passed one by one with putRow().
+   *
+   * @param rowMeta The metadata of the rows
+   * @param rows The rows to put to the destination rowset(s).
+   * @throws HopTransformException
+   */
+  @Override
+  public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    checkEmptyFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRows(rowMeta, rows);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  private void checkEmptyFieldNamesAndTypes(IRowMeta rowMeta) throws HopTransformException {
     if (rowMeta != null) {
       if (!allowEmptyFieldNamesAndTypes) {
         // check row meta for empty field name (BACKLOG-18004)
@@ -1028,25 +1096,18 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
       }
     }
-    getRowHandler().putRow(rowMeta, row);
-
-    // This transform is not reading data, only writing
-    //
-    if (firstRowReadDate == null) {
-      firstRowReadDate = new Date();
-    }
   }
 
-  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+  /**
+   * Wait while the transform is paused and until the pipeline is running.
+   *
+   * @return false if the transform was stopped and no rows should be passed along anymore.
+   * @throws HopTransformException when interrupted while paused
+   */
+  private boolean waitBeforePuttingRows() throws HopTransformException {
     // Are we pausing the transform? If so, stall forever...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(1);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     // Right after the pause loop we have to check if this thread is stopped or
     // not.
@@ -1056,7 +1117,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
       }
       stopAll();
-      return;
+      return false;
     }
 
     // Have all threads started?
@@ -1064,21 +1125,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     // started.
     //
     if (!this.checkPipelineRunning) {
-      int counter = 0;
-      while (!pipeline.isRunning() && !stopped.get()) {
-        try {
-          Thread.sleep(1000);
-          counter++;
-        } catch (InterruptedException e) {
-          // Ignore
-        }
-        // wait 3s max
-        if (counter >= 3) {
-          break;
-        }
-      }
+      // wait 3s max
+      waitForPipelineToRun(3000L);
       this.checkPipelineRunning = true;
     }
+    return true;
+  }
+
+  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    if (!waitBeforePuttingRows()) {
+      return;
+    }
 
     // call all row listeners...
     //
@@ -1108,31 +1165,99 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         return; // we're done here!
       }
 
-      // Repartitioning happens when the current transform is not partitioned, but the next one is.
-      // That means we need to look up the partitioning information in the next transform..
-      // If there are multiple transforms, we need to look at the first (they should be all the
-      // same)
-      //
-      switch (repartitioning) {
-        case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
-          noPartitioning(rowMeta, row);
-          break;
+      putRowToOutputRowSets(rowMeta, row);
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
 
-        case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
-          specialPartitioning(rowMeta, row);
-          break;
-        case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
-          mirrorPartitioning(rowMeta, row);
-          break;
-        default:
+  private void handlePutRows(IRowMeta rowMeta, List<Object[]> rows)
+      throws HopTransformException {
+    if (!waitBeforePuttingRows()) {
+      return;
+    }
+
+    // call all row listeners and keep adding to terminator_rows buffer...
+    //
+    for (Object[] row : rows) {
+      for (IRowListener listener : rowListeners) {
+        listener.rowWrittenEvent(rowMeta, row);
+      }
+      if (terminator && terminatorRows != null) {
+        try {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        } catch (HopValueException e) {
           throw new HopTransformException(
-              "Internal error: invalid repartitioning type: " + repartitioning);
+              "Unable to clone row while adding rows to the terminator rows.", e);
+        }
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        addLinesWritten(rows.size());
+
+        return; // we're done here!
+      }
+
+      if (repartitioning == TransformPartitioningMeta.PARTITIONING_METHOD_NONE && !distributed) {
+        // Copy the whole batch to all output rowsets
+        //
+        for (int i = 1; i < outputRowSets.size(); i++) { // start at 1
+          List<Object[]> rowsCopy = new ArrayList<>(rows.size());
+          try {
+            for (Object[] row : rows) {
+              rowsCopy.add(rowMeta.cloneRow(row));
+            }
+          } catch (HopValueException e) {
+            throw new HopTransformException(
+                "Unable to clone row while copying rows to multiple target transforms", e);
+          }
+          addLinesWritten(putRowsToRowSet(outputRowSets.get(i), rowMeta, rowsCopy));
+        }
+        // Only count the rows which were handed over, not the ones left when we got stopped
+        //
+        addLinesWritten(putRowsToRowSet(outputRowSets.get(0), rowMeta, rows));
+      } else {
+        // Distribution or partitioning decides per row where it goes
+        //
+        for (Object[] row : rows) {
+          putRowToOutputRowSets(rowMeta, row);
+        }
       }
     } finally {
       outputRowSetsLock.readLock().unlock();
     }
   }
 
+  private void putRowToOutputRowSets(IRowMeta rowMeta, Object[] row)
+      throws HopTransformException {
+    // Repartitioning happens when the current transform is not partitioned, but the next one is.
+    // That means we need to look up the partitioning information in the next transform..
+    // If there are multiple transforms, we need to look at the first (they should be all the
+    // same)
+    //
+    switch (repartitioning) {
+      case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
+        noPartitioning(rowMeta, row);
+        break;
+
+      case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+        specialPartitioning(rowMeta, row);
+        break;
+      case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+        mirrorPartitioning(rowMeta, row);
+        break;
+      default:
+        throw new HopTransformException(
+            "Internal error: invalid repartitioning type: " + repartitioning);
+    }
+  }
+
   /** Copy always to all target transforms/copies */
   private void mirrorPartitioning(IRowMeta rowMeta, Object[] row) {
     for (IRowSet rowSet : outputRowSets) {
@@ -1220,7 +1345,10 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // To reduce stress on the locking system we are NOT going to allow
         // the buffer to grow to its full capacity.
 
-        if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
+        if (!rs.isLockFree()
+            && !rs.isDone()
+            && rs.size() >= upperBufferBoundary
+            && !isStopped()) {
           try {
             Thread.sleep(0, 1);
           } catch (InterruptedException e) {
@@ -1256,7 +1384,10 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // To reduce stress on the locking system we are NOT going to allow
         // the buffer to grow to its full capacity.
 
-        if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
+        if (!rs.isLockFree()
+            && !rs.isDone()
+            && rs.size() >= upperBufferBoundary
+            && !isStopped()) {
           try {
             Thread.sleep(0, 1);
           } catch (InterruptedException e) {
@@ -1301,6 +1432,37 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Put the rows in the row set, waiting for space when needed.
+   *
+   * @return The number of rows put, fewer than the rows given if the transform was stopped
+   */
+  private int putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    int nrPut = 0;
+    while (nrPut < rows.size()) {
+      nrPut +=
+          rs.putRowsWait(
+              toBeSent,
+              rows.subList(nrPut, rows.size()),
+              Const.TIMEOUT_PUT_MILLIS,
+              TimeUnit.MILLISECONDS);
+      if (nrPut < rows.size() && isStopped() && !safeStopped.get()) {
+        return nrPut;
+      }
+    }
+    return nrPut;
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific IRowSet.
    *
@@ -1325,13 +1487,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Are we pausing the transform? If so, stall forever...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(1);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     // Do not call the row listeners for targeted rows.
     // It can cause rows with varying layouts to arrive at the same listener without a way to keep
@@ -1524,14 +1680,66 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     // started.
     //
     if (!this.checkPipelineRunning) {
-      while (!pipeline.isRunning() && !stopped.get()) {
-        try {
-          Thread.sleep(1);
-        } catch (InterruptedException e) {
-          // Ignore sleep interruption exception
+      waitForPipelineToRun(-1L);
+      this.checkPipelineRunning = true;
+    }
+  }
+
+  /**
+   * Wait until the pipeline is running. The pipeline wakes us up as soon as it starts running.
+   *
+   * @param maxWaitMillis the maximum time to wait in ms or -1 to wait until the pipeline is running
+   *     or this transform is stopped.
+   */
+  private void waitForPipelineToRun(long maxWaitMillis) {
+    long start = System.currentTimeMillis();
+    while (!pipeline.isRunning() && !stopped.get()) {
+      long waitMillis = STATE_CHECK_INTERVAL_MILLIS;
+      if (maxWaitMillis >= 0) {
+        long remainingMillis = maxWaitMillis - (System.currentTimeMillis() - start);
+        if (remainingMillis <= 0) {
+          break;
         }
+        waitMillis = Math.min(waitMillis, remainingMillis);
       }
-      this.checkPipelineRunning = true;
+      try {
+        pipeline.waitUntilRunning(waitMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        // Ignore interruption exception
+      }
+    }
+  }
+
+  /**
+   * Block while this transform is paused. The waiting thread is woken up as soon as the transform
+   * is resumed or stopped.
+   *
+   * @throws HopTransformException in case the waiting thread is interrupted
+   */
+  private void waitWhilePaused() throws HopTransformException {
+    if (!paused.get() || stopped.get()) {
+      return;
+    }
+    pauseLock.lock();
+    try {
+      while (paused.get() && !stopped.get()) {
+        // The timeout covers flags that are changed without setPaused() or setStopped()
+        pauseCondition.await(STATE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      throw new HopTransformException(e);
+    } finally {
+      pauseLock.unlock();
+    }
+  }
+
+  /** Wake up the threads which are waiting while this transform is paused. */
+  private void notifyPauseWaiters() {
+    pauseLock.lock();
+    try {
+      pauseCondition.signalAll();
+    } finally {
+      pauseLock.unlock();
     }
   }
 
@@ -1550,17 +1758,118 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Get a batch of rows from the previous transforms. This blocks until at least one row is
+   * available, after which the rows that are immediately available in the same input rowset are
+   * added to the batch, up to the given maximum. The rows are returned in the same order as
+   * getRow() would return them. In a single threaded pipeline only one row is returned: the
+   * executor calls processRow() once for every row waiting on input.
+   *
+   * @param maxRows the maximum number of rows to get
+   * @return a list with at least one row or null if there are no more rows to be expected.
+   * @throws HopException
+   */
+  @Override
+  public List<Object[]> getRows(int maxRows) throws HopException {
+    List<Object[]> rows = getRowHandler().getRows(maxRows);
+
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+
+    return rows;
+  }
+
+  /**
+   * Get a batch of rows from the previous transforms in columnar form. The rows are obtained with
+   * {@link #getRows(int)}, a column is only converted when it is accessed. This way a transform can
+   * process some fields column by column and still pass the original rows on.
+   *
+   * <p>The same batch object, and the column buffers in it, are reused for the next batch. A
+   * transform should not hold on to a batch or its columns after asking for the next one.
+   *
+   * @param maxRows the maximum number of rows to get
+   * @return a batch with at least one row or null if there are no more rows to be expected.
+   * @throws HopException
+   */
+  public ColumnarRowBatch getRowBatch(int maxRows) throws HopException {
+    List<Object[]> rows = getRows(maxRows);
+    if (rows == null) {
+      return null;
+    }
+    if (inputRowBatch == null) {
+      inputRowBatch = ColumnarRowBatch.fromRows(getInputRowMeta(), rows);
+    } else {
+      inputRowBatch.resetRows(getInputRowMeta(), rows);
+    }
+    return inputRowBatch;
+  }
+
+  /**
+   * Pass a columnar batch of rows to the next transforms. The row sets between transforms carry
+   * rows, so the batch is converted back to rows unless it was created from rows in the first
+   * place.
+   *
+   * @param batch The batch of rows to pass on
+   * @throws HopTransformException
+   */
+  public void putRowBatch(ColumnarRowBatch batch) throws HopTransformException {
+    if (!batch.isEmpty()) {
+      putRows(batch.getRowMeta(), batch.getRows());
+    }
+  }
+
+  private List<Object[]> handleGetRows(int maxRows) throws HopException {
+    Object[] row = handleGetRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(Math.min(maxRows, 1024));
+    rows.add(row);
+    if (maxRows <= 1
+        || pipelineMeta.getPipelineType() == PipelineMeta.PipelineType.SingleThreaded) {
+      return rows;
+    }
+
+    int nrGot = 0;
+    inputRowSetsLock.readLock().lock();
+    try {
+      // Only take rows from the rowset which delivered the first row: those share its metadata
+      //
+      if (lastInputRowSet != null && inputRowSets.contains(lastInputRowSet) && !isStopped()) {
+        nrGot = lastInputRowSet.getRowsImmediate(rows, maxRows - 1);
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+
+    if (nrGot > 0) {
+      addLinesRead(nrGot);
+      blockPointer += nrGot;
+
+      // The same checks as for a single row, once for the rest of the batch
+      //
+      if (pipeline.isSafeModeEnabled()) {
+        pipelineMeta.checkRowMixingStatically(this, transformMeta, null);
+      }
+
+      for (int i = 1; i < rows.size(); i++) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowReadEvent(inputRowMeta, rows.get(i));
+        }
+      }
+
+      verifyRejectionRates();
+    }
+
+    return rows;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     if (stopped.get()) {
       if (log.isDebug()) {
@@ -1611,7 +1920,10 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // The buffer to grow beyond "a few" entries.
       // We'll only do that if the previous transform has not ended...
 
-      if (!inputRowSet.isDone() && inputRowSet.size() <= lowerBufferBoundary && !isStopped()) {
+      if (!inputRowSet.isLockFree()
+          && !inputRowSet.isDone()
+          && inputRowSet.size() <= lowerBufferBoundary
+          && !isStopped()) {
         try {
           Thread.sleep(0, 1);
         } catch (InterruptedException e) {
@@ -1748,6 +2060,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     if (row == null) {
       return;
     }
+    lastInputRowSet = inputRowSet;
 
     // Set the row metadata on the first occurrence.
     // If prevTransforms.length > 1, inputRowMeta can be changed as well.
@@ -1937,25 +2250,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   public Object[] handleGetRowFrom(IRowSet rowSet) throws HopTransformException {
     // Are we pausing the transform? If so, stall forever...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(10);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     // Have all threads started?
     // Are we running yet? If not, wait a bit until all threads have been
     // started.
     if (!this.checkPipelineRunning) {
-      while (!pipeline.isRunning() && !stopped.get()) {
-        try {
-          Thread.sleep(1);
-        } catch (InterruptedException e) {
-          // Ignore sleep interruption exception
-        }
-      }
+      waitForPipelineToRun(-1L);
       this.checkPipelineRunning = true;
     }
     Object[] rowData = null;
@@ -1964,7 +2265,10 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     // The buffer to grow beyond "a few" entries.
     // We'll only do that if the previous transform has not ended...
 
-    if (!rowSet.isDone() && rowSet.size() <= lowerBufferBoundary && !isStopped()) {
+    if (!rowSet.isLockFree()
+        && !rowSet.isDone()
+        && rowSet.size() <= lowerBufferBoundary
+        && !isStopped()) {
       try {
         Thread.sleep(0, 1);
       } catch (InterruptedException e) {
@@ -2678,6 +2982,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   @Override
   public void stopAll() {
     stopped.set(true);
+    notifyPauseWaiters();
     pipeline.stopAll();
   }
 
@@ -2719,6 +3024,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   @Override
   public void setStopped(boolean stopped) {
     this.stopped.set(stopped);
+    if (stopped) {
+      notifyPauseWaiters();
+    }
   }
 
   @Override
@@ -2768,6 +3076,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   public void setPaused(boolean paused) {
     this.paused.set(paused);
+    if (!paused) {
+      notifyPauseWaiters();
+    }
   }
 
   /**
@@ -2777,6 +3088,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   public void setPaused(AtomicBoolean paused) {
     this.paused = paused;
+    notifyPauseWaiters();
   }
 
   /**
@@ -3319,6 +3631,22 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         && (lines % getPipeline().getFeedbackSize()) == 0;
   }
 
+  /**
+   * Check feedback after a batch of rows. The number of lines jumps by the size of the batch, so
+   * we check whether a multiple of the feedback size was passed instead of reached.
+   *
+   * @param linesBefore the lines before the batch
+   * @param lines the lines after the batch
+   * @return true, if successful
+   */
+  protected boolean checkFeedback(long linesBefore, long lines) {
+    return getPipeline().isFeedbackShown()
+        && (lines > 0)
+        && (getPipeline().getFeedbackSize() > 0)
+        && (lines / getPipeline().getFeedbackSize())
+            != (linesBefore / getPipeline().getFeedbackSize());
+  }
+
   /**
    * @return the rowMeta
    */
@@ -3863,6 +4191,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public List<Object[]> getRows(int maxRows) throws HopException {
+      return handleGetRows(maxRows);
+    }
+
+    @Override
+    public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+      handlePutRows(rowMeta, rows);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -329,6 +329,17 @@ public interface ITransformMeta {
    */
   boolean supportsMultiCopyExecution();
 
+  /**
+   * A transform which never waits inside processRow() for rows of other transforms can be run on
+   * the fixed pool of worker threads of the local pipeline engine. Transforms have to opt in.
+   *
+   * @return true if this transform can be scheduled on a pool of worker threads. By default
+   *     false.
+   */
+  default boolean supportsPooledExecution() {
+    return false;
+  }
+
   /**
    * Get a list of all the resource dependencies that the transform is depending on.
    *
@@ -128,4 +128,9 @@ public class DummyMeta extends BaseTransformMeta<Dummy, DummyData> {
       remarks.add(cr);
     }
   }
+
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
 }
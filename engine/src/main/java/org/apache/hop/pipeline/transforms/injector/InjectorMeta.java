@@ -114,6 +114,11 @@ public class InjectorMeta extends BaseTransformMeta<Injector, InjectorData> {
     }
   }
 
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
+
   /**
    * Gets injectorFields
    *
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lookup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LookupCacheRegistryTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final IVariables variables = new Variables();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @BeforeClass
+  public static void initHop() throws Exception {
+    HopEnvironment.init();
+  }
+
+  private LookupCacheEntry load(int size) {
+    loads.incrementAndGet();
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < size; i++) {
+      rows.add(new Object[] {i, "name " + i});
+    }
+    return new LookupCacheEntry(rowMeta, rows);
+  }
+
+  @Test
+  public void testEntryIsSharedUntilExpired() throws Exception {
+    LookupCacheRegistry registry = LookupCacheRegistry.getInstance();
+    LookupCache cache = new LookupCache("shared");
+    cache.setTimeToLive("0");
+
+    LookupCacheEntry first = registry.attach(cache, variables, "query", () -> load(10));
+    LookupCacheEntry second = registry.attach(cache, variables, "query", () -> load(10));
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+    assertEquals(2, first.getReferences());
+
+    registry.release(first);
+    registry.release(second);
+    LookupCacheEntry third = registry.attach(cache, variables, "query", () -> load(10));
+    assertSame(first, third);
+    assertEquals(1, loads.get());
+    registry.release(third);
+
+    LookupCacheEntry other = registry.attach(cache, variables, "other query", () -> load(10));
+    assertNotSame(first, other);
+    assertEquals(2, loads.get());
+    registry.release(other);
+    registry.clear("shared");
+  }
+
+  @Test
+  public void testUnusedEntriesAreEvicted() throws Exception {
+    LookupCacheRegistry registry = LookupCacheRegistry.getInstance();
+    LookupCache cache = new LookupCache("evicted");
+    cache.setMaximumRows("150");
+
+    LookupCacheEntry inUse = registry.attach(cache, variables, "a", () -> load(100));
+    LookupCacheEntry unused = registry.attach(cache, variables, "b", () -> load(100));
+    registry.release(unused);
+
+    // The second entry doesn't fit and isn't used anymore, the first one is still in use
+    //
+    LookupCacheEntry again = registry.attach(cache, variables, "a", () -> load(100));
+    assertSame(inUse, again);
+    assertEquals(1, registry.getEntries("evicted").size());
+    assertSame(inUse, registry.getEntries("evicted").get(0));
+
+    registry.release(inUse);
+    registry.release(again);
+    LookupCacheEntry reloaded = registry.attach(cache, variables, "b", () -> load(100));
+    assertEquals(3, loads.get());
+    assertEquals(1, registry.getEntries("evicted").size());
+    assertSame(reloaded, registry.getEntries("evicted").get(0));
+    registry.release(reloaded);
+    registry.clear("evicted");
+  }
+
+  @Test
+  public void testEntryIsReadFromDirectory() throws Exception {
+    LookupCacheRegistry registry = LookupCacheRegistry.getInstance();
+    LookupCache cache = new LookupCache("disk");
+    cache.setDirectory(folder.getRoot().getAbsolutePath());
+
+    LookupCacheEntry written = registry.attach(cache, variables, "query", () -> load(5));
+    registry.release(written);
+    registry.clear("disk");
+
+    LookupCacheEntry read = registry.attach(cache, variables, "query", () -> load(5));
+    assertEquals(1, loads.get());
+    assertNotSame(written, read);
+    assertEquals(5, read.getRows().size());
+    assertEquals("name", read.getRowMeta().getValueMeta(1).getName());
+    assertArrayEquals(written.getRows().get(4), read.getRows().get(4));
+    registry.release(read);
+    registry.clear("disk");
+  }
+
+  @Test
+  public void testLocksAreRemoved() throws Exception {
+    LookupCacheRegistry registry = LookupCacheRegistry.getInstance();
+    LookupCache cache = new LookupCache("locks");
+
+    List<LookupCacheEntry> attached = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      attached.add(registry.attach(cache, variables, "query " + i, () -> load(1)));
+    }
+    assertEquals(0, registry.getNrLocks());
+
+    for (LookupCacheEntry entry : attached) {
+      registry.release(entry);
+    }
+    registry.clear("locks");
+    assertEquals(0, registry.getNrLocks());
+  }
+}
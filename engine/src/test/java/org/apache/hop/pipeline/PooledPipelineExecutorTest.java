@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class PooledPipelineExecutorTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  /** Inject rows into a pipeline with more transform copies than worker threads */
+  @Test(timeout = 30000)
+  public void testAllRowsArrive() throws Exception {
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(createPipelineMeta(new DummyMeta()));
+    pipeline.setNrWorkerThreads(2);
+    pipeline.prepareExecution();
+
+    assertTrue(pipeline.isUsingWorkerPool());
+    assertAllRowsArrive(pipeline);
+  }
+
+  /** A transform which doesn't support a worker pool makes every copy run in its own thread */
+  @Test(timeout = 30000)
+  public void testUnsupportedTransformRunsInThreads() throws Exception {
+    DummyMeta threaded =
+        new DummyMeta() {
+          @Override
+          public boolean supportsPooledExecution() {
+            return false;
+          }
+        };
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(createPipelineMeta(threaded));
+    pipeline.setNrWorkerThreads(2);
+    pipeline.prepareExecution();
+
+    assertFalse(pipeline.isUsingWorkerPool());
+    assertAllRowsArrive(pipeline);
+  }
+
+  private PipelineMeta createPipelineMeta(DummyMeta copiesMeta) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("pooled");
+    TransformMeta injector = new TransformMeta("injector", new InjectorMeta());
+    TransformMeta copies = new TransformMeta("Dummy", "copies", copiesMeta);
+    copies.setCopies(3);
+    TransformMeta output = new TransformMeta("output", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(copies);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, copies));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(copies, output));
+    return pipelineMeta;
+  }
+
+  private void assertAllRowsArrive(LocalPipelineEngine pipeline) throws Exception {
+    RowProducer rowProducer = pipeline.addRowProducer("injector", 0);
+
+    AtomicInteger nrRows = new AtomicInteger();
+    AtomicLong sum = new AtomicLong();
+    pipeline
+        .getTransform("output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                nrRows.incrementAndGet();
+                sum.addAndGet((Long) row[0]);
+              }
+            });
+    pipeline.startThreads();
+
+    // More rows than fit in a row set so the transforms are throttled along the way
+    //
+    int nrInjected = 5 * pipeline.getRowSetSize() + 17;
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 1; i <= nrInjected; i++) {
+      rowProducer.putRow(rowMeta, new Object[] {i});
+    }
+    rowProducer.finished();
+    pipeline.waitUntilFinished();
+
+    assertTrue(pipeline.isFinished());
+    assertEquals(0, pipeline.getErrors());
+    assertEquals(nrInjected, nrRows.get());
+    assertEquals((long) nrInjected * (nrInjected + 1) / 2, sum.get());
+  }
+}
@@ -17,9 +17,12 @@
 
 package org.apache.hop.pipeline.transform;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,9 +35,11 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.IRowSet;
@@ -276,6 +281,129 @@ public class BaseTransformTest {
     verify(rowHandler, times(1)).putRow(iRowMeta, objects);
   }
 
+  @Test
+  public void putRowsWithRowHandler() throws HopException {
+    BaseTransform baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setRowHandler(rowHandler);
+
+    IRowMeta iRowMeta = mock(IRowMeta.class);
+    List<Object[]> rows = Arrays.asList(new Object[] {"foo"}, new Object[] {"bar"});
+    baseTransform.putRows(iRowMeta, rows);
+    verify(rowHandler, times(1)).putRows(iRowMeta, rows);
+  }
+
+  @Test
+  public void putRowsCopiesTheBatchToAllOutputRowSets() throws Exception {
+    IRowSet rs1 = new BlockingRowSet(10);
+    IRowSet rs2 = new BlockingRowSet(10);
+
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setStopped(false);
+    baseTransform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    baseTransform.setOutputRowSets(Arrays.asList(rs1, rs2));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    List<Object[]> rows =
+        Arrays.asList(new Object[] {1L}, new Object[] {2L}, new Object[] {3L});
+
+    baseTransform.putRows(rowMeta, rows);
+
+    assertEquals(3, rs1.size());
+    assertEquals(3, rs2.size());
+    for (Object[] row : rows) {
+      assertSame(row, rs1.getRowImmediate());
+      Object[] copy = rs2.getRowImmediate();
+      assertNotSame(row, copy);
+      assertEquals(row[0], copy[0]);
+    }
+    assertEquals(6, baseTransform.getLinesWritten());
+  }
+
+  @Test
+  public void putRowsOnlyCountsTheRowsHandedOverWhenStopped() throws Exception {
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setStopped(false);
+    baseTransform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+
+    // The row set only has room for 2 rows, the transform gets stopped while it waits
+    //
+    IRowSet rowSet =
+        new BlockingRowSet(2) {
+          @Override
+          public int putRowsWait(
+              IRowMeta rowMeta, List<Object[]> rows, long time, TimeUnit tu) {
+            int nrPut = super.putRowsWait(rowMeta, rows, time, tu);
+            baseTransform.setStopped(true);
+            return nrPut;
+          }
+        };
+    baseTransform.setOutputRowSets(Arrays.asList(rowSet));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    baseTransform.putRows(
+        rowMeta, Arrays.asList(new Object[] {1L}, new Object[] {2L}, new Object[] {3L}));
+
+    assertEquals(2, rowSet.size());
+    assertEquals(2, baseTransform.getLinesWritten());
+  }
+
+  @Test
+  public void getRowsTakesAllAvailableRowsFromTheInputRowSet() throws HopException {
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                new LocalPipelineEngine()));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    BlockingRowSet rowSet = new BlockingRowSet(10);
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    rowSet.putRow(rowMeta, new Object[] {1L});
+    rowSet.putRow(rowMeta, new Object[] {2L});
+    rowSet.putRow(rowMeta, new Object[] {3L});
+    baseTransformSpy.setInputRowSets(new ArrayList<>(List.of(rowSet)));
+
+    List<Object[]> rows = baseTransformSpy.getRows(2);
+    assertEquals(2, rows.size());
+    assertEquals(1L, rows.get(0)[0]);
+    assertEquals(2L, rows.get(1)[0]);
+
+    rows = baseTransformSpy.getRows(10);
+    assertEquals(1, rows.size());
+    assertEquals(3L, rows.get(0)[0]);
+    assertEquals(3, baseTransformSpy.getLinesRead());
+  }
+
   @Test
   public void putErrorWithRowHandler() throws HopException {
     BaseTransform baseTransform =
@@ -456,4 +584,55 @@ public class BaseTransformTest {
     verify(mockHelper.pipelineMeta, times(1))
         .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), eq(null));
   }
+
+  @Test
+  public void testGetRowsSafeModeEnabledChecksEveryBatch() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    when(pipelineMock.isSafeModeEnabled()).thenReturn(true);
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    BlockingRowSet rowSet = new BlockingRowSet(10);
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    rowSet.putRow(rowMeta, new Object[] {1L});
+    rowSet.putRow(rowMeta, new Object[] {2L});
+    rowSet.putRow(rowMeta, new Object[] {3L});
+    baseTransformSpy.setInputRowSets(new ArrayList<>(List.of(rowSet)));
+
+    List<Object[]> rows = baseTransformSpy.getRows(10);
+    assertEquals(3, rows.size());
+
+    // Once for the first row and once for the rest of the batch
+    verify(mockHelper.pipelineMeta, times(2))
+        .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), eq(null));
+  }
+
+  @Test
+  public void testCheckFeedbackAfterBatch() {
+    when(mockHelper.pipeline.isFeedbackShown()).thenReturn(true);
+    when(mockHelper.pipeline.getFeedbackSize()).thenReturn(100);
+    BaseTransform baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    // A batch of 64 rows passing line 100 without ending on it
+    assertTrue(baseTransform.checkFeedback(64, 128));
+    assertFalse(baseTransform.checkFeedback(128, 192));
+    assertTrue(baseTransform.checkFeedback(192, 200));
+    assertFalse(baseTransform.checkFeedback(200, 264));
+  }
 }
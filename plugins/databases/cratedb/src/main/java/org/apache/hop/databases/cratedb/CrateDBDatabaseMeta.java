@@ -258,4 +258,14 @@ public class CrateDBDatabaseMeta extends PostgreSqlDatabaseMeta {
   public String getSqlUnlockTables(String[] tableName) {
     throw new UnsupportedOperationException("CrateDB does not support locking tables");
   }
+
+  /**
+   * CrateDB only copies from files, not from STDIN
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
 }
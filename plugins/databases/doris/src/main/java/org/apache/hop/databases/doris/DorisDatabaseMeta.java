@@ -129,4 +129,14 @@ public class DorisDatabaseMeta extends MySqlDatabaseMeta {
 
     return retval;
   }
+
+  /**
+   * Doris has its own bulk loading mechanism, Stream Load
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
 }
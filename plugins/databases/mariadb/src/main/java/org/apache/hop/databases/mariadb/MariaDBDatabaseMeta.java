@@ -95,4 +95,14 @@ public class MariaDBDatabaseMeta extends MySqlDatabaseMeta {
           e);
     }
   }
+
+  /**
+   * The MariaDB driver doesn't offer a way to stream the rows of LOAD DATA LOCAL INFILE
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
 }
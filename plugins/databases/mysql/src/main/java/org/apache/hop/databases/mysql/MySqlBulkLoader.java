@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.mysql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.apache.hop.core.database.BaseCsvBulkLoader;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * Loads rows with LOAD DATA LOCAL INFILE. The driver reads the "file" from a pipe which is filled
+ * with the CSV rows while the statement runs in a separate thread. The connection needs the
+ * allowLoadLocalInfile=true option.
+ */
+public class MySqlBulkLoader extends BaseCsvBulkLoader {
+
+  private static final int PIPE_SIZE = 256 * 1024;
+
+  /**
+   * The statement interface of MySQL Connector/J which takes the stream to load. The driver is
+   * provided at runtime, so it's only looked up when a bulk load starts.
+   */
+  private static final String JDBC_STATEMENT_CLASS = "com.mysql.cj.jdbc.JdbcStatement";
+
+  private final String sql;
+  private final Statement statement;
+  private final PipedOutputStream out;
+  private final PipedInputStream in;
+  private final Thread loadThread;
+
+  private volatile long loaded;
+  private volatile SQLException loadException;
+
+  public MySqlBulkLoader(
+      Connection connection,
+      String schemaTable,
+      String[] columns,
+      IRowMeta rowMeta,
+      boolean booleanDataType)
+      throws HopDatabaseException {
+    super(rowMeta, StandardCharsets.UTF_8, "NULL", booleanDataType);
+    this.sql =
+        "LOAD DATA LOCAL INFILE 'hop-bulk-load' INTO TABLE "
+            + schemaTable
+            + " CHARACTER SET utf8mb4"
+            + " FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY ''"
+            + " LINES TERMINATED BY '\\n'"
+            + " ("
+            + String.join(", ", columns)
+            + ")";
+    try {
+      this.in = new PipedInputStream(PIPE_SIZE);
+      this.out = new PipedOutputStream(in);
+      this.statement = connection.createStatement();
+    } catch (IOException | SQLException e) {
+      throw new HopDatabaseException("Unable to start the bulk load with " + sql, e);
+    }
+    try {
+      setLocalInfileInputStream(statement, in);
+    } catch (HopDatabaseException e) {
+      closeStatement();
+      throw e;
+    }
+
+    this.loadThread = new Thread(this::load, "MySQL bulk load " + schemaTable);
+    loadThread.setDaemon(true);
+    loadThread.start();
+  }
+
+  /**
+   * Let the statement read the "file" of LOAD DATA LOCAL INFILE from a stream. This is specific to
+   * MySQL Connector/J: the driver class is looked up next to the statement.
+   *
+   * @param statement The statement which executes the load
+   * @param in The stream to read from
+   * @throws HopDatabaseException In case the statement doesn't come from MySQL Connector/J
+   */
+  static void setLocalInfileInputStream(Statement statement, InputStream in)
+      throws HopDatabaseException {
+    Class<?> jdbcStatementClass = findJdbcStatementClass(statement);
+    try {
+      if (jdbcStatementClass == null || !statement.isWrapperFor(jdbcStatementClass)) {
+        throw new HopDatabaseException(
+            "Bulk loading into MySQL needs the MySQL Connector/J driver: "
+                + "the statement doesn't implement "
+                + JDBC_STATEMENT_CLASS);
+      }
+      Object jdbcStatement = statement.unwrap(jdbcStatementClass);
+      jdbcStatementClass
+          .getMethod("setLocalInfileInputStream", InputStream.class)
+          .invoke(jdbcStatement, in);
+    } catch (SQLException | ReflectiveOperationException e) {
+      throw new HopDatabaseException("Unable to pass the rows to the MySQL driver", e);
+    }
+  }
+
+  private static Class<?> findJdbcStatementClass(Statement statement) {
+    for (ClassLoader classLoader :
+        new ClassLoader[] {
+          statement.getClass().getClassLoader(), MySqlBulkLoader.class.getClassLoader()
+        }) {
+      try {
+        return Class.forName(JDBC_STATEMENT_CLASS, false, classLoader);
+      } catch (ClassNotFoundException | LinkageError e) {
+        // Try the next class loader
+      }
+    }
+    return null;
+  }
+
+  private void load() {
+    try {
+      loaded = statement.executeLargeUpdate(sql);
+    } catch (SQLException e) {
+      loadException = e;
+    } finally {
+      try {
+        in.close();
+      } catch (IOException e) {
+        // Nothing left to read
+      }
+    }
+  }
+
+  @Override
+  protected void writeData(byte[] data, int length) throws HopDatabaseException {
+    try {
+      out.write(data, 0, length);
+    } catch (IOException e) {
+      // The statement stopped reading, report its error if it has one
+      //
+      waitForLoad();
+      throw new HopDatabaseException("Error sending rows to " + sql, e);
+    }
+  }
+
+  @Override
+  protected long endLoad() throws HopDatabaseException {
+    try {
+      out.close();
+    } catch (IOException e) {
+      throw new HopDatabaseException("Error sending rows to " + sql, e);
+    }
+    waitForLoad();
+    closeStatement();
+    return loaded;
+  }
+
+  private void waitForLoad() throws HopDatabaseException {
+    try {
+      loadThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopDatabaseException("Interrupted while waiting for " + sql, e);
+    }
+    if (loadException != null) {
+      closeStatement();
+      throw new HopDatabaseException("Error loading rows with " + sql, loadException);
+    }
+  }
+
+  /**
+   * Stop the statement from reading more rows. The rows read so far are part of the current
+   * transaction which is rolled back by the caller.
+   */
+  @Override
+  protected void abortLoad() {
+    try {
+      in.close();
+      out.close();
+      loadThread.join();
+    } catch (IOException e) {
+      // The pipe is closed either way
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    closeStatement();
+  }
+
+  private void closeStatement() {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // Ignore, the statement is done
+    }
+  }
+}
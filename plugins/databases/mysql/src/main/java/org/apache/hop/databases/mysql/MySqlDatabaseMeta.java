@@ -18,21 +18,25 @@
 package org.apache.hop.databases.mysql;
 
 import com.google.common.collect.Sets;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSetMetaData;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.database.BaseCsvBulkLoader;
 import org.apache.hop.core.database.BaseDatabaseMeta;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -740,6 +744,28 @@ public class MySqlDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
     return Integer.MAX_VALUE;
   }
 
+  /**
+   * @return true: rows are loaded with LOAD DATA LOCAL INFILE, this needs the connection option
+   *     allowLoadLocalInfile=true
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsBulkLoad(IRowMeta rowMeta) {
+    return supportsBulkLoad() && BaseCsvBulkLoader.isSupported(rowMeta);
+  }
+
+  @Override
+  public IBulkLoader createBulkLoader(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    return new MySqlBulkLoader(
+        connection, schemaTable, columns, rowMeta, isSupportsBooleanDataType());
+  }
+
   /**
    * Returns the column name for a MySQL field checking if the driver major version is "greater
    * than" or "lower or equal" to 3.
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.mysql;
+
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.Statement;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.junit.Test;
+
+public class MySqlBulkLoaderTest {
+
+  @Test
+  public void testStreamIsPassedToTheDriverStatement() throws Exception {
+    JdbcStatement statement = mock(JdbcStatement.class);
+    when(statement.isWrapperFor(JdbcStatement.class)).thenReturn(true);
+    when(statement.unwrap(JdbcStatement.class)).thenReturn(statement);
+    InputStream in = new ByteArrayInputStream(new byte[0]);
+
+    MySqlBulkLoader.setLocalInfileInputStream(statement, in);
+
+    verify(statement).setLocalInfileInputStream(in);
+  }
+
+  @Test
+  public void testOtherDriverIsRefused() {
+    // For example the MariaDB driver
+    Statement statement = mock(Statement.class);
+    assertThrows(
+        HopDatabaseException.class,
+        () ->
+            MySqlBulkLoader.setLocalInfileInputStream(
+                statement, new ByteArrayInputStream(new byte[0])));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.postgresql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.apache.hop.core.database.BaseCsvBulkLoader;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Loads rows with COPY ... FROM STDIN in CSV format. The driver always talks UTF-8 to the server
+ * and an unquoted empty value is a null.
+ */
+public class PostgreSqlBulkLoader extends BaseCsvBulkLoader {
+
+  private final String sql;
+  private final CopyIn copyIn;
+
+  public PostgreSqlBulkLoader(
+      Connection connection,
+      String schemaTable,
+      String[] columns,
+      IRowMeta rowMeta,
+      boolean booleanDataType)
+      throws HopDatabaseException {
+    super(rowMeta, StandardCharsets.UTF_8, "", booleanDataType);
+    this.sql =
+        "COPY "
+            + schemaTable
+            + " ("
+            + String.join(", ", columns)
+            + ") FROM STDIN WITH (FORMAT csv)";
+    try {
+      this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to start the bulk load with " + sql, e);
+    }
+  }
+
+  @Override
+  protected void writeData(byte[] data, int length) throws HopDatabaseException {
+    try {
+      copyIn.writeToCopy(data, 0, length);
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error sending rows to " + sql, e);
+    }
+  }
+
+  @Override
+  protected long endLoad() throws HopDatabaseException {
+    try {
+      return copyIn.endCopy();
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error loading rows with " + sql, e);
+    }
+  }
+
+  @Override
+  protected void abortLoad() {
+    try {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    } catch (SQLException e) {
+      // The load is abandoned, the transaction is rolled back anyway
+    }
+  }
+}
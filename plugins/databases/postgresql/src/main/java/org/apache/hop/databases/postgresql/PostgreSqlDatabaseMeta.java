@@ -17,12 +17,17 @@
 
 package org.apache.hop.databases.postgresql;
 
+import java.sql.Connection;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.database.BaseCsvBulkLoader;
 import org.apache.hop.core.database.BaseDatabaseMeta;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 
 /** Contains PostgreSQL specific information through static final members */
@@ -1118,4 +1123,25 @@ public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabas
   public int getMaxTextFieldLength() {
     return GB_LIMIT;
   }
+
+  /**
+   * @return true: rows are loaded with COPY ... FROM STDIN
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return true;
+  }
+
+  @Override
+  public boolean supportsBulkLoad(IRowMeta rowMeta) {
+    return supportsBulkLoad() && BaseCsvBulkLoader.isSupported(rowMeta);
+  }
+
+  @Override
+  public IBulkLoader createBulkLoader(
+      Connection connection, String schemaTable, String[] columns, IRowMeta rowMeta)
+      throws HopDatabaseException {
+    return new PostgreSqlBulkLoader(
+        connection, schemaTable, columns, rowMeta, isSupportsBooleanDataType());
+  }
 }
@@ -79,4 +79,14 @@ public class RedshiftDatabaseMeta extends PostgreSqlDatabaseMeta {
   public boolean isSupportsSetMaxRows() {
     return false;
   }
+
+  /**
+   * Redshift only copies from S3 and the Redshift driver doesn't offer the COPY API
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBulkLoad() {
+    return false;
+  }
 }
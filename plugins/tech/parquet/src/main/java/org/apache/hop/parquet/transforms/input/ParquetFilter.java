@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * A condition on a column of the Parquet file. The conditions are pushed down to the reader: row
+ * groups which can't contain a match according to their statistics or dictionaries are skipped
+ * and the other rows are filtered while they are read. The value is compared with the value as it
+ * is stored in the file, for example the number of days since 1970-01-01 for a date.
+ */
+public class ParquetFilter {
+  public static final String[] OPERATORS = {"=", "<>", "<", "<=", ">", ">="};
+
+  @HopMetadataProperty(key = "source_field")
+  private String sourceField;
+
+  @HopMetadataProperty(key = "operator")
+  private String operator;
+
+  @HopMetadataProperty(key = "value")
+  private String value;
+
+  public ParquetFilter() {}
+
+  public ParquetFilter(ParquetFilter f) {
+    this.sourceField = f.sourceField;
+    this.operator = f.operator;
+    this.value = f.value;
+  }
+
+  public ParquetFilter(String sourceField, String operator, String value) {
+    this.sourceField = sourceField;
+    this.operator = operator;
+    this.value = value;
+  }
+
+  /**
+   * Combine the given filters into a single predicate which requires all of them to match.
+   *
+   * @param filters The filters to combine
+   * @param schema The schema of the file to read
+   * @param variables To resolve the values with
+   * @return The predicate or null if there are no filters
+   * @throws HopException In case a filter doesn't match the file schema
+   */
+  public static FilterPredicate createPredicate(
+      List<ParquetFilter> filters, MessageType schema, IVariables variables) throws HopException {
+    FilterPredicate predicate = null;
+    for (ParquetFilter filter : filters) {
+      FilterPredicate filterPredicate = filter.createPredicate(schema, variables);
+      predicate = predicate == null ? filterPredicate : FilterApi.and(predicate, filterPredicate);
+    }
+    return predicate;
+  }
+
+  /**
+   * Create the predicate for this filter on the physical type of the column.
+   *
+   * @param schema The schema of the file to read
+   * @param variables To resolve the value with
+   * @return The predicate
+   * @throws HopException In case the column doesn't exist, or the value or operator don't fit its
+   *     type
+   */
+  public FilterPredicate createPredicate(MessageType schema, IVariables variables)
+      throws HopException {
+    if (!schema.containsField(sourceField)) {
+      throw new HopException(
+          "Unable to find filter field '" + sourceField + "' in the Parquet file");
+    }
+    Type type = schema.getType(sourceField);
+    if (!type.isPrimitive()) {
+      throw new HopException("Unable to filter on field '" + sourceField + "': it is a group");
+    }
+    String realValue = variables.resolve(value);
+    try {
+      switch (type.asPrimitiveType().getPrimitiveTypeName()) {
+        case INT32:
+          return compare(FilterApi.intColumn(sourceField), Integer.valueOf(realValue));
+        case INT64:
+          return compare(FilterApi.longColumn(sourceField), Long.valueOf(realValue));
+        case FLOAT:
+          return compare(FilterApi.floatColumn(sourceField), Float.valueOf(realValue));
+        case DOUBLE:
+          return compare(FilterApi.doubleColumn(sourceField), Double.valueOf(realValue));
+        case BINARY, FIXED_LEN_BYTE_ARRAY:
+          return compare(FilterApi.binaryColumn(sourceField), Binary.fromString(realValue));
+        case BOOLEAN:
+          return equals(FilterApi.booleanColumn(sourceField), Boolean.valueOf(realValue));
+        default:
+          throw new HopException(
+              "Filtering on field '" + sourceField + "' of type " + type + " is not supported");
+      }
+    } catch (NumberFormatException e) {
+      throw new HopException(
+          "Unable to convert filter value '" + realValue + "' for field '" + sourceField + "'", e);
+    }
+  }
+
+  private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+      FilterPredicate compare(C column, T compareValue) throws HopException {
+    switch (Const.NVL(operator, "=")) {
+      case "<":
+        return FilterApi.lt(column, compareValue);
+      case "<=":
+        return FilterApi.ltEq(column, compareValue);
+      case ">":
+        return FilterApi.gt(column, compareValue);
+      case ">=":
+        return FilterApi.gtEq(column, compareValue);
+      default:
+        return equals(column, compareValue);
+    }
+  }
+
+  private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+      FilterPredicate equals(C column, T compareValue) throws HopException {
+    if ("=".equals(Const.NVL(operator, "="))) {
+      return FilterApi.eq(column, compareValue);
+    }
+    if ("<>".equals(operator)) {
+      return FilterApi.notEq(column, compareValue);
+    }
+    throw new HopException(
+        "Operator '" + operator + "' is not supported on field '" + sourceField + "'");
+  }
+
+  /**
+   * Gets sourceField
+   *
+   * @return value of sourceField
+   */
+  public String getSourceField() {
+    return sourceField;
+  }
+
+  /**
+   * @param sourceField The sourceField to set
+   */
+  public void setSourceField(String sourceField) {
+    this.sourceField = sourceField;
+  }
+
+  /**
+   * Gets operator
+   *
+   * @return value of operator
+   */
+  public String getOperator() {
+    return operator;
+  }
+
+  /**
+   * @param operator The operator to set
+   */
+  public void setOperator(String operator) {
+    this.operator = operator;
+  }
+
+  /**
+   * Gets value
+   *
+   * @return value of value
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * @param value The value to set
+   */
+  public void setValue(String value) {
+    this.value = value;
+  }
+}
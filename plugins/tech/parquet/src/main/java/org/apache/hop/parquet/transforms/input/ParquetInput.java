@@ -17,9 +17,8 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import org.apache.commons.io.IOUtils;
+import java.util.List;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
@@ -41,6 +40,35 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  @Override
+  public boolean init() {
+    if (!super.init()) {
+      return false;
+    }
+
+    data.copies = 1;
+    if (meta.isSplitRowGroups()) {
+      data.copies = getPipeline().getComponentCopies(getTransformName()).size();
+
+      // Every copy needs to see every file name to read its part of the row groups
+      //
+      if (data.copies > 1) {
+        List<TransformMeta> previousTransforms =
+            getPipelineMeta().findPreviousTransforms(getTransformMeta());
+        for (TransformMeta previous : previousTransforms) {
+          if (previous.isDistributes()) {
+            logError(
+                "To split the row groups over the copies of this transform, transform '"
+                    + previous.getName()
+                    + "' needs to copy its rows to them instead of distributing them");
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -74,17 +102,14 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     FileObject fileObject = HopVfs.getFileObject(filename, variables);
 
     try {
-      long size = fileObject.getContent().getSize();
-      data.inputStream = HopVfs.getInputStream(fileObject);
-
-      // Reads the whole file into memory...
+      // The file is read in place: the footer first, then only the requested columns of the
+      // selected row groups
       //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(data.inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-
-      ParquetReadSupport readSupport = new ParquetReadSupport(meta.getFields());
-      data.reader = new ParquetReaderBuilder<>(readSupport, inputFile).build();
+      ParquetVfsInputFile inputFile = new ParquetVfsInputFile(fileObject);
+      data.reader =
+          new ParquetRowReader(
+              inputFile, meta.getFields(), meta.getFilters(), getCopy(), data.copies, this);
+      data.readerClosed = false;
 
       RowMetaAndData r = data.reader.read();
       while (r != null && !isStopped()) {
@@ -96,21 +121,22 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
       }
     } catch (Exception e) {
       throw new HopException("Error read file " + filename, e);
+    } finally {
+      closeFile();
     }
 
     return true;
   }
 
   public void closeFile() {
-    if (!data.readerClosed) {
+    if (!data.readerClosed && data.reader != null) {
       try {
         data.reader.close();
-        data.inputStream.close();
       } catch (IOException e) {
         logError("Unable to properly close parquet reader!");
       }
-      data.readerClosed = true;
     }
+    data.readerClosed = true;
   }
 
   @Override
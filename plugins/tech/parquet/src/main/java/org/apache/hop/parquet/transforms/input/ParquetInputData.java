@@ -17,22 +17,21 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.InputStream;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
-import org.apache.parquet.hadoop.ParquetReader;
 
 @SuppressWarnings("java:S1104")
 public class ParquetInputData extends BaseTransformData implements ITransformData {
 
   public IRowMeta outputRowMeta;
   public int filenameFieldIndex;
-  public ParquetReader<RowMetaAndData> reader;
-  public InputStream inputStream;
+  public ParquetRowReader reader;
   public boolean readerClosed = false;
 
+  /** The number of copies over which the row groups of each file are split */
+  public int copies;
+
   public ParquetInputData() {
     super();
   }
@@ -17,14 +17,9 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -41,7 +36,7 @@ import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.parquet.column.ColumnDescriptor;
-import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.eclipse.swt.SWT;
@@ -63,7 +58,9 @@ public class ParquetInputDialog extends BaseTransformDialog {
   protected ParquetInputMeta input;
 
   private Combo wFilenameField;
+  private Button wSplitRowGroups;
   private TableView wFields;
+  private TableView wFilters;
 
   private String returnValue;
 
@@ -143,6 +140,28 @@ public class ParquetInputDialog extends BaseTransformDialog {
     wFilenameField.setLayoutData(fdFilenameField);
     lastControl = wFilenameField;
 
+    Label wlSplitRowGroups = new Label(shell, SWT.RIGHT);
+    wlSplitRowGroups.setText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Label"));
+    wlSplitRowGroups.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Tooltip"));
+    PropsUi.setLook(wlSplitRowGroups);
+    FormData fdlSplitRowGroups = new FormData();
+    fdlSplitRowGroups.left = new FormAttachment(0, 0);
+    fdlSplitRowGroups.right = new FormAttachment(middle, -margin);
+    fdlSplitRowGroups.top = new FormAttachment(lastControl, margin);
+    wlSplitRowGroups.setLayoutData(fdlSplitRowGroups);
+    wSplitRowGroups = new Button(shell, SWT.CHECK);
+    wSplitRowGroups.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Tooltip"));
+    PropsUi.setLook(wSplitRowGroups);
+    FormData fdSplitRowGroups = new FormData();
+    fdSplitRowGroups.left = new FormAttachment(middle, 0);
+    fdSplitRowGroups.top = new FormAttachment(wlSplitRowGroups, 0, SWT.CENTER);
+    fdSplitRowGroups.right = new FormAttachment(100, 0);
+    wSplitRowGroups.setLayoutData(fdSplitRowGroups);
+    lastControl = wlSplitRowGroups;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
@@ -191,9 +210,55 @@ public class ParquetInputDialog extends BaseTransformDialog {
     fdFields.left = new FormAttachment(0, 0);
     fdFields.top = new FormAttachment(wlFields, margin);
     fdFields.right = new FormAttachment(100, 0);
-    fdFields.bottom = new FormAttachment(wOk, -2 * margin);
+    fdFields.bottom = new FormAttachment(65, 0);
     wFields.setLayoutData(fdFields);
 
+    Label wlFilters = new Label(shell, SWT.LEFT);
+    wlFilters.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Filters.Label"));
+    PropsUi.setLook(wlFilters);
+    FormData fdlFilters = new FormData();
+    fdlFilters.left = new FormAttachment(0, 0);
+    fdlFilters.right = new FormAttachment(middle, -margin);
+    fdlFilters.top = new FormAttachment(wFields, margin);
+    wlFilters.setLayoutData(fdlFilters);
+
+    ColumnInfo[] filterColumns =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.SourceField.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Operator.Label"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              ParquetFilter.OPERATORS,
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Value.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+        };
+    filterColumns[2].setUsingVariables(true);
+    wFilters =
+        new TableView(
+            variables,
+            shell,
+            SWT.BORDER,
+            filterColumns,
+            input.getFilters().size(),
+            false,
+            null,
+            props);
+    PropsUi.setLook(wFilters);
+    FormData fdFilters = new FormData();
+    fdFilters.left = new FormAttachment(0, 0);
+    fdFilters.top = new FormAttachment(wlFilters, margin);
+    fdFilters.right = new FormAttachment(100, 0);
+    fdFilters.bottom = new FormAttachment(wOk, -2 * margin);
+    wFilters.setLayoutData(fdFilters);
+
     getData();
 
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -213,27 +278,13 @@ public class ParquetInputDialog extends BaseTransformDialog {
       if (filename != null) {
         FileObject fileObject = HopVfs.getFileObject(variables.resolve(filename), variables);
 
-        long size = fileObject.getContent().getSize();
-        InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-        // Reads the whole file into memory...
-        //
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-        IOUtils.copy(inputStream, outputStream);
-        ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-        // Empty list of fields to retrieve: we still grab the schema
-        //
-        ParquetReadSupport readSupport = new ParquetReadSupport(new ArrayList<>());
-        ParquetReader<RowMetaAndData> reader =
-            new ParquetReaderBuilder<>(readSupport, inputFile).build();
-
-        // Read one empty row...
+        // Only the footer with the schema is read
         //
-        reader.read();
-
-        // Now we have the schema...
-        //
-        MessageType schema = readSupport.getMessageType();
+        MessageType schema;
+        try (ParquetFileReader fileReader =
+            ParquetFileReader.open(new ParquetVfsInputFile(fileObject))) {
+          schema = fileReader.getFooter().getFileMetaData().getSchema();
+        }
         IRowMeta rowMeta = new RowMeta();
         List<ColumnDescriptor> columns = schema.getColumns();
         for (ColumnDescriptor column : columns) {
@@ -287,6 +338,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
 
     wTransformName.setText(Const.NVL(transformName, ""));
     wFilenameField.setText(Const.NVL(input.getFilenameField(), ""));
+    wSplitRowGroups.setSelection(input.isSplitRowGroups());
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
@@ -298,6 +350,14 @@ public class ParquetInputDialog extends BaseTransformDialog {
       item.setText(index++, Const.NVL(field.getTargetLength(), ""));
       item.setText(index++, Const.NVL(field.getTargetPrecision(), ""));
     }
+    for (int i = 0; i < input.getFilters().size(); i++) {
+      ParquetFilter filter = input.getFilters().get(i);
+      TableItem item = wFilters.table.getItem(i);
+      int index = 1;
+      item.setText(index++, Const.NVL(filter.getSourceField(), ""));
+      item.setText(index++, Const.NVL(filter.getOperator(), ""));
+      item.setText(index++, Const.NVL(filter.getValue(), ""));
+    }
   }
 
   private void ok() {
@@ -310,6 +370,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
 
   private void getInfo(ParquetInputMeta meta) {
     meta.setFilenameField(wFilenameField.getText());
+    meta.setSplitRowGroups(wSplitRowGroups.getSelection());
     meta.getFields().clear();
     for (TableItem item : wFields.getNonEmptyItems()) {
       int index = 1;
@@ -323,6 +384,10 @@ public class ParquetInputDialog extends BaseTransformDialog {
                   item.getText(index++),
                   item.getText(index)));
     }
+    meta.getFilters().clear();
+    for (TableItem item : wFilters.getNonEmptyItems()) {
+      meta.getFilters().add(new ParquetFilter(item.getText(1), item.getText(2), item.getText(3)));
+    }
   }
 
   private void cancel() {
@@ -46,8 +46,16 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
+  @HopMetadataProperty(groupKey = "filters", key = "filter")
+  private List<ParquetFilter> filters;
+
+  /** Every copy reads a part of the row groups of each file instead of whole files */
+  @HopMetadataProperty(key = "split_row_groups")
+  private boolean splitRowGroups;
+
   public ParquetInputMeta() {
     fields = new ArrayList<>();
+    filters = new ArrayList<>();
   }
 
   @Override
@@ -104,4 +112,36 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   public void setFields(List<ParquetField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets filters
+   *
+   * @return value of filters
+   */
+  public List<ParquetFilter> getFilters() {
+    return filters;
+  }
+
+  /**
+   * @param filters The filters to set
+   */
+  public void setFilters(List<ParquetFilter> filters) {
+    this.filters = filters;
+  }
+
+  /**
+   * Gets splitRowGroups
+   *
+   * @return value of splitRowGroups
+   */
+  public boolean isSplitRowGroups() {
+    return splitRowGroups;
+  }
+
+  /**
+   * @param splitRowGroups The splitRowGroups to set
+   */
+  public void setSplitRowGroups(boolean splitRowGroups) {
+    this.splitRowGroups = splitRowGroups;
+  }
 }
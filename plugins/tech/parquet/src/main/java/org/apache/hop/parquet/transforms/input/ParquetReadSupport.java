@@ -17,30 +17,93 @@
 
 package org.apache.hop.parquet.transforms.input;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
 public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
 
   private List<ParquetField> fields;
+  private List<ParquetFilter> filters;
 
   public ParquetReadSupport(List<ParquetField> fields) {
+    this(fields, List.of());
+  }
+
+  /**
+   * @param fields The fields to read
+   * @param filters The filters on the rows, their columns are read as well
+   */
+  public ParquetReadSupport(List<ParquetField> fields, List<ParquetFilter> filters) {
     this.fields = fields;
+    this.filters = filters;
   }
 
   private MessageType messageType;
 
+  /**
+   * Only the columns of the requested fields are read from the file. The other column chunks are
+   * skipped entirely.
+   */
   @Override
   public ReadContext init(InitContext context) {
     this.messageType = context.getFileSchema();
-    return new ReadContext(messageType, new HashMap<>());
+    return new ReadContext(getRequestedSchema(messageType, fields, filters), new HashMap<>());
+  }
+
+  /**
+   * Get the projection of the file schema on the source fields.
+   *
+   * @param fileSchema The schema of the file
+   * @param fields The fields to read
+   * @return The schema with only the source fields, or the file schema if no fields are given
+   */
+  public static MessageType getRequestedSchema(MessageType fileSchema, List<ParquetField> fields) {
+    return getRequestedSchema(fileSchema, fields, List.of());
+  }
+
+  /**
+   * Get the projection of the file schema on the source fields and the columns of the filters. The
+   * rows are filtered while their columns are assembled, so a filter only works on a column which
+   * is read. The values of columns which are only filtered on are not passed on.
+   *
+   * @param fileSchema The schema of the file
+   * @param fields The fields to read
+   * @param filters The filters on the rows
+   * @return The schema with only the source fields and the filter columns, or the file schema if
+   *     no fields are given
+   */
+  public static MessageType getRequestedSchema(
+      MessageType fileSchema, List<ParquetField> fields, List<ParquetFilter> filters) {
+    if (fields.isEmpty()) {
+      return fileSchema;
+    }
+    Set<String> names = new HashSet<>();
+    List<Type> types = new ArrayList<>();
+    for (ParquetField field : fields) {
+      addColumn(fileSchema, field.getSourceField(), names, types);
+    }
+    for (ParquetFilter filter : filters) {
+      addColumn(fileSchema, filter.getSourceField(), names, types);
+    }
+    return new MessageType(fileSchema.getName(), types);
+  }
+
+  private static void addColumn(
+      MessageType fileSchema, String column, Set<String> names, List<Type> types) {
+    if (column != null && fileSchema.containsField(column) && names.add(column)) {
+      types.add(fileSchema.getType(column));
+    }
   }
 
   @Override
@@ -49,7 +112,7 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
       Map<String, String> keyValueMetaData,
       MessageType messageType,
       ReadContext readContext) {
-    return new ParquetRecordMaterializer(messageType, fields);
+    return new ParquetRecordMaterializer(readContext.getRequestedSchema(), fields);
   }
 
   /**
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * Reads the rows of a Parquet file through a single {@link ParquetFileReader}. The footer is read
+ * once and used to select the row groups, to build the filter and to read the rows. Only the
+ * column chunks of the requested fields and the filter columns are read from the selected row
+ * groups.
+ *
+ * <p>The row groups can be split over the copies of a transform: every copy reads a contiguous
+ * part of them. Row groups which can't contain a match for the filters according to their
+ * statistics or dictionaries are skipped and the other rows are filtered while they are
+ * assembled.
+ */
+public class ParquetRowReader implements Closeable {
+
+  private final ParquetFileReader fileReader;
+  private final MessageType fileSchema;
+  private final MessageType requestedSchema;
+  private final ParquetRecordMaterializer materializer;
+  private final ColumnIOFactory columnIOFactory;
+  private final FilterCompat.Filter filter;
+
+  /** The indexes of the row groups to read */
+  private final List<Integer> rowGroups;
+
+  private int nextRowGroup;
+  private RecordReader<RowMetaAndData> recordReader;
+  private long rowsLeft;
+
+  /**
+   * Open a file and select the row groups to read.
+   *
+   * @param inputFile The file to read
+   * @param fields The fields to read, all of them if the list is empty
+   * @param filters The filters on the rows
+   * @param copy The copy of the transform, from 0
+   * @param copies The number of copies to split the row groups over, 1 to read all of them
+   * @param variables To resolve the filter values with
+   * @throws IOException In case the file can't be read
+   * @throws HopException In case a filter doesn't fit the schema of the file
+   */
+  public ParquetRowReader(
+      InputFile inputFile,
+      List<ParquetField> fields,
+      List<ParquetFilter> filters,
+      int copy,
+      int copies,
+      IVariables variables)
+      throws IOException, HopException {
+    fileReader = ParquetFileReader.open(inputFile);
+    try {
+      ParquetMetadata footer = fileReader.getFooter();
+      fileSchema = footer.getFileMetaData().getSchema();
+      requestedSchema = ParquetReadSupport.getRequestedSchema(fileSchema, fields, filters);
+      fileReader.setRequestedSchema(requestedSchema);
+      materializer = new ParquetRecordMaterializer(requestedSchema, fields);
+      columnIOFactory = new ColumnIOFactory(footer.getFileMetaData().getCreatedBy());
+
+      List<BlockMetaData> blocks = fileReader.getRowGroups();
+      int[] range = getCopyRowGroups(blocks.size(), copy, copies);
+      List<BlockMetaData> selected = blocks.subList(range[0], range[1]);
+
+      FilterPredicate predicate = ParquetFilter.createPredicate(filters, fileSchema, variables);
+      if (predicate == null) {
+        filter = FilterCompat.NOOP;
+      } else {
+        filter = FilterCompat.get(predicate);
+        selected =
+            RowGroupFilter.filterRowGroups(
+                List.of(
+                    RowGroupFilter.FilterLevel.STATISTICS, RowGroupFilter.FilterLevel.DICTIONARY),
+                filter,
+                selected,
+                fileReader);
+      }
+      rowGroups = new ArrayList<>();
+      for (BlockMetaData block : selected) {
+        rowGroups.add(blocks.indexOf(block));
+      }
+    } catch (IOException | HopException | RuntimeException e) {
+      fileReader.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Get the row groups one copy of the transform reads: a contiguous part of all the row groups.
+   *
+   * @param nrRowGroups The number of row groups in the file
+   * @param copy The copy, from 0
+   * @param copies The number of copies
+   * @return The index of the first row group to read and the index after the last one
+   */
+  public static int[] getCopyRowGroups(int nrRowGroups, int copy, int copies) {
+    int from = (int) ((long) nrRowGroups * copy / copies);
+    int to = (int) ((long) nrRowGroups * (copy + 1) / copies);
+    return new int[] {from, to};
+  }
+
+  /**
+   * Read the next row which matches the filters.
+   *
+   * @return The row or null if there are no more rows
+   * @throws IOException In case the file can't be read
+   */
+  public RowMetaAndData read() throws IOException {
+    while (true) {
+      while (rowsLeft == 0) {
+        if (nextRowGroup >= rowGroups.size()) {
+          return null;
+        }
+        PageReadStore pages = fileReader.readRowGroup(rowGroups.get(nextRowGroup++));
+        MessageColumnIO columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema, true);
+        recordReader = columnIO.getRecordReader(pages, materializer, filter);
+        rowsLeft = pages.getRowCount();
+      }
+      rowsLeft--;
+
+      // A row which doesn't match the filters is read as null
+      //
+      RowMetaAndData row = recordReader.read();
+      if (row != null && !recordReader.shouldSkipCurrentRecord()) {
+        return row;
+      }
+    }
+  }
+
+  /**
+   * @return The number of row groups selected to read
+   */
+  public int getNrRowGroups() {
+    return rowGroups.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    fileReader.close();
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * A Parquet input file on any Hop VFS file system. Parquet reads the footer at the end of the file
+ * first and then only the column chunks it needs, so the file is never read as a whole. When the
+ * file system supports random access the reads go straight to the requested position. Otherwise a
+ * sequential stream is used which skips forward and is re-opened to seek backwards.
+ */
+public class ParquetVfsInputFile implements InputFile {
+  private final FileObject fileObject;
+  private final String filename;
+  private final long length;
+
+  public ParquetVfsInputFile(FileObject fileObject) throws HopFileException {
+    this.fileObject = fileObject;
+    this.filename = HopVfs.getFilename(fileObject);
+    try {
+      this.length = fileObject.getContent().getSize();
+    } catch (FileSystemException e) {
+      throw new HopFileException("Unable to get the size of file " + filename, e);
+    }
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    PositionedInputStream stream;
+    if (fileObject.getFileSystem().hasCapability(Capability.RANDOM_ACCESS_READ)) {
+      stream =
+          new RandomAccessInputStream(
+              fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ));
+    } else {
+      stream = new SequentialInputStream();
+    }
+    return new DelegatingSeekableInputStream(stream) {
+      @Override
+      public long getPos() {
+        return stream.getPos();
+      }
+
+      @Override
+      public void seek(long newPos) throws IOException {
+        stream.seek(newPos);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "Parquet file '" + filename + "'";
+  }
+
+  private abstract static class PositionedInputStream extends InputStream {
+    abstract long getPos();
+
+    abstract void seek(long newPos) throws IOException;
+  }
+
+  /** Reads at any position of the file through the random access content of the file system. */
+  private class RandomAccessInputStream extends PositionedInputStream {
+    private final RandomAccessContent content;
+    private long pos;
+
+    RandomAccessInputStream(RandomAccessContent content) {
+      this.content = content;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (pos >= length) {
+        return -1;
+      }
+      int b = content.readUnsignedByte();
+      pos++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      long remaining = length - pos;
+      if (remaining <= 0) {
+        return -1;
+      }
+      int n = (int) Math.min(len, remaining);
+      content.readFully(buffer, offset, n);
+      pos += n;
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(Integer.MAX_VALUE, length - pos);
+    }
+
+    @Override
+    long getPos() {
+      return pos;
+    }
+
+    @Override
+    void seek(long newPos) throws IOException {
+      content.seek(newPos);
+      pos = newPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+      content.close();
+    }
+  }
+
+  /**
+   * Reads the file from start to end. Parquet mostly seeks forward, to the next column chunk, which
+   * is done by skipping. Only seeking backwards, for example from the footer to the first row
+   * group, re-opens the file.
+   */
+  private class SequentialInputStream extends PositionedInputStream {
+    private InputStream in;
+    private long pos;
+
+    SequentialInputStream() throws IOException {
+      this.in = HopVfs.getInputStream(fileObject);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) {
+        pos++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int len) throws IOException {
+      int n = in.read(buffer, offset, len);
+      if (n > 0) {
+        pos += n;
+      }
+      return n;
+    }
+
+    @Override
+    long getPos() {
+      return pos;
+    }
+
+    @Override
+    void seek(long newPos) throws IOException {
+      if (newPos < pos) {
+        in.close();
+        in = HopVfs.getInputStream(fileObject);
+        pos = 0;
+      }
+      while (pos < newPos) {
+        long skipped = in.skip(newPos - pos);
+        if (skipped <= 0) {
+          // skip() may stop early without being at the end of the file
+          //
+          if (in.read() < 0) {
+            throw new EOFException("Unable to seek to position " + newPos + " in " + filename);
+          }
+          skipped = 1;
+        }
+        pos += skipped;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
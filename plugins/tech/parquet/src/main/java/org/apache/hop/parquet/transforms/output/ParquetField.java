@@ -26,6 +26,18 @@ public class ParquetField {
   @HopMetadataProperty(key = "target_field")
   private String targetFieldName;
 
+  /** Write the column without dictionary encoding, for example for unique values */
+  @HopMetadataProperty(key = "dictionary_disabled")
+  private boolean dictionaryDisabled;
+
+  /** Write a bloom filter for the column so readers can skip row groups on equality */
+  @HopMetadataProperty(key = "bloom_filter")
+  private boolean bloomFilter;
+
+  /** The expected number of distinct values, used to size the bloom filter */
+  @HopMetadataProperty(key = "bloom_filter_ndv")
+  private String bloomFilterNdv;
+
   public ParquetField() {}
 
   public ParquetField(String sourceFieldName, String targetFieldName) {
@@ -33,8 +45,26 @@ public class ParquetField {
     this.targetFieldName = targetFieldName;
   }
 
+  public ParquetField(
+      String sourceFieldName,
+      String targetFieldName,
+      boolean dictionaryDisabled,
+      boolean bloomFilter,
+      String bloomFilterNdv) {
+    this.sourceFieldName = sourceFieldName;
+    this.targetFieldName = targetFieldName;
+    this.dictionaryDisabled = dictionaryDisabled;
+    this.bloomFilter = bloomFilter;
+    this.bloomFilterNdv = bloomFilterNdv;
+  }
+
   public ParquetField(ParquetField f) {
-    this(f.sourceFieldName, f.targetFieldName);
+    this(
+        f.sourceFieldName,
+        f.targetFieldName,
+        f.dictionaryDisabled,
+        f.bloomFilter,
+        f.bloomFilterNdv);
   }
 
   /**
@@ -68,4 +98,52 @@ public class ParquetField {
   public void setTargetFieldName(String targetFieldName) {
     this.targetFieldName = targetFieldName;
   }
+
+  /**
+   * Gets dictionaryDisabled
+   *
+   * @return value of dictionaryDisabled
+   */
+  public boolean isDictionaryDisabled() {
+    return dictionaryDisabled;
+  }
+
+  /**
+   * @param dictionaryDisabled The dictionaryDisabled to set
+   */
+  public void setDictionaryDisabled(boolean dictionaryDisabled) {
+    this.dictionaryDisabled = dictionaryDisabled;
+  }
+
+  /**
+   * Gets bloomFilter
+   *
+   * @return value of bloomFilter
+   */
+  public boolean isBloomFilter() {
+    return bloomFilter;
+  }
+
+  /**
+   * @param bloomFilter The bloomFilter to set
+   */
+  public void setBloomFilter(boolean bloomFilter) {
+    this.bloomFilter = bloomFilter;
+  }
+
+  /**
+   * Gets bloomFilterNdv
+   *
+   * @return value of bloomFilterNdv
+   */
+  public String getBloomFilterNdv() {
+    return bloomFilterNdv;
+  }
+
+  /**
+   * @param bloomFilterNdv The bloomFilterNdv to set
+   */
+  public void setBloomFilterNdv(String bloomFilterNdv) {
+    this.bloomFilterNdv = bloomFilterNdv;
+  }
 }
@@ -17,19 +17,20 @@
 
 package org.apache.hop.parquet.transforms.output;
 
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
 import org.apache.commons.vfs2.FileObject;
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hop.core.Const;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -64,9 +65,15 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
         Const.toInt(
             resolve(meta.getDictionaryPageSize()), ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE);
     data.rowGroupSize =
+        Const.toInt(resolve(meta.getRowGroupSize()), ParquetWriter.DEFAULT_BLOCK_SIZE);
+    data.pageRowCountLimit =
         Const.toInt(
-            resolve(meta.getRowGroupSize()), ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
+            resolve(meta.getPageRowCountLimit()), ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
     data.maxSplitSizeRows = Const.toLong(resolve(meta.getFileSplitSize()), -1);
+    data.writerThreads =
+        Const.toInt(resolve(meta.getWriterThreads()), ParquetOutputMeta.DEFAULT_WRITER_THREADS);
+    data.maxOpenFiles =
+        Const.toInt(resolve(meta.getMaxOpenFiles()), ParquetOutputMeta.DEFAULT_MAX_OPEN_FILES);
 
     return super.init();
   }
@@ -89,6 +96,7 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     if (first) {
       first = false;
       data.sourceFieldIndexes = new ArrayList<>();
+      data.valueMetas = new ArrayList<>();
       for (int i = 0; i < meta.getFields().size(); i++) {
         ParquetField field = meta.getFields().get(i);
         int index = getInputRowMeta().indexOfValue(field.getSourceFieldName());
@@ -96,10 +104,35 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
           throw new HopException("Unable to find source field '" + field.getSourceFieldName());
         }
         data.sourceFieldIndexes.add(index);
+        data.valueMetas.add(getInputRowMeta().getValueMeta(index));
       }
+      data.partitionFieldIndex = -1;
+      String partitionField = resolve(meta.getPartitionField());
+      if (!Utils.isEmpty(partitionField)) {
+        data.partitionFieldIndex = getInputRowMeta().indexOfValue(partitionField);
+        if (data.partitionFieldIndex < 0) {
+          throw new HopException("Unable to find partition field '" + partitionField + "'");
+        }
+      }
+      data.messageType = buildSchema();
       openNewFile();
     }
 
+    // Only the values of the output fields are handed to the writer
+    //
+    Object[] values = new Object[data.sourceFieldIndexes.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = row[data.sourceFieldIndexes.get(i)];
+    }
+
+    if (data.partitionedWriter != null) {
+      String partition = getInputRowMeta().getString(row, data.partitionFieldIndex);
+      data.partitionedWriter.write(getPartitionFilePart(partition), values);
+      incrementLinesOutput();
+      putRow(getInputRowMeta(), row);
+      return true;
+    }
+
     // See if we don't need to create a new file split into parts...
     //
     if (meta.isFilenameIncludingSplitNr()
@@ -114,7 +147,7 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     // Write the row, handled by class ParquetWriteSupport
     //
     try {
-      data.writer.write(new RowMetaAndData(getInputRowMeta(), row));
+      data.writer.write(values);
       incrementLinesOutput();
       data.splitRowCount++;
     } catch (Exception e) {
@@ -126,27 +159,26 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
   }
 
   private void openNewFile() throws HopException {
+    if (data.partitionFieldIndex >= 0) {
+      // Every partition gets its own files, written by a pool of writer threads
+      //
+      data.partitionedWriter =
+          new ParquetPartitionedWriter(
+              getTransformName(),
+              data.writerThreads,
+              data.maxOpenFiles,
+              meta.isFilenameIncludingSplitNr(),
+              data.maxSplitSizeRows,
+              this::openWriter);
+      return;
+    }
 
     data.splitRowCount = 0;
     data.split++;
+    data.writer = openWriter(null, data.split);
+  }
 
-    // Hadoop configuration
-    //
-    data.conf = new Configuration();
-
-    // Parquet Properties
-    //
-    ParquetProperties.Builder builder = ParquetProperties.builder();
-    switch (meta.getVersion()) {
-      case Version1:
-        builder = builder.withWriterVersion(ParquetProperties.WriterVersion.PARQUET_1_0);
-        break;
-      case Version2:
-        builder = builder.withWriterVersion(ParquetProperties.WriterVersion.PARQUET_2_0);
-        break;
-    }
-    data.props = builder.build();
-
+  private MessageType buildSchema() throws HopException {
     SchemaBuilder.FieldAssembler<Schema> fieldAssembler =
         SchemaBuilder.record("ApacheHopParquetSchema").fields();
 
@@ -154,7 +186,7 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     //
     for (int i = 0; i < meta.getFields().size(); i++) {
       ParquetField field = meta.getFields().get(i);
-      IValueMeta valueMeta = getInputRowMeta().getValueMeta(data.sourceFieldIndexes.get(i));
+      IValueMeta valueMeta = data.valueMetas.get(i);
 
       // Start a new field
       SchemaBuilder.BaseFieldTypeBuilder<Schema> fieldBuilder =
@@ -205,14 +237,44 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
 
     // Convert from Avro to Parquet schema
     //
-    MessageType messageType = new AvroSchemaConverter().convert(data.avroSchema);
+    return new AvroSchemaConverter().convert(data.avroSchema);
+  }
+
+  /**
+   * Open a file and a writer for it. This is called by the writer threads for partitioned output so
+   * the writer gets its own copy of the value metadata to convert the values with.
+   *
+   * @param partition The file name part of the partition to write (see {@link
+   *     #getPartitionFilePart(String)}) or null if the output isn't partitioned
+   * @param split The number of the part of the output
+   * @return The writer
+   * @throws HopException In case the file can't be created
+   */
+  private ParquetWriter<Object[]> openWriter(String partition, int split) throws HopException {
+    // Parquet Properties
+    //
+    ParquetProperties.Builder propertiesBuilder = ParquetProperties.builder();
+    switch (meta.getVersion()) {
+      case Version1:
+        propertiesBuilder =
+            propertiesBuilder.withWriterVersion(ParquetProperties.WriterVersion.PARQUET_1_0);
+        break;
+      case Version2:
+        propertiesBuilder =
+            propertiesBuilder.withWriterVersion(ParquetProperties.WriterVersion.PARQUET_2_0);
+        break;
+    }
+    ParquetProperties props = propertiesBuilder.build();
 
     // Calculate the filename...
     //
-    data.filename = buildFilename(getPipeline().getExecutionStartDate());
+    String filename = buildFilename(getPipeline().getExecutionStartDate(), partition, split);
+    if (partition == null) {
+      data.filename = filename;
+    }
 
     try {
-      FileObject fileObject = HopVfs.getFileObject(data.filename, variables);
+      FileObject fileObject = HopVfs.getFileObject(filename, variables);
 
       // See if we need to create the parent folder(s)...
       //
@@ -225,32 +287,51 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
         }
       }
 
-      data.outputStream = HopVfs.getOutputStream(data.filename, false, variables);
-      data.outputFile = new ParquetOutputFile(data.outputStream);
+      OutputStream outputStream = HopVfs.getOutputStream(filename, false, variables);
+      ParquetOutputFile outputFile = new ParquetOutputFile(outputStream);
+
+      List<IValueMeta> valueMetas = new ArrayList<>();
+      for (IValueMeta valueMeta : data.valueMetas) {
+        valueMetas.add(valueMeta.clone());
+      }
 
-      data.writer =
-          new ParquetWriterBuilder(
-                  messageType,
-                  data.avroSchema,
-                  data.outputFile,
-                  data.sourceFieldIndexes,
-                  meta.getFields())
+      ParquetWriterBuilder builder =
+          new ParquetWriterBuilder(data.messageType, outputFile, valueMetas, meta.getFields())
               .withPageSize(data.pageSize)
               .withDictionaryPageSize(data.dictionaryPageSize)
+              .withPageRowCountLimit(data.pageRowCountLimit)
               .withValidation(ParquetWriter.DEFAULT_IS_VALIDATING_ENABLED)
               .withCompressionCodec(meta.getCompressionCodec())
               .withRowGroupSize(data.rowGroupSize)
-              .withWriterVersion(data.props.getWriterVersion())
-              .withWriteMode(ParquetFileWriter.Mode.CREATE)
-              .build();
+              .withWriterVersion(props.getWriterVersion())
+              .withWriteMode(ParquetFileWriter.Mode.CREATE);
 
+      // Column specific encoding options
+      //
+      for (ParquetField field : meta.getFields()) {
+        String column = field.getTargetFieldName();
+        if (field.isDictionaryDisabled()) {
+          builder.withDictionaryEncoding(column, false);
+        }
+        if (field.isBloomFilter()) {
+          builder.withBloomFilterEnabled(column, true);
+          long ndv = Const.toLong(resolve(field.getBloomFilterNdv()), -1L);
+          if (ndv > 0) {
+            builder.withBloomFilterNDV(column, ndv);
+          }
+        }
+      }
+      return builder.build();
     } catch (Exception e) {
-      throw new HopException("Unable to create output file '" + data.filename + "'", e);
+      throw new HopException("Unable to create output file '" + filename + "'", e);
     }
   }
 
-  private String buildFilename(Date date) {
+  private String buildFilename(Date date, String partition, int split) {
     String filename = resolve(meta.getFilenameBase());
+    if (partition != null) {
+      filename += "-" + partition;
+    }
     if (meta.isFilenameIncludingDate()) {
       filename += "-" + new SimpleDateFormat("yyyyMMdd").format(date);
     }
@@ -265,7 +346,7 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
       filename += "-" + new DecimalFormat("00").format(getCopyNr());
     }
     if (meta.isFilenameIncludingSplitNr()) {
-      filename += "-" + new DecimalFormat("0000").format(data.split);
+      filename += "-" + new DecimalFormat("0000").format(split);
     }
     if (data.isBeamContext()) {
       filename += "_" + getLogChannelId() + "_" + data.getBeamBundleNr();
@@ -275,7 +356,46 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
     return filename;
   }
 
+  /**
+   * Encode a partition value so it can be used in a file name. Characters which aren't allowed in
+   * file names or which have a meaning in VFS URLs, as well as the escape character '~' itself, are
+   * written as '~' followed by 2 hexadecimal digits. A null value becomes "~null" which no escaped
+   * value can produce. This way every partition value maps to its own file name.
+   *
+   * @param partition The partition value, can be null
+   * @return The file name part of the partition
+   */
+  static String getPartitionFilePart(String partition) {
+    if (partition == null) {
+      return "~null";
+    }
+    StringBuilder part = null;
+    for (int i = 0; i < partition.length(); i++) {
+      char c = partition.charAt(i);
+      if (c < 0x20 || c == 0x7f || "\\/:*?\"<>|~%#".indexOf(c) >= 0) {
+        if (part == null) {
+          part = new StringBuilder(partition.length() + 8).append(partition, 0, i);
+        }
+        part.append('~')
+            .append(Character.forDigit(c >> 4, 16))
+            .append(Character.forDigit(c & 0xf, 16));
+      } else if (part != null) {
+        part.append(c);
+      }
+    }
+    return part == null ? partition : part.toString();
+  }
+
   private void closeFile() throws HopException {
+    if (data.partitionedWriter != null) {
+      ParquetPartitionedWriter partitionedWriter = data.partitionedWriter;
+      data.partitionedWriter = null;
+      partitionedWriter.close();
+      return;
+    }
+    if (data.writer == null) {
+      return;
+    }
     try {
       data.writer.close();
     } catch (Exception e) {
@@ -301,4 +421,18 @@ public class ParquetOutput extends BaseTransform<ParquetOutputMeta, ParquetOutpu
   public void finishBundle() throws HopException {
     closeFile();
   }
+
+  @Override
+  public void dispose() {
+    // Stop the writer threads in case the transform was stopped or failed
+    //
+    if (data.partitionedWriter != null) {
+      try {
+        closeFile();
+      } catch (HopException e) {
+        logError("Error closing the partitioned Parquet files", e);
+      }
+    }
+    super.dispose();
+  }
 }
@@ -17,32 +17,33 @@
 
 package org.apache.hop.parquet.transforms.output;
 
-import java.io.OutputStream;
 import java.util.ArrayList;
 import org.apache.avro.Schema;
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
-import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.schema.MessageType;
 
 @SuppressWarnings("java:S1104")
 public class ParquetOutputData extends BaseTransformData implements ITransformData {
   public ArrayList<Integer> sourceFieldIndexes;
-  public Configuration conf;
-  public ParquetProperties props;
+  public ArrayList<IValueMeta> valueMetas;
   public String filename;
-  public OutputStream outputStream;
-  public ParquetOutputFile outputFile;
-  public ParquetWriter<RowMetaAndData> writer;
+  public ParquetWriter<Object[]> writer;
   public int split = 0;
   public long splitRowCount;
   public long maxSplitSizeRows;
   public int rowGroupSize;
   public int pageSize;
   public int dictionaryPageSize;
+  public int pageRowCountLimit;
   public Schema avroSchema;
+  public MessageType messageType;
+  public int partitionFieldIndex;
+  public int writerThreads;
+  public int maxOpenFiles;
+  public ParquetPartitionedWriter partitionedWriter;
 
   public ParquetOutputData() {
     super();
@@ -20,6 +20,7 @@ package org.apache.hop.parquet.transforms.output;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -68,6 +69,12 @@ public class ParquetOutputDialog extends BaseTransformDialog {
   private TextVar wRowGroupSize;
   private TextVar wDataPageSize;
   private TextVar wDictionaryPageSize;
+  private TextVar wPageRowCountLimit;
+  private Combo wPartitionField;
+  private Label wlWriterThreads;
+  private TextVar wWriterThreads;
+  private Label wlMaxOpenFiles;
+  private TextVar wMaxOpenFiles;
   private TableView wFields;
 
   private String returnValue;
@@ -419,6 +426,81 @@ public class ParquetOutputDialog extends BaseTransformDialog {
     wDictionaryPageSize.setLayoutData(fdDictionaryPageSize);
     lastControl = wDictionaryPageSize;
 
+    Label wlPageRowCountLimit = new Label(shell, SWT.RIGHT);
+    wlPageRowCountLimit.setText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PageRowCountLimit.Label"));
+    PropsUi.setLook(wlPageRowCountLimit);
+    FormData fdlPageRowCountLimit = new FormData();
+    fdlPageRowCountLimit.left = new FormAttachment(0, 0);
+    fdlPageRowCountLimit.right = new FormAttachment(middle, -margin);
+    fdlPageRowCountLimit.top = new FormAttachment(lastControl, margin);
+    wlPageRowCountLimit.setLayoutData(fdlPageRowCountLimit);
+    wPageRowCountLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPageRowCountLimit);
+    FormData fdPageRowCountLimit = new FormData();
+    fdPageRowCountLimit.left = new FormAttachment(middle, 0);
+    fdPageRowCountLimit.top = new FormAttachment(wlPageRowCountLimit, 0, SWT.CENTER);
+    fdPageRowCountLimit.right = new FormAttachment(100, 0);
+    wPageRowCountLimit.setLayoutData(fdPageRowCountLimit);
+    lastControl = wPageRowCountLimit;
+
+    Label wlPartitionField = new Label(shell, SWT.RIGHT);
+    wlPartitionField.setText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionField.Label"));
+    wlPartitionField.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.PartitionField.Tooltip"));
+    PropsUi.setLook(wlPartitionField);
+    FormData fdlPartitionField = new FormData();
+    fdlPartitionField.left = new FormAttachment(0, 0);
+    fdlPartitionField.right = new FormAttachment(middle, -margin);
+    fdlPartitionField.top = new FormAttachment(lastControl, margin);
+    wlPartitionField.setLayoutData(fdlPartitionField);
+    wPartitionField = new Combo(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPartitionField);
+    FormData fdPartitionField = new FormData();
+    fdPartitionField.left = new FormAttachment(middle, 0);
+    fdPartitionField.top = new FormAttachment(wlPartitionField, 0, SWT.CENTER);
+    fdPartitionField.right = new FormAttachment(100, 0);
+    wPartitionField.setLayoutData(fdPartitionField);
+    wPartitionField.addListener(SWT.Modify, e -> enableFields());
+    lastControl = wPartitionField;
+
+    wlWriterThreads = new Label(shell, SWT.RIGHT);
+    wlWriterThreads.setText(BaseMessages.getString(PKG, "ParquetOutputDialog.WriterThreads.Label"));
+    PropsUi.setLook(wlWriterThreads);
+    FormData fdlWriterThreads = new FormData();
+    fdlWriterThreads.left = new FormAttachment(0, 0);
+    fdlWriterThreads.right = new FormAttachment(middle, -margin);
+    fdlWriterThreads.top = new FormAttachment(lastControl, margin);
+    wlWriterThreads.setLayoutData(fdlWriterThreads);
+    wWriterThreads = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wWriterThreads);
+    FormData fdWriterThreads = new FormData();
+    fdWriterThreads.left = new FormAttachment(middle, 0);
+    fdWriterThreads.top = new FormAttachment(wlWriterThreads, 0, SWT.CENTER);
+    fdWriterThreads.right = new FormAttachment(100, 0);
+    wWriterThreads.setLayoutData(fdWriterThreads);
+    lastControl = wWriterThreads;
+
+    wlMaxOpenFiles = new Label(shell, SWT.RIGHT);
+    wlMaxOpenFiles.setText(BaseMessages.getString(PKG, "ParquetOutputDialog.MaxOpenFiles.Label"));
+    wlMaxOpenFiles.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetOutputDialog.MaxOpenFiles.Tooltip"));
+    PropsUi.setLook(wlMaxOpenFiles);
+    FormData fdlMaxOpenFiles = new FormData();
+    fdlMaxOpenFiles.left = new FormAttachment(0, 0);
+    fdlMaxOpenFiles.right = new FormAttachment(middle, -margin);
+    fdlMaxOpenFiles.top = new FormAttachment(lastControl, margin);
+    wlMaxOpenFiles.setLayoutData(fdlMaxOpenFiles);
+    wMaxOpenFiles = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wMaxOpenFiles);
+    FormData fdMaxOpenFiles = new FormData();
+    fdMaxOpenFiles.left = new FormAttachment(middle, 0);
+    fdMaxOpenFiles.top = new FormAttachment(wlMaxOpenFiles, 0, SWT.CENTER);
+    fdMaxOpenFiles.right = new FormAttachment(100, 0);
+    wMaxOpenFiles.setLayoutData(fdMaxOpenFiles);
+    lastControl = wMaxOpenFiles;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetOutputDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
@@ -439,7 +521,24 @@ public class ParquetOutputDialog extends BaseTransformDialog {
               ColumnInfo.COLUMN_TYPE_TEXT,
               false,
               false),
+          new ColumnInfo(
+              BaseMessages.getString(
+                  PKG, "ParquetOutputDialog.FieldsColumn.DictionaryDisabled.Label"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              new String[] {"Y", "N"},
+              true),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetOutputDialog.FieldsColumn.BloomFilter.Label"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              new String[] {"Y", "N"},
+              true),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetOutputDialog.FieldsColumn.BloomFilterNdv.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
         };
+    columns[4].setUsingVariables(true);
     wFields =
         new TableView(
             variables, shell, SWT.BORDER, columns, input.getFields().size(), false, null, props);
@@ -463,6 +562,12 @@ public class ParquetOutputDialog extends BaseTransformDialog {
 
     wlFilenameSplitSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
     wFilenameSplitSize.setEnabled(wFilenameIncludeSplitNr.getSelection());
+
+    boolean partitioned = !Utils.isEmpty(wPartitionField.getText());
+    wlWriterThreads.setEnabled(partitioned);
+    wWriterThreads.setEnabled(partitioned);
+    wlMaxOpenFiles.setEnabled(partitioned);
+    wMaxOpenFiles.setEnabled(partitioned);
   }
 
   private void getFields() {
@@ -481,6 +586,7 @@ public class ParquetOutputDialog extends BaseTransformDialog {
     try {
       IRowMeta fields = pipelineMeta.getPrevTransformFields(variables, transformName);
       wFields.getColumns()[0].setComboValues(fields.getFieldNames());
+      wPartitionField.setItems(fields.getFieldNames());
     } catch (Exception e) {
       LogChannel.UI.logError("Error getting source fields", e);
     }
@@ -501,11 +607,18 @@ public class ParquetOutputDialog extends BaseTransformDialog {
     wRowGroupSize.setText(Const.NVL(input.getRowGroupSize(), ""));
     wDataPageSize.setText(Const.NVL(input.getDataPageSize(), ""));
     wDictionaryPageSize.setText(Const.NVL(input.getDictionaryPageSize(), ""));
+    wPageRowCountLimit.setText(Const.NVL(input.getPageRowCountLimit(), ""));
+    wPartitionField.setText(Const.NVL(input.getPartitionField(), ""));
+    wWriterThreads.setText(Const.NVL(input.getWriterThreads(), ""));
+    wMaxOpenFiles.setText(Const.NVL(input.getMaxOpenFiles(), ""));
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
       item.setText(1, Const.NVL(field.getSourceFieldName(), ""));
       item.setText(2, Const.NVL(field.getTargetFieldName(), ""));
+      item.setText(3, field.isDictionaryDisabled() ? "Y" : "N");
+      item.setText(4, field.isBloomFilter() ? "Y" : "N");
+      item.setText(5, Const.NVL(field.getBloomFilterNdv(), ""));
     }
     wFields.optimizeTableView();
     enableFields();
@@ -537,9 +650,21 @@ public class ParquetOutputDialog extends BaseTransformDialog {
     input.setRowGroupSize(wRowGroupSize.getText());
     input.setDataPageSize(wDataPageSize.getText());
     input.setDictionaryPageSize(wDictionaryPageSize.getText());
+    input.setPageRowCountLimit(wPageRowCountLimit.getText());
+    input.setPartitionField(wPartitionField.getText());
+    input.setWriterThreads(wWriterThreads.getText());
+    input.setMaxOpenFiles(wMaxOpenFiles.getText());
     input.getFields().clear();
     for (TableItem item : wFields.getNonEmptyItems()) {
-      input.getFields().add(new ParquetField(item.getText(1), item.getText(2)));
+      input
+          .getFields()
+          .add(
+              new ParquetField(
+                  item.getText(1),
+                  item.getText(2),
+                  "Y".equalsIgnoreCase(item.getText(3)),
+                  "Y".equalsIgnoreCase(item.getText(4)),
+                  item.getText(5)));
     }
     input.setChanged();
     dispose();
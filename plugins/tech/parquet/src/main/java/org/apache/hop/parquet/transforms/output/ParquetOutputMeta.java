@@ -35,6 +35,9 @@ import org.apache.parquet.hadoop.metadata.CompressionCodecName;
     keywords = "i18n::ParquetOutputMeta.keyword")
 public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetOutputData> {
 
+  public static final int DEFAULT_WRITER_THREADS = 4;
+  public static final int DEFAULT_MAX_OPEN_FILES = 20;
+
   @HopMetadataProperty(key = "filename_base")
   private String filenameBase;
 
@@ -80,6 +83,21 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
   @HopMetadataProperty(key = "dictionary_page_size")
   private String dictionaryPageSize;
 
+  @HopMetadataProperty(key = "page_row_count_limit")
+  private String pageRowCountLimit;
+
+  /** Write the rows of every value of this field to separate files */
+  @HopMetadataProperty(key = "partition_field")
+  private String partitionField;
+
+  /** The number of threads writing the files of the partitions */
+  @HopMetadataProperty(key = "writer_threads")
+  private String writerThreads;
+
+  /** The maximum number of partition files every writer thread keeps open */
+  @HopMetadataProperty(key = "max_open_files")
+  private String maxOpenFiles;
+
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
@@ -91,6 +109,9 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     rowGroupSize = Integer.toString(268435456);
     dataPageSize = Integer.toString(8192);
     dictionaryPageSize = Integer.toString(ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE);
+    pageRowCountLimit = Integer.toString(ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
+    writerThreads = Integer.toString(DEFAULT_WRITER_THREADS);
+    maxOpenFiles = Integer.toString(DEFAULT_MAX_OPEN_FILES);
     fields = new ArrayList<>();
     filenameIncludingCopyNr = true;
     filenameIncludingSplitNr = true;
@@ -114,6 +135,10 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
     this.rowGroupSize = m.rowGroupSize;
     this.dataPageSize = m.dataPageSize;
     this.dictionaryPageSize = m.dictionaryPageSize;
+    this.pageRowCountLimit = m.pageRowCountLimit;
+    this.partitionField = m.partitionField;
+    this.writerThreads = m.writerThreads;
+    this.maxOpenFiles = m.maxOpenFiles;
     this.fields = m.fields;
   }
 
@@ -372,4 +397,68 @@ public class ParquetOutputMeta extends BaseTransformMeta<ParquetOutput, ParquetO
   public void setFields(List<ParquetField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets pageRowCountLimit
+   *
+   * @return value of pageRowCountLimit
+   */
+  public String getPageRowCountLimit() {
+    return pageRowCountLimit;
+  }
+
+  /**
+   * @param pageRowCountLimit The pageRowCountLimit to set
+   */
+  public void setPageRowCountLimit(String pageRowCountLimit) {
+    this.pageRowCountLimit = pageRowCountLimit;
+  }
+
+  /**
+   * Gets partitionField
+   *
+   * @return value of partitionField
+   */
+  public String getPartitionField() {
+    return partitionField;
+  }
+
+  /**
+   * @param partitionField The partitionField to set
+   */
+  public void setPartitionField(String partitionField) {
+    this.partitionField = partitionField;
+  }
+
+  /**
+   * Gets writerThreads
+   *
+   * @return value of writerThreads
+   */
+  public String getWriterThreads() {
+    return writerThreads;
+  }
+
+  /**
+   * @param writerThreads The writerThreads to set
+   */
+  public void setWriterThreads(String writerThreads) {
+    this.writerThreads = writerThreads;
+  }
+
+  /**
+   * Gets maxOpenFiles
+   *
+   * @return value of maxOpenFiles
+   */
+  public String getMaxOpenFiles() {
+    return maxOpenFiles;
+  }
+
+  /**
+   * @param maxOpenFiles The maxOpenFiles to set
+   */
+  public void setMaxOpenFiles(String maxOpenFiles) {
+    this.maxOpenFiles = maxOpenFiles;
+  }
 }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.output;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.apache.hop.core.exception.HopException;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+/**
+ * Writes the rows of every partition (value of the partition field) to separate files. The
+ * partitions are spread over a fixed number of writer threads, so the files are encoded and
+ * compressed in parallel. A writer is only ever used by the thread owning its partition.
+ *
+ * <p>Every open file keeps its current row group in memory, so the number of files a thread keeps
+ * open is limited. When a thread needs to open one more file it closes the file of the partition it
+ * wrote to least recently. The next rows of that partition go to a new part, so this requires the
+ * split number in the file names. Without it, writing fails once the limit is reached.
+ */
+public class ParquetPartitionedWriter {
+
+  /** Opens the file for a part of a partition */
+  @FunctionalInterface
+  public interface IWriterFactory {
+    ParquetWriter<Object[]> open(String partition, int split) throws HopException;
+  }
+
+  private static final int QUEUE_SIZE = 1000;
+  private static final PartitionRow END = new PartitionRow(null, null);
+
+  private final IWriterFactory factory;
+  private final int maxOpenFiles;
+  private final boolean splitting;
+  private final long maxSplitRows;
+  private final WriterThread[] threads;
+
+  private volatile Exception exception;
+  private boolean closed;
+
+  /**
+   * @param name The name of the threads
+   * @param threadCount The number of writer threads
+   * @param maxOpenFiles The maximum number of files every thread keeps open or 0 for no limit
+   * @param splitting true if a partition can be written to multiple parts, false to write each
+   *     partition to a single file
+   * @param maxSplitRows The number of rows after which the next part of a partition is started or
+   *     -1 to only start a new part when the file of the partition had to be closed
+   * @param factory Opens the files
+   */
+  public ParquetPartitionedWriter(
+      String name,
+      int threadCount,
+      int maxOpenFiles,
+      boolean splitting,
+      long maxSplitRows,
+      IWriterFactory factory) {
+    this.factory = factory;
+    this.maxOpenFiles = maxOpenFiles;
+    this.splitting = splitting;
+    this.maxSplitRows = splitting ? maxSplitRows : -1;
+    this.threads = new WriterThread[Math.max(1, threadCount)];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new WriterThread(name + " writer " + (i + 1));
+      threads[i].start();
+    }
+  }
+
+  /**
+   * Hand a row over to the thread writing the partition.
+   *
+   * @param partition The partition of the row
+   * @param values The values of the output fields
+   * @throws HopException In case writing failed in one of the threads
+   */
+  public void write(String partition, Object[] values) throws HopException {
+    checkException();
+    WriterThread thread = threads[Math.floorMod(partition.hashCode(), threads.length)];
+    try {
+      thread.queue.put(new PartitionRow(partition, values));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while writing to partition " + partition, e);
+    }
+  }
+
+  /**
+   * Write the remaining rows and close all files.
+   *
+   * @throws HopException The first error writing or closing a file
+   */
+  public void close() throws HopException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      for (WriterThread thread : threads) {
+        thread.queue.put(END);
+      }
+      for (WriterThread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while closing the partition files", e);
+    }
+    checkException();
+  }
+
+  private void checkException() throws HopException {
+    if (exception != null) {
+      throw new HopException("Error writing partitioned Parquet files", exception);
+    }
+  }
+
+  private synchronized void setException(Exception e) {
+    if (exception == null) {
+      exception = e;
+    }
+  }
+
+  private static class PartitionRow {
+    private final String partition;
+    private final Object[] values;
+
+    PartitionRow(String partition, Object[] values) {
+      this.partition = partition;
+      this.values = values;
+    }
+  }
+
+  private static class PartitionFile {
+    private ParquetWriter<Object[]> writer;
+    private int split;
+    private long rows;
+  }
+
+  private class WriterThread extends Thread {
+    private final BlockingQueue<PartitionRow> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Map<String, PartitionFile> files = new HashMap<>();
+
+    /** The partitions with an open file, the least recently written first */
+    private final LinkedHashMap<String, PartitionFile> openFiles =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    WriterThread(String name) {
+      super(name);
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        PartitionRow row = queue.take();
+        while (row != END) {
+          // After an error the rows are only taken off the queue so the transform never blocks
+          //
+          if (exception == null) {
+            try {
+              write(row);
+            } catch (Exception e) {
+              setException(e);
+            }
+          }
+          row = queue.take();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        closeFiles();
+      }
+    }
+
+    private void write(PartitionRow row) throws Exception {
+      PartitionFile file = files.get(row.partition);
+      if (file == null) {
+        file = new PartitionFile();
+        files.put(row.partition, file);
+      } else if (file.writer != null && maxSplitRows > 0 && file.rows >= maxSplitRows) {
+        openFiles.remove(row.partition);
+        closeWriter(file);
+      }
+      if (file.writer == null) {
+        openWriter(row.partition, file);
+      } else {
+        // Mark the partition as the most recently written one
+        //
+        openFiles.get(row.partition);
+      }
+      file.writer.write(row.values);
+      file.rows++;
+    }
+
+    private void openWriter(String partition, PartitionFile file) throws Exception {
+      if (maxOpenFiles > 0 && openFiles.size() >= maxOpenFiles) {
+        if (!splitting) {
+          throw new HopException(
+              "Unable to open the file of partition '"
+                  + partition
+                  + "': the writer thread already has "
+                  + maxOpenFiles
+                  + " files open. Raise the maximum number of open files or include the split"
+                  + " number in the file name.");
+        }
+        Iterator<PartitionFile> iterator = openFiles.values().iterator();
+        PartitionFile leastRecent = iterator.next();
+        iterator.remove();
+        closeWriter(leastRecent);
+      }
+      file.split++;
+      file.rows = 0;
+      file.writer = factory.open(partition, file.split);
+      openFiles.put(partition, file);
+    }
+
+    private void closeWriter(PartitionFile file) throws Exception {
+      ParquetWriter<Object[]> writer = file.writer;
+      file.writer = null;
+      writer.close();
+    }
+
+    private void closeFiles() {
+      for (PartitionFile file : openFiles.values()) {
+        try {
+          closeWriter(file);
+        } catch (Exception e) {
+          setException(e);
+        }
+      }
+      openFiles.clear();
+      files.clear();
+    }
+  }
+}
@@ -19,11 +19,7 @@ package org.apache.hop.parquet.transforms.output;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import org.apache.avro.LogicalType;
-import org.apache.avro.Schema;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.parquet.hadoop.api.WriteSupport;
@@ -31,28 +27,30 @@ import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.MessageType;
 
-public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
+/**
+ * Writes the values of the output fields, in the order of the fields, to the column writers. The
+ * names, metadata and types of the fields are looked up once so that writing a row is a single pass
+ * over the values.
+ */
+public class ParquetWriteSupport extends WriteSupport<Object[]> {
 
   private final MessageType messageType;
-  private final Schema avroSchema;
   private RecordConsumer recordConsumer;
-  private final List<Integer> sourceFieldIndexes;
-  private final List<ParquetField> fields;
-  private Map<Integer, Schema> fieldSchemas;
-  private Map<Integer, LogicalType> fieldTypes;
+  private final String[] names;
+  private final IValueMeta[] valueMetas;
+  private final int[] types;
 
   public ParquetWriteSupport(
-      MessageType messageType,
-      Schema avroSchema,
-      List<Integer> sourceFieldIndexes,
-      List<ParquetField> fields) {
+      MessageType messageType, List<IValueMeta> valueMetas, List<ParquetField> fields) {
     this.messageType = messageType;
-    this.avroSchema = avroSchema;
-    this.sourceFieldIndexes = sourceFieldIndexes;
-    this.fields = fields;
-
-    fieldSchemas = new HashMap<>();
-    fieldTypes = new HashMap<>();
+    this.names = new String[fields.size()];
+    this.valueMetas = new IValueMeta[fields.size()];
+    this.types = new int[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      names[i] = fields.get(i).getTargetFieldName();
+      this.valueMetas[i] = valueMetas.get(i);
+      types[i] = valueMetas.get(i).getType();
+    }
   }
 
   @Override
@@ -66,52 +64,46 @@ public class ParquetWriteSupport extends WriteSupport<RowMetaAndData> {
   }
 
   @Override
-  public void write(RowMetaAndData row) {
+  public void write(Object[] values) {
     recordConsumer.startMessage();
     try {
-      // Grab the fields that are mapped...
-      // Write a value
-      //
-      for (int i = 0; i < fields.size(); i++) {
-        ParquetField field = fields.get(i);
-        int index = sourceFieldIndexes.get(i);
-        IValueMeta valueMeta = row.getValueMeta(index);
-        Object valueData = row.getData()[index];
-
-        boolean isNull = valueMeta.isNull(valueData);
-        if (!isNull) {
-          recordConsumer.startField(field.getTargetFieldName(), i);
+      for (int i = 0; i < names.length; i++) {
+        IValueMeta valueMeta = valueMetas[i];
+        Object valueData = values[i];
+        if (valueMeta.isNull(valueData)) {
+          continue;
+        }
+        recordConsumer.startField(names[i], i);
 
-          switch (valueMeta.getType()) {
-            case IValueMeta.TYPE_INTEGER:
-              recordConsumer.addLong(valueMeta.getInteger(valueData));
-              break;
-            case IValueMeta.TYPE_NUMBER:
-              recordConsumer.addDouble(valueMeta.getNumber(valueData));
-              break;
-            case IValueMeta.TYPE_BOOLEAN:
-              recordConsumer.addBoolean(valueMeta.getBoolean(valueData));
-              break;
-            case IValueMeta.TYPE_DATE:
-              recordConsumer.addLong(valueMeta.getDate(valueData).getTime());
-              break;
-            case IValueMeta.TYPE_BINARY:
-              byte[] bytes = valueMeta.getBinary(valueData);
-              recordConsumer.addBinary(Binary.fromConstantByteArray(bytes));
-              break;
-            case IValueMeta.TYPE_BIGNUMBER:
-              // Convert to String for now...
-              //
-              String bigString = valueMeta.getString(valueData);
-              recordConsumer.addBinary(Binary.fromString(bigString));
-              break;
-            case IValueMeta.TYPE_STRING:
-            default:
-              recordConsumer.addBinary(Binary.fromString(valueMeta.getString(valueData)));
-              break;
-          }
-          recordConsumer.endField(field.getTargetFieldName(), i);
+        switch (types[i]) {
+          case IValueMeta.TYPE_INTEGER:
+            recordConsumer.addLong(valueMeta.getInteger(valueData));
+            break;
+          case IValueMeta.TYPE_NUMBER:
+            recordConsumer.addDouble(valueMeta.getNumber(valueData));
+            break;
+          case IValueMeta.TYPE_BOOLEAN:
+            recordConsumer.addBoolean(valueMeta.getBoolean(valueData));
+            break;
+          case IValueMeta.TYPE_DATE:
+            recordConsumer.addLong(valueMeta.getDate(valueData).getTime());
+            break;
+          case IValueMeta.TYPE_BINARY:
+            byte[] bytes = valueMeta.getBinary(valueData);
+            recordConsumer.addBinary(Binary.fromConstantByteArray(bytes));
+            break;
+          case IValueMeta.TYPE_BIGNUMBER:
+            // Convert to String for now...
+            //
+            String bigString = valueMeta.getString(valueData);
+            recordConsumer.addBinary(Binary.fromString(bigString));
+            break;
+          case IValueMeta.TYPE_STRING:
+          default:
+            recordConsumer.addBinary(Binary.fromString(valueMeta.getString(valueData)));
+            break;
         }
+        recordConsumer.endField(names[i], i);
       }
       recordConsumer.endMessage();
     } catch (HopException e) {
@@ -18,32 +18,27 @@
 package org.apache.hop.parquet.transforms.output;
 
 import java.util.List;
-import org.apache.avro.Schema;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.schema.MessageType;
 
-public class ParquetWriterBuilder
-    extends ParquetWriter.Builder<RowMetaAndData, ParquetWriterBuilder> {
+public class ParquetWriterBuilder extends ParquetWriter.Builder<Object[], ParquetWriterBuilder> {
 
   private final MessageType messageType;
-  private final Schema avroSchema;
-  private final List<Integer> sourceFieldIndexes;
+  private final List<IValueMeta> valueMetas;
   private final List<ParquetField> fields;
 
   protected ParquetWriterBuilder(
       MessageType messageType,
-      Schema avroSchema,
       OutputFile path,
-      List<Integer> sourceFieldIndexes,
+      List<IValueMeta> valueMetas,
       List<ParquetField> fields) {
     super(path);
     this.messageType = messageType;
-    this.avroSchema = avroSchema;
-    this.sourceFieldIndexes = sourceFieldIndexes;
+    this.valueMetas = valueMetas;
     this.fields = fields;
   }
 
@@ -53,7 +48,7 @@ public class ParquetWriterBuilder
   }
 
   @Override
-  protected WriteSupport<RowMetaAndData> getWriteSupport(Configuration conf) {
-    return new ParquetWriteSupport(messageType, avroSchema, sourceFieldIndexes, fields);
+  protected WriteSupport<Object[]> getWriteSupport(Configuration conf) {
+    return new ParquetWriteSupport(messageType, valueMetas, fields);
   }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParquetFilterTest {
+
+  private static final MessageType SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message hop { required int32 day; required int64 id; optional float ratio;"
+              + " optional double amount; optional binary name (UTF8); optional boolean flag;"
+              + " optional group address { optional binary city (UTF8); } }");
+
+  private IVariables variables;
+
+  @Before
+  public void setUp() {
+    variables = new Variables();
+    variables.setVariable("MIN_ID", "1000");
+  }
+
+  private FilterPredicate predicate(String field, String operator, String value)
+      throws HopException {
+    return new ParquetFilter(field, operator, value).createPredicate(SCHEMA, variables);
+  }
+
+  @Test
+  public void testPhysicalTypes() throws Exception {
+    assertEquals(FilterApi.eq(FilterApi.intColumn("day"), 5), predicate("day", "=", "5"));
+    assertEquals(FilterApi.gtEq(FilterApi.longColumn("id"), 1000L), predicate("id", ">=", "1000"));
+    assertEquals(
+        FilterApi.lt(FilterApi.floatColumn("ratio"), 0.5f), predicate("ratio", "<", "0.5"));
+    assertEquals(
+        FilterApi.ltEq(FilterApi.doubleColumn("amount"), 12.25),
+        predicate("amount", "<=", "12.25"));
+  }
+
+  @Test
+  public void testBinary() throws Exception {
+    assertEquals(
+        FilterApi.notEq(FilterApi.binaryColumn("name"), Binary.fromString("Hop")),
+        predicate("name", "<>", "Hop"));
+    assertEquals(
+        FilterApi.gt(FilterApi.binaryColumn("name"), Binary.fromString("M")),
+        predicate("name", ">", "M"));
+  }
+
+  @Test
+  public void testBoolean() throws Exception {
+    assertEquals(
+        FilterApi.eq(FilterApi.booleanColumn("flag"), true), predicate("flag", "=", "true"));
+    assertEquals(
+        FilterApi.notEq(FilterApi.booleanColumn("flag"), false), predicate("flag", "<>", "false"));
+  }
+
+  @Test(expected = HopException.class)
+  public void testBooleanDoesNotSupportOrdering() throws Exception {
+    predicate("flag", "<", "true");
+  }
+
+  @Test
+  public void testNoOperatorIsEquals() throws Exception {
+    assertEquals(FilterApi.eq(FilterApi.intColumn("day"), 7), predicate("day", null, "7"));
+  }
+
+  @Test
+  public void testValueIsResolved() throws Exception {
+    assertEquals(
+        FilterApi.gt(FilterApi.longColumn("id"), 1000L), predicate("id", ">", "${MIN_ID}"));
+  }
+
+  @Test(expected = HopException.class)
+  public void testUnknownColumn() throws Exception {
+    predicate("unknown", "=", "1");
+  }
+
+  @Test(expected = HopException.class)
+  public void testGroupColumn() throws Exception {
+    predicate("address", "=", "Brussels");
+  }
+
+  @Test(expected = HopException.class)
+  public void testInvalidNumber() throws Exception {
+    predicate("id", "=", "abc");
+  }
+
+  @Test
+  public void testFiltersAreCombined() throws Exception {
+    FilterPredicate predicate =
+        ParquetFilter.createPredicate(
+            List.of(new ParquetFilter("day", ">", "1"), new ParquetFilter("name", "=", "x")),
+            SCHEMA,
+            variables);
+    assertEquals(
+        FilterApi.and(
+            FilterApi.gt(FilterApi.intColumn("day"), 1),
+            FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("x"))),
+        predicate);
+  }
+
+  @Test
+  public void testNoFilters() throws Exception {
+    assertNull(ParquetFilter.createPredicate(List.of(), SCHEMA, variables));
+  }
+}
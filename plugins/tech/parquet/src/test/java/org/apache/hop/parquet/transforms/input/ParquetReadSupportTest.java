@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+public class ParquetReadSupportTest {
+
+  private static final MessageType FILE_SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message hop { required int64 id; optional binary name (UTF8); optional int32 day; }");
+
+  private static ParquetField field(String sourceField) {
+    return new ParquetField(sourceField, sourceField, "String", null, null, null);
+  }
+
+  @Test
+  public void testProjection() {
+    MessageType schema =
+        ParquetReadSupport.getRequestedSchema(FILE_SCHEMA, List.of(field("name"), field("id")));
+    assertEquals(2, schema.getFieldCount());
+    assertEquals("name", schema.getFieldName(0));
+    assertEquals("id", schema.getFieldName(1));
+  }
+
+  @Test
+  public void testFilterColumnsAreRead() {
+    MessageType schema =
+        ParquetReadSupport.getRequestedSchema(
+            FILE_SCHEMA,
+            List.of(field("name")),
+            List.of(new ParquetFilter("day", ">=", "100"), new ParquetFilter("name", "=", "x")));
+    assertEquals(2, schema.getFieldCount());
+    assertEquals("name", schema.getFieldName(0));
+    assertEquals("day", schema.getFieldName(1));
+  }
+
+  @Test
+  public void testNoFieldsReadsEverything() {
+    assertSame(
+        FILE_SCHEMA,
+        ParquetReadSupport.getRequestedSchema(
+            FILE_SCHEMA, List.of(), List.of(new ParquetFilter("day", "=", "1"))));
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class ParquetRowReaderTest {
+
+  @Test
+  public void testSingleCopyReadsAllRowGroups() {
+    assertArrayEquals(new int[] {0, 7}, ParquetRowReader.getCopyRowGroups(7, 0, 1));
+  }
+
+  @Test
+  public void testRowGroupsAreSplitOverCopies() {
+    assertArrayEquals(new int[] {0, 3}, ParquetRowReader.getCopyRowGroups(10, 0, 3));
+    assertArrayEquals(new int[] {3, 6}, ParquetRowReader.getCopyRowGroups(10, 1, 3));
+    assertArrayEquals(new int[] {6, 10}, ParquetRowReader.getCopyRowGroups(10, 2, 3));
+  }
+
+  @Test
+  public void testMoreCopiesThanRowGroups() {
+    assertArrayEquals(new int[] {0, 0}, ParquetRowReader.getCopyRowGroups(2, 0, 4));
+    assertArrayEquals(new int[] {0, 1}, ParquetRowReader.getCopyRowGroups(2, 1, 4));
+    assertArrayEquals(new int[] {1, 1}, ParquetRowReader.getCopyRowGroups(2, 2, 4));
+    assertArrayEquals(new int[] {1, 2}, ParquetRowReader.getCopyRowGroups(2, 3, 4));
+  }
+
+  @Test
+  public void testEmptyFile() {
+    assertArrayEquals(new int[] {0, 0}, ParquetRowReader.getCopyRowGroups(0, 1, 2));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ParquetOutputTest {
+
+  @Test
+  public void testPartitionFilePartKeepsSafeValues() {
+    String value = "Europe_2024-01 west";
+    assertSame(value, ParquetOutput.getPartitionFilePart(value));
+    assertEquals("", ParquetOutput.getPartitionFilePart(""));
+  }
+
+  @Test
+  public void testPartitionFilePartEscapesUnsafeCharacters() {
+    assertEquals("a~2fb", ParquetOutput.getPartitionFilePart("a/b"));
+    assertEquals("a~5cb~3a", ParquetOutput.getPartitionFilePart("a\\b:"));
+    assertEquals("~7e~25~23~0a", ParquetOutput.getPartitionFilePart("~%#\n"));
+    assertEquals("~null", ParquetOutput.getPartitionFilePart(null));
+  }
+
+  /** Values which used to end up in the same file now all get a file of their own */
+  @Test
+  public void testPartitionFilePartIsInjective() {
+    List<String> values =
+        Arrays.asList(
+            null, "null", "~null", "a/b", "a_b", "a:b", "a~2fb", "a~b", "a%2fb", "", "~", "~7e");
+    Map<String, String> partitions = new HashMap<>();
+    for (String value : values) {
+      assertNull(value, partitions.put(ParquetOutput.getPartitionFilePart(value), value));
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParquetPartitionedWriterTest {
+
+  private List<String> opened;
+  private List<String> closed;
+  private List<ParquetWriter<Object[]>> writers;
+  private boolean failWrites;
+
+  @Before
+  public void setUp() {
+    opened = Collections.synchronizedList(new ArrayList<>());
+    closed = Collections.synchronizedList(new ArrayList<>());
+    writers = Collections.synchronizedList(new ArrayList<>());
+    failWrites = false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParquetWriter<Object[]> open(String partition, int split) throws HopException {
+    String name = partition + "/" + split;
+    ParquetWriter<Object[]> writer = mock(ParquetWriter.class);
+    try {
+      doAnswer(invocation -> closed.add(name)).when(writer).close();
+      if (failWrites) {
+        doThrow(new IOException("Disk full")).when(writer).write(any());
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+    opened.add(name);
+    writers.add(writer);
+    return writer;
+  }
+
+  private static Object[] row(long id) {
+    return new Object[] {id};
+  }
+
+  @Test
+  public void testPartitionsAreSplit() throws Exception {
+    ParquetPartitionedWriter writer =
+        new ParquetPartitionedWriter("test", 1, 0, true, 2, this::open);
+    for (long i = 0; i < 5; i++) {
+      writer.write("a", row(i));
+    }
+    writer.write("b", row(5));
+    writer.close();
+
+    assertEquals(List.of("a/1", "a/2", "a/3", "b/1"), opened);
+    assertEquals(List.of("a/1", "a/2", "a/3", "b/1"), closed);
+    verify(writers.get(0), times(2)).write(any());
+    verify(writers.get(2), times(1)).write(any());
+  }
+
+  @Test
+  public void testLeastRecentlyWrittenFileIsClosed() throws Exception {
+    ParquetPartitionedWriter writer =
+        new ParquetPartitionedWriter("test", 1, 2, true, -1, this::open);
+    writer.write("a", row(1));
+    writer.write("b", row(2));
+    writer.write("a", row(3));
+    writer.write("c", row(4)); // closes b
+    writer.write("b", row(5)); // closes a
+    writer.close();
+
+    assertEquals(List.of("a/1", "b/1", "c/1", "b/2"), opened);
+    assertEquals("b/1", closed.get(0));
+    assertEquals("a/1", closed.get(1));
+    assertEquals(4, closed.size());
+  }
+
+  @Test
+  public void testTooManyOpenFilesWithoutSplitting() throws Exception {
+    ParquetPartitionedWriter writer =
+        new ParquetPartitionedWriter("test", 1, 1, false, 2, this::open);
+    try {
+      writer.write("a", row(1));
+      writer.write("b", row(2));
+      writer.close();
+      fail("Opening more files than allowed should fail without split numbers");
+    } catch (HopException e) {
+      // expected
+    }
+    assertEquals(List.of("a/1"), opened);
+    assertEquals(List.of("a/1"), closed);
+  }
+
+  @Test
+  public void testErrorIsPropagated() throws Exception {
+    failWrites = true;
+    ParquetPartitionedWriter writer =
+        new ParquetPartitionedWriter("test", 2, 0, true, -1, this::open);
+    HopException error = null;
+    try {
+      for (long i = 0; i < 10_000; i++) {
+        writer.write(i % 2 == 0 ? "a" : "b", row(i));
+      }
+    } catch (HopException e) {
+      // The next write after the error failed
+      //
+      error = e;
+    }
+    try {
+      writer.close();
+    } catch (HopException e) {
+      if (error == null) {
+        error = e;
+      }
+    }
+    assertNotNull("The error writing in the background should be thrown", error);
+    assertTrue(error.getCause() instanceof IOException);
+
+    // All the files are closed, also after the error
+    //
+    assertEquals(opened.size(), closed.size());
+  }
+
+  @Test
+  public void testCloseAfterError() throws Exception {
+    failWrites = true;
+    ParquetPartitionedWriter writer =
+        new ParquetPartitionedWriter("test", 1, 0, true, -1, this::open);
+    writer.write("a", row(1));
+    try {
+      writer.close();
+      fail("The error writing in the background should be thrown by close");
+    } catch (HopException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+    assertEquals(List.of("a/1"), closed);
+
+    // Closing again doesn't wait for the threads or throw the error again
+    //
+    writer.close();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.output;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.List;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class ParquetWriteSupportTest {
+
+  private static final MessageType SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message hop { optional int64 id; optional binary name (UTF8); optional double amount;"
+              + " optional boolean flag; optional int64 created; }");
+
+  private RecordConsumer recordConsumer;
+  private ParquetWriteSupport writeSupport;
+
+  @Before
+  public void setUp() {
+    writeSupport =
+        new ParquetWriteSupport(
+            SCHEMA,
+            List.of(
+                new ValueMetaInteger("a"),
+                new ValueMetaString("b"),
+                new ValueMetaNumber("c"),
+                new ValueMetaBoolean("d"),
+                new ValueMetaDate("e")),
+            List.of(
+                new ParquetField("a", "id"),
+                new ParquetField("b", "name"),
+                new ParquetField("c", "amount"),
+                new ParquetField("d", "flag"),
+                new ParquetField("e", "created")));
+    recordConsumer = mock(RecordConsumer.class);
+    writeSupport.prepareForWrite(recordConsumer);
+  }
+
+  @Test
+  public void testValuesAreWrittenInFieldOrder() {
+    writeSupport.write(new Object[] {42L, "Hop", 1.5, true, new Date(1000L)});
+
+    InOrder inOrder = inOrder(recordConsumer);
+    inOrder.verify(recordConsumer).startMessage();
+    inOrder.verify(recordConsumer).startField("id", 0);
+    inOrder.verify(recordConsumer).addLong(42L);
+    inOrder.verify(recordConsumer).endField("id", 0);
+    inOrder.verify(recordConsumer).startField("name", 1);
+    inOrder.verify(recordConsumer).addBinary(Binary.fromString("Hop"));
+    inOrder.verify(recordConsumer).endField("name", 1);
+    inOrder.verify(recordConsumer).startField("amount", 2);
+    inOrder.verify(recordConsumer).addDouble(1.5);
+    inOrder.verify(recordConsumer).endField("amount", 2);
+    inOrder.verify(recordConsumer).startField("flag", 3);
+    inOrder.verify(recordConsumer).addBoolean(true);
+    inOrder.verify(recordConsumer).endField("flag", 3);
+    inOrder.verify(recordConsumer).startField("created", 4);
+    inOrder.verify(recordConsumer).addLong(1000L);
+    inOrder.verify(recordConsumer).endField("created", 4);
+    inOrder.verify(recordConsumer).endMessage();
+  }
+
+  @Test
+  public void testNullValuesAreSkipped() {
+    writeSupport.write(new Object[] {null, "Hop", null, null, null});
+
+    verify(recordConsumer).startField("name", 1);
+    verify(recordConsumer, never()).startField("id", 0);
+    verify(recordConsumer, never()).startField("amount", 2);
+    verify(recordConsumer, never()).addLong(anyLong());
+    verify(recordConsumer).endMessage();
+  }
+}
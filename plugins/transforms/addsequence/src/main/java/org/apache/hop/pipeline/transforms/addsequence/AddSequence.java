@@ -24,6 +24,7 @@ import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.FrozenRowMeta;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.util.Utils;
@@ -100,8 +101,9 @@ public class AddSequence extends BaseTransform<AddSequenceMeta, AddSequenceData>
 
     if (first) {
       first = false;
-      data.outputRowMeta = getInputRowMeta().clone();
-      meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
+      IRowMeta outputRowMeta = getInputRowMeta().clone();
+      meta.getFields(outputRowMeta, getTransformName(), null, null, this, metadataProvider);
+      data.outputRowMeta = FrozenRowMeta.of(outputRowMeta);
     }
 
     if (isRowLevel()) {
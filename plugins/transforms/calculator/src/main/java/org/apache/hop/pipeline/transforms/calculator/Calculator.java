@@ -24,6 +24,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileNotFoundException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.FrozenRowMeta;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -72,12 +73,15 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
 
     if (first) {
       first = false;
-      data.setOutputRowMeta(getInputRowMeta().clone());
-      meta.getFields(
-          data.getOutputRowMeta(), getTransformName(), null, null, this, metadataProvider);
+      IRowMeta outputRowMeta = getInputRowMeta().clone();
+      meta.getFields(outputRowMeta, getTransformName(), null, null, this, metadataProvider);
+
+      // The layouts don't change anymore: freeze them for lock-free lookups on every row
+      //
+      data.setOutputRowMeta(FrozenRowMeta.of(outputRowMeta));
 
       // get all metadata, including source rows and temporary fields.
-      data.setCalcRowMeta(meta.getAllFields(getInputRowMeta()));
+      data.setCalcRowMeta(FrozenRowMeta.of(meta.getAllFields(getInputRowMeta())));
 
       data.setFieldIndexes(new FieldIndexes[meta.getFunctions().size()]);
       List<Integer> tempIndexes = new ArrayList<>();
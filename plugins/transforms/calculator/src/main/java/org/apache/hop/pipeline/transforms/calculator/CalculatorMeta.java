@@ -181,6 +181,11 @@ public class CalculatorMeta extends BaseTransformMeta<Calculator, CalculatorData
     }
   }
 
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
+
   /**
    * Gets calculations
    *
@@ -34,9 +34,12 @@ import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.hash.OffHeapLongHashMap;
+import org.apache.hop.core.hash.OffHeapStore;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.SortKeyEncoder;
 import org.apache.hop.core.row.value.ValueMetaDate;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.util.Utils;
@@ -65,6 +68,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
   public static final String CONST_COMBINATION_LOOKUP_LOG_UNEXPECTED_ERROR =
       "CombinationLookup.Log.UnexpectedError";
 
+  /** Technical key returned by the off-heap cache for a row which isn't cached */
+  private static final long NOT_IN_CACHE = Long.MIN_VALUE;
+
   private int techKeyCreation;
 
   public CombinationLookup(
@@ -98,7 +104,7 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     }
   }
 
-  private Long lookupInCache(IRowMeta rowMeta, Object[] row) {
+  private Long lookupInCache(IRowMeta rowMeta, Object[] row) throws HopValueException {
     // Short circuit if cache is disabled.
     if (meta.getCacheSize() == -1) {
       return null;
@@ -106,9 +112,21 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
 
     // try to find the row in the cache...
     //
+    if (data.offHeapCache != null) {
+      long tk = data.offHeapCache.get(getOffHeapKey(rowMeta, row), NOT_IN_CACHE);
+      return tk == NOT_IN_CACHE ? null : tk;
+    }
     return data.cache.get(new RowMetaAndData(rowMeta, row));
   }
 
+  /** The key of a row in the off-heap cache: the sort key or else the serialized values */
+  private byte[] getOffHeapKey(IRowMeta rowMeta, Object[] row) throws HopValueException {
+    if (data.offHeapKeyEncoder != null) {
+      return data.offHeapKeyEncoder.encode(row);
+    }
+    return RowMeta.extractData(rowMeta, row);
+  }
+
   /**
    * Adds a row to the cache In case we are doing updates, we need to store the complete rows from
    * the database. These are the values we need to store
@@ -119,14 +137,19 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
    * @param rowMeta
    * @param row
    * @param tk
-   * @throws HopValueException
+   * @throws HopException
    */
-  private void addToCache(IRowMeta rowMeta, Object[] row, Long tk) throws HopValueException {
+  private void addToCache(IRowMeta rowMeta, Object[] row, Long tk) throws HopException {
     // Short circuit if cache is disabled.
     if (meta.getCacheSize() == -1) {
       return;
     }
 
+    if (data.offHeapCache != null) {
+      addToOffHeapCache(rowMeta, row, tk);
+      return;
+    }
+
     // store it in the cache if needed.
     data.cache.put(new RowMetaAndData(rowMeta, row), tk);
 
@@ -198,6 +221,44 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     }
   }
 
+  /**
+   * Adds a row to the off-heap cache. The cache is reduced the same way as the cache on the heap:
+   * everything up to the second smallest of a few sampled technical keys is removed.
+   */
+  private void addToOffHeapCache(IRowMeta rowMeta, Object[] row, Long tk) throws HopException {
+    data.offHeapCache.put(getOffHeapKey(rowMeta, row), tk);
+
+    int tenPercent = meta.getCacheSize() / 10;
+    if (meta.getCacheSize() > 0 && data.offHeapCache.size() > meta.getCacheSize() + tenPercent) {
+      int sizeBefore = data.offHeapCache.size();
+      int transformsize = Math.max(1, sizeBefore / 5);
+      List<Long> samples = new ArrayList<>();
+      int[] counter = new int[1];
+      data.offHeapCache.forEachValue(
+          value -> {
+            if (counter[0]++ % transformsize == 0) {
+              samples.add(value);
+            }
+          });
+      Collections.sort(samples);
+      data.smallestCacheKey = samples.size() > 1 ? samples.get(1) : samples.get(0);
+
+      long smallest = data.smallestCacheKey;
+      data.offHeapCache.removeValues(value -> value <= smallest);
+
+      logDetailed(
+          "Reduced the off-heap lookup cache from "
+              + sizeBefore
+              + " to "
+              + data.offHeapCache.size()
+              + " rows.");
+    }
+
+    if (isRowLevel()) {
+      logRowlevel("Cache store: key=" + rowMeta.getString(row) + "    key=" + tk);
+    }
+  }
+
   protected boolean isAutoIncrement() {
     return techKeyCreation == CREATION_METHOD_AUTOINC;
   }
@@ -384,6 +445,7 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       }
 
       setCombiLookup(getInputRowMeta());
+      createOffHeapCache();
       preloadCache(data.hashRowMeta);
     }
 
@@ -722,6 +784,27 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     return false;
   }
 
+  /**
+   * Keep the cache outside of the Java heap if so configured. The natural keys are stored as sort
+   * keys if all the key fields can be encoded that way, as serialized values otherwise.
+   *
+   * @throws HopException In case the off-heap store can't be created
+   */
+  private void createOffHeapCache() throws HopException {
+    if (!meta.isCacheOffHeap() || meta.getCacheSize() < 0) {
+      return;
+    }
+    int[] keyIndexes = new int[data.hashRowMeta.size()];
+    for (int i = 0; i < keyIndexes.length; i++) {
+      keyIndexes[i] = i;
+    }
+    data.offHeapKeyEncoder = SortKeyEncoder.create(data.hashRowMeta, keyIndexes);
+    data.offHeapCache =
+        new OffHeapLongHashMap(
+            new OffHeapStore(resolve(meta.getOffHeapDirectory())), meta.getCacheSize());
+    data.cache = null;
+  }
+
   @Override
   public void dispose() {
     if (data.db != null) {
@@ -742,6 +825,10 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
         data.db.disconnect();
       }
     }
+    if (data.offHeapCache != null) {
+      data.offHeapCache.close();
+      data.offHeapCache = null;
+    }
 
     super.dispose();
   }
@@ -753,9 +840,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
    * @throws HopDatabaseException If something went wrong while selecting the values from the db
    * @throws HopValueException If something went wrong while adding the data to the cache
    * @throws HopConfigException If the transform configuration is incomplete
+   * @throws HopException If the off-heap cache can't store the data
    */
-  private void preloadCache(IRowMeta hashRowMeta)
-      throws HopDatabaseException, HopValueException, HopConfigException {
+  private void preloadCache(IRowMeta hashRowMeta) throws HopException {
     // fast exit if no preload cache or no cache
     if (meta.isPreloadCache() && meta.getCacheSize() >= 0) {
       if (hashRowMeta == null) {
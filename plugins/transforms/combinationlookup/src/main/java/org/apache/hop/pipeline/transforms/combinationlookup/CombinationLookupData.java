@@ -21,7 +21,9 @@ import java.sql.PreparedStatement;
 import java.util.Map;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
+import org.apache.hop.core.hash.OffHeapLongHashMap;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.value.SortKeyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -32,6 +34,11 @@ public class CombinationLookupData extends BaseTransformData implements ITransfo
 
   public Map<RowMetaAndData, Long> cache;
 
+  /** The cache when it's kept off-heap, with the encoder of the keys if they can be sort keys */
+  public OffHeapLongHashMap offHeapCache;
+
+  public SortKeyEncoder offHeapKeyEncoder;
+
   public IRowMeta outputRowMeta;
   public IRowMeta lookupRowMeta;
   public IRowMeta insertRowMeta;
@@ -79,6 +79,11 @@ public class CombinationLookupDialog extends BaseTransformDialog {
 
   private Button wPreloadCache;
 
+  private Button wCacheOffHeap;
+
+  private Label wlOffHeapDirectory;
+  private TextVar wOffHeapDirectory;
+
   private Text wTk;
 
   private Label wlAutoinc;
@@ -293,6 +298,41 @@ public class CombinationLookupDialog extends BaseTransformDialog {
     fdPreloadCache.right = new FormAttachment(100, 0);
     wPreloadCache.setLayoutData(fdPreloadCache);
 
+    // Keep the cache off-heap
+    wCacheOffHeap = new Button(shell, SWT.CHECK);
+    wCacheOffHeap.setText(
+        BaseMessages.getString(PKG, "CombinationLookupDialog.CacheOffHeap.Label"));
+    wCacheOffHeap.setToolTipText(
+        BaseMessages.getString(PKG, "CombinationLookupDialog.CacheOffHeap.Tooltip"));
+    PropsUi.setLook(wCacheOffHeap);
+    wCacheOffHeap.addListener(SWT.Selection, e -> enableFields());
+    FormData fdCacheOffHeap = new FormData();
+    fdCacheOffHeap.top = new FormAttachment(wPreloadCache, margin);
+    fdCacheOffHeap.left = new FormAttachment(wlCachesize, margin);
+    fdCacheOffHeap.right = new FormAttachment(100, 0);
+    wCacheOffHeap.setLayoutData(fdCacheOffHeap);
+
+    // The directory of the memory mapped file
+    wlOffHeapDirectory = new Label(shell, SWT.RIGHT);
+    wlOffHeapDirectory.setText(
+        BaseMessages.getString(PKG, "CombinationLookupDialog.OffHeapDirectory.Label"));
+    PropsUi.setLook(wlOffHeapDirectory);
+    FormData fdlOffHeapDirectory = new FormData();
+    fdlOffHeapDirectory.top = new FormAttachment(wCacheOffHeap, margin);
+    fdlOffHeapDirectory.left = new FormAttachment(0, 0);
+    fdlOffHeapDirectory.right = new FormAttachment(middle, -margin);
+    wlOffHeapDirectory.setLayoutData(fdlOffHeapDirectory);
+    wOffHeapDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wOffHeapDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "CombinationLookupDialog.OffHeapDirectory.Tooltip"));
+    PropsUi.setLook(wOffHeapDirectory);
+    wOffHeapDirectory.addModifyListener(lsMod);
+    FormData fdOffHeapDirectory = new FormData();
+    fdOffHeapDirectory.top = new FormAttachment(wCacheOffHeap, margin);
+    fdOffHeapDirectory.left = new FormAttachment(middle, 0);
+    fdOffHeapDirectory.right = new FormAttachment(100, 0);
+    wOffHeapDirectory.setLayoutData(fdOffHeapDirectory);
+
     //
     // The Lookup fields: usually the (business) key
     //
@@ -301,7 +341,7 @@ public class CombinationLookupDialog extends BaseTransformDialog {
     PropsUi.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wPreloadCache, margin);
+    fdlKey.top = new FormAttachment(wOffHeapDirectory, margin);
     fdlKey.right = new FormAttachment(100, 0);
     wlKey.setLayoutData(fdlKey);
 
@@ -604,6 +644,8 @@ public class CombinationLookupDialog extends BaseTransformDialog {
   public void enableFields() {
     wHashfield.setEnabled(wHashcode.getSelection());
     wlHashfield.setEnabled(wHashcode.getSelection());
+    wlOffHeapDirectory.setEnabled(wCacheOffHeap.getSelection());
+    wOffHeapDirectory.setEnabled(wCacheOffHeap.getSelection());
   }
 
   private void setTableFieldCombo() {
@@ -698,6 +740,10 @@ public class CombinationLookupDialog extends BaseTransformDialog {
     }
 
     wPreloadCache.setSelection(input.isPreloadCache());
+    wCacheOffHeap.setSelection(input.isCacheOffHeap());
+    wOffHeapDirectory.setText(Const.NVL(input.getOffHeapDirectory(), ""));
+    wlOffHeapDirectory.setEnabled(input.isCacheOffHeap());
+    wOffHeapDirectory.setEnabled(input.isCacheOffHeap());
     wReplace.setSelection(input.isReplaceFields());
     wHashcode.setSelection(input.isUseHash());
     wHashfield.setEnabled(input.isUseHash());
@@ -803,6 +849,8 @@ public class CombinationLookupDialog extends BaseTransformDialog {
     }
 
     in.setPreloadCache(wPreloadCache.getSelection());
+    in.setCacheOffHeap(wCacheOffHeap.getSelection());
+    in.setOffHeapDirectory(wOffHeapDirectory.getText());
     returnFields.setUseAutoIncrement(wAutoinc.getSelection() && wAutoinc.isEnabled());
     in.setReplaceFields(wReplace.getSelection());
     in.setUseHash(wHashcode.getSelection());
@@ -124,6 +124,20 @@ public class CombinationLookupMeta
       injectionKeyDescription = "CombinationLookup.Injection.CACHE_SIZE")
   private int cacheSize;
 
+  /** Keep the cache outside of the Java heap */
+  @HopMetadataProperty(
+      key = "cache_off_heap",
+      injectionKey = "CACHE_OFF_HEAP",
+      injectionKeyDescription = "CombinationLookup.Injection.CACHE_OFF_HEAP")
+  private boolean cacheOffHeap;
+
+  /** The directory of the memory mapped file of the off-heap cache, empty for direct memory */
+  @HopMetadataProperty(
+      key = "cache_off_heap_directory",
+      injectionKey = "CACHE_OFF_HEAP_DIRECTORY",
+      injectionKeyDescription = "CombinationLookup.Injection.CACHE_OFF_HEAP_DIRECTORY")
+  private String offHeapDirectory;
+
   @HopMetadataProperty private CFields fields;
 
   public static final String CREATION_METHOD_AUTOINC = "autoinc";
@@ -869,6 +883,42 @@ public class CombinationLookupMeta
     this.cacheSize = cacheSize;
   }
 
+  /**
+   * Gets cacheOffHeap
+   *
+   * @return value of cacheOffHeap
+   */
+  public boolean isCacheOffHeap() {
+    return cacheOffHeap;
+  }
+
+  /**
+   * Sets cacheOffHeap
+   *
+   * @param cacheOffHeap value of cacheOffHeap
+   */
+  public void setCacheOffHeap(boolean cacheOffHeap) {
+    this.cacheOffHeap = cacheOffHeap;
+  }
+
+  /**
+   * Gets offHeapDirectory
+   *
+   * @return value of offHeapDirectory
+   */
+  public String getOffHeapDirectory() {
+    return offHeapDirectory;
+  }
+
+  /**
+   * Sets offHeapDirectory
+   *
+   * @param offHeapDirectory value of offHeapDirectory
+   */
+  public void setOffHeapDirectory(String offHeapDirectory) {
+    this.offHeapDirectory = offHeapDirectory;
+  }
+
   /**
    * Gets fields
    *
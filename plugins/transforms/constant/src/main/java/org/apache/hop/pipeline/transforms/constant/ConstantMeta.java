@@ -137,4 +137,9 @@ public class ConstantMeta extends BaseTransformMeta<Constant, ConstantData> {
     ConstantMeta meta = (ConstantMeta) transformMeta.getTransform();
     Constant.buildRow(meta, data, remarks);
   }
+
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
 }
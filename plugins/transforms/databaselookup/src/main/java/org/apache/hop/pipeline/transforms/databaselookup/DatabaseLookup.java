@@ -18,11 +18,18 @@
 package org.apache.hop.pipeline.transforms.databaselookup;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -37,6 +44,9 @@ import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.lookup.LookupCache;
+import org.apache.hop.lookup.LookupCacheEntry;
+import org.apache.hop.lookup.LookupCacheRegistry;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
@@ -48,6 +58,12 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
 
   private static final Class<?> PKG = DatabaseLookupMeta.class;
 
+  /** The maximum number of keys in one batch query, e.g. Oracle allows 1000 items in an IN list */
+  static final int MAX_KEYS_PER_QUERY = 1000;
+
+  /** The maximum number of parameters in one batch query, e.g. SQL Server allows 2100 */
+  static final int MAX_PARAMETERS_PER_QUERY = 2000;
+
   public DatabaseLookup(
       TransformMeta transformMeta,
       DatabaseLookupMeta meta,
@@ -69,39 +85,10 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row) throws HopException {
     Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
 
-    Object[] lookupRow = new Object[data.lookupMeta.size()];
-    int lookupIndex = 0;
-
-    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
-      if (data.keynrs[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-      if (data.keynrs2[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs2[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-    }
+    Object[] lookupRow = getLookupRow(inputRowMeta, row);
 
     Object[] add;
+    Object[] keyRow = null;
     boolean cacheNow = false;
     boolean cacheHit = false;
 
@@ -115,7 +102,11 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       add = null;
     }
 
-    if (add == null) {
+    if (add == null && isBatchMiss(lookupRow)) {
+      // The batch lookup didn't find this key: no need to ask again
+      //
+      cacheNow = true;
+    } else if (add == null) {
       if (!(meta.isCached() && meta.isLoadingAllDataInCache())
           || data.hasDBCondition) { // do not go to the
         // database when all rows
@@ -132,6 +123,19 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         data.db.setValuesLookup(data.lookupMeta, lookupRow);
         add = data.db.getLookup(meta.getLookup().isFailingOnMultipleResults());
         cacheNow = true;
+
+        if (data.lookupReturnsKeys && add != null) {
+          // The key fields come first, the return values after that
+          //
+          int nrKeys = meta.getLookup().getKeyFields().size();
+          if (data.cacheKeyValues) {
+            if (data.cacheKeyMeta == null) {
+              data.cacheKeyMeta = copyValueMetasFrom(data.db.getReturnRowMeta(), nrKeys).clone();
+            }
+            keyRow = Arrays.copyOf(add, nrKeys);
+          }
+          add = Arrays.copyOfRange(add, nrKeys, nrKeys + data.returnMeta.size());
+        }
       }
     }
 
@@ -186,24 +190,19 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         // as the returned lookup row, but since we make the lookup row
         // that should not be a problem.
         //
-        int[] types = data.returnValueTypes;
-        for (int i = 0; i < types.length; i++) {
-          IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(i);
-          IValueMeta expected = data.returnMeta.getValueMeta(i);
-
-          if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
-            // Set the type to the default return type
-            add[i] = expected.convertData(returned, add[i]);
-          }
-        }
+        convertReturnedValues(add);
       }
     }
 
     // Store in cache if we need to!
     // If we already loaded all data into the cache, storing more makes no sense.
     //
-    if (meta.isCached() && cacheNow && !meta.isLoadingAllDataInCache() && data.allEquals) {
-      data.cache.storeRowInCache(meta, data.lookupMeta, lookupRow, add);
+    if (meta.isCached() && cacheNow && !meta.isLoadingAllDataInCache()) {
+      if (data.allEquals) {
+        data.cache.storeRowInCache(meta, data.lookupMeta, lookupRow, add);
+      } else if (keyRow != null) {
+        data.cache.storeRowInCache(meta, data.cacheKeyMeta, keyRow, add);
+      }
     }
 
     for (int i = 0; i < data.returnMeta.size(); i++) {
@@ -213,6 +212,63 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return outputRow;
   }
 
+  private Object[] getLookupRow(IRowMeta inputRowMeta, Object[] row) throws HopException {
+    Object[] lookupRow = new Object[data.lookupMeta.size()];
+    int lookupIndex = 0;
+
+    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
+      if (data.keynrs[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+      if (data.keynrs2[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs2[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+    }
+
+    return lookupRow;
+  }
+
+  /** Convert the values returned by the lookup query to the types of the return values */
+  private void convertReturnedValues(Object[] add) throws HopException {
+    int[] types = data.returnValueTypes;
+    int offset = data.lookupReturnsKeys ? meta.getLookup().getKeyFields().size() : 0;
+    for (int i = 0; i < types.length; i++) {
+      IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(offset + i);
+      IValueMeta expected = data.returnMeta.getValueMeta(i);
+
+      if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
+        // Set the type to the default return type
+        add[i] = expected.convertData(returned, add[i]);
+      }
+    }
+  }
+
+  private boolean isBatchMiss(Object[] lookupRow) {
+    return data.batchMisses != null
+        && !data.batchMisses.isEmpty()
+        && data.batchMisses.contains(new RowMetaAndData(data.lookupMeta, lookupRow));
+  }
+
   // visible for testing purposes
   void determineFieldsTypesQueryingDb() throws HopException {
     List<KeyField> keyFields = meta.getLookup().getKeyFields();
@@ -269,8 +325,11 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     //
     data.lookupMeta = new RowMeta();
     final List<KeyField> keyFields = meta.getLookup().getKeyFields();
+    data.lookupIndexes = new int[keyFields.size()];
+    data.lookupIndexes2 = new int[keyFields.size()];
 
     for (int i = 0; i < keyFields.size(); i++) {
+      data.lookupIndexes[i] = data.keynrs[i] >= 0 ? data.lookupMeta.size() : -1;
       if (data.keynrs[i] >= 0) {
         IValueMeta inputValueMeta = getInputRowMeta().getValueMeta(data.keynrs[i]);
 
@@ -281,6 +340,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
 
         data.lookupMeta.addValueMeta(value);
       }
+      data.lookupIndexes2[i] = data.keynrs2[i] >= 0 ? data.lookupMeta.size() : -1;
       if (data.keynrs2[i] >= 0) {
         IValueMeta inputValueMeta = getInputRowMeta().getValueMeta(data.keynrs2[i]);
 
@@ -312,6 +372,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public boolean processRow() throws HopException {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.batchLookups && !data.batchRows.isEmpty() && !processBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -348,6 +411,41 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         data.returnTrimTypes[i] = returnValues.get(i).getTrimType();
       }
 
+      // Not all conditions are equalities: cache the found rows on the values of their key fields
+      // in the table, so that the conditions can be evaluated on the cached rows. The cache only
+      // holds some of the rows of the table: it can't tell which of several matching rows the
+      // database would return first, nor whether a single cached match is the only match in the
+      // table. So this is only done when any matching row will do: without ORDER BY and when a
+      // lookup matching multiple rows doesn't fail.
+      //
+      data.cacheKeyValues =
+          meta.isCached()
+              && !meta.isLoadingAllDataInCache()
+              && !data.allEquals
+              && !data.hasDBCondition
+              && Utils.isEmpty(lookup.getOrderByClause())
+              && !lookup.isFailingOnMultipleResults();
+
+      // Only equalities: the keys which are not in the cache can be looked up in batches.
+      // The lookup query returns the same fields as the batch query, including the key fields.
+      //
+      data.batchLookups =
+          meta.isCached()
+              && !meta.isLoadingAllDataInCache()
+              && meta.getLookupBatchSize() > 1
+              && Arrays.stream(data.conditions).allMatch(c -> c == DatabaseLookupMeta.CONDITION_EQ);
+
+      data.lookupReturnsKeys = data.cacheKeyValues || data.batchLookups;
+      if (data.lookupReturnsKeys) {
+        String[] fields = new String[keyField.length + returnField.length];
+        String[] renames = new String[keyField.length + returnField.length];
+        System.arraycopy(keyField, 0, fields, 0, keyField.length);
+        System.arraycopy(returnField, 0, fields, keyField.length, returnField.length);
+        System.arraycopy(returnRename, 0, renames, keyField.length, returnRename.length);
+        returnField = fields;
+        returnRename = renames;
+      }
+
       data.db.setLookup(
           resolve(meta.getSchemaName()),
           resolve(meta.getTableName()),
@@ -358,6 +456,16 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
           lookup.getOrderByClause(),
           lookup.isFailingOnMultipleResults());
 
+      if (data.batchLookups) {
+        data.batchSize = meta.getLookupBatchSize();
+        data.keysPerQuery = getKeysPerQuery(data.batchSize, keyField.length);
+        data.batchRows = new ArrayList<>(data.batchSize);
+        data.batchMisses = new HashSet<>();
+        data.batchStatement =
+            data.db.prepareSql(
+                getBatchLookupSql(keyField, returnField, returnRename, lookup.getOrderByClause()));
+      }
+
       // lookup the values!
       if (isDetailed()) {
         logDetailed(
@@ -439,6 +547,18 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
               + getInputRowMeta().getString(r));
     }
 
+    if (data.batchLookups) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() >= data.batchSize) {
+        return processBatch();
+      }
+      return true;
+    }
+
+    return lookupAndPutRow(r);
+  }
+
+  private boolean lookupAndPutRow(Object[] r) throws HopException {
     try {
       // add new lookup values to the row
       Object[] outputRow = lookupValues(getInputRowMeta(), r);
@@ -473,70 +593,340 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return true;
   }
 
-  private void loadAllTableDataIntoTheCache() throws HopException {
-    DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+  /**
+   * Looks up the keys of the buffered rows which are not in the cache in one query and then passes
+   * the buffered rows on in their original order.
+   *
+   * @return false if the transform has to stop
+   */
+  private boolean processBatch() throws HopException {
+    try {
+      lookupBatch();
+    } catch (HopException e) {
+      // The rows are looked up one by one, errors are handled per row in that case
+      //
+      data.batchMisses.clear();
+      String message =
+          BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookupFailed") + e.getMessage();
+      if (!data.batchLookupFailed) {
+        data.batchLookupFailed = true;
+        logBasic(message);
+      } else if (isDetailed()) {
+        logDetailed(message);
+      }
+    }
 
-    Database db = getDatabase(dbMeta);
-    connectDatabase(db);
+    try {
+      for (Object[] row : data.batchRows) {
+        if (!lookupAndPutRow(row)) {
+          return false;
+        }
+      }
+    } finally {
+      data.batchRows.clear();
+      data.batchMisses.clear();
+    }
+    return true;
+  }
 
-    Lookup lookup = meta.getLookup();
+  /**
+   * The batch query has a parameter for every key field of every key. Big batches are split in
+   * several queries to stay within the limits of the databases.
+   *
+   * @param batchSize The number of rows looked up at a time
+   * @param nrKeyFields The number of key fields
+   * @return The number of keys to look up with one query
+   */
+  static int getKeysPerQuery(int batchSize, int nrKeyFields) {
+    int keys = Math.min(batchSize, MAX_KEYS_PER_QUERY);
+    return Math.max(1, Math.min(keys, MAX_PARAMETERS_PER_QUERY / Math.max(1, nrKeyFields)));
+  }
 
-    try {
-      // We only want to get the used table fields...
-      //
-      String sql = "SELECT ";
-      List<KeyField> keyFields = lookup.getKeyFields();
+  private synchronized void lookupBatch() throws HopException {
+    // The distinct keys which are not in the cache yet
+    //
+    Map<RowMetaAndData, Object[]> pending = new LinkedHashMap<>();
+    for (Object[] row : data.batchRows) {
+      Object[] lookupRow = getLookupRow(getInputRowMeta(), row);
+      RowMetaAndData key = new RowMetaAndData(data.lookupMeta, lookupRow);
+      if (pending.containsKey(key)
+          || data.batchMisses.contains(key)
+          || data.cache.getRowFromCache(data.lookupMeta, lookupRow) != null) {
+        continue;
+      }
+      if (Arrays.asList(lookupRow).contains(null)) {
+        // key = NULL never matches
+        data.batchMisses.add(key);
+      } else {
+        pending.put(key, lookupRow);
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
 
-      for (int i = 0; i < keyFields.size(); i++) {
-        KeyField keyField = keyFields.get(i);
+    // Look up the keys in chunks which fit in one query
+    //
+    List<Object[]> lookupRows = new ArrayList<>(pending.values());
+    Map<RowMetaAndData, Object[]> found = new LinkedHashMap<>();
+    List<RowMetaAndData> duplicates = new ArrayList<>();
+    boolean allRowsMatched = true;
+    for (int start = 0; start < lookupRows.size(); start += data.keysPerQuery) {
+      List<Object[]> chunk =
+          lookupRows.subList(start, Math.min(start + data.keysPerQuery, lookupRows.size()));
+      allRowsMatched &= lookupKeys(chunk, found, duplicates);
+    }
 
-        if (i > 0) {
-          sql += ", ";
+    for (Map.Entry<RowMetaAndData, Object[]> entry : pending.entrySet()) {
+      RowMetaAndData key = entry.getKey();
+      Object[] add = found.get(key);
+      if (add == null) {
+        // Only sure that a key is not in the table if the database compares like we do.
+        // Otherwise the key is looked up on its own later on.
+        //
+        if (allRowsMatched) {
+          data.batchMisses.add(key);
         }
-        sql += dbMeta.quoteField(keyField.getTableField());
+      } else if (!duplicates.contains(key)) {
+        data.cache.storeRowInCache(meta, data.lookupMeta, entry.getValue(), add);
+        incrementLinesInput();
       }
+    }
 
-      // Also grab the return field...
-      //
-      List<ReturnValue> returnValues = lookup.getReturnValues();
-      for (int i = 0; i < returnValues.size(); i++) {
-        ReturnValue returnValue = returnValues.get(i);
-        sql += ", " + dbMeta.quoteField(returnValue.getTableField());
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "DatabaseLookup.Log.BatchLookedUp", pending.size(), found.size()));
+    }
+  }
+
+  /**
+   * Looks up the given keys with the batch query.
+   *
+   * @param lookupRows The distinct keys to look up, at most as many as fit in the query
+   * @param found The values returned per key, the found keys are added
+   * @param duplicates The keys with more than one row in the table, if that has to fail
+   * @return false if the database returned keys which don't match any of the keys looked up, e.g.
+   *     because it compares case insensitive
+   */
+  private boolean lookupKeys(
+      List<Object[]> lookupRows,
+      Map<RowMetaAndData, Object[]> found,
+      List<RowMetaAndData> duplicates)
+      throws HopException {
+    int nrKeys = data.lookupMeta.size();
+    Set<RowMetaAndData> keys = new HashSet<>();
+    for (Object[] lookupRow : lookupRows) {
+      keys.add(new RowMetaAndData(data.lookupMeta, lookupRow));
+    }
+
+    // Fill in all the parameters of the statement, repeat the last key in a partial batch
+    //
+    int position = 1;
+    Object[] lookupRow = null;
+    for (int i = 0; i < data.keysPerQuery; i++) {
+      if (i < lookupRows.size()) {
+        lookupRow = lookupRows.get(i);
       }
-      // The schema/table
-      //
-      sql +=
-          " FROM "
-              + dbMeta.getQuotedSchemaTableCombination(
-                  this, meta.getSchemaName(), meta.getTableName());
+      for (int k = 0; k < nrKeys; k++) {
+        data.db.setValue(
+            data.batchStatement, data.lookupMeta.getValueMeta(k), lookupRow[k], position++);
+      }
+    }
 
-      // order by?
-      if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
-        sql += " ORDER BY " + lookup.getOrderByClause();
+    boolean allRowsMatched = true;
+    ResultSet resultSet = null;
+    try {
+      resultSet = data.batchStatement.executeQuery();
+      Object[] row;
+      while ((row = data.db.getRow(resultSet)) != null) {
+        IRowMeta returnedMeta = data.db.getReturnRowMeta();
+        Object[] keyRow = new Object[nrKeys];
+        for (int k = 0; k < nrKeys; k++) {
+          IValueMeta keyMeta = data.lookupMeta.getValueMeta(k);
+          IValueMeta returned = returnedMeta.getValueMeta(k);
+          keyRow[k] =
+              keyMeta.getType() == returned.getType()
+                  ? row[k]
+                  : keyMeta.convertData(returned, row[k]);
+        }
+        RowMetaAndData key = new RowMetaAndData(data.lookupMeta, keyRow);
+        if (!keys.contains(key)) {
+          // The database compares differently, e.g. trailing spaces or case insensitive
+          //
+          allRowsMatched = false;
+          continue;
+        }
+        if (found.containsKey(key)) {
+          // The first row wins, as with the ORDER BY of the lookup query.
+          // Let the lookup of this key fail later on if that was asked for.
+          //
+          if (meta.getLookup().isFailingOnMultipleResults()) {
+            duplicates.add(key);
+          }
+          continue;
+        }
+        Object[] add = Arrays.copyOfRange(row, nrKeys, nrKeys + data.returnMeta.size());
+        convertReturnedValues(add);
+        found.put(key, add);
+      }
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error looking up a batch of rows in the database", e);
+    } finally {
+      if (resultSet != null) {
+        try {
+          resultSet.close();
+        } catch (SQLException e) {
+          logError("Unable to close the result set of a batch lookup", e);
+        }
       }
+    }
+    return allRowsMatched;
+  }
 
-      // Now that we have the SQL constructed, let's store the rows...
+  /**
+   * Builds the query which looks up a list of keys: the same fields as the lookup query, for as
+   * many keys as fit in one query.
+   */
+  private String getBatchLookupSql(
+      String[] keyField, String[] returnField, String[] returnRename, String orderBy) {
+    DatabaseMeta dbMeta = data.db.getDatabaseMeta();
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    for (int i = 0; i < returnField.length; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(dbMeta.quoteField(returnField[i]));
+      if (returnRename[i] != null && !returnField[i].equalsIgnoreCase(returnRename[i])) {
+        sql.append(" AS ").append(dbMeta.quoteField(returnRename[i]));
+      }
+    }
+    sql.append(" FROM ")
+        .append(
+            dbMeta.getQuotedSchemaTableCombination(
+                this, resolve(meta.getSchemaName()), resolve(meta.getTableName())))
+        .append(" WHERE ");
+
+    if (keyField.length == 1) {
+      // key IN (?, ?, ...)
       //
-      List<Object[]> rows = db.getRows(sql, 0);
-      if (rows != null && !rows.isEmpty()) {
-        if (data.allEquals) {
-          putToDefaultCache(db, rows);
-        } else {
-          putToReadOnlyCache(db, rows);
+      sql.append(dbMeta.quoteField(keyField[0])).append(" IN (");
+      for (int i = 0; i < data.keysPerQuery; i++) {
+        sql.append(i > 0 ? ", ?" : "?");
+      }
+      sql.append(")");
+    } else {
+      // (key1 = ? AND key2 = ?) OR (key1 = ? AND key2 = ?) OR ...
+      //
+      for (int i = 0; i < data.keysPerQuery; i++) {
+        sql.append(i > 0 ? " OR (" : "(");
+        for (int k = 0; k < keyField.length; k++) {
+          if (k > 0) {
+            sql.append(" AND ");
+          }
+          sql.append(dbMeta.quoteField(keyField[k])).append(" = ?");
         }
+        sql.append(")");
       }
+    }
+
+    if (StringUtils.isNotEmpty(orderBy)) {
+      sql.append(" ORDER BY ").append(orderBy);
+    }
+    return sql.toString();
+  }
+
+  private void loadAllTableDataIntoTheCache() throws HopException {
+    DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+
+    Lookup lookup = meta.getLookup();
+
+    // We only want to get the used table fields...
+    //
+    String sql = "SELECT ";
+    List<KeyField> keyFields = lookup.getKeyFields();
+
+    for (int i = 0; i < keyFields.size(); i++) {
+      KeyField keyField = keyFields.get(i);
+
+      if (i > 0) {
+        sql += ", ";
+      }
+      sql += dbMeta.quoteField(keyField.getTableField());
+    }
+
+    // Also grab the return field...
+    //
+    List<ReturnValue> returnValues = lookup.getReturnValues();
+    for (int i = 0; i < returnValues.size(); i++) {
+      ReturnValue returnValue = returnValues.get(i);
+      sql += ", " + dbMeta.quoteField(returnValue.getTableField());
+    }
+    // The schema/table
+    //
+    sql +=
+        " FROM "
+            + dbMeta.getQuotedSchemaTableCombination(
+                this, meta.getSchemaName(), meta.getTableName());
+
+    // order by?
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql += " ORDER BY " + lookup.getOrderByClause();
+    }
+
+    // Now that we have the SQL constructed, let's store the rows...
+    // With a shared lookup cache they are only read if another transform didn't do so already.
+    //
+    LookupCacheEntry table;
+    String sharedCacheName = resolve(meta.getSharedCacheName());
+    if (StringUtils.isNotEmpty(sharedCacheName)) {
+      LookupCache lookupCache =
+          metadataProvider.getSerializer(LookupCache.class).load(sharedCacheName);
+      if (lookupCache == null) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "DatabaseLookup.Exception.SharedCacheNotFound", sharedCacheName));
+      }
+      final String query = sql;
+      data.sharedCacheEntry =
+          LookupCacheRegistry.getInstance()
+              .attach(
+                  lookupCache,
+                  this,
+                  dbMeta.getName() + "\n" + dbMeta.getURL(this) + "\n" + query,
+                  () -> readTable(dbMeta, query));
+      table = data.sharedCacheEntry;
+    } else {
+      table = readTable(dbMeta, sql);
+    }
+
+    List<Object[]> rows = table.getRows();
+    if (!rows.isEmpty()) {
+      if (data.allEquals) {
+        putToDefaultCache(table.getRowMeta(), rows);
+      } else {
+        putToReadOnlyCache(table.getRowMeta(), rows);
+      }
+    }
+  }
+
+  private LookupCacheEntry readTable(DatabaseMeta dbMeta, String sql) throws HopException {
+    Database db = getDatabase(dbMeta);
+    connectDatabase(db);
+    try {
+      List<Object[]> rows = db.getRows(sql, 0);
+      return new LookupCacheEntry(db.getReturnRowMeta(), rows == null ? new ArrayList<>() : rows);
     } catch (Exception e) {
       throw new HopException(e);
     } finally {
-      if (db != null) {
-        db.disconnect();
-      }
+      db.disconnect();
     }
   }
 
-  private void putToDefaultCache(Database db, List<Object[]> rows) {
+  private void putToDefaultCache(IRowMeta rowMeta, List<Object[]> rows) {
     final int keysAmount = meta.getLookup().getKeyFields().size();
-    IRowMeta prototype = copyValueMetasFrom(db.getReturnRowMeta(), keysAmount);
+    IRowMeta prototype = copyValueMetasFrom(rowMeta, keysAmount);
 
     // Copy the data into 2 parts: key and value...
     //
@@ -570,13 +960,12 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return result;
   }
 
-  private void putToReadOnlyCache(Database db, List<Object[]> rows) {
+  private void putToReadOnlyCache(IRowMeta rowMeta, List<Object[]> rows) {
     ReadAllCache.Builder cacheBuilder = new ReadAllCache.Builder(data, rows.size());
 
     // all keys have the same row meta,
     // it is useless to re-create it each time
-    IRowMeta returnRowMeta = db.getReturnRowMeta();
-    cacheBuilder.setKeysMeta(returnRowMeta.clone());
+    cacheBuilder.setKeysMeta(rowMeta.clone());
 
     final int keysAmount = meta.getLookup().getKeyFields().size();
     // Copy the data into 2 parts: key and value...
@@ -661,12 +1050,22 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public void dispose() {
 
     if (data.db != null) {
+      if (data.batchStatement != null) {
+        try {
+          data.db.closePreparedStatement(data.batchStatement);
+        } catch (HopDatabaseException e) {
+          logError("Unable to close the batch lookup statement", e);
+        }
+        data.batchStatement = null;
+      }
       data.db.disconnect();
     }
 
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.cache = null;
+    LookupCacheRegistry.getInstance().release(data.sharedCacheEntry);
+    data.sharedCacheEntry = null;
     data.db = null;
 
     super.dispose();
@@ -17,10 +17,14 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup;
 
+import java.sql.PreparedStatement;
 import java.util.List;
+import java.util.Set;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.lookup.LookupCacheEntry;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -40,11 +44,54 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
   public boolean isCanceled;
   public boolean allEquals;
   public int[] conditions;
+
+  /**
+   * The index in the lookup row of the (first) value of every condition, -1 if the condition has
+   * no value such as IS NULL without a stream field. Null to assume one value per condition and two
+   * for BETWEEN.
+   */
+  public int[] lookupIndexes;
+
+  /** The index in the lookup row of the second value of every condition, -1 if it has none */
+  public int[] lookupIndexes2;
+
   public boolean hasDBCondition;
   public int[] returnValueTypes;
   public String[] returnTrimTypes;
   public List<Integer> trimIndexes;
 
+  /** True if the found rows are cached on the values of their key fields in the table */
+  public boolean cacheKeyValues;
+
+  /** The metadata of the key fields in the table, used as cache key */
+  public IRowMeta cacheKeyMeta;
+
+  /** True if the lookup query returns the values of the key fields before the return values */
+  public boolean lookupReturnsKeys;
+
+  /** True if the keys which are not in the cache are looked up in batches */
+  public boolean batchLookups;
+
+  public int batchSize;
+
+  /** The number of keys looked up with one query, a batch can take several queries */
+  public int keysPerQuery;
+
+  /** True once a batch lookup failed and its rows were looked up one by one */
+  public boolean batchLookupFailed;
+
+  /** The input rows waiting for the lookup of their batch */
+  public List<Object[]> batchRows;
+
+  /** The keys of the current batch which were not found in the table */
+  public Set<RowMetaAndData> batchMisses;
+
+  /** The IN-list query of {@link #keysPerQuery} keys */
+  public PreparedStatement batchStatement;
+
+  /** The table data shared with other transforms, released when the transform is disposed */
+  public LookupCacheEntry sharedCacheEntry;
+
   public DatabaseLookupData() {
     super();
 
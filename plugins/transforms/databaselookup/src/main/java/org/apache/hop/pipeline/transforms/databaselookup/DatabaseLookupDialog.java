@@ -31,6 +31,7 @@ import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.lookup.LookupCache;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.ui.core.PropsUi;
 import org.apache.hop.ui.core.database.dialog.DatabaseExplorerDialog;
@@ -71,6 +72,11 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
   private Label wlCachesize;
   private Text wCachesize;
 
+  private Label wlBatchSize;
+  private Text wBatchSize;
+
+  private MetaSelectionLine<LookupCache> wSharedCache;
+
   private TableView wKey;
 
   private TextVar wSchema;
@@ -288,12 +294,59 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
           }
         });
 
+    // Lookup batch size line
+    wlBatchSize = new Label(shell, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.LookupBatchSize.Label"));
+    wlBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.LookupBatchSize.Tooltip"));
+    PropsUi.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wCacheLoadAll, margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+    wBatchSize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.right = new FormAttachment(100, 0);
+    fdBatchSize.top = new FormAttachment(wCacheLoadAll, margin);
+    wBatchSize.setLayoutData(fdBatchSize);
+
+    // Shared lookup cache line
+    wSharedCache =
+        new MetaSelectionLine<>(
+            variables,
+            metadataProvider,
+            LookupCache.class,
+            shell,
+            SWT.SINGLE | SWT.LEFT | SWT.BORDER,
+            BaseMessages.getString(PKG, "DatabaseLookupDialog.SharedCache.Label"),
+            BaseMessages.getString(PKG, "DatabaseLookupDialog.SharedCache.Tooltip"));
+    PropsUi.setLook(wSharedCache);
+    wSharedCache.addModifyListener(lsMod);
+    FormData fdSharedCache = new FormData();
+    fdSharedCache.left = new FormAttachment(0, 0);
+    fdSharedCache.right = new FormAttachment(100, 0);
+    fdSharedCache.top = new FormAttachment(wBatchSize, margin);
+    wSharedCache.setLayoutData(fdSharedCache);
+    try {
+      wSharedCache.fillItems();
+    } catch (Exception e) {
+      new ErrorDialog(
+          shell,
+          BaseMessages.getString(PKG, "System.Dialog.Error.Title"),
+          BaseMessages.getString(PKG, "DatabaseLookupDialog.SharedCache.Error"),
+          e);
+    }
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.Keys.Label"));
     PropsUi.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wCacheLoadAll, margin);
+    fdlKey.top = new FormAttachment(wSharedCache, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -581,6 +634,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wlCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wCacheLoadAll.setEnabled(wCache.getSelection());
     wlCacheLoadAll.setEnabled(wCache.getSelection());
+    wBatchSize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wlBatchSize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
+    wSharedCache.setEnabled(wCache.getSelection() && wCacheLoadAll.getSelection());
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
   }
@@ -592,6 +648,8 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wCache.setSelection(input.isCached());
     wCachesize.setText("" + input.getCacheSize());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wBatchSize.setText("" + input.getLookupBatchSize());
+    wSharedCache.setText(Const.NVL(input.getSharedCacheName(), ""));
 
     Lookup lookup = input.getLookup();
 
@@ -655,6 +713,8 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCachesize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
+    input.setLookupBatchSize(Const.toInt(wBatchSize.getText(), 0));
+    input.setSharedCacheName(wSharedCache.getText());
 
     for (TableItem item : wKey.getNonEmptyItems()) {
       KeyField keyField = new KeyField();
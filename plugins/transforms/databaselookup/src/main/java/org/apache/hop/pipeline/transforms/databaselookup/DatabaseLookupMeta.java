@@ -95,6 +95,18 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** Look up the keys which are not in the cache this many at a time, in one query */
+  @HopMetadataProperty(
+      key = "lookup_batch_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.LookupBatchSize")
+  private int lookupBatchSize;
+
+  /** The name of the lookup cache to share the loaded table data in with other transforms */
+  @HopMetadataProperty(
+      key = "shared_cache",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.SharedCache")
+  private String sharedCacheName;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -106,6 +118,8 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.lookupBatchSize = m.lookupBatchSize;
+    this.sharedCacheName = m.sharedCacheName;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -506,6 +520,38 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.loadingAllDataInCache = loadingAllDataInCache;
   }
 
+  /**
+   * Gets lookupBatchSize
+   *
+   * @return value of lookupBatchSize
+   */
+  public int getLookupBatchSize() {
+    return lookupBatchSize;
+  }
+
+  /**
+   * @param lookupBatchSize The lookupBatchSize to set
+   */
+  public void setLookupBatchSize(int lookupBatchSize) {
+    this.lookupBatchSize = lookupBatchSize;
+  }
+
+  /**
+   * Gets sharedCacheName
+   *
+   * @return value of sharedCacheName
+   */
+  public String getSharedCacheName() {
+    return sharedCacheName;
+  }
+
+  /**
+   * @param sharedCacheName The sharedCacheName to set
+   */
+  public void setSharedCacheName(String sharedCacheName) {
+    this.sharedCacheName = sharedCacheName;
+  }
+
   /**
    * Gets lookup
    *
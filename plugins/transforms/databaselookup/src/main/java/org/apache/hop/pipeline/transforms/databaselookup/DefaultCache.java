@@ -28,7 +28,16 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 
-/** Old code, copied from {@linkplain DatabaseLookup} */
+/**
+ * Cache of the looked up rows, copied from {@linkplain DatabaseLookup}.
+ *
+ * <p>When all conditions are equalities the keys are looked up in a hash map. Otherwise the keys
+ * are the values of the key fields in the table and the conditions are evaluated on the keys which
+ * can possibly match. These are found with a {@link KeyIndex}: a hash on the fields compared with
+ * "=" and a sorted index on the first field compared with a range condition (&lt;, &lt;=, &gt;,
+ * &gt;=, BETWEEN). A date validity lookup for example only looks at the keys with the same
+ * business key whose start date is before the lookup date, nearest first.
+ */
 public class DefaultCache implements DatabaseLookupData.ICache {
 
   public static DefaultCache newCache(DatabaseLookupData data, int cacheSize) {
@@ -43,6 +52,17 @@ public class DefaultCache implements DatabaseLookupData.ICache {
   private final DatabaseLookupData data;
   private final LinkedHashMap<RowMetaAndData, TimedRow> map;
 
+  /** Index on the keys when not all conditions are equalities, null if there is none */
+  private KeyIndex index;
+
+  /** Whether the index can be used for the lookup values, null until the first lookup */
+  private Boolean indexUsable;
+
+  /** The index of the (first and second) lookup value of every condition, -1 if there is none */
+  private int[] lookupIndexes;
+
+  private int[] lookupIndexes2;
+
   DefaultCache(DatabaseLookupData data, int capacity) {
     this.data = data;
     map = new LinkedHashMap<>(capacity);
@@ -59,78 +79,126 @@ public class DefaultCache implements DatabaseLookupData.ICache {
       }
     } else { // special handling of conditions <,>, <> etc.
       if (!data.hasDBCondition) { // e.g. LIKE not handled by this routine, yet
-        // TODO: find an alternative way to look up the data based on the condition.
-        // Not all conditions are "=" so we are going to have to evaluate row by row
-        // A sorted list or index might be a good solution here...
+        // Not all conditions are "=" so we are going to have to evaluate row by row.
+        // The index narrows this down to the keys which can possibly match.
         //
-        for (RowMetaAndData key : map.keySet()) {
+        TimedRow found = null;
+        for (RowMetaAndData key : getCandidateKeys(lookupMeta, lookupRow)) {
           // Now verify that the key is matching our conditions...
           //
-          boolean match = true;
-          int lookupIndex = 0;
-          for (int i = 0; i < data.conditions.length && match; i++) {
-            IValueMeta cmpMeta = lookupMeta.getValueMeta(lookupIndex);
-            Object cmpData = lookupRow[lookupIndex];
-            IValueMeta keyMeta = key.getValueMeta(i);
-            Object keyData = key.getData()[i];
-
-            switch (data.conditions[i]) {
-              case DatabaseLookupMeta.CONDITION_EQ:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) == 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_NE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) != 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_LT:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) > 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_LE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) >= 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_GT:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) < 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_GE:
-                match = (cmpMeta.compare(cmpData, keyMeta, keyData) <= 0);
-                break;
-              case DatabaseLookupMeta.CONDITION_IS_NULL:
-                match = keyMeta.isNull(keyData);
-                break;
-              case DatabaseLookupMeta.CONDITION_IS_NOT_NULL:
-                match = !keyMeta.isNull(keyData);
-                break;
-              case DatabaseLookupMeta.CONDITION_BETWEEN:
-                // Between key >= cmp && key <= cmp2
-                IValueMeta cmpMeta2 = lookupMeta.getValueMeta(lookupIndex + 1);
-                Object cmpData2 = lookupRow[lookupIndex + 1];
-                match = (keyMeta.compare(keyData, cmpMeta, cmpData) >= 0);
-                if (match) {
-                  match = (keyMeta.compare(keyData, cmpMeta2, cmpData2) <= 0);
-                }
-                lookupIndex++;
-                break;
-                // TODO: add LIKE operator (think of changing the hasDBCondition logic then)
-              default:
-                match = false;
-                data.hasDBCondition =
-                    true; // avoid looping in here the next time, also safety when a new condition
-                // will be introduced
-                break;
-            }
-            lookupIndex++;
-          }
-          if (match) {
+          if (matches(key, lookupMeta, lookupRow)) {
             TimedRow timedRow = map.get(key);
             if (timedRow != null) {
-              return timedRow.getRow();
+              if (!data.cacheKeyValues) {
+                return timedRow.getRow();
+              }
+              if (found != null) {
+                // Multiple rows match: let the database pick one
+                return null;
+              }
+              found = timedRow;
             }
           }
         }
+        if (found != null) {
+          return found.getRow();
+        }
       }
     }
     return null;
   }
 
+  private Iterable<RowMetaAndData> getCandidateKeys(IRowMeta lookupMeta, Object[] lookupRow)
+      throws HopException {
+    if (index != null && indexUsable == null) {
+      indexUsable = index.isUsable(lookupMeta);
+    }
+    if (index == null || !indexUsable) {
+      return map.keySet();
+    }
+    return index.getCandidates(lookupRow);
+  }
+
+  /**
+   * Map the conditions to their values in the lookup row. Not every condition has a value: IS NULL
+   * and IS NOT NULL don't need a stream field.
+   */
+  private void initLookupIndexes() {
+    if (lookupIndexes != null) {
+      return;
+    }
+    if (data.lookupIndexes != null) {
+      lookupIndexes = data.lookupIndexes;
+      lookupIndexes2 = data.lookupIndexes2;
+      return;
+    }
+    lookupIndexes = new int[data.conditions.length];
+    lookupIndexes2 = new int[data.conditions.length];
+    int lookupIndex = 0;
+    for (int i = 0; i < data.conditions.length; i++) {
+      lookupIndexes[i] = lookupIndex++;
+      lookupIndexes2[i] =
+          data.conditions[i] == DatabaseLookupMeta.CONDITION_BETWEEN ? lookupIndex++ : -1;
+    }
+  }
+
+  private boolean matches(RowMetaAndData key, IRowMeta lookupMeta, Object[] lookupRow)
+      throws HopException {
+    initLookupIndexes();
+    boolean match = true;
+    for (int i = 0; i < data.conditions.length && match; i++) {
+      int lookupIndex = lookupIndexes[i];
+      IValueMeta cmpMeta = lookupIndex < 0 ? null : lookupMeta.getValueMeta(lookupIndex);
+      Object cmpData = lookupIndex < 0 ? null : lookupRow[lookupIndex];
+      IValueMeta keyMeta = key.getValueMeta(i);
+      Object keyData = key.getData()[i];
+
+      switch (data.conditions[i]) {
+        case DatabaseLookupMeta.CONDITION_EQ:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) == 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_NE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) != 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_LT:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) > 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_LE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) >= 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_GT:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) < 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_GE:
+          match = (cmpMeta.compare(cmpData, keyMeta, keyData) <= 0);
+          break;
+        case DatabaseLookupMeta.CONDITION_IS_NULL:
+          match = keyMeta.isNull(keyData);
+          break;
+        case DatabaseLookupMeta.CONDITION_IS_NOT_NULL:
+          match = !keyMeta.isNull(keyData);
+          break;
+        case DatabaseLookupMeta.CONDITION_BETWEEN:
+          // Between key >= cmp && key <= cmp2
+          IValueMeta cmpMeta2 = lookupMeta.getValueMeta(lookupIndexes2[i]);
+          Object cmpData2 = lookupRow[lookupIndexes2[i]];
+          match = (keyMeta.compare(keyData, cmpMeta, cmpData) >= 0);
+          if (match) {
+            match = (keyMeta.compare(keyData, cmpMeta2, cmpData2) <= 0);
+          }
+          break;
+          // TODO: add LIKE operator (think of changing the hasDBCondition logic then)
+        default:
+          match = false;
+          data.hasDBCondition =
+              true; // avoid looping in here the next time, also safety when a new condition
+          // will be introduced
+          break;
+      }
+    }
+    return match;
+  }
+
   @Override
   public void storeRowInCache(
       DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add) {
@@ -143,7 +211,15 @@ public class DefaultCache implements DatabaseLookupData.ICache {
     // * Additionally, if using the load all data feature, re-inserting would reverse the order
     // * specified in the transform.
     // */
-    map.put(rowMetaAndData, new TimedRow(add));
+    if (map.put(rowMetaAndData, new TimedRow(add)) == null && !data.allEquals) {
+      if (index == null) {
+        initLookupIndexes();
+        index = KeyIndex.create(data.conditions, lookupIndexes, lookupIndexes2, lookupMeta);
+      }
+      if (index != null) {
+        index.add(rowMetaAndData);
+      }
+    }
 
     // See if we have to limit the cache_size.
     // Sample 10% of the rows in the cache.
@@ -180,6 +256,9 @@ public class DefaultCache implements DatabaseLookupData.ICache {
 
           if (timedRow.getLogDate().compareTo(smallest) < 0) {
             map.remove(key);
+            if (index != null) {
+              index.remove(key);
+            }
           }
         }
       }
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+
+/**
+ * Index on the keys of a {@link DefaultCache} for lookups which don't only use equality
+ * conditions. The keys are grouped in buckets on the values of the fields compared with "=". Within
+ * a bucket the keys are sorted on the first field compared with a range condition (&lt;, &lt;=,
+ * &gt;, &gt;=, BETWEEN). A lookup hashes to one bucket and only visits the part of the sorted keys
+ * which satisfies the range condition, nearest to the lookup value first.
+ *
+ * <p>The index only narrows down the keys: the caller still evaluates all the conditions on the
+ * candidates. Fields are only indexed when the lookup value and the key are compared in the same
+ * way in the index as in the conditions: the same data type, normal storage and no case
+ * insensitive or collated strings.
+ */
+class KeyIndex {
+
+  private final int[] conditions;
+
+  /** The index of the (first) lookup value for every condition */
+  private final int[] lookupIndexes;
+
+  /** The index of the second lookup value for every condition, used for BETWEEN */
+  private final int[] lookupIndexes2;
+
+  private final int[] eqColumns;
+  private final IRowMeta eqMeta;
+  private final int rangeColumn;
+  private final IValueMeta rangeMeta;
+  private final Comparator<Object> rangeComparator;
+
+  private final Map<RowMetaAndData, NavigableMap<Object, List<RowMetaAndData>>> buckets;
+
+  private KeyIndex(
+      int[] conditions,
+      int[] lookupIndexes,
+      int[] lookupIndexes2,
+      int[] eqColumns,
+      int rangeColumn,
+      IRowMeta keyMeta) {
+    this.conditions = conditions;
+    this.lookupIndexes = lookupIndexes;
+    this.lookupIndexes2 = lookupIndexes2;
+    this.eqColumns = eqColumns;
+    this.rangeColumn = rangeColumn;
+    this.buckets = new HashMap<>();
+
+    eqMeta = new RowMeta();
+    for (int eqColumn : eqColumns) {
+      eqMeta.addValueMeta(keyMeta.getValueMeta(eqColumn));
+    }
+    if (rangeColumn >= 0) {
+      rangeMeta = keyMeta.getValueMeta(rangeColumn);
+      rangeComparator =
+          (value1, value2) -> {
+            try {
+              return rangeMeta.compare(value1, value2);
+            } catch (HopValueException e) {
+              throw new IllegalArgumentException(e);
+            }
+          };
+    } else {
+      rangeMeta = null;
+      rangeComparator = (value1, value2) -> 0;
+    }
+  }
+
+  /**
+   * Create an index for the given conditions.
+   *
+   * @param conditions The lookup conditions, see {@link DatabaseLookupMeta#conditionStrings}
+   * @param lookupIndexes The index of the (first) lookup value of every condition, -1 if the
+   *     condition has no value
+   * @param lookupIndexes2 The index of the second lookup value of every condition, -1 if the
+   *     condition has no second value
+   * @param keyMeta The metadata of the keys: one value per condition
+   * @return The index or null if there is no field to index
+   */
+  static KeyIndex create(
+      int[] conditions, int[] lookupIndexes, int[] lookupIndexes2, IRowMeta keyMeta) {
+    List<Integer> eqColumns = new ArrayList<>();
+    int rangeColumn = -1;
+    for (int i = 0; i < conditions.length && i < keyMeta.size(); i++) {
+      if (lookupIndexes[i] < 0
+          || (conditions[i] == DatabaseLookupMeta.CONDITION_BETWEEN && lookupIndexes2[i] < 0)
+          || !isIndexable(keyMeta.getValueMeta(i))) {
+        continue;
+      }
+      if (conditions[i] == DatabaseLookupMeta.CONDITION_EQ) {
+        eqColumns.add(i);
+      } else if (rangeColumn < 0 && isRangeCondition(conditions[i])) {
+        rangeColumn = i;
+      }
+    }
+    if (eqColumns.isEmpty() && rangeColumn < 0) {
+      return null;
+    }
+    return new KeyIndex(
+        conditions,
+        lookupIndexes,
+        lookupIndexes2,
+        eqColumns.stream().mapToInt(Integer::intValue).toArray(),
+        rangeColumn,
+        keyMeta);
+  }
+
+  private static boolean isRangeCondition(int condition) {
+    switch (condition) {
+      case DatabaseLookupMeta.CONDITION_LT,
+          DatabaseLookupMeta.CONDITION_LE,
+          DatabaseLookupMeta.CONDITION_GT,
+          DatabaseLookupMeta.CONDITION_GE,
+          DatabaseLookupMeta.CONDITION_BETWEEN:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isIndexable(IValueMeta valueMeta) {
+    if (valueMeta == null
+        || valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL
+        || valueMeta.isSortedDescending()) {
+      return false;
+    }
+    if (valueMeta.isString()) {
+      return !valueMeta.isCaseInsensitive()
+          && !valueMeta.isIgnoreWhitespace()
+          && valueMeta.isCollatorDisabled();
+    }
+    return true;
+  }
+
+  /**
+   * @param lookupMeta The metadata of the lookup values
+   * @return true if the lookup values are compared with the keys in the same way as in the index
+   */
+  boolean isUsable(IRowMeta lookupMeta) {
+    for (int i = 0; i < eqColumns.length; i++) {
+      if (!isCompatible(eqMeta.getValueMeta(i), lookupMeta, lookupIndexes[eqColumns[i]])) {
+        return false;
+      }
+    }
+    if (rangeColumn >= 0) {
+      if (!isCompatible(rangeMeta, lookupMeta, lookupIndexes[rangeColumn])) {
+        return false;
+      }
+      if (conditions[rangeColumn] == DatabaseLookupMeta.CONDITION_BETWEEN
+          && !isCompatible(rangeMeta, lookupMeta, lookupIndexes2[rangeColumn])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isCompatible(IValueMeta keyMeta, IRowMeta lookupMeta, int lookupIndex) {
+    IValueMeta cmpMeta = lookupMeta.getValueMeta(lookupIndex);
+    return cmpMeta != null && cmpMeta.getType() == keyMeta.getType() && isIndexable(cmpMeta);
+  }
+
+  private RowMetaAndData getBucketKey(Object[] row, boolean lookup) {
+    Object[] eqData = new Object[eqColumns.length];
+    for (int i = 0; i < eqColumns.length; i++) {
+      eqData[i] = row[lookup ? lookupIndexes[eqColumns[i]] : eqColumns[i]];
+    }
+    return new RowMetaAndData(eqMeta, eqData);
+  }
+
+  private Object getRangeValue(RowMetaAndData key) {
+    return rangeColumn < 0 ? null : key.getData()[rangeColumn];
+  }
+
+  /**
+   * Add a key to the index.
+   *
+   * @param key The key, one value per condition
+   */
+  void add(RowMetaAndData key) {
+    NavigableMap<Object, List<RowMetaAndData>> bucket =
+        buckets.computeIfAbsent(
+            getBucketKey(key.getData(), false), k -> new TreeMap<>(rangeComparator));
+    bucket.computeIfAbsent(getRangeValue(key), k -> new ArrayList<>(1)).add(key);
+  }
+
+  /**
+   * Remove a key from the index.
+   *
+   * @param key The key to remove
+   */
+  void remove(RowMetaAndData key) {
+    RowMetaAndData bucketKey = getBucketKey(key.getData(), false);
+    NavigableMap<Object, List<RowMetaAndData>> bucket = buckets.get(bucketKey);
+    if (bucket == null) {
+      return;
+    }
+    Object rangeValue = getRangeValue(key);
+    List<RowMetaAndData> keys = bucket.get(rangeValue);
+    if (keys != null) {
+      keys.removeIf(k -> k == key || k.equals(key));
+      if (keys.isEmpty()) {
+        bucket.remove(rangeValue);
+      }
+    }
+    if (bucket.isEmpty()) {
+      buckets.remove(bucketKey);
+    }
+  }
+
+  /**
+   * Get the keys which can match the lookup values, the ones nearest to the range value first.
+   *
+   * @param lookupRow The lookup values
+   * @return The candidate keys
+   * @throws HopValueException In case the lookup values can't be compared
+   */
+  Iterable<RowMetaAndData> getCandidates(Object[] lookupRow) throws HopValueException {
+    NavigableMap<Object, List<RowMetaAndData>> bucket =
+        buckets.get(getBucketKey(lookupRow, true));
+    if (bucket == null) {
+      return Collections.emptyList();
+    }
+    if (rangeColumn >= 0) {
+      bucket = getRange(bucket, lookupRow);
+    }
+    return flatten(bucket.values());
+  }
+
+  private NavigableMap<Object, List<RowMetaAndData>> getRange(
+      NavigableMap<Object, List<RowMetaAndData>> bucket, Object[] lookupRow)
+      throws HopValueException {
+    Object value = lookupRow[lookupIndexes[rangeColumn]];
+    switch (conditions[rangeColumn]) {
+      case DatabaseLookupMeta.CONDITION_LT:
+        return bucket.headMap(value, false).descendingMap();
+      case DatabaseLookupMeta.CONDITION_LE:
+        return bucket.headMap(value, true).descendingMap();
+      case DatabaseLookupMeta.CONDITION_GT:
+        return bucket.tailMap(value, false);
+      case DatabaseLookupMeta.CONDITION_GE:
+        return bucket.tailMap(value, true);
+      case DatabaseLookupMeta.CONDITION_BETWEEN:
+        Object value2 = lookupRow[lookupIndexes2[rangeColumn]];
+        if (rangeMeta.compare(value, value2) > 0) {
+          return Collections.emptyNavigableMap();
+        }
+        return bucket.subMap(value, true, value2, true);
+      default:
+        return bucket;
+    }
+  }
+
+  private static Iterable<RowMetaAndData> flatten(Collection<List<RowMetaAndData>> lists) {
+    if (lists.size() == 1) {
+      return lists.iterator().next();
+    }
+    return () -> lists.stream().flatMap(List::stream).iterator();
+  }
+}
@@ -21,7 +21,9 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -34,15 +36,20 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
@@ -373,6 +380,154 @@ public class DatabaseLookupUTest {
     return transform;
   }
 
+  @Test
+  public void looksUpKeysNotInCacheInBatches() throws Exception {
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    when(ps.executeQuery()).thenReturn(rs);
+
+    Database db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(dbMeta);
+    when(db.prepareSql(anyString())).thenReturn(ps);
+    when(db.getRow(rs)).thenReturn(new Object[] {1L, "one"}, new Object[] {2L, "two"}, null);
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    returnRowMeta.addValueMeta(new ValueMetaString("name"));
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setCached(true);
+    meta.setLookupBatchSize(10);
+    meta.getLookup().setTableName("VirtualTable");
+    meta.getLookup().getKeyFields().add(new KeyField(ID_FIELD, "", "=", ID_FIELD));
+    meta.getLookup().getReturnValues().add(new ReturnValue("name", "", "", "String", "none"));
+
+    DatabaseLookupData data = new DatabaseLookupData();
+    data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doNothing().when(transform).determineFieldsTypesQueryingDb();
+
+    RowMeta input = new RowMeta();
+    input.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    transform.setInputRowMeta(input);
+    doReturn(new Object[] {1L}, new Object[] {2L}, new Object[] {3L}, new Object[] {1L}, null)
+        .when(transform)
+        .getRow();
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              output.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(transform)
+        .putRow(any(IRowMeta.class), any(Object[].class));
+
+    assertTrue(transform.init());
+    while (transform.processRow()) {
+      // Process all rows
+    }
+
+    assertEquals(4, output.size());
+    assertEquals("one", output.get(0)[1]);
+    assertEquals("two", output.get(1)[1]);
+    assertNull(output.get(2)[1]);
+    assertEquals("one", output.get(3)[1]);
+
+    // One query for all the keys, no lookups row by row
+    verify(ps, times(1)).executeQuery();
+    verify(db, never()).getLookup(anyBoolean());
+    assertEquals(2, transform.getLinesInput());
+  }
+
+  @Test
+  public void splitsBigBatchesInSeveralQueries() throws Exception {
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    when(ps.executeQuery()).thenReturn(rs);
+
+    Database db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(dbMeta);
+    List<String> batchSql = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              batchSql.add(invocation.getArgument(0));
+              return ps;
+            })
+        .when(db)
+        .prepareSql(anyString());
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    returnRowMeta.addValueMeta(new ValueMetaString("name"));
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setCached(true);
+    meta.setLookupBatchSize(1500);
+    meta.getLookup().setTableName("VirtualTable");
+    meta.getLookup().getKeyFields().add(new KeyField(ID_FIELD, "", "=", ID_FIELD));
+    meta.getLookup().getReturnValues().add(new ReturnValue("name", "", "", "String", "none"));
+
+    DatabaseLookupData data = new DatabaseLookupData();
+    data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doNothing().when(transform).determineFieldsTypesQueryingDb();
+
+    RowMeta input = new RowMeta();
+    input.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    transform.setInputRowMeta(input);
+    long[] id = {0L};
+    doAnswer(invocation -> id[0] < 1001 ? new Object[] {++id[0]} : null)
+        .when(transform)
+        .getRow();
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              output.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(transform)
+        .putRow(any(IRowMeta.class), any(Object[].class));
+
+    assertTrue(transform.init());
+    while (transform.processRow()) {
+      // Process all rows
+    }
+
+    assertEquals(1001, output.size());
+
+    // The IN list holds at most 1000 keys: two queries for the 1001 keys of the batch
+    assertEquals(1, batchSql.size());
+    assertEquals(1000, batchSql.get(0).chars().filter(c -> c == '?').count());
+    verify(ps, times(2)).executeQuery();
+    verify(db, times(2000))
+        .setValue(any(PreparedStatement.class), any(IValueMeta.class), any(), anyInt());
+    verify(db, never()).getLookup(anyBoolean());
+  }
+
+  @Test
+  public void limitsKeysPerQuery() {
+    assertEquals(10, DatabaseLookup.getKeysPerQuery(10, 1));
+    assertEquals(1000, DatabaseLookup.getKeysPerQuery(5000, 1));
+    assertEquals(500, DatabaseLookup.getKeysPerQuery(5000, 4));
+    assertEquals(1, DatabaseLookup.getKeysPerQuery(5000, 3000));
+  }
+
   @Test
   public void createsReadDefaultCache_AndUsesOnlyNeededFieldsFromMeta() throws Exception {
     Database db = mock(Database.class);
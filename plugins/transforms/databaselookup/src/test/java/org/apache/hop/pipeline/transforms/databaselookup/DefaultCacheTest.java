@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Date;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultCacheTest {
+
+  private static final long DAY = 24L * 60 * 60 * 1000;
+
+  private DatabaseLookupData data;
+  private DatabaseLookupMeta meta;
+
+  @Before
+  public void setUp() {
+    data = new DatabaseLookupData();
+    data.allEquals = false;
+    meta = new DatabaseLookupMeta();
+    meta.setCacheSize(0);
+  }
+
+  private IRowMeta createKeyMeta() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyMeta.addValueMeta(new ValueMetaDate("date_from"));
+    keyMeta.addValueMeta(new ValueMetaDate("date_to"));
+    return keyMeta;
+  }
+
+  /** id = ? AND date_from <= ? AND date_to > ? */
+  private DefaultCache createValidityCache() {
+    data.conditions =
+        new int[] {
+          DatabaseLookupMeta.CONDITION_EQ,
+          DatabaseLookupMeta.CONDITION_LE,
+          DatabaseLookupMeta.CONDITION_GT
+        };
+    DefaultCache cache = DefaultCache.newCache(data, 0);
+    IRowMeta keyMeta = createKeyMeta();
+    for (long id = 0; id < 100; id++) {
+      for (int version = 0; version < 10; version++) {
+        cache.storeRowInCache(
+            meta,
+            keyMeta,
+            new Object[] {id, new Date(version * 10 * DAY), new Date((version + 1) * 10 * DAY)},
+            new Object[] {id * 100 + version});
+      }
+    }
+    return cache;
+  }
+
+  @Test
+  public void testValidityLookup() throws Exception {
+    DefaultCache cache = createValidityCache();
+    IRowMeta lookupMeta = createKeyMeta();
+
+    for (long id = 0; id < 100; id += 7) {
+      for (long day = 0; day < 100; day += 3) {
+        Date date = new Date(day * DAY);
+        Object[] found = cache.getRowFromCache(lookupMeta, new Object[] {id, date, date});
+        assertArrayEquals(
+            "id " + id + " on day " + day, new Object[] {id * 100 + day / 10}, found);
+      }
+    }
+  }
+
+  @Test
+  public void testValidityLookupNotFound() throws Exception {
+    DefaultCache cache = createValidityCache();
+    IRowMeta lookupMeta = createKeyMeta();
+
+    Date date = new Date(5 * DAY);
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {100L, date, date}));
+    Date late = new Date(100 * DAY);
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {1L, late, late}));
+    Date early = new Date(-1);
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {1L, early, early}));
+  }
+
+  @Test
+  public void testBetween() throws Exception {
+    data.conditions = new int[] {DatabaseLookupMeta.CONDITION_BETWEEN};
+    DefaultCache cache = DefaultCache.newCache(data, 0);
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("key"));
+    for (long key = 0; key < 1000; key += 10) {
+      cache.storeRowInCache(meta, keyMeta, new Object[] {key}, new Object[] {"row " + key});
+    }
+
+    IRowMeta lookupMeta = new RowMeta();
+    lookupMeta.addValueMeta(new ValueMetaInteger("low"));
+    lookupMeta.addValueMeta(new ValueMetaInteger("high"));
+    assertArrayEquals(
+        new Object[] {"row 500"}, cache.getRowFromCache(lookupMeta, new Object[] {495L, 505L}));
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {501L, 509L}));
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {505L, 495L}));
+  }
+
+  @Test
+  public void testMultipleCachedMatchesAreAMiss() throws Exception {
+    data.conditions = new int[] {DatabaseLookupMeta.CONDITION_BETWEEN};
+    data.cacheKeyValues = true;
+    DefaultCache cache = DefaultCache.newCache(data, 0);
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("key"));
+    cache.storeRowInCache(meta, keyMeta, new Object[] {10L}, new Object[] {"row 10"});
+    cache.storeRowInCache(meta, keyMeta, new Object[] {20L}, new Object[] {"row 20"});
+
+    IRowMeta lookupMeta = new RowMeta();
+    lookupMeta.addValueMeta(new ValueMetaInteger("low"));
+    lookupMeta.addValueMeta(new ValueMetaInteger("high"));
+    assertArrayEquals(
+        new Object[] {"row 10"}, cache.getRowFromCache(lookupMeta, new Object[] {5L, 15L}));
+
+    // The database decides what happens with a lookup matching more than one row
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {5L, 25L}));
+  }
+
+  /**
+   * id = ? AND deleted IS NULL AND valid_from <= ? AND code = ?: the IS NULL condition has no
+   * stream field, so it has no value in the lookup row.
+   */
+  @Test
+  public void testConditionWithoutLookupValue() throws Exception {
+    data.conditions =
+        new int[] {
+          DatabaseLookupMeta.CONDITION_EQ,
+          DatabaseLookupMeta.CONDITION_IS_NULL,
+          DatabaseLookupMeta.CONDITION_LE,
+          DatabaseLookupMeta.CONDITION_EQ
+        };
+    data.lookupIndexes = new int[] {0, -1, 1, 2};
+    data.lookupIndexes2 = new int[] {-1, -1, -1, -1};
+    data.cacheKeyValues = true;
+    DefaultCache cache = DefaultCache.newCache(data, 0);
+
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyMeta.addValueMeta(new ValueMetaDate("deleted"));
+    keyMeta.addValueMeta(new ValueMetaDate("valid_from"));
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    for (long id = 0; id < 10; id++) {
+      cache.storeRowInCache(
+          meta, keyMeta, new Object[] {id, null, new Date(10 * DAY), "a"}, new Object[] {id});
+      cache.storeRowInCache(
+          meta,
+          keyMeta,
+          new Object[] {id, new Date(DAY), new Date(5 * DAY), "a"},
+          new Object[] {-id});
+    }
+
+    IRowMeta lookupMeta = new RowMeta();
+    lookupMeta.addValueMeta(new ValueMetaInteger("id"));
+    lookupMeta.addValueMeta(new ValueMetaDate("date"));
+    lookupMeta.addValueMeta(new ValueMetaString("code"));
+    for (int i = 0; i < 2; i++) {
+      Date date = new Date(20 * DAY);
+      assertArrayEquals(
+          new Object[] {3L}, cache.getRowFromCache(lookupMeta, new Object[] {3L, date, "a"}));
+      assertNull(cache.getRowFromCache(lookupMeta, new Object[] {3L, date, "b"}));
+      assertNull(cache.getRowFromCache(lookupMeta, new Object[] {3L, new Date(7 * DAY), "a"}));
+    }
+  }
+
+  @Test
+  public void testIndexFollowsEviction() throws Exception {
+    meta.setCacheSize(10);
+    data.conditions =
+        new int[] {DatabaseLookupMeta.CONDITION_EQ, DatabaseLookupMeta.CONDITION_LE};
+    DefaultCache cache = DefaultCache.newCache(data, 10);
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyMeta.addValueMeta(new ValueMetaInteger("version"));
+
+    for (long version = 0; version < 100; version++) {
+      cache.storeRowInCache(
+          meta, keyMeta, new Object[] {1L, version}, new Object[] {"version " + version});
+      Object[] found = cache.getRowFromCache(keyMeta, new Object[] {1L, version});
+      assertArrayEquals(new Object[] {"version " + version}, found);
+    }
+  }
+
+  @Test
+  public void testIncompatibleLookupTypesScanAllKeys() throws Exception {
+    data.conditions =
+        new int[] {DatabaseLookupMeta.CONDITION_EQ, DatabaseLookupMeta.CONDITION_LT};
+    DefaultCache cache = DefaultCache.newCache(data, 0);
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    keyMeta.addValueMeta(new ValueMetaInteger("number"));
+    cache.storeRowInCache(meta, keyMeta, new Object[] {"a", 5L}, new Object[] {"found"});
+
+    IRowMeta lookupMeta = new RowMeta();
+    ValueMetaString caseInsensitive = new ValueMetaString("code");
+    caseInsensitive.setCaseInsensitive(true);
+    lookupMeta.addValueMeta(caseInsensitive);
+    lookupMeta.addValueMeta(new ValueMetaInteger("number"));
+
+    assertArrayEquals(
+        new Object[] {"found"}, cache.getRowFromCache(lookupMeta, new Object[] {"A", 6L}));
+    assertNull(cache.getRowFromCache(lookupMeta, new Object[] {"A", 5L}));
+  }
+}
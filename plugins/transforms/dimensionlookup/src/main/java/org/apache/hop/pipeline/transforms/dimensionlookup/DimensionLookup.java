@@ -24,6 +24,7 @@ import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookup
 import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.StartDateAlternative.NULL;
 import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.StartDateAlternative.SYSTEM_DATE;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -40,8 +41,10 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashMap;
+import org.apache.hop.core.hash.OffHeapStore;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.OffHeapRowList;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaBoolean;
@@ -49,6 +52,9 @@ import org.apache.hop.core.row.value.ValueMetaDate;
 import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.lookup.LookupCache;
+import org.apache.hop.lookup.LookupCacheEntry;
+import org.apache.hop.lookup.LookupCacheRegistry;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
@@ -311,31 +317,86 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
       sql += " FROM " + data.schemaTable;
 
+      // Off-heap the rows are read one by one, sorted by the database as much as possible.
+      // This way sorting the cache is usually a single pass to verify the order.
+      //
+      if (meta.isCacheOffHeap()) {
+        sql += " ORDER BY ";
+        for (DLKey key : f.getKeys()) {
+          sql += data.databaseMeta.quoteField(key.getLookup()) + ", ";
+        }
+        sql += data.databaseMeta.quoteField(f.getDate().getFrom());
+      }
+
       if (isDetailed()) {
         logDetailed(
             "Pre-loading cache by reading from database with: " + Const.CR + sql + Const.CR);
       }
 
-      List<Object[]> rows = data.db.getRows(sql, -1);
-      IRowMeta rowMeta = data.db.getReturnRowMeta();
-
-      data.preloadKeyIndexes = new int[f.getKeys().size()];
-      for (int i = 0; i < data.preloadKeyIndexes.length; i++) {
-        DLKey key = f.getKeys().get(i);
-        // The field in the table:
-        data.preloadKeyIndexes[i] = rowMeta.indexOfValue(key.getLookup());
+      List<Object[]> rows;
+      IRowMeta rowMeta;
+      boolean sorted = false;
+      String sharedCacheName = resolve(meta.getSharedCacheName());
+      if (StringUtils.isNotEmpty(sharedCacheName)) {
+        // Share the sorted rows with the other copies and later runs of this transform
+        //
+        LookupCache lookupCache =
+            metadataProvider.getSerializer(LookupCache.class).load(sharedCacheName);
+        if (lookupCache == null) {
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG, "DimensionLookup.Exception.SharedCacheNotFound", sharedCacheName));
+        }
+        final String query = sql;
+        String key =
+            data.databaseMeta.getName() + "\n" + data.databaseMeta.getURL(this) + "\n" + query;
+        data.sharedCacheEntry =
+            LookupCacheRegistry.getInstance()
+                .attach(lookupCache, this, key, () -> readSortedPreloadRows(query));
+        rows = data.sharedCacheEntry.getRows();
+        // The value metadata converts and compares values, every copy needs its own
+        //
+        rowMeta = data.sharedCacheEntry.getRowMeta().clone();
+        sorted = true;
+      } else if (meta.isCacheOffHeap()) {
+        ResultSet resultSet = data.db.openQuery(sql);
+        try {
+          rowMeta = data.db.getReturnRowMeta();
+          data.offHeapRows =
+              new OffHeapRowList(rowMeta, new OffHeapStore(resolve(meta.getOffHeapDirectory())));
+          Object[] row = data.db.getRow(resultSet);
+          while (row != null) {
+            data.offHeapRows.add(row);
+            row = data.db.getRow(resultSet);
+          }
+        } finally {
+          data.db.closeQuery(resultSet);
+        }
+        rows = data.offHeapRows;
+        if (isDetailed()) {
+          logDetailed(
+              "Pre-loaded "
+                  + rows.size()
+                  + " rows off-heap, using "
+                  + data.offHeapRows.getBytesUsed()
+                  + " bytes");
+        }
+      } else {
+        rows = data.db.getRows(sql, -1);
+        rowMeta = data.db.getReturnRowMeta();
       }
-      data.preloadFromDateIndex = rowMeta.indexOfValue(f.getDate().getFrom());
-      data.preloadToDateIndex = rowMeta.indexOfValue(f.getDate().getTo());
 
-      data.preloadCache =
-          new DimensionCache(
-              rowMeta, data.preloadKeyIndexes, data.preloadFromDateIndex, data.preloadToDateIndex);
+      data.preloadCache = createPreloadCache(rowMeta);
+      data.preloadKeyIndexes = data.preloadCache.getKeyIndexes();
+      data.preloadFromDateIndex = data.preloadCache.getFromDateIndex();
+      data.preloadToDateIndex = data.preloadCache.getToDateIndex();
       data.preloadCache.setRowCache(rows);
 
-      logDetailed("Sorting the cache rows...");
-      data.preloadCache.sortRows();
-      logDetailed("Sorting of cached rows finished.");
+      if (!sorted) {
+        logDetailed("Sorting the cache rows...");
+        data.preloadCache.sortRows();
+        logDetailed("Sorting of cached rows finished.");
+      }
 
       // Also see what indexes to take to populate the lookup row...
       // We only ever compare indexes and the lookup date in the cache, the rest is not needed...
@@ -360,6 +421,28 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  /** Create the cache of pre-loaded rows, without rows, for rows with the given layout */
+  private DimensionCache createPreloadCache(IRowMeta rowMeta) {
+    DLFields f = meta.getFields();
+    int[] keyIndexes = new int[f.getKeys().size()];
+    for (int i = 0; i < keyIndexes.length; i++) {
+      DLKey key = f.getKeys().get(i);
+      // The field in the table:
+      keyIndexes[i] = rowMeta.indexOfValue(key.getLookup());
+    }
+    int fromDateIndex = rowMeta.indexOfValue(f.getDate().getFrom());
+    int toDateIndex = rowMeta.indexOfValue(f.getDate().getTo());
+    return new DimensionCache(rowMeta, keyIndexes, fromDateIndex, toDateIndex);
+  }
+
+  /** Read and sort the rows to pre-load in a shared lookup cache */
+  private LookupCacheEntry readSortedPreloadRows(String sql) throws HopException {
+    List<Object[]> rows = new ArrayList<>(data.db.getRows(sql, -1));
+    IRowMeta rowMeta = data.db.getReturnRowMeta().clone();
+    rows.sort(createPreloadCache(rowMeta));
+    return new LookupCacheEntry(rowMeta, rows);
+  }
+
   private synchronized Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     DLFields f = meta.getFields();
 
@@ -1829,6 +1912,12 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
         data.db.disconnect();
       }
     }
+    if (data.offHeapRows != null) {
+      data.offHeapRows.close();
+      data.offHeapRows = null;
+    }
+    LookupCacheRegistry.getInstance().release(data.sharedCacheEntry);
+    data.sharedCacheEntry = null;
     super.dispose();
   }
 }
@@ -24,6 +24,8 @@ import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.hash.ByteArrayHashMap;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.OffHeapRowList;
+import org.apache.hop.lookup.LookupCacheEntry;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -81,6 +83,12 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
   public DimensionCache preloadCache;
 
+  /** The rows of the pre-loaded cache when they're kept off-heap */
+  public OffHeapRowList offHeapRows;
+
+  /** The entry of the shared lookup cache holding the pre-loaded rows, if any */
+  public LookupCacheEntry sharedCacheEntry;
+
   public List<Integer> preloadIndexes;
 
   public List<Integer> lazyList;
@@ -43,6 +43,7 @@ import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.lookup.LookupCache;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.ui.core.ConstUi;
@@ -101,6 +102,14 @@ public class DimensionLookupDialog extends BaseTransformDialog {
   private Label wlCacheSize;
   private Text wCacheSize;
 
+  private Label wlCacheOffHeap;
+  private Button wCacheOffHeap;
+
+  private Label wlOffHeapDirectory;
+  private TextVar wOffHeapDirectory;
+
+  private MetaSelectionLine<LookupCache> wSharedCache;
+
   private Combo wTk;
 
   private Label wlTkRename;
@@ -373,6 +382,72 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     fdCacheSize.right = new FormAttachment(100, 0);
     wCacheSize.setLayoutData(fdCacheSize);
 
+    // Keep the pre-loaded cache off-heap?
+    wlCacheOffHeap = new Label(mainComposite, SWT.RIGHT);
+    wlCacheOffHeap.setText(BaseMessages.getString(PKG, "DimensionLookupDialog.CacheOffHeap.Label"));
+    wlCacheOffHeap.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.CacheOffHeap.Tooltip"));
+    PropsUi.setLook(wlCacheOffHeap);
+    FormData fdlCacheOffHeap = new FormData();
+    fdlCacheOffHeap.left = new FormAttachment(0, 0);
+    fdlCacheOffHeap.right = new FormAttachment(middle, -margin);
+    fdlCacheOffHeap.top = new FormAttachment(wCacheSize, margin);
+    wlCacheOffHeap.setLayoutData(fdlCacheOffHeap);
+    wCacheOffHeap = new Button(mainComposite, SWT.CHECK);
+    PropsUi.setLook(wCacheOffHeap);
+    wCacheOffHeap.addListener(SWT.Selection, e -> setFlags());
+    FormData fdCacheOffHeap = new FormData();
+    fdCacheOffHeap.left = new FormAttachment(middle, 0);
+    fdCacheOffHeap.top = new FormAttachment(wlCacheOffHeap, 0, SWT.CENTER);
+    fdCacheOffHeap.right = new FormAttachment(100, 0);
+    wCacheOffHeap.setLayoutData(fdCacheOffHeap);
+
+    // The directory of the memory mapped file
+    wlOffHeapDirectory = new Label(mainComposite, SWT.RIGHT);
+    wlOffHeapDirectory.setText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.OffHeapDirectory.Label"));
+    wlOffHeapDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.OffHeapDirectory.Tooltip"));
+    PropsUi.setLook(wlOffHeapDirectory);
+    FormData fdlOffHeapDirectory = new FormData();
+    fdlOffHeapDirectory.left = new FormAttachment(0, 0);
+    fdlOffHeapDirectory.right = new FormAttachment(middle, -margin);
+    fdlOffHeapDirectory.top = new FormAttachment(wCacheOffHeap, margin);
+    wlOffHeapDirectory.setLayoutData(fdlOffHeapDirectory);
+    wOffHeapDirectory = new TextVar(variables, mainComposite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wOffHeapDirectory);
+    FormData fdOffHeapDirectory = new FormData();
+    fdOffHeapDirectory.left = new FormAttachment(middle, 0);
+    fdOffHeapDirectory.top = new FormAttachment(wCacheOffHeap, margin);
+    fdOffHeapDirectory.right = new FormAttachment(100, 0);
+    wOffHeapDirectory.setLayoutData(fdOffHeapDirectory);
+
+    wSharedCache =
+        new MetaSelectionLine<>(
+            variables,
+            metadataProvider,
+            LookupCache.class,
+            mainComposite,
+            SWT.SINGLE | SWT.LEFT | SWT.BORDER,
+            BaseMessages.getString(PKG, "DimensionLookupDialog.SharedCache.Label"),
+            BaseMessages.getString(PKG, "DimensionLookupDialog.SharedCache.Tooltip"));
+    PropsUi.setLook(wSharedCache);
+    wSharedCache.addModifyListener(lsMod);
+    FormData fdSharedCache = new FormData();
+    fdSharedCache.left = new FormAttachment(0, 0);
+    fdSharedCache.right = new FormAttachment(100, 0);
+    fdSharedCache.top = new FormAttachment(wOffHeapDirectory, margin);
+    wSharedCache.setLayoutData(fdSharedCache);
+    try {
+      wSharedCache.fillItems();
+    } catch (Exception e) {
+      new ErrorDialog(
+          shell,
+          BaseMessages.getString(PKG, "System.Dialog.Error.Title"),
+          BaseMessages.getString(PKG, "DimensionLookupDialog.SharedCache.Error"),
+          e);
+    }
+
     // THE BOTTOM BUTTONS
     wOk = new Button(mainComposite, SWT.PUSH);
     wOk.setText(BaseMessages.getString(PKG, "System.Button.OK"));
@@ -399,7 +474,7 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     FormData fdTabFolder = new FormData();
     fdTabFolder.left = new FormAttachment(0, 0);
     fdTabFolder.right = new FormAttachment(100, 0);
-    fdTabFolder.top = new FormAttachment(wCacheSize, margin);
+    fdTabFolder.top = new FormAttachment(wSharedCache, margin);
     fdTabFolder.bottom = new FormAttachment(wOk, -margin);
     wTabFolder.setLayoutData(fdTabFolder);
 
@@ -1049,6 +1124,13 @@ public class DimensionLookupDialog extends BaseTransformDialog {
 
     wlCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
     wCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
+
+    boolean preloading = wPreloadCache.isEnabled() && wPreloadCache.getSelection();
+    wlCacheOffHeap.setEnabled(preloading);
+    wCacheOffHeap.setEnabled(preloading);
+    wlOffHeapDirectory.setEnabled(preloading && wCacheOffHeap.getSelection());
+    wOffHeapDirectory.setEnabled(preloading && wCacheOffHeap.getSelection());
+    wSharedCache.setEnabled(preloading);
   }
 
   protected void setComboBoxes() {
@@ -1151,6 +1233,9 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     wUseCache.setSelection(input.getCacheSize() >= 0);
     wPreloadCache.setSelection(input.isPreloadingCache());
     wCacheSize.setText("" + input.getCacheSize());
+    wCacheOffHeap.setSelection(input.isCacheOffHeap());
+    wOffHeapDirectory.setText(Const.NVL(input.getOffHeapDirectory(), ""));
+    wSharedCache.setText(Const.NVL(input.getSharedCacheName(), ""));
 
     wMinYear.setText("" + input.getMinYear());
     wMaxYear.setText("" + input.getMaxYear());
@@ -1273,6 +1358,9 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     if (wPreloadCache.getSelection()) {
       in.setCacheSize(0);
     }
+    in.setCacheOffHeap(wCacheOffHeap.getSelection());
+    in.setOffHeapDirectory(wOffHeapDirectory.getText());
+    in.setSharedCacheName(wSharedCache.getText());
 
     in.setMinYear(Const.toInt(wMinYear.getText(), Const.MIN_YEAR));
     in.setMaxYear(Const.toInt(wMaxYear.getText(), Const.MAX_YEAR));
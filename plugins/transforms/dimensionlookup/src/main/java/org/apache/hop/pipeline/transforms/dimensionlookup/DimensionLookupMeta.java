@@ -163,6 +163,27 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
       injectionKeyDescription = "DimensionLookup.Injection.PRELOAD_CACHE")
   private boolean preloadingCache;
 
+  /** Keep the pre-loaded cache outside of the Java heap */
+  @HopMetadataProperty(
+      key = "cache_off_heap",
+      injectionKey = "CACHE_OFF_HEAP",
+      injectionKeyDescription = "DimensionLookup.Injection.CACHE_OFF_HEAP")
+  private boolean cacheOffHeap;
+
+  /** The directory of the memory mapped file of the off-heap cache, empty for direct memory */
+  @HopMetadataProperty(
+      key = "cache_off_heap_directory",
+      injectionKey = "CACHE_OFF_HEAP_DIRECTORY",
+      injectionKeyDescription = "DimensionLookup.Injection.CACHE_OFF_HEAP_DIRECTORY")
+  private String offHeapDirectory;
+
+  /** The name of the shared lookup cache to keep the pre-loaded rows in, empty for none */
+  @HopMetadataProperty(
+      key = "shared_cache",
+      injectionKey = "SHARED_CACHE",
+      injectionKeyDescription = "DimensionLookup.Injection.SHARED_CACHE")
+  private String sharedCacheName;
+
   public DimensionLookupMeta() {
     super();
     this.fields = new DLFields();
@@ -195,6 +216,9 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
     this.startDateAlternative = m.startDateAlternative;
     this.startDateFieldName = m.startDateFieldName;
     this.preloadingCache = m.preloadingCache;
+    this.cacheOffHeap = m.cacheOffHeap;
+    this.offHeapDirectory = m.offHeapDirectory;
+    this.sharedCacheName = m.sharedCacheName;
   }
 
   @Override
@@ -2048,4 +2072,58 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
   public void setPreloadingCache(boolean preloadingCache) {
     this.preloadingCache = preloadingCache;
   }
+
+  /**
+   * Gets cacheOffHeap
+   *
+   * @return value of cacheOffHeap
+   */
+  public boolean isCacheOffHeap() {
+    return cacheOffHeap;
+  }
+
+  /**
+   * Sets cacheOffHeap
+   *
+   * @param cacheOffHeap value of cacheOffHeap
+   */
+  public void setCacheOffHeap(boolean cacheOffHeap) {
+    this.cacheOffHeap = cacheOffHeap;
+  }
+
+  /**
+   * Gets offHeapDirectory
+   *
+   * @return value of offHeapDirectory
+   */
+  public String getOffHeapDirectory() {
+    return offHeapDirectory;
+  }
+
+  /**
+   * Sets offHeapDirectory
+   *
+   * @param offHeapDirectory value of offHeapDirectory
+   */
+  public void setOffHeapDirectory(String offHeapDirectory) {
+    this.offHeapDirectory = offHeapDirectory;
+  }
+
+  /**
+   * Gets sharedCacheName
+   *
+   * @return value of sharedCacheName
+   */
+  public String getSharedCacheName() {
+    return sharedCacheName;
+  }
+
+  /**
+   * Sets sharedCacheName
+   *
+   * @param sharedCacheName value of sharedCacheName
+   */
+  public void setSharedCacheName(String sharedCacheName) {
+    this.sharedCacheName = sharedCacheName;
+  }
 }
@@ -324,6 +324,11 @@ public class DynamicSqlRow extends BaseTransform<DynamicSqlRowMeta, DynamicSqlRo
 
         data.db.setQueryLimit(meta.getRowLimit());
 
+        // The same SQL is often generated for many rows: optionally keep the prepared statements
+        //
+        data.db.setStatementCacheSize(
+            Const.toInt(getVariable(Const.HOP_DATABASE_STATEMENT_CACHE_SIZE), 0));
+
         return true;
       } catch (HopException e) {
         logError(BaseMessages.getString(PKG, "DynamicSQLRow.Log.DatabaseError") + e.getMessage());
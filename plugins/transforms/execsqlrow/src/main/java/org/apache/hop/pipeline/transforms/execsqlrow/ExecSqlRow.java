@@ -247,6 +247,11 @@ public class ExecSqlRow extends BaseTransform<ExecSqlRowMeta, ExecSqlRowData> {
         if (meta.getCommitSize() >= 1) {
           data.db.setCommit(meta.getCommitSize());
         }
+
+        // Optionally re-use the prepared statements of SQL which is executed for many rows
+        //
+        data.db.setStatementCacheSize(
+            Const.toInt(getVariable(Const.HOP_DATABASE_STATEMENT_CACHE_SIZE), 0));
         return true;
       } catch (HopException e) {
         logError(BaseMessages.getString(PKG, "ExecSqlRow.Log.ErrorOccurred") + e.getMessage());
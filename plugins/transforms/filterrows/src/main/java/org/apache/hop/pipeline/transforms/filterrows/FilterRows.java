@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.filterrows;
 import java.util.List;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.ColumnarRowBatch;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -61,10 +62,27 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
     }
   }
 
+  private synchronized boolean[] keepRows(ColumnarRowBatch batch) throws HopException {
+    try {
+      return meta.getCondition().evaluate(batch);
+    } catch (Exception e) {
+      // Evaluate row by row to report the row causing the problem
+      //
+      boolean[] keep = new boolean[batch.size()];
+      for (int i = 0; i < batch.size(); i++) {
+        keep[i] = keepRow(batch.getRowMeta(), batch.getRow(i));
+      }
+      return keep;
+    }
+  }
+
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) {
+    // Get the next usable rows from input rowset(s), simple conditions are evaluated per column
+    //
+    long linesBefore = getLinesRead();
+    ColumnarRowBatch batch = getRowBatch(FilterRowsData.ROW_BATCH_SIZE);
+    if (batch == null) {
       setOutputDone();
       return false;
     }
@@ -118,44 +136,48 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
+    boolean[] keepRows = keepRows(batch); // Keep these rows?
     if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
-      }
+      putRows(data.outputRowMeta, batch.getRows(keepRows)); // copy rows to output rowset(s)
     } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (isRowLevel()) {
-            logRowlevel(
-                "Sending row to true  :"
-                    + data.trueTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
-          }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
-        }
-      } else {
-        if (data.falseRowSet != null) {
-          if (isRowLevel()) {
-            logRowlevel(
-                "Sending row to false :"
-                    + data.falseTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
-          }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
-        }
+      for (int i = 0; i < batch.size(); i++) {
+        sendRowToTarget(batch.getRow(i), keepRows[i]);
       }
     }
 
-    if (checkFeedback(getLinesRead()) && isBasic()) {
+    if (checkFeedback(linesBefore, getLinesRead()) && isBasic()) {
       logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
     }
 
     return true;
   }
 
+  private void sendRowToTarget(Object[] r, boolean keep) throws HopException {
+    if (keep) {
+      if (data.trueRowSet != null) {
+        if (isRowLevel()) {
+          logRowlevel(
+              "Sending row to true  :"
+                  + data.trueTransformName
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
+        putRowTo(data.outputRowMeta, r, data.trueRowSet);
+      }
+    } else {
+      if (data.falseRowSet != null) {
+        if (isRowLevel()) {
+          logRowlevel(
+              "Sending row to false :"
+                  + data.falseTransformName
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
+        putRowTo(data.outputRowMeta, r, data.falseRowSet);
+      }
+    }
+  }
+
   @Override
   public boolean init() {
 
@@ -25,6 +25,9 @@ import org.apache.hop.pipeline.transform.ITransformData;
 @SuppressWarnings("java:S1104")
 public class FilterRowsData extends BaseTransformData implements ITransformData {
 
+  /** The maximum number of rows which are read and evaluated together */
+  public static final int ROW_BATCH_SIZE = 500;
+
   public IRowMeta outputRowMeta;
   public IRowSet trueRowSet;
   public IRowSet falseRowSet;
@@ -308,6 +308,11 @@ public class FilterRowsMeta extends BaseTransformMeta<FilterRows, FilterRowsData
     return true;
   }
 
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
+
   /**
    * Get non-existing referenced input fields
    *
@@ -44,6 +44,7 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.StreamingJsonReader;
 
 /**
  * Read Json files, parse them and convert them to rows and writes these to one or more output
@@ -255,16 +256,41 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
   }
 
   private void parseNextInputToRowSet(InputStream input) throws HopException {
+    // A streaming reader keeps reading the input while its rows are retrieved
+    //
+    data.readerInput = input;
     try {
       data.readerRowSet = data.reader.parse(input);
     } catch (HopException ke) {
+      closeReaderInput();
       logInputError(ke);
       throw new JsonInputException(ke);
     } catch (Exception e) {
+      closeReaderInput();
       logInputError(e);
       throw new JsonInputException(e);
-    } finally {
-      closeQuietly(input);
+    }
+  }
+
+  private Object[] getNextReaderRow() throws HopException {
+    try {
+      return data.readerRowSet.getRow();
+    } catch (StreamingJsonReader.StreamingException e) {
+      closeReaderInput();
+      logInputError(e.getJsonInputException());
+      throw e.getJsonInputException();
+    }
+  }
+
+  private void closeReaderInput() {
+    if (data.readerInput != null) {
+      try {
+        data.readerInput.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "JsonInput.Log.UnexpectedError", e.toString()), e);
+        incrementErrors();
+      }
+      data.readerInput = null;
     }
   }
 
@@ -328,19 +354,14 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       return null;
     }
     Object[] rawReaderRow = null;
-    while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
+    while ((rawReaderRow = getNextReaderRow()) == null) {
+      closeReaderInput();
       if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
-        try (InputStream nextIn = data.inputs.next()) {
-
-          if (nextIn != null) {
-            parseNextInputToRowSet(nextIn);
-          } else {
-            parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
-          }
-
-        } catch (IOException e) {
-          logError(BaseMessages.getString(PKG, "JsonInput.Log.UnexpectedError", e.toString()), e);
-          incrementErrors();
+        InputStream nextIn = data.inputs.next();
+        if (nextIn != null) {
+          parseNextInputToRowSet(nextIn);
+        } else {
+          parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
         }
       } else {
         if (isDetailed()) {
@@ -454,7 +475,13 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    if (meta.isStreaming()) {
+      data.reader =
+          new StreamingJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    } else {
+      data.reader =
+          new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    }
     data.reader.setIgnoreMissingPath(meta.isIgnoreMissingPath());
   }
 
@@ -463,6 +490,7 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     if (data.file != null) {
       closeQuietly(data.file);
     }
+    closeReaderInput();
     data.inputs = null;
     data.reader = null;
     data.readerRowSet = null;
@@ -50,6 +50,10 @@ public class JsonInputData extends BaseFileInputTransformData implements ITransf
   public Iterator<InputStream> inputs;
   public IJsonReader reader;
   public IRowSet readerRowSet;
+
+  /** The input of the reader row set, open until all its rows are read */
+  public InputStream readerInput;
+
   public BitSet repeatedFields;
 
   public JsonInputData() {
@@ -253,6 +253,10 @@ public class JsonInputMeta
 
   private boolean defaultPathLeafToNull;
 
+  /** Flag : read the input as a stream of tokens for the paths which allow it */
+  @Injection(name = "STREAMING")
+  private boolean streaming;
+
   public JsonInputMeta() {
     additionalOutputFields = new AdditionalFileOutputFields();
     inputFiles = new InputFiles();
@@ -277,6 +281,22 @@ public class JsonInputMeta
     this.defaultPathLeafToNull = defaultPathLeafToNull;
   }
 
+  /**
+   * Gets streaming
+   *
+   * @return value of streaming
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * @param streaming The streaming to set
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   /**
    * @return Returns the shortFileFieldName.
    */
@@ -617,6 +637,7 @@ public class JsonInputMeta
     retval.append("    " + XmlHandler.addTagValue("ignoreMissingPath", ignoreMissingPath));
     retval.append(
         "    " + XmlHandler.addTagValue(CONST_DEFAULT_PATH_LEAF_TO_NULL, defaultPathLeafToNull));
+    retval.append("    " + XmlHandler.addTagValue("streaming", streaming));
     retval.append("    ").append(XmlHandler.addTagValue("rownum_field", rowNumberField));
 
     retval.append("    <file>").append(Const.CR);
@@ -690,6 +711,7 @@ public class JsonInputMeta
       ignoreMissingPath =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "ignoreMissingPath"));
       defaultPathLeafToNull = getDefaultPathLeafToNull(transformNode);
+      streaming = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "streaming"));
       doNotFailIfNoFile =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "doNotFailIfNoFile"));
       includeRowNumber = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "rownum"));
@@ -780,6 +802,7 @@ public class JsonInputMeta
     isIgnoreEmptyFile = false;
     ignoreMissingPath = true;
     defaultPathLeafToNull = true;
+    streaming = false;
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
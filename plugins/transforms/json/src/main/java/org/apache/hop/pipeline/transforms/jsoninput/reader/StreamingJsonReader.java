@@ -0,0 +1,460 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.minidev.json.JSONArray;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
+
+/**
+ * Reads the input as a stream of tokens instead of building the whole document in memory first.
+ * This works when all paths share the same prefix of names and wildcards up to their last wildcard,
+ * for example $.a.b[*].c and $.a.b[*].d.e or $.a.*.c. Every element matching the prefix is read on
+ * its own and becomes a row with the values of the rest of the paths, which can only contain names
+ * and indexes. Paths without a wildcard give a row per document, which also allows reading JSON
+ * lines. Other paths are read by the {@link FastJsonReader}.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class;
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final ILogChannel log;
+  private final boolean defaultPathLeafToNull;
+  private final FastJsonReader treeReader;
+
+  private boolean ignoreMissingPath;
+  private JsonInputField[] fields;
+
+  /** The path to the elements which become rows, or null if the paths can't be streamed */
+  private List<Segment> rowPath;
+
+  /** The path to the value of every field in an element */
+  private List<List<Segment>> valuePaths;
+
+  public StreamingJsonReader(
+      JsonInputField[] fields, boolean defaultPathLeafToNull, ILogChannel log)
+      throws HopException {
+    this.log = log;
+    this.defaultPathLeafToNull = defaultPathLeafToNull;
+    this.treeReader = new FastJsonReader(fields, defaultPathLeafToNull, log);
+    setFields(fields);
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    treeReader.setFields(fields);
+    this.fields = fields;
+    compileStreamingPaths();
+    if (!isStreaming() && log.isDetailed()) {
+      log.logDetailed(BaseMessages.getString(PKG, "JsonReader.Log.NotStreaming"));
+    }
+  }
+
+  /**
+   * @return true if the input is read as a stream, false if the tree reader is used for these paths
+   */
+  public boolean isStreaming() {
+    return rowPath != null;
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+    treeReader.setIgnoreMissingPath(value);
+  }
+
+  /**
+   * The rows are read from the input while they are retrieved from the row set, so the input needs
+   * to stay open until the row set returns no more rows.
+   */
+  @Override
+  public IRowSet parse(InputStream in) throws HopException {
+    if (!isStreaming()) {
+      return treeReader.parse(in);
+    }
+    try {
+      return new StreamingRowSet(JSON_FACTORY.createParser(in));
+    } catch (IOException e) {
+      throw new JsonInputException(e);
+    }
+  }
+
+  private void compileStreamingPaths() {
+    rowPath = null;
+    valuePaths = null;
+    if (!defaultPathLeafToNull || fields.length == 0) {
+      return;
+    }
+
+    List<Segment> prefix = null;
+    List<List<Segment>> suffixes = new ArrayList<>();
+    for (JsonInputField field : fields) {
+      List<Segment> segments = parsePath(field.getPath());
+      if (segments == null) {
+        return;
+      }
+      int lastWildcard = -1;
+      for (int i = 0; i < segments.size(); i++) {
+        if (segments.get(i).isWildcard()) {
+          lastWildcard = i;
+        }
+      }
+      List<Segment> fieldPrefix = segments.subList(0, lastWildcard + 1);
+      if (fieldPrefix.stream().anyMatch(Segment::isIndex)) {
+        return;
+      }
+      if (prefix == null) {
+        prefix = fieldPrefix;
+      } else if (!prefix.equals(fieldPrefix)) {
+        return;
+      }
+      suffixes.add(segments.subList(lastWildcard + 1, segments.size()));
+    }
+    rowPath = prefix;
+    valuePaths = suffixes;
+  }
+
+  /**
+   * Split a path in names, indexes and wildcards.
+   *
+   * @param path The JSON path
+   * @return The segments of the path or null if the path uses anything else
+   */
+  static List<Segment> parsePath(String path) {
+    if (path == null || !path.trim().startsWith("$")) {
+      return null;
+    }
+    String p = path.trim();
+    List<Segment> segments = new ArrayList<>();
+    int i = 1;
+    while (i < p.length()) {
+      char c = p.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (end < p.length() && p.charAt(end) != '.' && p.charAt(end) != '[') {
+          end++;
+        }
+        String name = p.substring(i + 1, end);
+        // Deep scans and functions need the whole document
+        //
+        if (name.isEmpty() || name.contains("(")) {
+          return null;
+        }
+        segments.add(new Segment(name.equals("*") ? null : name, -1));
+        i = end;
+      } else if (c == '[') {
+        int end = p.indexOf(']', i);
+        if (end < 0) {
+          return null;
+        }
+        String inner = p.substring(i + 1, end).trim();
+        if (inner.equals("*")) {
+          segments.add(new Segment(null, -1));
+        } else if (inner.matches("\\d+")) {
+          segments.add(new Segment(null, Integer.parseInt(inner)));
+        } else if (isQuotedName(inner)) {
+          segments.add(new Segment(inner.substring(1, inner.length() - 1), -1));
+        } else {
+          return null;
+        }
+        i = end + 1;
+      } else {
+        return null;
+      }
+    }
+    return segments;
+  }
+
+  private static boolean isQuotedName(String s) {
+    if (s.length() < 2) {
+      return false;
+    }
+    char quote = s.charAt(0);
+    return (quote == '\'' || quote == '"')
+        && s.charAt(s.length() - 1) == quote
+        && s.indexOf(quote, 1) == s.length() - 1;
+  }
+
+  /**
+   * Read the value the parser is at, in the same types as the tree reader: maps for objects and
+   * JSON arrays for arrays.
+   */
+  private static Object readValue(JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case START_OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          map.put(name, readValue(parser));
+        }
+        return map;
+      case START_ARRAY:
+        JSONArray array = new JSONArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          array.add(readValue(parser));
+        }
+        return array;
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getNumberValue();
+      case VALUE_NUMBER_FLOAT:
+        // Like json-smart, only very long numbers are kept as big decimals
+        //
+        return parser.getTextLength() > 18 ? parser.getDecimalValue() : parser.getDoubleValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        return null;
+    }
+  }
+
+  private static Object getValue(Object element, List<Segment> valuePath) {
+    Object value = element;
+    for (Segment segment : valuePath) {
+      if (segment.isIndex() && value instanceof List<?> list && segment.index < list.size()) {
+        value = list.get(segment.index);
+      } else if (segment.name != null && value instanceof Map<?, ?> map) {
+        value = map.get(segment.name);
+      } else {
+        return null;
+      }
+    }
+    return value;
+  }
+
+  /** An error reading the input while the rows are retrieved */
+  public static class StreamingException extends RuntimeException {
+    private final JsonInputException jsonInputException;
+
+    public StreamingException(JsonInputException jsonInputException) {
+      super(jsonInputException.getMessage(), jsonInputException);
+      this.jsonInputException = jsonInputException;
+    }
+
+    /**
+     * Gets jsonInputException
+     *
+     * @return value of jsonInputException
+     */
+    public JsonInputException getJsonInputException() {
+      return jsonInputException;
+    }
+  }
+
+  /** A name (index -1), an index (name null) or a wildcard (both unset) in a path */
+  static final class Segment {
+    private final String name;
+    private final int index;
+
+    Segment(String name, int index) {
+      this.name = name;
+      this.index = index;
+    }
+
+    boolean isWildcard() {
+      return name == null && index < 0;
+    }
+
+    boolean isIndex() {
+      return index >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Segment)) {
+        return false;
+      }
+      Segment segment = (Segment) o;
+      return index == segment.index && Objects.equals(name, segment.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, index);
+    }
+  }
+
+  /** A container on the row path the parser is in */
+  private static final class Frame {
+    private final int depth;
+    private final boolean object;
+
+    Frame(int depth, boolean object) {
+      this.depth = depth;
+      this.object = object;
+    }
+  }
+
+  private class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private final boolean[] found = new boolean[fields.length];
+
+    /** Skip rows with only null values unless HOP_JSON_INPUT_INCLUDE_NULLS is "Y" (default) */
+    private final boolean cullNulls =
+        !"Y"
+            .equalsIgnoreCase(
+                System.getProperty(
+                    Const.HOP_JSON_INPUT_INCLUDE_NULLS, Const.JSON_INPUT_INCLUDE_NULLS));
+
+    private String fieldName;
+    private long rows;
+    private boolean done;
+
+    StreamingRowSet(JsonParser parser) {
+      super();
+      this.parser = parser;
+    }
+
+    @Override
+    public Object[] getRow() {
+      if (done) {
+        return null;
+      }
+      try {
+        Object[] row = readRow();
+        while (row != null && cullNulls && FastJsonReader.isAllNull(List.of(row))) {
+          row = readRow();
+        }
+        if (row != null) {
+          rows++;
+          return row;
+        }
+      } catch (IOException e) {
+        done = true;
+        throw new StreamingException(new JsonInputException(e));
+      }
+      return finish();
+    }
+
+    private Object[] readRow() throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        if (token == JsonToken.FIELD_NAME) {
+          fieldName = parser.getCurrentName();
+          continue;
+        }
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          stack.pop();
+          continue;
+        }
+        int depth = getDepth();
+        if (depth < 0) {
+          parser.skipChildren();
+        } else if (depth == rowPath.size()) {
+          return toRow(readValue(parser));
+        } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+          stack.push(new Frame(depth, token == JsonToken.START_OBJECT));
+        }
+      }
+      return null;
+    }
+
+    /**
+     * @return The number of segments of the row path matched by the value the parser is at, or -1
+     *     if it isn't on the row path
+     */
+    private int getDepth() {
+      if (stack.isEmpty()) {
+        // Every document in the input starts at the root
+        //
+        return 0;
+      }
+      Frame parent = stack.peek();
+      Segment segment = rowPath.get(parent.depth);
+      boolean matches =
+          segment.isWildcard() || (parent.object && segment.name.equals(fieldName));
+      return matches ? parent.depth + 1 : -1;
+    }
+
+    private Object[] toRow(Object element) {
+      Object[] row = new Object[fields.length];
+      for (int i = 0; i < row.length; i++) {
+        row[i] = getValue(element, valuePaths.get(i));
+        found[i] |= row[i] != null;
+      }
+      return row;
+    }
+
+    /** The end of the input: check the paths and return a single empty row if nothing was found */
+    private Object[] finish() {
+      done = true;
+      if (log.isDetailed()) {
+        log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", rows));
+      }
+      if (!ignoreMissingPath) {
+        for (int i = 0; i < fields.length; i++) {
+          if (!found[i]) {
+            throw new StreamingException(
+                new JsonInputException(
+                    BaseMessages.getString(
+                        PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath())));
+          }
+        }
+      }
+      return rows == 0 ? new Object[fields.length] : null;
+    }
+
+    @Override
+    public int size() {
+      return done ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done;
+    }
+
+    @Override
+    public void clear() {
+      done = true;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.junit.Test;
+
+public class StreamingJsonReaderTest {
+  private static final String BOOKS =
+      "{\"store\": {\"name\": \"shop\", \"book\": ["
+          + "{\"title\": \"A\", \"author\": {\"name\": \"X\"}, \"tags\": [\"t1\", \"t2\"]},"
+          + "{\"title\": \"B\", \"price\": 8.95, \"ignored\": {\"book\": [1, 2]}},"
+          + "{\"title\": null}"
+          + "]}}";
+
+  private final ILogChannel logMock = mock(ILogChannel.class);
+
+  private StreamingJsonReader createReader(String... paths) throws HopException {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    StreamingJsonReader reader = new StreamingJsonReader(fields, true, logMock);
+    reader.setIgnoreMissingPath(true);
+    return reader;
+  }
+
+  private static List<Object[]> readAll(IRowSet rowSet) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRow()) != null) {
+      rows.add(row);
+    }
+    assertTrue(rowSet.isDone());
+    return rows;
+  }
+
+  private static IRowSet parse(StreamingJsonReader reader, String json) throws HopException {
+    return reader.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testRowPerArrayElement() throws HopException {
+    StreamingJsonReader reader =
+        createReader(
+            "$.store.book[*].title",
+            "$.store.book[*].author.name",
+            "$.store.book[*].price",
+            "$.store.book[*]['tags'][1]");
+    assertTrue(reader.isStreaming());
+
+    List<Object[]> rows = readAll(parse(reader, BOOKS));
+
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {"A", "X", null, "t2"}, rows.get(0));
+    assertArrayEquals(new Object[] {"B", null, 8.95, null}, rows.get(1));
+    assertArrayEquals(new Object[4], rows.get(2));
+  }
+
+  @Test
+  public void testObjectValuesAreMaps() throws HopException {
+    StreamingJsonReader reader = createReader("$.store.book[*].author", "$.store.book.*.tags");
+
+    List<Object[]> rows = readAll(parse(reader, BOOKS));
+
+    assertEquals(3, rows.size());
+    assertEquals(Map.of("name", "X"), rows.get(0)[0]);
+    assertEquals(List.of("t1", "t2"), rows.get(0)[1]);
+  }
+
+  @Test
+  public void testJsonLines() throws HopException {
+    StreamingJsonReader reader = createReader("$.id", "$.name");
+
+    List<Object[]> rows = readAll(parse(reader, "{\"id\": 1, \"name\": \"a\"}\n{\"id\": 2}\n"));
+
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {1, "a"}, rows.get(0));
+    assertArrayEquals(new Object[] {2, null}, rows.get(1));
+  }
+
+  @Test
+  public void testNoMatchGivesEmptyRow() throws HopException {
+    StreamingJsonReader reader = createReader("$.other[*].id");
+
+    List<Object[]> rows = readAll(parse(reader, BOOKS));
+
+    assertEquals(1, rows.size());
+    assertArrayEquals(new Object[] {null}, rows.get(0));
+  }
+
+  @Test
+  public void testMissingPathFails() throws HopException {
+    StreamingJsonReader reader = createReader("$.store.book[*].title", "$.store.book[*].isbn");
+    reader.setIgnoreMissingPath(false);
+    IRowSet rowSet = parse(reader, BOOKS);
+    try {
+      readAll(rowSet);
+      fail("Missing path isbn not detected");
+    } catch (StreamingJsonReader.StreamingException e) {
+      assertTrue(e.getMessage().contains("$.store.book[*].isbn"));
+    }
+  }
+
+  @Test
+  public void testInvalidJsonFails() throws HopException {
+    StreamingJsonReader reader = createReader("$.a[*].b");
+    IRowSet rowSet = parse(reader, "{\"a\": [{\"b\": 1}, {\"b\": ");
+    assertArrayEquals(new Object[] {1}, rowSet.getRow());
+    try {
+      rowSet.getRow();
+      fail("Invalid JSON not detected");
+    } catch (StreamingJsonReader.StreamingException e) {
+      assertTrue(rowSet.isDone());
+      assertNull(rowSet.getRow());
+    }
+  }
+
+  @Test
+  public void testPathsWhichCanNotBeStreamed() throws HopException {
+    assertFalse(createReader("$..title").isStreaming());
+    assertFalse(createReader("$.store.book[?(@.price > 10)].title").isStreaming());
+    assertFalse(createReader("$.store.book[*].title", "$.store.name").isStreaming());
+    assertFalse(createReader("$.store.book[*].tags[*]", "$.store.book[*].title").isStreaming());
+    assertFalse(createReader("$.store.book[0].tags[*]").isStreaming());
+    assertFalse(createReader("$.store.book.length()").isStreaming());
+
+    // The tree reader is used instead
+    StreamingJsonReader reader = createReader("$..title");
+    List<Object[]> rows = readAll(parse(reader, BOOKS));
+    assertEquals("A", rows.get(0)[0]);
+    assertEquals("B", rows.get(1)[0]);
+  }
+}
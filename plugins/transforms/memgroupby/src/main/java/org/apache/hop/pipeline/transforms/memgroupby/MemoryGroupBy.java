@@ -22,6 +22,12 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Percentile;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +36,7 @@ import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
@@ -43,17 +50,24 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.SpillPartition;
 
 /** Groups information based on aggregation rules. (sum, count, ...) */
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class;
 
+  /** The number of temporary files the groups which don't fit in memory are spread over */
+  static final int NR_SPILL_PARTITIONS = 16;
+
+  private static final int SPILL_PARTITION_BITS = 4;
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
@@ -186,29 +200,31 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   }
 
   private void handleLastOfGroup() throws HopException {
+    boolean noGroups = data.map.isEmpty();
+
     // Dump the content of the map...
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    outputGroups();
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+    // Then aggregate the groups which didn't fit in memory, one partition at a time.
+    // Partitions which still don't fit are split up further.
+    //
+    if (data.spillToDisk) {
+      closeSpillPartitions();
+      SpillPartition partition;
+      while (!isStopped() && (partition = data.pendingPartitions.poll()) != null) {
+        aggregateSpillPartition(partition);
+        outputGroups();
+        closeSpillPartitions();
       }
-      putRow(data.outputRowMeta, outputRowData);
+      data.spilling = false;
+      data.spillLevel = 0;
     }
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (noGroups && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -228,6 +244,154 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  private void outputGroups() throws HopException {
+    for (HashEntry entry : data.map.keySet()) {
+      Aggregate aggregate = data.map.get(entry);
+      Object[] aggregateResult = getAggregateResult(aggregate);
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+  }
+
+  /**
+   * Once the memory limit is reached, the groups which are in memory keep on being aggregated. The
+   * rows of new groups are written to one of the spill partitions, based on the hash code of the
+   * group. All the rows of a group end up in the same partition, in the order they were received.
+   *
+   * @return true if the rows of new groups need to be written to disk
+   */
+  private boolean isSpilling() {
+    if (data.spilling) {
+      return true;
+    }
+    if (!data.spillToDisk || data.map.isEmpty()) {
+      return false;
+    }
+    if (data.maxGroups > 0 && data.map.size() >= data.maxGroups) {
+      data.spilling = true;
+    } else if (data.freeMemoryPctLimit > 0 && ++data.freeCounter >= 1000) {
+      data.freeCounter = 0;
+      data.spilling = Const.getPercentageFreeMemory() < data.freeMemoryPctLimit;
+    }
+    if (data.spilling && isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "MemoryGroupBy.Log.SpillingToDisk", data.map.size(), data.spillLevel));
+    }
+    return data.spilling;
+  }
+
+  private void spillRow(HashEntry entry, Object[] r) throws HopException {
+    int partitionNr = getSpillPartitionNr(entry.hashCode(), data.spillLevel);
+    SpillPartition partition = data.spillPartitions[partitionNr];
+    if (partition == null) {
+      FileObject file =
+          HopVfs.createTempFile("memgroupby", ".tmp", resolve(data.spillDirectory), variables);
+      partition = new SpillPartition(file, data.spillLevel + 1);
+      try {
+        partition.outputStream =
+            new DataOutputStream(
+                new BufferedOutputStream(HopVfs.getOutputStream(file, false), 50000));
+      } catch (IOException e) {
+        throw new HopException("Error creating temporary file " + file, e);
+      }
+      data.spillPartitions[partitionNr] = partition;
+    }
+    data.inputRowMeta.writeData(partition.outputStream, r);
+    partition.nrRows++;
+  }
+
+  /**
+   * Every level uses different bits of the hash code so that a partition which doesn't fit in
+   * memory is spread over new partitions.
+   */
+  static int getSpillPartitionNr(int hashCode, int level) {
+    int h = hashCode * 0x9E3779B9;
+    h ^= h >>> 16;
+    int shift = (level * SPILL_PARTITION_BITS) % Integer.SIZE;
+    return (h >>> shift) & (NR_SPILL_PARTITIONS - 1);
+  }
+
+  /** Close the spill partitions written so far and queue them for aggregation. */
+  private void closeSpillPartitions() throws HopException {
+    for (int i = 0; i < data.spillPartitions.length; i++) {
+      SpillPartition partition = data.spillPartitions[i];
+      if (partition != null) {
+        try {
+          partition.outputStream.close();
+        } catch (IOException e) {
+          throw new HopException("Error closing temporary file " + partition.file, e);
+        }
+        partition.outputStream = null;
+        data.pendingPartitions.push(partition);
+        data.spillPartitions[i] = null;
+      }
+    }
+    data.spilling = false;
+  }
+
+  private void aggregateSpillPartition(SpillPartition partition) throws HopException {
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "MemoryGroupBy.Log.AggregatingSpillPartition",
+              partition.nrRows,
+              HopVfs.getFilename(partition.file)));
+    }
+    data.map.clear();
+    data.spillLevel = partition.level;
+    data.freeCounter = 0;
+    try (DataInputStream inputStream =
+        new DataInputStream(
+            new BufferedInputStream(HopVfs.getInputStream(partition.file), 50000))) {
+      for (long i = 0; i < partition.nrRows && !isStopped(); i++) {
+        addToAggregate(data.inputRowMeta.readData(inputStream));
+      }
+    } catch (IOException e) {
+      throw new HopException("Error reading temporary file " + partition.file, e);
+    } finally {
+      deleteQuietly(partition.file);
+    }
+  }
+
+  private void deleteSpillFiles() {
+    if (data.spillPartitions != null) {
+      for (SpillPartition partition : data.spillPartitions) {
+        if (partition != null) {
+          BaseTransform.closeQuietly(partition.outputStream);
+          deleteQuietly(partition.file);
+        }
+      }
+    }
+    if (data.pendingPartitions != null) {
+      for (SpillPartition partition : data.pendingPartitions) {
+        deleteQuietly(partition.file);
+      }
+      data.pendingPartitions.clear();
+    }
+  }
+
+  private void deleteQuietly(FileObject file) {
+    try {
+      if (file.exists()) {
+        file.delete();
+      }
+    } catch (IOException e) {
+      logError(e.getLocalizedMessage(), e);
+    }
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
@@ -244,6 +408,13 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     Aggregate aggregate = data.map.get(entry);
     if (aggregate == null) {
+      if (isSpilling()) {
+        // This group doesn't fit in memory anymore: aggregate it later on
+        //
+        spillRow(entry, r);
+        return;
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
@@ -555,6 +726,20 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     if (super.init()) {
       data.map = new HashMap<>(5000);
+
+      data.spillToDisk = meta.isSpillToDisk();
+      if (data.spillToDisk) {
+        data.spillDirectory = meta.getSpillDirectory();
+        data.maxGroups = Const.toInt(resolve(meta.getMaxGroupsInMemory()), -1);
+        data.freeMemoryPctLimit = Const.toInt(resolve(meta.getFreeMemoryLimit()), -1);
+        if (data.maxGroups <= 0 && data.freeMemoryPctLimit <= 0) {
+          // Same default as Sort Rows
+          //
+          data.freeMemoryPctLimit = 25;
+        }
+        data.spillPartitions = new SpillPartition[NR_SPILL_PARTITIONS];
+        data.pendingPartitions = new ArrayDeque<>();
+      }
       return true;
     }
     return false;
@@ -562,6 +747,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
   @Override
   public void dispose() {
+    deleteSpillFiles();
     super.dispose();
     ((MemoryGroupByData) data).clear();
   }
@@ -17,7 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
+import java.io.DataOutputStream;
+import java.util.Deque;
 import java.util.HashMap;
+import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -65,6 +68,22 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
     }
   }
 
+  /** A temporary file with the rows of groups which didn't fit in memory */
+  public static class SpillPartition {
+    public FileObject file;
+    public DataOutputStream outputStream;
+
+    /** The number of times the rows in this file were written to disk */
+    public int level;
+
+    public long nrRows;
+
+    public SpillPartition(FileObject file, int level) {
+      this.file = file;
+      this.level = level;
+    }
+  }
+
   public HashMap<HashEntry, Aggregate> map;
 
   public IRowMeta aggMeta;
@@ -89,6 +108,24 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  public boolean spillToDisk;
+  public String spillDirectory;
+  public int maxGroups;
+  public int freeMemoryPctLimit;
+  public int freeCounter;
+
+  /** Set when the rows of new groups are written to disk instead of being aggregated */
+  public boolean spilling;
+
+  /** The level of the partition being aggregated, 0 while reading the input */
+  public int spillLevel;
+
+  /** The partitions written while aggregating the input or a spilled partition */
+  public SpillPartition[] spillPartitions;
+
+  /** The partitions which are written completely and still need to be aggregated */
+  public Deque<SpillPartition> pendingPartitions;
+
   public MemoryGroupByData() {
     super();
   }
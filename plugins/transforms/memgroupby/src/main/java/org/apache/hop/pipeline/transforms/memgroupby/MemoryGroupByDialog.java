@@ -33,6 +33,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -57,6 +58,18 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
 
   private Button wAlwaysAddResult;
 
+  private Button wSpillToDisk;
+
+  private Label wlSpillDirectory;
+  private TextVar wSpillDirectory;
+  private Button wbSpillDirectory;
+
+  private Label wlMaxGroups;
+  private TextVar wMaxGroups;
+
+  private Label wlFreeMemory;
+  private TextVar wFreeMemory;
+
   private final MemoryGroupByMeta input;
 
   private ColumnInfo[] ciKey;
@@ -144,12 +157,108 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     wAlwaysAddResult.setLayoutData(fdAlwaysAddResult);
     wAlwaysAddResult.addSelectionListener(lsSel);
 
+    // Write the groups which don't fit in memory to disk
+    //
+    Label wlSpillToDisk = new Label(shell, SWT.RIGHT);
+    wlSpillToDisk.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillToDisk.Label"));
+    wlSpillToDisk.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillToDisk.ToolTip"));
+    PropsUi.setLook(wlSpillToDisk);
+    FormData fdlSpillToDisk = new FormData();
+    fdlSpillToDisk.left = new FormAttachment(0, 0);
+    fdlSpillToDisk.top = new FormAttachment(wAlwaysAddResult, margin);
+    fdlSpillToDisk.right = new FormAttachment(middle, -margin);
+    wlSpillToDisk.setLayoutData(fdlSpillToDisk);
+    wSpillToDisk = new Button(shell, SWT.CHECK);
+    wSpillToDisk.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillToDisk.ToolTip"));
+    PropsUi.setLook(wSpillToDisk);
+    FormData fdSpillToDisk = new FormData();
+    fdSpillToDisk.left = new FormAttachment(middle, 0);
+    fdSpillToDisk.top = new FormAttachment(wlSpillToDisk, 0, SWT.CENTER);
+    fdSpillToDisk.right = new FormAttachment(100, 0);
+    wSpillToDisk.setLayoutData(fdSpillToDisk);
+    wSpillToDisk.addSelectionListener(lsSel);
+    wSpillToDisk.addListener(SWT.Selection, e -> enableFields());
+
+    // Spill directory
+    //
+    wlSpillDirectory = new Label(shell, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.Label"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    fdlSpillDirectory.top = new FormAttachment(wSpillToDisk, margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+
+    wbSpillDirectory = new Button(shell, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDirectory);
+    wbSpillDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDirectory = new FormData();
+    fdbSpillDirectory.right = new FormAttachment(100, 0);
+    fdbSpillDirectory.top = new FormAttachment(wSpillToDisk, margin);
+    wbSpillDirectory.setLayoutData(fdbSpillDirectory);
+
+    wSpillDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wSpillToDisk, margin);
+    fdSpillDirectory.right = new FormAttachment(wbSpillDirectory, -margin);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+    wbSpillDirectory.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDirectory, variables));
+
+    // Maximum number of groups in memory
+    //
+    wlMaxGroups = new Label(shell, SWT.RIGHT);
+    wlMaxGroups.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroups.Label"));
+    PropsUi.setLook(wlMaxGroups);
+    FormData fdlMaxGroups = new FormData();
+    fdlMaxGroups.left = new FormAttachment(0, 0);
+    fdlMaxGroups.right = new FormAttachment(middle, -margin);
+    fdlMaxGroups.top = new FormAttachment(wbSpillDirectory, margin);
+    wlMaxGroups.setLayoutData(fdlMaxGroups);
+    wMaxGroups = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxGroups.setToolTipText(BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroups.ToolTip"));
+    PropsUi.setLook(wMaxGroups);
+    wMaxGroups.addModifyListener(lsMod);
+    FormData fdMaxGroups = new FormData();
+    fdMaxGroups.left = new FormAttachment(middle, 0);
+    fdMaxGroups.top = new FormAttachment(wbSpillDirectory, margin);
+    fdMaxGroups.right = new FormAttachment(100, 0);
+    wMaxGroups.setLayoutData(fdMaxGroups);
+
+    // Free memory limit
+    //
+    wlFreeMemory = new Label(shell, SWT.RIGHT);
+    wlFreeMemory.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.FreeMemory.Label"));
+    PropsUi.setLook(wlFreeMemory);
+    FormData fdlFreeMemory = new FormData();
+    fdlFreeMemory.left = new FormAttachment(0, 0);
+    fdlFreeMemory.right = new FormAttachment(middle, -margin);
+    fdlFreeMemory.top = new FormAttachment(wMaxGroups, margin);
+    wlFreeMemory.setLayoutData(fdlFreeMemory);
+    wFreeMemory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wFreeMemory.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.FreeMemory.ToolTip"));
+    PropsUi.setLook(wFreeMemory);
+    wFreeMemory.addModifyListener(lsMod);
+    FormData fdFreeMemory = new FormData();
+    fdFreeMemory.left = new FormAttachment(middle, 0);
+    fdFreeMemory.top = new FormAttachment(wMaxGroups, margin);
+    fdFreeMemory.right = new FormAttachment(100, 0);
+    wFreeMemory.setLayoutData(fdFreeMemory);
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlGroup.top = new FormAttachment(wFreeMemory, 2 * margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int groupCols = 1;
@@ -293,6 +402,17 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     return transformName;
   }
 
+  private void enableFields() {
+    boolean spillToDisk = wSpillToDisk.getSelection();
+    wlSpillDirectory.setEnabled(spillToDisk);
+    wSpillDirectory.setEnabled(spillToDisk);
+    wbSpillDirectory.setEnabled(spillToDisk);
+    wlMaxGroups.setEnabled(spillToDisk);
+    wMaxGroups.setEnabled(spillToDisk);
+    wlFreeMemory.setEnabled(spillToDisk);
+    wFreeMemory.setEnabled(spillToDisk);
+  }
+
   protected void setComboBoxes() {
     // Something was changed in the row.
     //
@@ -306,6 +426,10 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     logDebug(BaseMessages.getString(PKG, "MemoryGroupByDialog.Log.GettingKeyInfo"));
 
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wSpillToDisk.setSelection(input.isSpillToDisk());
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
+    wMaxGroups.setText(Const.NVL(input.getMaxGroupsInMemory(), ""));
+    wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
 
     for (int i = 0; i < input.getGroups().size(); i++) {
       TableItem item = wGroup.table.getItem(i);
@@ -326,6 +450,8 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     wAgg.setRowNums();
     wAgg.optWidth(true);
 
+    enableFields();
+
     wTransformName.selectAll();
     wTransformName.setFocus();
   }
@@ -342,6 +468,10 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     }
 
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
+    input.setSpillToDisk(wSpillToDisk.getSelection());
+    input.setSpillDirectory(wSpillDirectory.getText());
+    input.setMaxGroupsInMemory(wMaxGroups.getText());
+    input.setFreeMemoryLimit(wFreeMemory.getText());
 
     input.getGroups().clear();
     for (TableItem item : wGroup.getNonEmptyItems()) {
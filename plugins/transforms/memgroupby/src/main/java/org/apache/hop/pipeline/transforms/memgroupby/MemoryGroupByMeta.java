@@ -82,9 +82,38 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /** Write the rows of groups which don't fit in memory to temporary files */
+  @HopMetadataProperty(
+      key = "spill_to_disk",
+      injectionKey = "SPILL_TO_DISK",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_TO_DISK")
+  private boolean spillToDisk;
+
+  /** Directory to store the temporary files */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILL_DIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_DIRECTORY")
+  private String spillDirectory;
+
+  /** The maximum number of groups to keep in memory before spilling to disk */
+  @HopMetadataProperty(
+      key = "max_groups_in_memory",
+      injectionKey = "MAX_GROUPS_IN_MEMORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MAX_GROUPS_IN_MEMORY")
+  private String maxGroupsInMemory;
+
+  /** The free memory percentage below which we start spilling to disk */
+  @HopMetadataProperty(
+      key = "free_memory_limit",
+      injectionKey = "FREE_MEMORY_LIMIT",
+      injectionKeyDescription = "MemoryGroupBy.Injection.FREE_MEMORY_LIMIT")
+  private String freeMemoryLimit;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
+    this.spillDirectory = "${java.io.tmpdir}";
   }
 
   public MemoryGroupByMeta(MemoryGroupByMeta meta) {
@@ -96,6 +125,10 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.spillToDisk = meta.spillToDisk;
+    this.spillDirectory = meta.spillDirectory;
+    this.maxGroupsInMemory = meta.maxGroupsInMemory;
+    this.freeMemoryLimit = meta.freeMemoryLimit;
   }
 
   @Override
@@ -464,6 +497,78 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * Gets spillToDisk
+   *
+   * @return value of spillToDisk
+   */
+  public boolean isSpillToDisk() {
+    return spillToDisk;
+  }
+
+  /**
+   * Sets spillToDisk
+   *
+   * @param spillToDisk value of spillToDisk
+   */
+  public void setSpillToDisk(boolean spillToDisk) {
+    this.spillToDisk = spillToDisk;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Gets maxGroupsInMemory
+   *
+   * @return value of maxGroupsInMemory
+   */
+  public String getMaxGroupsInMemory() {
+    return maxGroupsInMemory;
+  }
+
+  /**
+   * Sets maxGroupsInMemory
+   *
+   * @param maxGroupsInMemory value of maxGroupsInMemory
+   */
+  public void setMaxGroupsInMemory(String maxGroupsInMemory) {
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  /**
+   * Gets freeMemoryLimit
+   *
+   * @return value of freeMemoryLimit
+   */
+  public String getFreeMemoryLimit() {
+    return freeMemoryLimit;
+  }
+
+  /**
+   * Sets freeMemoryLimit
+   *
+   * @param freeMemoryLimit value of freeMemoryLimit
+   */
+  public void setFreeMemoryLimit(String freeMemoryLimit) {
+    this.freeMemoryLimit = freeMemoryLimit;
+  }
+
   @Override
   public boolean supportsMultiCopyExecution() {
     return false;
@@ -74,6 +74,9 @@ public class MemoryGroupByMetaTest {
     assertEquals(1, meta.getGroups().size());
     assertEquals("fruit", meta.getGroups().get(0).getField());
     assertEquals(8, meta.getAggregates().size());
+    assertTrue(meta.isSpillToDisk());
+    assertEquals("${java.io.tmpdir}", meta.getSpillDirectory());
+    assertEquals("100000", meta.getMaxGroupsInMemory());
   }
 
   private IRowMeta getInputRowMeta() {
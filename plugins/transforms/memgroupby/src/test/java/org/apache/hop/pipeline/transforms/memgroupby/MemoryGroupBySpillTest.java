@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Groups rows with a tiny number of groups in memory so that new groups are written to spill
+ * partitions, and compares the aggregates with the ones calculated entirely in memory.
+ */
+public class MemoryGroupBySpillTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static final int NR_ROWS = 20000;
+  private static final int NR_GROUPS = 2000;
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Test
+  public void testSpillPartitionNrIsInRange() {
+    Random random = new Random(1234);
+    for (int level = 0; level < 10; level++) {
+      for (int i = 0; i < 1000; i++) {
+        int partitionNr = MemoryGroupBy.getSpillPartitionNr(random.nextInt(), level);
+        assertTrue(partitionNr >= 0 && partitionNr < MemoryGroupBy.NR_SPILL_PARTITIONS);
+      }
+    }
+  }
+
+  /**
+   * The hash codes which end up in the same partition on one level have to be spread over all the
+   * partitions on the next level, otherwise a partition which doesn't fit in memory never does.
+   */
+  @Test
+  public void testSpillPartitionIsSpreadOnNextLevel() {
+    for (int level = 0; level < 4; level++) {
+      Set<Integer> nextLevelPartitions = new HashSet<>();
+      for (int hashCode = 0; hashCode < 100000; hashCode++) {
+        if (MemoryGroupBy.getSpillPartitionNr(hashCode, level) == 0) {
+          nextLevelPartitions.add(MemoryGroupBy.getSpillPartitionNr(hashCode, level + 1));
+        }
+      }
+      assertEquals(MemoryGroupBy.NR_SPILL_PARTITIONS, nextLevelPartitions.size());
+    }
+  }
+
+  /** Every spill partition holds more groups than fit in memory: they are split up again. */
+  @Test
+  public void testRecursiveSpillMatchesInMemoryResult() throws Exception {
+    assertSpillMatchesInMemoryResult("10");
+  }
+
+  @Test
+  public void testSingleSpillMatchesInMemoryResult() throws Exception {
+    assertSpillMatchesInMemoryResult("500");
+  }
+
+  private void assertSpillMatchesInMemoryResult(String maxGroupsInMemory) throws Exception {
+    List<Object[]> rows = generateRows();
+
+    File directory = tempFolder.newFolder();
+    Map<String, Object[]> inMemory = groupRows(rows, false, null, null);
+    Map<String, Object[]> spilled =
+        groupRows(rows, true, directory.getAbsolutePath(), maxGroupsInMemory);
+
+    assertEquals(NR_GROUPS, inMemory.size());
+    assertEquals(inMemory.size(), spilled.size());
+    for (Map.Entry<String, Object[]> entry : inMemory.entrySet()) {
+      Object[] expected = entry.getValue();
+      Object[] actual = spilled.get(entry.getKey());
+      assertEquals(entry.getKey(), expected.length, actual.length);
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(entry.getKey() + " field " + i, expected[i], actual[i]);
+      }
+    }
+
+    // All the spill partitions are removed once they are aggregated
+    String[] leftOver = directory.list();
+    assertEquals(0, leftOver == null ? 0 : leftOver.length);
+  }
+
+  private List<Object[]> generateRows() {
+    Random random = new Random(1234);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < NR_ROWS; i++) {
+      rows.add(
+          new Object[] {
+            "group-" + random.nextInt(NR_GROUPS), (long) random.nextInt(1000), "v" + i
+          });
+    }
+    // Make sure every group is present
+    for (int i = 0; i < NR_GROUPS; i++) {
+      rows.add(new Object[] {"group-" + i, (long) i, "last" + i});
+    }
+    return rows;
+  }
+
+  private Map<String, Object[]> groupRows(
+      List<Object[]> rows, boolean spillToDisk, String spillDirectory, String maxGroupsInMemory)
+      throws Exception {
+    MemoryGroupByMeta memoryGroupByMeta = new MemoryGroupByMeta();
+    List<GGroup> groups = new ArrayList<>();
+    groups.add(new GGroup("group"));
+    memoryGroupByMeta.setGroups(groups);
+    List<GAggregate> aggregates = new ArrayList<>();
+    aggregates.add(new GAggregate("sum", "amount", GroupType.Sum, null));
+    aggregates.add(new GAggregate("count", "amount", GroupType.CountAll, null));
+    aggregates.add(new GAggregate("max", "amount", GroupType.Maximum, null));
+    aggregates.add(new GAggregate("first", "text", GroupType.First, null));
+    aggregates.add(new GAggregate("last", "text", GroupType.Last, null));
+    memoryGroupByMeta.setAggregates(aggregates);
+    memoryGroupByMeta.setSpillToDisk(spillToDisk);
+    memoryGroupByMeta.setSpillDirectory(spillDirectory);
+    memoryGroupByMeta.setMaxGroupsInMemory(maxGroupsInMemory);
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("memory group by");
+    TransformMeta input = new TransformMeta("input", new InjectorMeta());
+    TransformMeta groupBy = new TransformMeta("group by", memoryGroupByMeta);
+    TransformMeta output = new TransformMeta("output", new DummyMeta());
+    pipelineMeta.addTransform(input);
+    pipelineMeta.addTransform(groupBy);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(input, groupBy));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(groupBy, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("input", 0);
+    List<Object[]> result = Collections.synchronizedList(new ArrayList<>());
+    pipeline
+        .getTransform("output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                result.add(row);
+              }
+            });
+    pipeline.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("group"));
+    rowMeta.addValueMeta(new ValueMetaInteger("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("text"));
+    for (Object[] row : rows) {
+      rowProducer.putRow(rowMeta, row.clone());
+    }
+    rowProducer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+
+    // Every group is passed on exactly once
+    Map<String, Object[]> groupRows = new HashMap<>();
+    for (Object[] row : result) {
+      assertNull((String) row[0], groupRows.put((String) row[0], row));
+    }
+    return groupRows;
+  }
+}
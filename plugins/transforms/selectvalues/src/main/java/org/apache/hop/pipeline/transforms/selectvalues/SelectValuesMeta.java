@@ -754,6 +754,11 @@ public class SelectValuesMeta extends BaseTransformMeta<SelectValues, SelectValu
     return true;
   }
 
+  @Override
+  public boolean supportsPooledExecution() {
+    return true;
+  }
+
   public SelectField[] getSelectFields() {
     return selectFields;
   }
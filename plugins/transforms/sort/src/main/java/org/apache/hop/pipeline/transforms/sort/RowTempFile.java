@@ -22,8 +22,16 @@ public class RowTempFile {
   public Object[] row;
   public int fileNumber;
 
+  /** The normalized sort key of the row or null if rows are compared value by value */
+  public byte[] key;
+
   public RowTempFile(Object[] row, int fileNumber) {
     this.row = row;
     this.fileNumber = fileNumber;
   }
+
+  public RowTempFile(Object[] row, int fileNumber, byte[] key) {
+    this(row, fileNumber);
+    this.key = key;
+  }
 }
@@ -26,20 +26,24 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.PriorityQueue;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.CompressionInputStream;
+import org.apache.hop.core.compress.CompressionOutputStream;
+import org.apache.hop.core.compress.CompressionProviderFactory;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.SortKeyEncoder;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -52,6 +56,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
   private static final Class<?> PKG = SortRows.class;
 
+  /** The compression used for the temporary files when no compression type is specified */
+  private static final String GZIP_COMPRESSION = "GZip";
+
   public SortRows(
       TransformMeta transformMeta,
       SortRowsMeta meta,
@@ -124,7 +131,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Then write them to disk...
     DataOutputStream dos;
-    GZIPOutputStream gzos;
     int p;
 
     try {
@@ -134,11 +140,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.files.add(fileObject); // Remember the files!
       OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
       if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-        dos = new DataOutputStream(gzos);
+        CompressionOutputStream cos =
+            data.compressionProvider.createOutputStream(new BufferedOutputStream(outputStream));
+        cos.addEntry(fileObject.getName().getBaseName(), null);
+        dos = new DataOutputStream(new BufferedOutputStream(cos, 500000));
       } else {
         dos = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
-        gzos = null;
       }
 
       // Just write the data, nothing else
@@ -196,10 +203,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.buffer.clear();
 
       // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
+      dos.close(); // close data stream, this also closes the compression stream
       outputStream.close(); // close file stream
 
       // How much memory do we have left?
@@ -218,148 +222,138 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
-  }
-
-  // get sorted rows from available files in iterative manner.
-  // that means call to this method will continue to return rows
-  // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
-    Object[] retval;
+  /**
+   * Open all temporary files at once and read the first row of each file into the merge queue.
+   */
+  private void openTempFiles() {
+    if (isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
+    }
 
-    // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
-      if (isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
-      }
+    data.tempRows = new PriorityQueue<>(Math.max(1, data.files.size()), data.comparator);
+    data.rowsRemaining = new int[data.files.size()];
+    try {
+      for (int f = 0; f < data.files.size() && !isStopped(); f++) {
+        FileObject fileObject = data.files.get(f);
+        String filename = HopVfs.getFilename(fileObject);
+        if (isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
+        }
+        InputStream fi = HopVfs.getInputStream(fileObject);
+        DataInputStream di;
+        data.fis.add(fi);
+        if (data.compressFiles) {
+          CompressionInputStream cis =
+              data.compressionProvider.createInputStream(new BufferedInputStream(fi));
+          cis.nextEntry();
+          di = new DataInputStream(new BufferedInputStream(cis, 50000));
+        } else {
+          di = new DataInputStream(new BufferedInputStream(fi, 50000));
+        }
+        data.dis.add(di);
 
-      try {
-        for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
-          if (isDetailed()) {
-            logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          DataInputStream di;
-          data.fis.add(fi);
-          if (data.compressFiles) {
-            di = getDataInputStream(new GZIPInputStream(new BufferedInputStream(fi)));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(fi, 50000));
-          }
-          data.dis.add(di);
+        // How long is the buffer?
+        int buffersize = data.bufferSizes.get(f);
+        data.rowsRemaining[f] = buffersize;
 
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
+        }
 
-          if (isDetailed()) {
-            logDetailed(
-                BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
+        readTempRow(f, new RowTempFile(null, f));
+      }
+    } catch (Exception e) {
+      logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+    }
+  }
 
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
-          }
+  /**
+   * Read the next row of a temporary file into the merge queue. When all the rows of the file are
+   * read the file is closed and deleted.
+   *
+   * @param f the index of the temporary file
+   * @param rowTempFile the (re-used) holder of the row
+   * @return false if the file couldn't be closed or deleted
+   */
+  private boolean readTempRow(int f, RowTempFile rowTempFile)
+      throws HopFileException, SocketTimeoutException {
+    if (data.rowsRemaining[f] > 0) {
+      data.rowsRemaining[f]--;
+      rowTempFile.row = data.outputRowMeta.readData(data.dis.get(f));
+      if (data.sortKeyEncoder != null) {
+        try {
+          rowTempFile.key = data.sortKeyEncoder.encode(rowTempFile.row);
+        } catch (HopValueException e) {
+          throw new HopFileException(e);
         }
-
-        // Sort the data row buffer
-        Collections.sort(data.tempRows, data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
       }
+      data.tempRows.add(rowTempFile);
+      return true;
     }
 
+    // This file is merged completely
+    //
+    FileObject file = data.files.get(f);
+    try {
+      data.dis.get(f).close();
+      data.fis.get(f).close();
+      file.delete();
+    } catch (IOException e) {
+      logError(
+          BaseMessages.getString(PKG, "SortRows.Error.UnableToCloseFile", f, file.toString()));
+      return false;
+    }
+    data.files.set(f, null);
+    return true;
+  }
+
+  // get sorted rows from available files in iterative manner.
+  // that means call to this method will continue to return rows
+  // till all temp files will not be read to the end.
+  Object[] getBuffer() throws HopValueException {
     if (data.files.isEmpty()) {
       // read from in-memory processing
-
+      //
       if (data.getBufferIndex < data.buffer.size()) {
-        retval = data.buffer.get(data.getBufferIndex);
-        data.getBufferIndex++;
-      } else {
-        retval = null;
+        return data.buffer.get(data.getBufferIndex++);
       }
-    } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if (isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.remove(0);
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
-
-        // now get another Row for position smallest
-
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
-
-        try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
-          try {
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString()));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
+      return null;
+    }
 
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
+    // read from disk processing: a k-way merge of the sorted temporary files
+    //
+    if (data.tempRows == null) {
+      openTempFiles();
+    }
 
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
+    RowTempFile smallest = data.tempRows.poll();
+    if (smallest == null) {
+      return null;
+    }
+    Object[] retval = smallest.row;
+    if (isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(
+              PKG,
+              "SortRows.RowLevel.PrintRow",
+              smallest.fileNumber,
+              data.outputRowMeta.getString(retval)));
+    }
 
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
-        }
+    // now get another row from the same file
+    //
+    try {
+      if (!readTempRow(smallest.fileNumber, smallest)) {
+        setErrors(1);
+        stopAll();
+        return null;
       }
+    } catch (HopFileException e) {
+      throw new HopValueException(e);
+    } catch (SocketTimeoutException e) {
+      throw new HopValueException(e); // should never happen on local files
     }
     return retval;
   }
@@ -442,6 +436,13 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+
+      // Sort on normalized keys if all the key fields support it
+      //
+      data.sortKeyEncoder = SortKeyEncoder.create(data.outputRowMeta, data.fieldnrs);
+      if (data.sortKeyEncoder == null && isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.NoSortKeys"));
+      }
     } // end if first
 
     // it is not first row and it is null
@@ -567,14 +568,21 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     //
     data.buffer = new ArrayList<>(5000);
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<>(5000);
-
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.isCompressFiles());
-
-    data.tempRows = new ArrayList<>();
+    if (data.compressFiles) {
+      String compressionType = resolve(meta.getCompressionType());
+      if (Utils.isEmpty(compressionType)) {
+        compressionType = GZIP_COMPRESSION;
+      }
+      data.compressionProvider =
+          CompressionProviderFactory.getInstance().getCompressionProviderByName(compressionType);
+      if (data.compressionProvider == null) {
+        logError(
+            BaseMessages.getString(PKG, "SortRows.Error.UnknownCompressionType", compressionType));
+        return false;
+      }
+    }
 
     data.minSortSize = 5000;
 
@@ -592,7 +600,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Clean out the sort buffer
     data.buffer.clear();
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
+    data.tempRows = null;
 
     // close any open DataInputStream objects
     if (CollectionUtils.isNotEmpty(data.dis)) {
@@ -617,12 +625,37 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         logError(e.getLocalizedMessage(), e);
       }
     }
+    data.files.clear();
+    data.dis.clear();
+    data.fis.clear();
+    data.bufferSizes.clear();
   }
 
-  /** Sort the entire vector, if it is not empty. */
-  void quickSort(List<Object[]> elements) {
+  /**
+   * Sort the entire vector, if it is not empty. Large buffers are sorted in chunks on multiple
+   * cores which are then merged. Like before, the sort is stable.
+   */
+  void quickSort(List<Object[]> elements) throws HopValueException {
     if (CollectionUtils.isNotEmpty(elements)) {
-      Collections.sort(elements, data.rowComparator);
+      if (data.sortKeyEncoder != null) {
+        // Calculate the key of every row once, then only compare bytes
+        //
+        RowTempFile[] keyedRows = new RowTempFile[elements.size()];
+        for (int i = 0; i < keyedRows.length; i++) {
+          Object[] row = elements.get(i);
+          keyedRows[i] = new RowTempFile(row, 0, data.sortKeyEncoder.encode(row));
+        }
+        Arrays.parallelSort(keyedRows, (o1, o2) -> SortKeyEncoder.compare(o1.key, o2.key));
+        for (int i = 0; i < keyedRows.length; i++) {
+          elements.set(i, keyedRows[i].row);
+        }
+      } else {
+        Object[][] rows = elements.toArray(new Object[0][]);
+        Arrays.parallelSort(rows, data.rowComparator);
+        for (int i = 0; i < rows.length; i++) {
+          elements.set(i, rows[i]);
+        }
+      }
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -710,7 +743,17 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     @Override
     public int compare(RowTempFile o1, RowTempFile o2) {
       try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
+        int cmp;
+        if (o1.key != null && o2.key != null) {
+          cmp = SortKeyEncoder.compare(o1.key, o2.key);
+        } else {
+          cmp = rowMeta.compare(o1.row, o2.row, fieldNrs);
+        }
+        if (cmp == 0) {
+          // Rows from earlier files came in first: keep the sort stable
+          cmp = Integer.compare(o1.fileNumber, o2.fileNumber);
+        }
+        return cmp;
       } catch (HopValueException e) {
         logError("Error comparing rows: " + e.toString());
         return 0;
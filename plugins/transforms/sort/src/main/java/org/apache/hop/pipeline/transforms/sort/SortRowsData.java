@@ -22,9 +22,11 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.PriorityQueue;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.compress.ICompressionProvider;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.value.SortKeyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -35,25 +37,30 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int getBufferIndex;
 
   public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
   public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
   public List<Integer> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // The next row of every temporary file being merged, smallest first
+  public PriorityQueue<RowTempFile> tempRows;
+
+  // The number of rows left to read from every temporary file
+  public int[] rowsRemaining;
 
   public int[] fieldnrs; // the corresponding field numbers
   public FileObject fil;
   public IRowMeta outputRowMeta;
   public int sortSize;
   public boolean compressFiles;
+  public ICompressionProvider compressionProvider;
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
   Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
 
+  // Calculates the normalized sort keys, null if one of the key fields doesn't support them
+  SortKeyEncoder sortKeyEncoder;
+
   public int freeCounter;
   public int freeMemoryPct;
   public int minSortSize;
@@ -72,7 +79,6 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
 
     files = new ArrayList<>();
     fis = new ArrayList<>();
-    gzis = new ArrayList<>();
     dis = new ArrayList<>();
     bufferSizes = new ArrayList<>();
 
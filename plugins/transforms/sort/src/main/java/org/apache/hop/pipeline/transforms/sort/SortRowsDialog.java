@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.sort;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.compress.CompressionProviderFactory;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.util.Utils;
@@ -39,6 +40,7 @@ import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.hop.ui.pipeline.transform.ComponentSelectionListener;
 import org.apache.hop.ui.pipeline.transform.ITableItemInsertListener;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -69,6 +71,8 @@ public class SortRowsDialog extends BaseTransformDialog {
 
   private CheckBoxVar wCompress;
 
+  private CCombo wCompressionType;
+
   private Button wUniqueRows;
 
   private TableView wFields;
@@ -240,14 +244,36 @@ public class SortRowsDialog extends BaseTransformDialog {
           }
         });
 
-    // Using compression for temporary files?
+    // Which compression to use for temporary files?
+    Label wlCompressionType = new Label(shell, SWT.RIGHT);
+    wlCompressionType.setText(BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Label"));
+    PropsUi.setLook(wlCompressionType);
+    FormData fdlCompressionType = new FormData();
+    fdlCompressionType.left = new FormAttachment(0, 0);
+    fdlCompressionType.right = new FormAttachment(middle, -margin);
+    fdlCompressionType.top = new FormAttachment(wCompress, margin);
+    wlCompressionType.setLayoutData(fdlCompressionType);
+    wCompressionType = new CCombo(shell, SWT.BORDER | SWT.READ_ONLY);
+    wCompressionType.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Tooltip"));
+    PropsUi.setLook(wCompressionType);
+    wCompressionType.setItems(
+        CompressionProviderFactory.getInstance().getCompressionProviderNames());
+    wCompressionType.addModifyListener(lsMod);
+    FormData fdCompressionType = new FormData();
+    fdCompressionType.left = new FormAttachment(middle, 0);
+    fdCompressionType.top = new FormAttachment(wlCompressionType, 0, SWT.CENTER);
+    fdCompressionType.right = new FormAttachment(100, 0);
+    wCompressionType.setLayoutData(fdCompressionType);
+
+    // Only pass unique rows?
     Label wlUniqueRows = new Label(shell, SWT.RIGHT);
     wlUniqueRows.setText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Label"));
     PropsUi.setLook(wlUniqueRows);
     FormData fdlUniqueRows = new FormData();
     fdlUniqueRows.left = new FormAttachment(0, 0);
     fdlUniqueRows.right = new FormAttachment(middle, -margin);
-    fdlUniqueRows.top = new FormAttachment(wCompress, margin);
+    fdlUniqueRows.top = new FormAttachment(wCompressionType, margin);
     wlUniqueRows.setLayoutData(fdlUniqueRows);
     wUniqueRows = new Button(shell, SWT.CHECK);
     wUniqueRows.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Tooltip"));
@@ -403,6 +429,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
     wCompress.setSelection(input.isCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
+    wCompressionType.setText(Const.NVL(input.getCompressionType(), ""));
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
 
     Table table = wFields.table;
@@ -469,6 +496,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
+    input.setCompressionType(wCompressionType.getText());
     input.setOnlyPassingUniqueRows(wUniqueRows.getSelection());
 
     int nrFields = wFields.nrNonEmpty();
@@ -91,6 +91,13 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
   @HopMetadataProperty(key = "compress_variables", injectionKey = "COMPRESS_VARIABLE")
   private String compressFilesVariable;
 
+  /**
+   * The name of the compression provider to use for the temporary files. GZip is used when
+   * compression is enabled and no provider is specified.
+   */
+  @HopMetadataProperty(key = "compression_type", injectionKey = "COMPRESSION_TYPE")
+  private String compressionType;
+
   private List<SortRowsField> groupFields;
 
   public SortRowsMeta() {
@@ -148,6 +155,7 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     freeMemoryLimit = null;
     compressFiles = false;
     compressFilesVariable = null;
+    compressionType = null;
     onlyPassingUniqueRows = false;
 
     int nrFields = 0;
@@ -378,6 +386,20 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     this.compressFilesVariable = compressFilesVariable;
   }
 
+  /**
+   * @return the name of the compression provider for the temporary files
+   */
+  public String getCompressionType() {
+    return compressionType;
+  }
+
+  /**
+   * @param compressionType the name of the compression provider for the temporary files
+   */
+  public void setCompressionType(String compressionType) {
+    this.compressionType = compressionType;
+  }
+
   /**
    * @return the freeMemoryLimit
    */
@@ -55,6 +55,7 @@ public class SortRowsMetaTest {
             "FreeMemoryLimit",
             "CompressFiles",
             "CompressFilesVariable",
+            "CompressionType",
             "OnlyPassingUniqueRows",
             "SortFields");
 
@@ -72,6 +73,7 @@ public class SortRowsMetaTest {
     fieldLoadSaveValidatorAttributeMap.put("FreeMemoryLimit", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFiles", booleanFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFilesVariable", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("CompressionType", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("OnlyPassingUniqueRows", booleanFieldLoadSaveValidator);
 
     LoadSaveTester<SortRowsMeta> loadSaveTester =
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Sorts rows in a pipeline and compares the result with a plain (stable) sort of the same rows.
+ * A small sort size forces the rows through temporary files and the k-way merge, a large one keeps
+ * them in memory where large buffers are sorted in parallel.
+ */
+public class SortRowsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  /** More rows than Arrays.parallelSort sorts on a single thread */
+  private static final int NR_ROWS = 20000;
+
+  private static final int FIELD_KEY = 0;
+  private static final int FIELD_NAME = 1;
+  private static final int FIELD_AMOUNT = 2;
+  private static final int FIELD_SEQ = 3;
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Test
+  public void testSpillToManyFiles() throws Exception {
+    assertSorted("100", false, null);
+  }
+
+  @Test
+  public void testSpillToManyGzipFiles() throws Exception {
+    assertSorted("100", true, null);
+  }
+
+  @Test
+  public void testSpillToManySnappyFiles() throws Exception {
+    assertSorted("100", true, "Snappy");
+  }
+
+  @Test
+  public void testSpillToFewLargeFilesSortedInParallel() throws Exception {
+    assertSorted("15000", true, "GZip");
+  }
+
+  @Test
+  public void testParallelSortInMemory() throws Exception {
+    assertSorted("1000000", false, null);
+  }
+
+  private void assertSorted(String sortSize, boolean compress, String compressionType)
+      throws Exception {
+    // Integer and String keys are sorted on normalized binary keys
+    //
+    assertSorted(
+        sortSize,
+        compress,
+        compressionType,
+        List.of(field("key", true), field("name", false)),
+        Comparator.<Object[], Long>comparing(r -> (Long) r[FIELD_KEY])
+            .thenComparing(r -> (String) r[FIELD_NAME], Comparator.reverseOrder()));
+
+    // Big numbers can't be normalized, the rows are compared field by field
+    //
+    assertSorted(
+        sortSize,
+        compress,
+        compressionType,
+        List.of(field("amount", true), field("key", false)),
+        Comparator.<Object[], BigDecimal>comparing(r -> (BigDecimal) r[FIELD_AMOUNT])
+            .thenComparing(r -> (Long) r[FIELD_KEY], Comparator.reverseOrder()));
+  }
+
+  private void assertSorted(
+      String sortSize,
+      boolean compress,
+      String compressionType,
+      List<SortRowsField> sortFields,
+      Comparator<Object[]> comparator)
+      throws Exception {
+    File directory = tempFolder.newFolder();
+
+    SortRowsMeta sortRowsMeta = new SortRowsMeta();
+    sortRowsMeta.setDefault();
+    sortRowsMeta.setDirectory(directory.getAbsolutePath());
+    sortRowsMeta.setSortSize(sortSize);
+    sortRowsMeta.setCompressFiles(compress);
+    sortRowsMeta.setCompressionType(compressionType);
+    sortRowsMeta.setSortFields(new ArrayList<>(sortFields));
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("sort rows");
+    TransformMeta input = new TransformMeta("input", new InjectorMeta());
+    TransformMeta sort = new TransformMeta("sort", sortRowsMeta);
+    TransformMeta output = new TransformMeta("output", new DummyMeta());
+    pipelineMeta.addTransform(input);
+    pipelineMeta.addTransform(sort);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(input, sort));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(sort, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("input", 0);
+    List<Object[]> sorted = Collections.synchronizedList(new ArrayList<>());
+    pipeline
+        .getTransform("output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                sorted.add(row);
+              }
+            });
+    pipeline.startThreads();
+
+    // Few distinct keys: rows with equal keys have to keep their input order
+    //
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaInteger("seq"));
+    Random random = new Random(1234);
+    List<Object[]> rows = new ArrayList<>();
+    for (long seq = 0; seq < NR_ROWS; seq++) {
+      Object[] row =
+          new Object[] {
+            (long) random.nextInt(500),
+            "name-" + random.nextInt(20),
+            BigDecimal.valueOf(random.nextInt(300), 2),
+            seq
+          };
+      rows.add(row.clone());
+      rowProducer.putRow(rowMeta, row);
+    }
+    rowProducer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+
+    List<Object[]> expected = new ArrayList<>(rows);
+    expected.sort(comparator); // stable
+    assertEquals(expected.size(), sorted.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals("Row " + i, expected.get(i)[FIELD_SEQ], sorted.get(i)[FIELD_SEQ]);
+    }
+
+    // All temporary files are removed after the merge
+    String[] leftOver = directory.list();
+    assertEquals(0, leftOver == null ? 0 : leftOver.length);
+  }
+
+  private static SortRowsField field(String name, boolean ascending) {
+    return new SortRowsField(name, ascending, true, false, 0, false);
+  }
+}
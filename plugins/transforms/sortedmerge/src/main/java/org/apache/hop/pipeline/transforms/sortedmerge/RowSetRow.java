@@ -24,6 +24,7 @@ public class RowSetRow {
   private IRowSet rowSet;
   private IRowMeta rowMeta;
   private Object[] rowData;
+  private byte[] key;
 
   /**
    * @param rowSet
@@ -77,4 +78,18 @@ public class RowSetRow {
   public void setRowMeta(IRowMeta rowMeta) {
     this.rowMeta = rowMeta;
   }
+
+  /**
+   * @return the normalized sort key of the row or null if the rows are compared value by value
+   */
+  public byte[] getKey() {
+    return key;
+  }
+
+  /**
+   * @param key the normalized sort key to set
+   */
+  public void setKey(byte[] key) {
+    this.key = key;
+  }
 }
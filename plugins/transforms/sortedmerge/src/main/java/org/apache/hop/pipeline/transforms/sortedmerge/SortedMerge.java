@@ -24,6 +24,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.value.SortKeyEncoder;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -104,23 +105,37 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
                   .getValueMeta(data.fieldIndices[f])
                   .setSortedDescending(!meta.getAscending()[f]);
             }
+
+            // Compare normalized keys if all the key fields support it
+            //
+            data.sortKeyEncoder = SortKeyEncoder.create(data.rowMeta, data.fieldIndices);
           }
         }
 
+        // Compare using the row metadata with the sort direction of the key fields
+        //
         data.comparator =
             (o1, o2) -> {
+              if (o1.getKey() != null && o2.getKey() != null) {
+                return SortKeyEncoder.compare(o1.getKey(), o2.getKey());
+              }
               try {
-                return o1.getRowMeta().compare(o1.getRowData(), o2.getRowData(), data.fieldIndices);
+                return data.rowMeta.compare(o1.getRowData(), o2.getRowData(), data.fieldIndices);
               } catch (HopValueException e) {
                 return 0; // TODO see if we should fire off alarms over here... Perhaps throw a
                 // RuntimeException.
               }
             };
+      }
 
-        // Now sort the sortedBuffer for the first time.
-        //
-        Collections.sort(data.sortedBuffer, data.comparator);
+      // Now sort the sortedBuffer for the first time.
+      //
+      if (data.sortKeyEncoder != null) {
+        for (RowSetRow rowSetRow : data.sortedBuffer) {
+          rowSetRow.setKey(data.sortKeyEncoder.encode(rowSetRow.getRowData()));
+        }
       }
+      Collections.sort(data.sortedBuffer, data.comparator);
     }
 
     // If our sorted buffer is empty, it means we're done...
@@ -148,6 +163,9 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
       //
       RowSetRow add =
           new RowSetRow(smallestRow.getRowSet(), smallestRow.getRowSet().getRowMeta(), extraRow);
+      if (data.sortKeyEncoder != null) {
+        add.setKey(data.sortKeyEncoder.encode(extraRow));
+      }
       int index = Collections.binarySearch(data.sortedBuffer, add, data.comparator);
       if (index < 0) {
         data.sortedBuffer.add(-index - 1, add);
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.sortedmerge;
 import java.util.Comparator;
 import java.util.List;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.value.SortKeyEncoder;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -29,6 +30,7 @@ public class SortedMergeData extends BaseTransformData implements ITransformData
   public IRowMeta rowMeta;
   public List<RowSetRow> sortedBuffer;
   public Comparator<RowSetRow> comparator;
+  public SortKeyEncoder sortKeyEncoder;
 
   public SortedMergeData() {
     super();
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.transforms.streamlookup;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
@@ -47,6 +49,9 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupData> {
   private static final Class<?> PKG = StreamLookupMeta.class;
 
+  /** The prefix of the key of the shared index in the extension data of the pipeline */
+  private static final String SHARED_INDEX_KEY_PREFIX = "StreamLookup.SharedIndex.";
+
   public StreamLookup(
       TransformMeta transformMeta,
       StreamLookupMeta meta,
@@ -142,6 +147,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     int[] keyNrs = new int[meta.getKeylookup().length];
     int[] valueNrs = new int[meta.getValue().length];
     boolean firstRun = true;
+    long lookupRowNr = 0;
 
     // Which row set do we read from?
     //
@@ -194,6 +200,10 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
         data.cacheKeyMeta = cacheKeyMeta;
         data.cacheValueMeta = cacheValueMeta;
+
+        if (data.sharedIndex != null) {
+          data.sharedIndex.setRowMeta(data.keyTypes, cacheKeyMeta, cacheValueMeta, data.infoMeta);
+        }
       }
 
       Object[] keyData = new Object[keyNrs.length];
@@ -209,14 +219,49 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
         valueData[i] = rowData[valueNrs[i]];
       }
 
-      addToCache(data.cacheKeyMeta, keyData, data.cacheValueMeta, valueData);
+      addToCache(data.cacheKeyMeta, keyData, data.cacheValueMeta, valueData, lookupRowNr++);
 
       rowData = getRowFrom(rowSet);
     }
 
+    if (data.sharedIndex != null) {
+      waitForSharedIndex();
+    }
+
     return true;
   }
 
+  /**
+   * Wait until all copies added their lookup rows to the shared index. A copy which didn't receive
+   * any lookup rows itself takes the layout of the lookup rows from the index.
+   */
+  private void waitForSharedIndex() throws HopException {
+    data.sharedIndex.buildDone();
+    try {
+      while (!data.sharedIndex.awaitBuilt(100, TimeUnit.MILLISECONDS)) {
+        if (isStopped()) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(e);
+    }
+
+    if (!data.hasLookupRows && data.sharedIndex.hasLookupRows()) {
+      data.hasLookupRows = true;
+      data.keyTypes = data.sharedIndex.getKeyTypes().clone();
+      data.cacheKeyMeta = data.sharedIndex.getCacheKeyMeta().clone();
+      data.cacheValueMeta = data.sharedIndex.getCacheValueMeta().clone();
+      data.infoMeta = data.sharedIndex.getInfoMeta().clone();
+    }
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "StreamLookup.Log.SharedIndexBuilt", "" + data.sharedIndex.size()));
+    }
+  }
+
   private Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     // See if we need to stop.
     if (isStopped()) {
@@ -294,9 +339,11 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
   }
 
   private void addToCache(
-      IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
+      IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData, long rowNr)
       throws HopValueException {
-    if (meta.isMemoryPreservationActive()) {
+    if (data.sharedIndex != null) {
+      data.sharedIndex.put(new RowMetaAndData(keyMeta, keyData), valueData, getCopy(), rowNr);
+    } else if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
         int idx = Collections.binarySearch(data.list, keyValue, data.comparator);
@@ -340,7 +387,9 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
   }
 
   private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
-    if (meta.isMemoryPreservationActive()) {
+    if (data.sharedIndex != null) {
+      return data.sharedIndex.get(new RowMetaAndData(keyMeta, keyData));
+    } else if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
         int idx = Collections.binarySearch(data.list, keyValue, data.comparator);
@@ -484,6 +533,21 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     if (super.init()) {
       data.readLookupValues = true;
 
+      // All copies add their lookup rows to the same index and look up rows in it
+      //
+      if (meta.isUsingSharedIndex()) {
+        Map<String, Object> dataMap = getPipeline().getExtensionDataMap();
+        synchronized (dataMap) {
+          data.sharedIndex =
+              (StreamLookupSharedIndex)
+                  dataMap.computeIfAbsent(
+                      getSharedIndexKey(),
+                      k ->
+                          new StreamLookupSharedIndex(
+                              getPipeline().getComponentCopies(getTransformName()).size()));
+        }
+      }
+
       return true;
     }
 
@@ -499,6 +563,20 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.hashIndex = null;
     data.longIndex = null;
 
+    if (data.sharedIndex != null) {
+      Map<String, Object> dataMap = getPipeline().getExtensionDataMap();
+      synchronized (dataMap) {
+        if (data.sharedIndex.release()) {
+          dataMap.remove(getSharedIndexKey());
+        }
+      }
+      data.sharedIndex = null;
+    }
+
     super.dispose();
   }
+
+  private String getSharedIndexKey() {
+    return SHARED_INDEX_KEY_PREFIX + getTransformName();
+  }
 }
@@ -81,6 +81,9 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
 
   public IStream infoStream;
 
+  /** The index shared by all copies of the transform, null if every copy has its own */
+  public StreamLookupSharedIndex sharedIndex;
+
   public StreamLookupData() {
     super();
     look = new HashMap<>();
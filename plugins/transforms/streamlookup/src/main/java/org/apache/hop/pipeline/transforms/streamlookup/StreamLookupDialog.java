@@ -64,6 +64,8 @@ public class StreamLookupDialog extends BaseTransformDialog {
 
   private Button wIntegerPair;
 
+  private Button wSharedIndex;
+
   private final StreamLookupMeta input;
 
   private ColumnInfo[] ciKey;
@@ -274,6 +276,27 @@ public class StreamLookupDialog extends BaseTransformDialog {
           wIntegerPair.setEnabled(selection);
         });
 
+    Label wlSharedIndex = new Label(shell, SWT.RIGHT);
+    wlSharedIndex.setText(BaseMessages.getString(PKG, "StreamLookupDialog.SharedIndex.Label"));
+    wlSharedIndex.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.SharedIndex.Tooltip"));
+    PropsUi.setLook(wlSharedIndex);
+    FormData fdlSharedIndex = new FormData();
+    fdlSharedIndex.left = new FormAttachment(0, 0);
+    fdlSharedIndex.bottom = new FormAttachment(wlPreserveMemory, -margin);
+    fdlSharedIndex.right = new FormAttachment(middle, -margin);
+    wlSharedIndex.setLayoutData(fdlSharedIndex);
+    wSharedIndex = new Button(shell, SWT.CHECK);
+    wSharedIndex.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.SharedIndex.Tooltip"));
+    PropsUi.setLook(wSharedIndex);
+    FormData fdSharedIndex = new FormData();
+    fdSharedIndex.left = new FormAttachment(middle, 0);
+    fdSharedIndex.top = new FormAttachment(wlSharedIndex, 0, SWT.CENTER);
+    fdSharedIndex.right = new FormAttachment(100, 0);
+    wSharedIndex.setLayoutData(fdSharedIndex);
+    wSharedIndex.addListener(SWT.Selection, e -> input.setChanged());
+
     // THE UPDATE/INSERT TABLE
     Label wlReturn = new Label(shell, SWT.NONE);
     wlReturn.setText(BaseMessages.getString(PKG, "StreamLookupDialog.ReturnFields.Label"));
@@ -323,7 +346,7 @@ public class StreamLookupDialog extends BaseTransformDialog {
     fdReturn.left = new FormAttachment(0, 0);
     fdReturn.top = new FormAttachment(wlReturn, margin);
     fdReturn.right = new FormAttachment(100, 0);
-    fdReturn.bottom = new FormAttachment(wlPreserveMemory, -2 * margin);
+    fdReturn.bottom = new FormAttachment(wlSharedIndex, -2 * margin);
     wReturn.setLayoutData(fdReturn);
 
     getData();
@@ -446,6 +469,7 @@ public class StreamLookupDialog extends BaseTransformDialog {
     // but user will be forced to choose only one option later.
     wSortedList.setSelection(input.isUsingSortedList());
     wIntegerPair.setSelection(input.isUsingIntegerPair());
+    wSharedIndex.setSelection(input.isUsingSharedIndex());
 
     wKey.setRowNums();
     wKey.optWidth(true);
@@ -473,6 +497,7 @@ public class StreamLookupDialog extends BaseTransformDialog {
     input.setMemoryPreservationActive(wPreserveMemory.getSelection());
     input.setUsingSortedList(wSortedList.getSelection());
     input.setUsingIntegerPair(wIntegerPair.getSelection());
+    input.setUsingSharedIndex(wSharedIndex.getSelection());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "StreamLookupDialog.Log.FoundKeys", nrkeys + ""));
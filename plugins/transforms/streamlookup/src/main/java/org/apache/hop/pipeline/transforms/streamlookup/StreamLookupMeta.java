@@ -97,6 +97,10 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
   @Injection(name = "INTEGER_PAIR")
   private boolean usingIntegerPair;
 
+  /** All copies of the transform build and use a single index of the lookup rows */
+  @Injection(name = "SHARED_INDEX")
+  private boolean usingSharedIndex;
+
   public StreamLookupMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -164,6 +168,8 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "sorted_list")));
       setUsingIntegerPair(
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "integer_pair")));
+      setUsingSharedIndex(
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "shared_index")));
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrkeys = XmlHandler.countNodes(lookup, "key");
@@ -212,6 +218,7 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     setMemoryPreservationActive(true);
     setUsingSortedList(false);
     setUsingIntegerPair(false);
+    setUsingSharedIndex(false);
 
     allocate(0, 0);
   }
@@ -265,6 +272,7 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
         .append(XmlHandler.addTagValue("preserve_memory", isMemoryPreservationActive()));
     retval.append("    ").append(XmlHandler.addTagValue("sorted_list", isUsingSortedList()));
     retval.append("    ").append(XmlHandler.addTagValue("integer_pair", isUsingIntegerPair()));
+    retval.append("    ").append(XmlHandler.addTagValue("shared_index", isUsingSharedIndex()));
 
     retval.append("    <lookup>").append(Const.CR);
     for (int i = 0; i < getKeystream().length; i++) {
@@ -500,6 +508,15 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     return true;
   }
 
+  /**
+   * The copies using a shared index wait for each other to finish building it, which would block
+   * the worker threads of a pool with fewer workers than copies.
+   */
+  @Override
+  public boolean supportsPooledExecution() {
+    return !isUsingSharedIndex();
+  }
+
   /**
    * Returns the Input/Output metadata for this transform. The generator transform only produces
    * output, does not accept input!
@@ -658,6 +675,20 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     this.usingIntegerPair = usingIntegerPair;
   }
 
+  /**
+   * @return true if all copies of the transform share a single index of the lookup rows
+   */
+  public boolean isUsingSharedIndex() {
+    return usingSharedIndex;
+  }
+
+  /**
+   * @param usingSharedIndex the usingSharedIndex to set
+   */
+  public void setUsingSharedIndex(boolean usingSharedIndex) {
+    this.usingSharedIndex = usingSharedIndex;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for
    * consistency behavior with UI
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.streamlookup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * The lookup data of all the copies of a Stream Lookup transform. Every copy adds the rows it
+ * reads from the lookup stream, in parallel, and waits until all copies are done before it starts
+ * looking up rows. After that the index is only read, without locking.
+ *
+ * <p>Like the index of a single copy, a key which occurs more than once keeps the value of the last
+ * lookup row. Every row is added with its position in the lookup stream of its copy, so the result
+ * doesn't depend on the order in which the copies happen to add their rows.
+ */
+public class StreamLookupSharedIndex {
+
+  private final Map<RowMetaAndData, Entry> look;
+  private final CountDownLatch built;
+  private final AtomicInteger users;
+
+  private IRowMeta keyTypes;
+  private IRowMeta cacheKeyMeta;
+  private IRowMeta cacheValueMeta;
+  private IRowMeta infoMeta;
+
+  /**
+   * @param copies The number of copies of the transform which build and use the index
+   */
+  public StreamLookupSharedIndex(int copies) {
+    this.look = new ConcurrentHashMap<>(1024, 0.75f, Math.max(1, copies));
+    this.built = new CountDownLatch(copies);
+    this.users = new AtomicInteger(copies);
+  }
+
+  /**
+   * Keep the layout of the lookup rows for the copies which didn't receive any lookup rows
+   * themselves. The layout of the first copy to read a row is kept.
+   */
+  public synchronized void setRowMeta(
+      IRowMeta keyTypes, IRowMeta cacheKeyMeta, IRowMeta cacheValueMeta, IRowMeta infoMeta) {
+    if (this.cacheKeyMeta == null) {
+      this.keyTypes = keyTypes;
+      this.cacheKeyMeta = cacheKeyMeta;
+      this.cacheValueMeta = cacheValueMeta;
+      this.infoMeta = infoMeta;
+    }
+  }
+
+  /**
+   * Add a lookup row to the index.
+   *
+   * @param key The key of the lookup row
+   * @param value The values of the lookup row
+   * @param copyNr The copy which read the lookup row
+   * @param rowNr The position of the row in the lookup stream of that copy
+   */
+  public void put(RowMetaAndData key, Object[] value, int copyNr, long rowNr) {
+    look.merge(
+        key,
+        new Entry(value, copyNr, rowNr),
+        (previous, entry) -> entry.isAfter(previous) ? entry : previous);
+  }
+
+  public Object[] get(RowMetaAndData key) {
+    Entry entry = look.get(key);
+    return entry == null ? null : entry.value;
+  }
+
+  public int size() {
+    return look.size();
+  }
+
+  /** Signal that a copy added all its lookup rows */
+  public void buildDone() {
+    built.countDown();
+  }
+
+  /**
+   * Wait until all copies added their lookup rows.
+   *
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return true if all lookup rows are added, false if the time ran out
+   * @throws InterruptedException In case the wait is interrupted
+   */
+  public boolean awaitBuilt(long timeout, TimeUnit unit) throws InterruptedException {
+    return built.await(timeout, unit);
+  }
+
+  /**
+   * Signal that a copy is done using the index.
+   *
+   * @return true if this was the last copy using the index
+   */
+  public boolean release() {
+    return users.decrementAndGet() == 0;
+  }
+
+  /**
+   * @return true if any copy read lookup rows
+   */
+  public synchronized boolean hasLookupRows() {
+    return cacheKeyMeta != null;
+  }
+
+  /**
+   * Gets keyTypes
+   *
+   * @return value of keyTypes
+   */
+  public synchronized IRowMeta getKeyTypes() {
+    return keyTypes;
+  }
+
+  /**
+   * Gets cacheKeyMeta
+   *
+   * @return value of cacheKeyMeta
+   */
+  public synchronized IRowMeta getCacheKeyMeta() {
+    return cacheKeyMeta;
+  }
+
+  /**
+   * Gets cacheValueMeta
+   *
+   * @return value of cacheValueMeta
+   */
+  public synchronized IRowMeta getCacheValueMeta() {
+    return cacheValueMeta;
+  }
+
+  /**
+   * Gets infoMeta
+   *
+   * @return value of infoMeta
+   */
+  public synchronized IRowMeta getInfoMeta() {
+    return infoMeta;
+  }
+
+  /** The values of a lookup row and where it came from */
+  private static final class Entry {
+    private final Object[] value;
+    private final int copyNr;
+    private final long rowNr;
+
+    Entry(Object[] value, int copyNr, long rowNr) {
+      this.value = value;
+      this.copyNr = copyNr;
+      this.rowNr = rowNr;
+    }
+
+    /**
+     * The lookup rows are spread over the copies one after the other, so row n of copy c comes
+     * after row n of the copies before c and before row n + 1 of any copy.
+     */
+    boolean isAfter(Entry other) {
+      if (rowNr != other.rowNr) {
+        return rowNr > other.rowNr;
+      }
+      return copyNr > other.copyNr;
+    }
+  }
+}
@@ -59,6 +59,7 @@ public class StreamLookupMetaTest implements IInitializer<ITransformMeta> {
             "memoryPreservationActive",
             "usingSortedList",
             "usingIntegerPair",
+            "usingSharedIndex",
             "keystream",
             "keylookup",
             "value",
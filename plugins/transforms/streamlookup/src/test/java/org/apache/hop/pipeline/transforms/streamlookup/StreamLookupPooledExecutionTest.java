@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.streamlookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Runs Stream Lookup on the fixed pool of worker threads of the local pipeline engine. */
+public class StreamLookupPooledExecutionTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  /**
+   * The lookup stream holds more rows than fit in a row set. Its writer must not be throttled: the
+   * lookup transform only starts once the whole lookup stream is in.
+   */
+  @Test(timeout = 60000)
+  public void testLookupStreamLargerThanRowSet() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("pooled stream lookup");
+    TransformMeta lookupInput = new TransformMeta("lookup input", new InjectorMeta());
+    TransformMeta input = new TransformMeta("input", new InjectorMeta());
+
+    StreamLookupMeta streamLookupMeta = new StreamLookupMeta();
+    streamLookupMeta.allocate(1, 1);
+    streamLookupMeta.getKeystream()[0] = "id";
+    streamLookupMeta.getKeylookup()[0] = "key";
+    streamLookupMeta.getValue()[0] = "value";
+    streamLookupMeta.getValueName()[0] = "value";
+    streamLookupMeta.getValueDefaultType()[0] = IValueMeta.TYPE_INTEGER;
+    TransformMeta streamLookup = new TransformMeta("stream lookup", streamLookupMeta);
+    streamLookupMeta.getTransformIOMeta().getInfoStreams().get(0).setTransformMeta(lookupInput);
+
+    TransformMeta output = new TransformMeta("output", new DummyMeta());
+    pipelineMeta.addTransform(lookupInput);
+    pipelineMeta.addTransform(input);
+    pipelineMeta.addTransform(streamLookup);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(lookupInput, streamLookup));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(input, streamLookup));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(streamLookup, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setNrWorkerThreads(2);
+    pipeline.prepareExecution();
+    RowProducer lookupProducer = pipeline.addRowProducer("lookup input", 0);
+    RowProducer inputProducer = pipeline.addRowProducer("input", 0);
+
+    AtomicInteger nrRows = new AtomicInteger();
+    AtomicLong sum = new AtomicLong();
+    pipeline
+        .getTransform("output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                nrRows.incrementAndGet();
+                sum.addAndGet((Long) row[1]);
+              }
+            });
+    pipeline.startThreads();
+
+    int nrLookupRows = 3 * pipeline.getRowSetSize() + 11;
+    IRowMeta lookupRowMeta = new RowMeta();
+    lookupRowMeta.addValueMeta(new ValueMetaInteger("key"));
+    lookupRowMeta.addValueMeta(new ValueMetaInteger("value"));
+    for (long i = 0; i < nrLookupRows; i++) {
+      lookupProducer.putRow(lookupRowMeta, new Object[] {i, i * 10});
+    }
+    lookupProducer.finished();
+
+    int nrInputRows = 1000;
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    long expectedSum = 0;
+    for (long i = 0; i < nrInputRows; i++) {
+      long id = i * 3;
+      inputProducer.putRow(inputRowMeta, new Object[] {id});
+      expectedSum += id * 10;
+    }
+    inputProducer.finished();
+    pipeline.waitUntilFinished();
+
+    assertTrue(pipeline.isFinished());
+    assertEquals(0, pipeline.getErrors());
+    assertEquals(nrInputRows, nrRows.get());
+    assertEquals(expectedSum, sum.get());
+  }
+}
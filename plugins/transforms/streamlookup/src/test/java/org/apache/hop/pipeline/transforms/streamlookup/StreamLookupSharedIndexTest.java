@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.streamlookup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+public class StreamLookupSharedIndexTest {
+
+  private static IRowMeta keyMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  @Test
+  public void testCopiesBuildInParallel() throws Exception {
+    final int copies = 4;
+    final int rowsPerCopy = 10000;
+    StreamLookupSharedIndex index = new StreamLookupSharedIndex(copies);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < copies; c++) {
+      final int copy = c;
+      Thread thread =
+          new Thread(
+              () -> {
+                IRowMeta keyMeta = keyMeta();
+                for (long i = copy; i < (long) copies * rowsPerCopy; i += copies) {
+                  index.put(
+                    new RowMetaAndData(keyMeta, i), new Object[] {"value " + i}, copy, i / copies);
+                }
+                index.buildDone();
+              });
+      threads.add(thread);
+      thread.start();
+    }
+
+    assertTrue(index.awaitBuilt(30, TimeUnit.SECONDS));
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(copies * rowsPerCopy, index.size());
+
+    IRowMeta keyMeta = keyMeta();
+    assertArrayEquals(
+        new Object[] {"value 12345"}, index.get(new RowMetaAndData(keyMeta, 12345L)));
+    assertNull(index.get(new RowMetaAndData(keyMeta, -1L)));
+  }
+
+  @Test
+  public void testDuplicateKeyKeepsTheLastRowWhateverTheOrderOfTheCopies() {
+    IRowMeta keyMeta = keyMeta();
+    Object[] copy0row0 = new Object[] {"copy 0 row 0"};
+    Object[] copy1row0 = new Object[] {"copy 1 row 0"};
+    Object[] copy0row1 = new Object[] {"copy 0 row 1"};
+
+    StreamLookupSharedIndex index = new StreamLookupSharedIndex(2);
+    index.put(new RowMetaAndData(keyMeta, 1L), copy0row0, 0, 0);
+    index.put(new RowMetaAndData(keyMeta, 1L), copy1row0, 1, 0);
+    index.put(new RowMetaAndData(keyMeta, 2L), copy0row1, 0, 1);
+    index.put(new RowMetaAndData(keyMeta, 2L), copy1row0, 1, 0);
+
+    // The same rows, added by the copies in the opposite order
+    StreamLookupSharedIndex reversed = new StreamLookupSharedIndex(2);
+    reversed.put(new RowMetaAndData(keyMeta, 1L), copy1row0, 1, 0);
+    reversed.put(new RowMetaAndData(keyMeta, 1L), copy0row0, 0, 0);
+    reversed.put(new RowMetaAndData(keyMeta, 2L), copy1row0, 1, 0);
+    reversed.put(new RowMetaAndData(keyMeta, 2L), copy0row1, 0, 1);
+
+    for (StreamLookupSharedIndex i : List.of(index, reversed)) {
+      assertSame(copy1row0, i.get(new RowMetaAndData(keyMeta, 1L)));
+      assertSame(copy0row1, i.get(new RowMetaAndData(keyMeta, 2L)));
+    }
+  }
+
+  @Test
+  public void testNotBuiltUntilAllCopiesAreDone() throws Exception {
+    StreamLookupSharedIndex index = new StreamLookupSharedIndex(2);
+    index.buildDone();
+    assertFalse(index.awaitBuilt(10, TimeUnit.MILLISECONDS));
+    index.buildDone();
+    assertTrue(index.awaitBuilt(10, TimeUnit.MILLISECONDS));
+
+    assertFalse(index.release());
+    assertTrue(index.release());
+  }
+
+  @Test
+  public void testRowMetaOfFirstCopyIsKept() {
+    StreamLookupSharedIndex index = new StreamLookupSharedIndex(2);
+    assertFalse(index.hasLookupRows());
+
+    IRowMeta first = keyMeta();
+    IRowMeta values = new RowMeta();
+    values.addValueMeta(new ValueMetaString("name"));
+    index.setRowMeta(first, first, values, values);
+    index.setRowMeta(keyMeta(), keyMeta(), values, values);
+
+    assertTrue(index.hasLookupRows());
+    assertSame(first, index.getKeyTypes());
+    assertSame(first, index.getCacheKeyMeta());
+    assertSame(values, index.getCacheValueMeta());
+  }
+}
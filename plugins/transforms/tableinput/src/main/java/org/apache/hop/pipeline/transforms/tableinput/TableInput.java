@@ -26,6 +26,7 @@ import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -139,24 +140,8 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         return false;
       }
     } else {
-      if (data.thisrow != null) { // We can expect more rows
-
-        try {
-          data.nextrow = data.db.getRow(data.rs, false);
-        } catch (HopDatabaseException e) {
-          if (e.getCause() instanceof SQLException && isStopped()) {
-            // This exception indicates we tried reading a row after the statment for this transform
-            // was cancelled
-            // this is expected and ok so do not pass the exception up
-            logDebug(e.getMessage());
-            return false;
-          } else {
-            throw e;
-          }
-        }
-        if (data.nextrow != null) {
-          incrementLinesInput();
-        }
+      if (data.thisrow != null && !readNextRow()) { // We can expect more rows
+        return false;
       }
     }
 
@@ -195,14 +180,61 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         return false; // end of data or error.
       }
     } else {
-      putRow(data.rowMeta, data.thisrow); // fill the rowset(s). (wait for empty)
+      // Pass the rows along in batches to lower the overhead per row
+      //
+      data.rowBuffer.clear();
+      data.rowBuffer.add(data.thisrow);
       data.thisrow = data.nextrow;
 
+      boolean stoppedReading = false;
+      while (data.thisrow != null
+          && data.rowBuffer.size() < TableInputData.ROW_BATCH_SIZE
+          && !isStopped()) {
+        if (!readNextRow()) {
+          stoppedReading = true;
+          break;
+        }
+        data.rowBuffer.add(data.thisrow);
+        data.thisrow = data.nextrow;
+      }
+      putRows(data.rowMeta, data.rowBuffer); // fill the rowset(s). (wait for empty)
+      data.rowBuffer.clear();
+
+      if (stoppedReading) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Read the next row of the result set into data.nextrow
+   *
+   * @return false if the statement for this transform was cancelled
+   * @throws HopDatabaseException
+   */
+  private boolean readNextRow() throws HopDatabaseException {
+    try {
+      data.nextrow = data.db.getRow(data.rs, false);
+    } catch (HopDatabaseException e) {
+      if (e.getCause() instanceof SQLException && isStopped()) {
+        // This exception indicates we tried reading a row after the statment for this transform
+        // was cancelled
+        // this is expected and ok so do not pass the exception up
+        logDebug(e.getMessage());
+        return false;
+      } else {
+        throw e;
+      }
+    }
+    if (data.nextrow != null) {
+      incrementLinesInput();
+
       if (checkFeedback(getLinesInput()) && isBasic()) {
         logBasic("linenr " + getLinesInput());
       }
     }
-
     return true;
   }
 
@@ -224,6 +256,21 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       sql = meta.getSql();
     }
 
+    if (data.splitting) {
+      // Only read the slice of the split column range which belongs to this copy
+      //
+      RowMetaAndData queryParameters = new RowMetaAndData(parametersMeta.clone(), parameters);
+      sql = getSplitQuery(sql, queryParameters);
+      if (sql == null) {
+        // Nothing to read for this copy
+        data.rs = null;
+        data.thisrow = null;
+        return true;
+      }
+      parametersMeta = queryParameters.getRowMeta();
+      parameters = queryParameters.getData();
+    }
+
     if (isDetailed()) {
       logDetailed("SQL query : " + sql);
     }
@@ -261,6 +308,96 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     return success;
   }
 
+  /**
+   * Wrap the query so that only the slice of the split column range which belongs to this copy is
+   * read. The minimum and maximum of the split column are determined once for all the copies and
+   * the range is cut in as many equal parts as there are copies, see {@link TableInputSplitRange}.
+   *
+   * @param sql The query to split
+   * @param parameters The query parameters, the bounds of the slice are added to these
+   * @return The query for this copy or null if there is nothing to read for this copy
+   * @throws HopDatabaseException In case the range of the split column can't be determined
+   */
+  private String getSplitQuery(String sql, RowMetaAndData parameters) throws HopDatabaseException {
+    String query = Const.trimToType(sql, IValueMeta.TRIM_TYPE_RIGHT);
+    while (query.endsWith(";")) {
+      query = Const.trimToType(query.substring(0, query.length() - 1), IValueMeta.TRIM_TYPE_RIGHT);
+    }
+    String column = data.db.getDatabaseMeta().quoteField(data.splitField);
+    String subQuery = "(" + Const.CR + query + Const.CR + ") hop_split";
+
+    String rangeSql = "SELECT MIN(" + column + "), MAX(" + column + ") FROM " + subQuery;
+
+    // All the copies execute the same queries in the same order: the n-th execution of every copy
+    // shares the same range.
+    //
+    String queryKey = (data.nrSplitQueries++) + Const.CR + rangeSql;
+    if (!parameters.getRowMeta().isEmpty()) {
+      try {
+        queryKey += Const.CR + parameters.getRowMeta().getString(parameters.getData());
+      } catch (HopValueException e) {
+        throw new HopDatabaseException("Unable to describe the query parameters", e);
+      }
+    }
+    RowMetaAndData range =
+        data.splitRange.getRange(
+            queryKey,
+            () -> {
+              if (isDetailed()) {
+                logDetailed("Split range query : " + rangeSql);
+              }
+              if (parameters.getRowMeta().isEmpty()) {
+                return data.db.getOneRow(rangeSql);
+              }
+              return data.db.getOneRow(rangeSql, parameters.getRowMeta(), parameters.getData());
+            });
+    IValueMeta rangeMeta = range.getRowMeta().getValueMeta(0);
+    Object min = range.getData()[0];
+    Object max = range.getData()[1];
+
+    if (rangeMeta.isNull(min) || rangeMeta.isNull(max)) {
+      // Nothing but null values: the first copy reads everything
+      return getCopy() == 0 ? query : null;
+    }
+    if (!TableInputSplitRange.isSupported(rangeMeta)) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(
+              PKG,
+              "TableInput.Exception.SplitFieldTypeNotSupported",
+              data.splitField,
+              rangeMeta.getTypeDesc()));
+    }
+
+    int splitNr = getCopy();
+    int nrSplits = data.nrSplits;
+    try {
+      for (int slice : TableInputSplitRange.getBoundSlices(splitNr, nrSplits)) {
+        IValueMeta boundMeta = rangeMeta.clone();
+        boundMeta.setName("split_bound_" + slice);
+        boundMeta.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        parameters.addValue(
+            boundMeta, TableInputSplitRange.getBound(rangeMeta, min, max, slice, nrSplits));
+      }
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "TableInput.Log.SplitRange",
+                Integer.toString(splitNr + 1),
+                Integer.toString(nrSplits),
+                rangeMeta.getString(min),
+                rangeMeta.getString(max)));
+      }
+    } catch (HopValueException e) {
+      throw new HopDatabaseException(
+          "Unable to calculate the range of split field " + data.splitField, e);
+    }
+    return "SELECT * FROM "
+        + subQuery
+        + " WHERE "
+        + TableInputSplitRange.getWhere(column, splitNr, nrSplits);
+  }
+
   @Override
   public void dispose() {
     if (isBasic()) {
@@ -277,6 +414,10 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         data.db.disconnect();
         data.db = null;
       }
+      if (data.splitRange != null) {
+        TableInputSplitRange.release(data.splitRangeKey);
+        data.splitRange = null;
+      }
     }
 
     super.dispose();
@@ -323,6 +464,32 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         data.infoStream.setSubject(meta.getLookup());
       }
 
+      // Split the query over the copies of this transform?
+      //
+      data.splitField = resolve(meta.getSplitField());
+      data.nrSplits = getTransformMeta().getCopies(this);
+      data.splitting = !Utils.isEmpty(data.splitField) && data.nrSplits > 1;
+      if (data.splitting) {
+        String sql = meta.isVariableReplacementActive() ? resolve(meta.getSql()) : meta.getSql();
+        if (TableInputSplitRange.isOrdered(sql)) {
+          logError(
+              BaseMessages.getString(
+                  PKG, "TableInput.Exception.SplitQueryIsOrdered", data.splitField));
+          return false;
+        }
+        // Every copy has to execute the same queries, so it needs to see all the parameter rows
+        //
+        String distributing = getDistributingInfoTransform(getPipelineMeta(), getTransformMeta());
+        if (distributing != null) {
+          logError(
+              BaseMessages.getString(
+                  PKG, "TableInput.Exception.SplitQueryParametersDistributed", distributing));
+          return false;
+        }
+        data.splitRangeKey = getPipeline().getLogChannelId() + Const.CR + getTransformName();
+        data.splitRange = TableInputSplitRange.attach(data.splitRangeKey);
+      }
+
       DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
 
       data.db = new Database(this, this, databaseMeta);
@@ -348,6 +515,24 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     return false;
   }
 
+  /**
+   * Find a transform which distributes the rows (parameters) it hands to the copies of this
+   * transform instead of copying them to all of them.
+   *
+   * @param pipelineMeta The pipeline metadata
+   * @param transformMeta The metadata of this transform
+   * @return The name of the first transform distributing its rows or null if there is none
+   */
+  static String getDistributingInfoTransform(
+      PipelineMeta pipelineMeta, TransformMeta transformMeta) {
+    for (TransformMeta previous : pipelineMeta.findPreviousTransforms(transformMeta)) {
+      if (previous.isDistributes()) {
+        return previous.getName();
+      }
+    }
+    return null;
+  }
+
   public boolean isWaitingForData() {
     return true;
   }
@@ -18,6 +18,8 @@
 package org.apache.hop.pipeline.transforms.tableinput;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.row.IRowMeta;
@@ -27,6 +29,9 @@ import org.apache.hop.pipeline.transform.stream.IStream;
 
 @SuppressWarnings("java:S1104")
 public class TableInputData extends BaseTransformData implements ITransformData {
+  /** The maximum number of rows passed to the next transforms in one go */
+  public static final int ROW_BATCH_SIZE = 500;
+
   public Object[] nextrow;
   public Object[] thisrow;
   public Database db;
@@ -36,6 +41,21 @@ public class TableInputData extends BaseTransformData implements ITransformData
   public IRowSet rowSet;
   public boolean isCanceled;
   public IStream infoStream;
+  public List<Object[]> rowBuffer;
+
+  /** True if the query is split over the copies of the transform */
+  public boolean splitting;
+
+  public String splitField;
+  public int nrSplits;
+
+  /** The range of the split field, shared by all the copies */
+  public TableInputSplitRange splitRange;
+
+  public String splitRangeKey;
+
+  /** The number of times this copy executed the split query */
+  public long nrSplitQueries;
 
   public TableInputData() {
     super();
@@ -45,5 +65,6 @@ public class TableInputData extends BaseTransformData implements ITransformData
     nextrow = null;
     rs = null;
     lookupTransform = null;
+    rowBuffer = new ArrayList<>(ROW_BATCH_SIZE);
   }
 }
@@ -83,6 +83,8 @@ public class TableInputDialog extends BaseTransformDialog {
 
   private TextVar wLimit;
 
+  private TextVar wSplitField;
+
   private Label wlEachRow;
   private Button wEachRow;
 
@@ -169,6 +171,26 @@ public class TableInputDialog extends BaseTransformDialog {
     fdLimit.bottom = new FormAttachment(wlLimit, 0, SWT.CENTER);
     wLimit.setLayoutData(fdLimit);
 
+    // Split the query over the transform copies on a column
+    Label wlSplitField = new Label(shell, SWT.RIGHT);
+    wlSplitField.setText(BaseMessages.getString(PKG, "TableInputDialog.SplitField"));
+    wlSplitField.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.SplitField.Tooltip"));
+    PropsUi.setLook(wlSplitField);
+    FormData fdlSplitField = new FormData();
+    fdlSplitField.left = new FormAttachment(0, 0);
+    fdlSplitField.right = new FormAttachment(middle, -margin);
+    fdlSplitField.bottom = new FormAttachment(wlLimit, -margin);
+    wlSplitField.setLayoutData(fdlSplitField);
+    wSplitField = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSplitField.setToolTipText(BaseMessages.getString(PKG, "TableInputDialog.SplitField.Tooltip"));
+    PropsUi.setLook(wSplitField);
+    wSplitField.addModifyListener(lsMod);
+    FormData fdSplitField = new FormData();
+    fdSplitField.left = new FormAttachment(middle, 0);
+    fdSplitField.right = new FormAttachment(100, 0);
+    fdSplitField.bottom = new FormAttachment(wlSplitField, 0, SWT.CENTER);
+    wSplitField.setLayoutData(fdSplitField);
+
     // Execute for each row?
     wlEachRow = new Label(shell, SWT.RIGHT);
     wlEachRow.setText(BaseMessages.getString(PKG, "TableInputDialog.ExecuteForEachRow"));
@@ -176,7 +198,7 @@ public class TableInputDialog extends BaseTransformDialog {
     FormData fdlEachRow = new FormData();
     fdlEachRow.left = new FormAttachment(0, 0);
     fdlEachRow.right = new FormAttachment(middle, -margin);
-    fdlEachRow.bottom = new FormAttachment(wlLimit, -margin);
+    fdlEachRow.bottom = new FormAttachment(wlSplitField, -margin);
     wlEachRow.setLayoutData(fdlEachRow);
     wEachRow = new Button(shell, SWT.CHECK);
     PropsUi.setLook(wEachRow);
@@ -424,6 +446,7 @@ public class TableInputDialog extends BaseTransformDialog {
     }
 
     wLimit.setText(Const.NVL(input.getRowLimit(), ""));
+    wSplitField.setText(Const.NVL(input.getSplitField(), ""));
     wDataFrom.setText(Const.NVL(input.getLookup(), ""));
     wEachRow.setSelection(input.isExecuteEachInputRow());
     wVariables.setSelection(input.isVariableReplacementActive());
@@ -451,6 +474,7 @@ public class TableInputDialog extends BaseTransformDialog {
             : wSql.getText());
 
     meta.setRowLimit(wLimit.getText());
+    meta.setSplitField(wSplitField.getText());
     meta.setExecuteEachInputRow(wEachRow.getSelection());
     meta.setVariableReplacementActive(wVariables.getSelection());
     meta.setLookup(wDataFrom.getText());
@@ -88,6 +88,10 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
   @HopMetadataProperty private String lookup;
 
+  /** The column to split the query on over the copies of the transform */
+  @HopMetadataProperty(key = "split_field", injectionKey = "SPLIT_FIELD")
+  private String splitField;
+
   public TableInputMeta() {
     super();
   }
@@ -150,6 +154,22 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
     this.lookup = lookup;
   }
 
+  /**
+   * Gets splitField
+   *
+   * @return value of splitField
+   */
+  public String getSplitField() {
+    return splitField;
+  }
+
+  /**
+   * @param splitField The column to split the query on over the copies of the transform
+   */
+  public void setSplitField(String splitField) {
+    this.splitField = splitField;
+  }
+
   @Override
   public Object clone() {
     TableInputMeta retval = (TableInputMeta) super.clone();
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * The range of the split column of a Table Input transform which runs in multiple copies. The
+ * minimum and maximum are queried once, by the first copy which needs them, and shared with the
+ * other copies so that every copy cuts the same range in the same slices. The copies attach to the
+ * range when they are initialized and release it when they are disposed. A range is forgotten once
+ * every copy got it, so that executing the query for every input row doesn't keep all the ranges.
+ */
+public class TableInputSplitRange {
+
+  private static final Map<String, TableInputSplitRange> ranges = new ConcurrentHashMap<>();
+
+  private static final Pattern ORDER_BY =
+      Pattern.compile("\\bORDER\\s+BY\\b", Pattern.CASE_INSENSITIVE);
+
+  /** Runs the query which determines the minimum and maximum of the split column */
+  @FunctionalInterface
+  public interface IRangeQuery {
+    RowMetaAndData execute() throws HopDatabaseException;
+  }
+
+  /** The minimum and maximum per range query and parameter values */
+  private final Map<String, QueryRange> queryRanges;
+
+  private int nrAttached;
+
+  private static class QueryRange {
+    private final RowMetaAndData range;
+    private int nrCopiesServed;
+
+    QueryRange(RowMetaAndData range) {
+      this.range = range;
+    }
+  }
+
+  private TableInputSplitRange() {
+    queryRanges = new HashMap<>();
+  }
+
+  /**
+   * Attach to the shared range of the copies of a transform.
+   *
+   * @param key Identifies the transform in the running pipeline
+   * @return The shared range
+   */
+  public static TableInputSplitRange attach(String key) {
+    return ranges.compute(
+        key,
+        (k, range) -> {
+          if (range == null) {
+            range = new TableInputSplitRange();
+          }
+          range.nrAttached++;
+          return range;
+        });
+  }
+
+  /**
+   * Release the shared range, it's removed when the last copy released it.
+   *
+   * @param key Identifies the transform in the running pipeline
+   */
+  public static void release(String key) {
+    ranges.computeIfPresent(key, (k, range) -> --range.nrAttached == 0 ? null : range);
+  }
+
+  /**
+   * Get the minimum and maximum of the split column. Only the first copy asking for the range of a
+   * query executes it, the other copies wait for the result. Every copy asks for the range of an
+   * execution once: after the last copy got it, the range is removed.
+   *
+   * @param queryKey The execution of the query, the range query and the values of its parameters
+   * @param query Determines the range if no copy did so yet
+   * @return A row with the minimum and maximum of the split column
+   * @throws HopDatabaseException In case the range can't be determined
+   */
+  public synchronized RowMetaAndData getRange(String queryKey, IRangeQuery query)
+      throws HopDatabaseException {
+    QueryRange queryRange = queryRanges.get(queryKey);
+    if (queryRange == null) {
+      queryRange = new QueryRange(query.execute());
+      queryRanges.put(queryKey, queryRange);
+    }
+    if (++queryRange.nrCopiesServed >= nrAttached) {
+      queryRanges.remove(queryKey);
+    }
+    return queryRange.range;
+  }
+
+  /**
+   * @return The number of ranges which not every copy got yet
+   */
+  synchronized int getNrQueryRanges() {
+    return queryRanges.size();
+  }
+
+  /**
+   * A query can only be split if the order of the rows doesn't matter: the copies read their
+   * slices side by side. An ORDER BY of the query itself is also not allowed in a derived table on
+   * all databases. ORDER BY clauses between parentheses, in a sub-query or a window function, don't
+   * count.
+   *
+   * @param sql The query
+   * @return true if the query has an ORDER BY clause of its own
+   */
+  public static boolean isOrdered(String sql) {
+    StringBuilder outer = new StringBuilder(sql.length());
+    int depth = 0;
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth = Math.max(0, depth - 1);
+      } else if (depth == 0) {
+        outer.append(c);
+        continue;
+      }
+      // Keep the words around quoted and parenthesized parts apart
+      if (depth == 0 && quote == 0) {
+        outer.append(' ');
+      }
+    }
+    return ORDER_BY.matcher(outer).find();
+  }
+
+  /**
+   * @param valueMeta The type of the split column
+   * @return true if a query can be split on a column of this type
+   */
+  public static boolean isSupported(IValueMeta valueMeta) {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER,
+          IValueMeta.TYPE_NUMBER,
+          IValueMeta.TYPE_BIGNUMBER,
+          IValueMeta.TYPE_DATE,
+          IValueMeta.TYPE_TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Get the condition on the split column for a copy, with a parameter for every bound. The first
+   * copy also reads the null values and the first and last slices are open-ended so that no rows
+   * are lost if the range changes in the meantime.
+   *
+   * @param column The quoted split column
+   * @param splitNr The copy, from 0
+   * @param nrSplits The number of copies
+   * @return The condition
+   */
+  public static String getWhere(String column, int splitNr, int nrSplits) {
+    if (splitNr == 0) {
+      return column + " < ? OR " + column + " IS NULL";
+    } else if (splitNr == nrSplits - 1) {
+      return column + " >= ?";
+    } else {
+      return column + " >= ? AND " + column + " < ?";
+    }
+  }
+
+  /**
+   * Get the slices whose lower bound is a parameter of the condition of a copy, in the order of
+   * {@link #getWhere(String, int, int)}.
+   *
+   * @param splitNr The copy, from 0
+   * @param nrSplits The number of copies
+   * @return The slice numbers to pass to {@link #getBound(IValueMeta, Object, Object, int, int)}
+   */
+  public static int[] getBoundSlices(int splitNr, int nrSplits) {
+    if (splitNr == 0) {
+      return new int[] {1};
+    } else if (splitNr == nrSplits - 1) {
+      return new int[] {splitNr};
+    } else {
+      return new int[] {splitNr, splitNr + 1};
+    }
+  }
+
+  /**
+   * Calculate the lower bound of a slice of the range [min, max] cut in equal slices.
+   *
+   * @param rangeMeta The type of the minimum and maximum, one of the supported types
+   * @param min The minimum
+   * @param max The maximum
+   * @param slice The slice, from 0
+   * @param nrSplits The number of slices
+   * @return The bound, of the same type as the minimum and maximum
+   * @throws HopValueException In case the minimum or maximum can't be converted
+   */
+  public static Object getBound(
+      IValueMeta rangeMeta, Object min, Object max, int slice, int nrSplits)
+      throws HopValueException {
+    BigDecimal low;
+    BigDecimal high;
+    switch (rangeMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        low = BigDecimal.valueOf(rangeMeta.getInteger(min));
+        high = BigDecimal.valueOf(rangeMeta.getInteger(max));
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        low = BigDecimal.valueOf(rangeMeta.getNumber(min));
+        high = BigDecimal.valueOf(rangeMeta.getNumber(max));
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        low = rangeMeta.getBigNumber(min);
+        high = rangeMeta.getBigNumber(max);
+        break;
+      default:
+        low = BigDecimal.valueOf(rangeMeta.getDate(min).getTime());
+        high = BigDecimal.valueOf(rangeMeta.getDate(max).getTime());
+        break;
+    }
+
+    BigDecimal bound =
+        low.add(
+            high.subtract(low)
+                .multiply(BigDecimal.valueOf(slice))
+                .divide(BigDecimal.valueOf(nrSplits), MathContext.DECIMAL128));
+
+    switch (rangeMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return bound.setScale(0, RoundingMode.FLOOR).longValue();
+      case IValueMeta.TYPE_NUMBER:
+        return bound.doubleValue();
+      case IValueMeta.TYPE_BIGNUMBER:
+        return bound;
+      case IValueMeta.TYPE_TIMESTAMP:
+        return new Timestamp(bound.setScale(0, RoundingMode.FLOOR).longValue());
+      default:
+        return new Date(bound.setScale(0, RoundingMode.FLOOR).longValue());
+    }
+  }
+}
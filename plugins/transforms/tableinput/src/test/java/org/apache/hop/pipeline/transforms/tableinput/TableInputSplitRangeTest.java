@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Test;
+
+public class TableInputSplitRangeTest {
+
+  @Test
+  public void testWhere() {
+    // The first copy also reads the null values, the last copy has no upper bound
+    assertEquals("id < ? OR id IS NULL", TableInputSplitRange.getWhere("id", 0, 3));
+    assertEquals("id >= ? AND id < ?", TableInputSplitRange.getWhere("id", 1, 3));
+    assertEquals("id >= ?", TableInputSplitRange.getWhere("id", 2, 3));
+
+    assertArrayEquals(new int[] {1}, TableInputSplitRange.getBoundSlices(0, 3));
+    assertArrayEquals(new int[] {1, 2}, TableInputSplitRange.getBoundSlices(1, 3));
+    assertArrayEquals(new int[] {2}, TableInputSplitRange.getBoundSlices(2, 3));
+
+    // With two copies there is no middle slice
+    assertEquals("id < ? OR id IS NULL", TableInputSplitRange.getWhere("id", 0, 2));
+    assertEquals("id >= ?", TableInputSplitRange.getWhere("id", 1, 2));
+    assertArrayEquals(new int[] {1}, TableInputSplitRange.getBoundSlices(1, 2));
+  }
+
+  @Test
+  public void testIntegerBounds() throws Exception {
+    ValueMetaInteger meta = new ValueMetaInteger("id");
+    assertEquals(0L, TableInputSplitRange.getBound(meta, 0L, 100L, 0, 4));
+    assertEquals(25L, TableInputSplitRange.getBound(meta, 0L, 100L, 1, 4));
+    assertEquals(50L, TableInputSplitRange.getBound(meta, 0L, 100L, 2, 4));
+    assertEquals(75L, TableInputSplitRange.getBound(meta, 0L, 100L, 3, 4));
+
+    // Rounded down
+    assertEquals(3L, TableInputSplitRange.getBound(meta, 0L, 10L, 1, 3));
+    assertEquals(-4L, TableInputSplitRange.getBound(meta, -10L, 0L, 2, 3));
+
+    // The whole range of a long doesn't overflow
+    assertEquals(-1L, TableInputSplitRange.getBound(meta, Long.MIN_VALUE, Long.MAX_VALUE, 1, 2));
+  }
+
+  @Test
+  public void testNumberBounds() throws Exception {
+    assertEquals(1.5d, TableInputSplitRange.getBound(new ValueMetaNumber("n"), 1.0d, 2.0d, 1, 2));
+    assertEquals(
+        new BigDecimal("12.5"),
+        ((BigDecimal)
+                TableInputSplitRange.getBound(
+                    new ValueMetaBigNumber("n"), new BigDecimal("10"), new BigDecimal("20"), 1, 4))
+            .stripTrailingZeros());
+  }
+
+  @Test
+  public void testDateBounds() throws Exception {
+    Object bound =
+        TableInputSplitRange.getBound(new ValueMetaDate("d"), new Date(1000), new Date(2000), 1, 2);
+    assertEquals(Date.class, bound.getClass());
+    assertEquals(1500L, ((Date) bound).getTime());
+
+    bound =
+        TableInputSplitRange.getBound(
+            new ValueMetaTimestamp("t"), new Timestamp(1000), new Timestamp(2000), 1, 4);
+    assertTrue(bound instanceof Timestamp);
+    assertEquals(1250L, ((Timestamp) bound).getTime());
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    assertTrue(TableInputSplitRange.isSupported(new ValueMetaInteger("i")));
+    assertTrue(TableInputSplitRange.isSupported(new ValueMetaDate("d")));
+    assertFalse(TableInputSplitRange.isSupported(new ValueMetaString("s")));
+  }
+
+  @Test
+  public void testRangeIsSharedByTheCopies() throws Exception {
+    TableInputSplitRange first = TableInputSplitRange.attach("pipeline\ntransform");
+    TableInputSplitRange second = TableInputSplitRange.attach("pipeline\ntransform");
+    assertSame(first, second);
+
+    AtomicInteger nrQueries = new AtomicInteger();
+    RowMetaAndData range = new RowMetaAndData();
+    range.addValue(new ValueMetaInteger("min"), 1L);
+    range.addValue(new ValueMetaInteger("max"), 100L);
+    TableInputSplitRange.IRangeQuery query =
+        () -> {
+          nrQueries.incrementAndGet();
+          return range;
+        };
+
+    assertSame(range, first.getRange("0\nquery", query));
+    assertEquals(1, first.getNrQueryRanges());
+    assertSame(range, second.getRange("0\nquery", query));
+    assertEquals(1, nrQueries.get());
+
+    // Every copy got the range: it's not kept when the query is executed for every input row
+    assertEquals(0, first.getNrQueryRanges());
+
+    // Other executions need a range of their own
+    first.getRange("1\nquery", query);
+    second.getRange("1\nquery", query);
+    assertEquals(2, nrQueries.get());
+    assertEquals(0, first.getNrQueryRanges());
+
+    // Once all the copies released it, the next run starts over
+    TableInputSplitRange.release("pipeline\ntransform");
+    TableInputSplitRange.release("pipeline\ntransform");
+    TableInputSplitRange next = TableInputSplitRange.attach("pipeline\ntransform");
+    assertNotSame(first, next);
+    TableInputSplitRange.release("pipeline\ntransform");
+  }
+
+  @Test
+  public void testOrderedQuery() {
+    assertTrue(TableInputSplitRange.isOrdered("SELECT * FROM customers ORDER BY id"));
+    assertTrue(TableInputSplitRange.isOrdered("select *\nfrom customers\norder\n  by id desc;"));
+    assertTrue(
+        TableInputSplitRange.isOrdered(
+            "SELECT * FROM (SELECT * FROM customers) c WHERE name <> ')' ORDER BY id"));
+
+    assertFalse(TableInputSplitRange.isOrdered("SELECT * FROM customers"));
+    assertFalse(TableInputSplitRange.isOrdered("SELECT * FROM reorder_by_day"));
+    assertFalse(TableInputSplitRange.isOrdered("SELECT * FROM customers WHERE note = 'order by'"));
+
+    // Ordering in a window function or sub-query doesn't order the result
+    assertFalse(
+        TableInputSplitRange.isOrdered(
+            "SELECT id, ROW_NUMBER() OVER (PARTITION BY region ORDER BY id) FROM customers"));
+    assertFalse(
+        TableInputSplitRange.isOrdered(
+            "SELECT * FROM (SELECT TOP 10 * FROM customers ORDER BY id) c"));
+  }
+}
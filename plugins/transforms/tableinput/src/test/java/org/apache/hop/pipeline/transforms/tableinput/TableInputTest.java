@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class TableInputTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @BeforeClass
+  public static void beforeClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  /**
+   * Two copies of a split query get their parameters from a transform. When the parameter rows are
+   * distributed, every copy executes another query and the other parts of it would never be read.
+   */
+  private PipelineMeta createPipeline(boolean distributes) {
+    TableInputMeta tableInputMeta = new TableInputMeta();
+    tableInputMeta.setDefault();
+    tableInputMeta.setConnection("db");
+    tableInputMeta.setSql("SELECT * FROM orders WHERE customer_id = ?");
+    tableInputMeta.setLookup("parameters");
+    tableInputMeta.setExecuteEachInputRow(true);
+    tableInputMeta.setSplitField("id");
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("split table input");
+    TransformMeta parameters = new TransformMeta("parameters", new InjectorMeta());
+    parameters.setDistributes(distributes);
+    TransformMeta tableInput = new TransformMeta("table input", tableInputMeta);
+    tableInput.setCopies(2);
+    pipelineMeta.addTransform(parameters);
+    pipelineMeta.addTransform(tableInput);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(parameters, tableInput));
+    return pipelineMeta;
+  }
+
+  @Test
+  public void testDistributingInfoTransform() {
+    PipelineMeta pipelineMeta = createPipeline(true);
+    TransformMeta tableInput = pipelineMeta.findTransform("table input");
+    assertEquals("parameters", TableInput.getDistributingInfoTransform(pipelineMeta, tableInput));
+
+    pipelineMeta = createPipeline(false);
+    tableInput = pipelineMeta.findTransform("table input");
+    assertNull(TableInput.getDistributingInfoTransform(pipelineMeta, tableInput));
+  }
+
+  @Test
+  public void testSplitQueryRefusesDistributedParameters() throws Exception {
+    assertTrue(getInitError(createPipeline(true)).contains("instead of distributing them"));
+
+    // Copied parameter rows pass the check, initialization only fails on the missing connection
+    assertFalse(getInitError(createPipeline(false)).contains("instead of distributing them"));
+  }
+
+  private String getInitError(PipelineMeta pipelineMeta) {
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    // The log of the transforms is passed along with the exception in preview mode
+    pipeline.setPreview(true);
+    return assertThrows(HopException.class, pipeline::prepareExecution).getMessage();
+  }
+}
@@ -110,6 +110,16 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           }
         }
       }
+
+      if (meta.isUseBulkLoad()) {
+        data.bulkLoad = canBulkLoad();
+        if (data.bulkLoad && data.batchWriter != null) {
+          // The rows are all loaded over the connection of the transform
+          //
+          data.batchWriter.close();
+          data.batchWriter = null;
+        }
+      }
     }
 
     try {
@@ -228,6 +238,29 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       throw new HopTransformException("The tablename is not defined (empty)");
     }
 
+    if (data.bulkLoad) {
+      writeToBulkLoader(insertRowData, outputRowData);
+      return null;
+    }
+
+    if (data.batchWriter != null) {
+      // Hand the row over to the background writers, it is passed on once its batch is written
+      //
+      String sql = data.insertStatements.get(tableName);
+      if (sql == null) {
+        sql =
+            data.db.getInsertStatement(
+                resolve(meta.getSchemaName()), tableName, data.insertRowMeta);
+        if (isDetailed()) {
+          logDetailed("Prepared statement : " + sql);
+        }
+        data.insertStatements.put(tableName, sql);
+      }
+      data.batchWriter.addRow(tableName, sql, data.insertRowMeta, insertRowData, outputRowData);
+      processWrittenRows(false);
+      return null;
+    }
+
     insertStatement = data.preparedStatements.get(tableName);
     if (insertStatement == null) {
       String sql =
@@ -356,22 +389,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         errorMessage = dbe.toString();
       } else {
         if (meta.isIgnoreErrors()) {
-          if (data.warnings < 20) {
-            if (isBasic()) {
-              logBasic(
-                  "WARNING: Couldn't insert row into table: "
-                      + rowMeta.getString(r)
-                      + Const.CR
-                      + dbe.getMessage());
-            }
-          } else if (data.warnings == 20 && isBasic()) {
-            logBasic(
-                "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
-                    + rowMeta.getString(r)
-                    + Const.CR
-                    + dbe.getMessage());
-          }
-          data.warnings++;
+          logIgnoredError(rowMeta.getString(r), dbe.getMessage());
         } else {
           setErrors(getErrors() + 1);
           data.db.rollback();
@@ -426,6 +444,154 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return outputRowData;
   }
 
+  /**
+   * See if the rows can be loaded with the bulk load mechanism of the database. A bulk load is
+   * loaded completely or not at all so it can't be combined with error handling, and all rows need
+   * to go to the same table.
+   *
+   * @return true if the rows can be loaded in bulk
+   */
+  private boolean canBulkLoad() {
+    String reason = null;
+    if (!data.databaseMeta.getIDatabase().supportsBulkLoad(data.insertRowMeta)) {
+      reason =
+          BaseMessages.getString(
+              PKG, "TableOutput.Warning.BulkLoadNotSupported", data.databaseMeta.getPluginName());
+    } else if (meta.isTableNameInField() || meta.isPartitioningEnabled()) {
+      reason = BaseMessages.getString(PKG, "TableOutput.Warning.BulkLoadNeedsSingleTable");
+    } else if (meta.isReturningGeneratedKeys()) {
+      reason = BaseMessages.getString(PKG, "TableOutput.Warning.BulkLoadNoGeneratedKeys");
+    } else if (getTransformMeta().isDoingErrorHandling() || meta.isIgnoreErrors()) {
+      reason = BaseMessages.getString(PKG, "TableOutput.Warning.BulkLoadNoErrorHandling");
+    }
+    if (reason != null) {
+      logBasic(BaseMessages.getString(PKG, "TableOutput.Warning.BulkLoadFallback", reason));
+      return false;
+    }
+    if (isDetailed()) {
+      logDetailed("Loading the rows with the bulk load mechanism of the database");
+    }
+    return true;
+  }
+
+  /**
+   * Add a row to the bulk load and pass it on right away, the same as a regular insert which is
+   * passed on before it's committed. Keeping the rows until the commit would hold the whole load in
+   * memory with a commit size of 0. There is no error handling for bulk loads, so a row never has
+   * to be sent to the error stream afterwards.
+   *
+   * @param insertRowData The row to load
+   * @param outputRowData The row to pass on
+   * @throws HopException In case the row can't be loaded
+   */
+  private void writeToBulkLoader(Object[] insertRowData, Object[] outputRowData)
+      throws HopException {
+    if (data.bulkLoader == null) {
+      data.bulkLoader =
+          data.db.createBulkLoader(
+              resolve(meta.getSchemaName()), data.tableName, data.insertRowMeta);
+    }
+    try {
+      data.bulkLoader.addRow(insertRowData);
+    } catch (HopDatabaseException e) {
+      setErrors(getErrors() + 1);
+      throw new HopException("Error bulk loading rows into table [" + data.tableName + "]", e);
+    }
+    if (isRowLevel()) {
+      logRowlevel("Loaded row: " + data.insertRowMeta.getString(insertRowData));
+    }
+    putRow(data.outputRowMeta, outputRowData);
+    incrementLinesOutput();
+    data.bulkLoadCounter++;
+
+    if (data.bulkLoadCounter >= data.commitSize) {
+      finishBulkLoad();
+    }
+  }
+
+  /**
+   * Wait until the rows of the current bulk load are loaded and commit them.
+   *
+   * @throws HopException In case the rows couldn't be loaded
+   */
+  private void finishBulkLoad() throws HopException {
+    try {
+      long rows = data.bulkLoader.finish();
+      if (isDetailed()) {
+        logDetailed("Bulk loaded " + rows + " rows into table [" + data.tableName + "]");
+      }
+    } catch (HopDatabaseException e) {
+      setErrors(getErrors() + 1);
+      throw new HopException("Error bulk loading rows into table [" + data.tableName + "]", e);
+    } finally {
+      data.bulkLoader.close();
+      data.bulkLoader = null;
+      data.bulkLoadCounter = 0;
+    }
+    data.db.commit();
+  }
+
+  /**
+   * Pass on the rows which were written in the background, in the order in which they were added.
+   * Rows of a batch which failed go to error handling if that is enabled. When insert errors are
+   * ignored they are logged and passed on.
+   *
+   * @param waitForAll true to wait until all the rows are written
+   * @throws HopException In case a batch failed without error handling or ignoring insert errors
+   */
+  private void processWrittenRows(boolean waitForAll) throws HopException {
+    TableOutputBatchWriter.WrittenRow writtenRow;
+    while ((writtenRow = data.batchWriter.nextWrittenRow(waitForAll)) != null) {
+      HopDatabaseException exception = writtenRow.getException();
+      boolean errorHandling = getTransformMeta().isDoingErrorHandling();
+      if (exception != null && !errorHandling && !meta.isIgnoreErrors()) {
+        setErrors(getErrors() + 1);
+        throw new HopException(
+            "Error batch inserting rows into table [" + writtenRow.getTableName() + "].",
+            exception);
+      }
+      String errorMessage = writtenRow.getErrorMessage();
+      if (errorMessage != null && !errorHandling) {
+        // Ignore insert errors: the row is passed on, the same as a single insert which failed
+        //
+        logIgnoredError(data.outputRowMeta.getString(writtenRow.getOutputRow()), errorMessage);
+        errorMessage = null;
+      }
+      if (errorMessage == null) {
+        putRow(data.outputRowMeta, writtenRow.getOutputRow());
+        incrementLinesOutput();
+      } else {
+        // Without update counts all the rows of the batch are considered to be in error
+        //
+        boolean updateCounts =
+            exception instanceof HopDatabaseBatchException be && be.getUpdateCounts() != null;
+        putError(
+            data.outputRowMeta,
+            writtenRow.getOutputRow(),
+            1L,
+            errorMessage,
+            null,
+            updateCounts ? "TOP0002" : "TOP0003");
+      }
+    }
+  }
+
+  /** Log a row which couldn't be inserted while insert errors are ignored, the first 20 only */
+  private void logIgnoredError(String row, String message) {
+    if (data.warnings < 20) {
+      if (isBasic()) {
+        logBasic("WARNING: Couldn't insert row into table: " + row + Const.CR + message);
+      }
+    } else if (data.warnings == 20 && isBasic()) {
+      logBasic(
+          "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
+              + row
+              + Const.CR
+              + message);
+    }
+    data.warnings++;
+  }
+
   private void processBatchException(
       String errorMessage, int[] updateCounts, List<Exception> exceptionsList) throws HopException {
     // There was an error with the commit
@@ -535,6 +701,28 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         }
         data.db.setCommit(data.commitSize);
 
+        // Write the batches in the background?
+        //
+        int nrWriters = Const.toInt(resolve(meta.getAsyncWriters()), 0);
+        if (nrWriters > 0) {
+          if (data.db.getUseBatchInsert(data.batchMode) && data.commitSize < Integer.MAX_VALUE) {
+            data.batchWriter =
+                new TableOutputBatchWriter(
+                    this,
+                    this,
+                    data.databaseMeta,
+                    nrWriters,
+                    data.commitSize,
+                    getTransformMeta().isDoingErrorHandling() || meta.isIgnoreErrors());
+            data.batchWriter.open();
+            if (isDetailed()) {
+              logDetailed("Writing batches in the background over " + nrWriters + " connection(s)");
+            }
+          } else {
+            logBasic(BaseMessages.getString(PKG, "TableOutput.Warning.AsyncWritersNeedBatchMode"));
+          }
+        }
+
         if (!meta.isPartitioningEnabled() && !meta.isTableNameInField()) {
           data.tableName = resolve(meta.getTableName());
         }
@@ -555,6 +743,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       //
       if (meta.isTruncateTable() && ((getCopy() == 0) || !Utils.isEmpty(getPartitionId()))) {
         data.db.truncateTable(resolve(meta.getSchemaName()), resolve(meta.getTableName()));
+        if (data.batchWriter != null) {
+          // The background writers use connections of their own
+          data.db.commit(true);
+        }
       }
     }
   }
@@ -566,6 +758,14 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       try {
         emptyAndCommitBatchBuffers(true);
       } finally {
+        if (data.bulkLoader != null) {
+          data.bulkLoader.close();
+          data.bulkLoader = null;
+        }
+        if (data.batchWriter != null) {
+          data.batchWriter.close();
+          data.batchWriter = null;
+        }
         data.db.disconnect();
         // Free data structures to enable GC
         data.db = null;
@@ -589,6 +789,19 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   private void emptyAndCommitBatchBuffers(boolean dispose) {
     try {
+      if (data.batchWriter != null) {
+        data.batchWriter.flush();
+        processWrittenRows(true);
+      }
+      if (data.bulkLoader != null) {
+        if (getErrors() > 0) {
+          // Cancel the load, it is rolled back below
+          data.bulkLoader.close();
+          data.bulkLoader = null;
+        } else {
+          finishBulkLoad();
+        }
+      }
       for (String schemaTable : data.preparedStatements.keySet()) {
         // Get a commit counter per prepared statement to keep track of separate tables, etc.
         //
@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.variables.IVariables;
+
+/**
+ * Writes batches of rows to the database in the background so that the transform can prepare the
+ * next batch while the previous one travels to the database. Every writer has a connection of its
+ * own. A batch is executed and committed in one go on one of these connections.
+ *
+ * <p>The written rows are handed back to the transform one by one in the order in which they were
+ * added, also when they are spread over the batches of several tables, so that they can be passed
+ * on (or sent to error handling) in the original order. The number of batches which are being
+ * written or waiting to be written is limited: when that limit is reached the transform waits for
+ * the batch of the oldest row.
+ */
+public class TableOutputBatchWriter {
+
+  /** A batch of rows for one insert statement, together with the result of writing it */
+  static class Batch {
+    private final String tableName;
+    private final String sql;
+    private final IRowMeta insertRowMeta;
+    private final List<Object[]> insertRows;
+    private final List<Object[]> outputRows;
+    private HopDatabaseException exception;
+    private String[] rowErrors;
+    private Future<Batch> future;
+    private int nrRowsHandedBack;
+
+    Batch(String tableName, String sql, IRowMeta insertRowMeta, int size) {
+      this.tableName = tableName;
+      this.sql = sql;
+      this.insertRowMeta = insertRowMeta;
+      this.insertRows = new ArrayList<>(size);
+      this.outputRows = new ArrayList<>(size);
+    }
+
+    void addRow(Object[] insertRow, Object[] outputRow) {
+      insertRows.add(insertRow);
+      outputRows.add(outputRow);
+    }
+
+    /**
+     * Mark the batch as failed. The update counts of a batch exception tell which rows did make it,
+     * without them all the rows failed.
+     */
+    void failed(HopDatabaseException exception) {
+      this.exception = exception;
+      int[] updateCounts = null;
+      List<Exception> exceptions = null;
+      if (exception instanceof HopDatabaseBatchException be) {
+        updateCounts = be.getUpdateCounts();
+        exceptions = be.getExceptionsList();
+      }
+      rowErrors = new String[outputRows.size()];
+      int errNr = 0;
+      for (int i = 0; i < rowErrors.length; i++) {
+        if (updateCounts != null && i < updateCounts.length && updateCounts[i] > 0) {
+          continue;
+        }
+        if (exceptions != null && errNr < exceptions.size()) {
+          rowErrors[i] = exceptions.get(errNr++).toString();
+        } else {
+          rowErrors[i] = exception.toString();
+        }
+      }
+    }
+  }
+
+  /** A row of a batch which was written, handed back in the order in which the rows were added */
+  public static class WrittenRow {
+    private final Batch batch;
+    private final int index;
+
+    WrittenRow(Batch batch, int index) {
+      this.batch = batch;
+      this.index = index;
+    }
+
+    /**
+     * Gets tableName
+     *
+     * @return value of tableName
+     */
+    public String getTableName() {
+      return batch.tableName;
+    }
+
+    /**
+     * Gets outputRow
+     *
+     * @return The row to pass on
+     */
+    public Object[] getOutputRow() {
+      return batch.outputRows.get(index);
+    }
+
+    /**
+     * Gets exception
+     *
+     * @return The error writing the batch of the row or null if the batch was written and
+     *     committed. Rows of a failed batch can still have made it, see {@link #getErrorMessage()}.
+     */
+    public HopDatabaseException getException() {
+      return batch.exception;
+    }
+
+    /**
+     * Gets errorMessage
+     *
+     * @return Why this row wasn't written or null if it was
+     */
+    public String getErrorMessage() {
+      return batch.rowErrors == null ? null : batch.rowErrors[index];
+    }
+  }
+
+  /** A writer connection with the statements prepared on it */
+  private static class Writer {
+    private final Database db;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    Writer(Database db) {
+      this.db = db;
+    }
+  }
+
+  private final ILoggingObject parent;
+  private final ILogChannel log;
+  private final IVariables variables;
+  private final DatabaseMeta databaseMeta;
+  private final int nrWriters;
+  private final int batchSize;
+  private final boolean errorHandling;
+
+  private final BlockingQueue<Writer> idleWriters;
+  private final List<Writer> writers;
+  private final Map<String, Batch> openBatches;
+
+  /** The batch of every row which wasn't handed back yet, in the order of the rows */
+  private final Deque<Batch> rowBatches;
+
+  private final int maxPendingBatches;
+  private int nrPendingBatches;
+
+  private ExecutorService executor;
+
+  /**
+   * @param parent The transform, used for logging
+   * @param variables The variables to connect with
+   * @param databaseMeta The database to write to
+   * @param nrWriters The number of connections writing in parallel
+   * @param batchSize The number of rows per batch and commit
+   * @param errorHandling true if failed rows go to error handling or are ignored: the rows of a
+   *     batch which did make it are committed in that case.
+   */
+  public TableOutputBatchWriter(
+      ILoggingObject parent,
+      IVariables variables,
+      DatabaseMeta databaseMeta,
+      int nrWriters,
+      int batchSize,
+      boolean errorHandling) {
+    this.parent = parent;
+    this.log = new LogChannel(parent);
+    this.variables = variables;
+    this.databaseMeta = databaseMeta;
+    this.nrWriters = nrWriters;
+    this.batchSize = batchSize;
+    this.errorHandling = errorHandling;
+    this.idleWriters = new ArrayBlockingQueue<>(nrWriters);
+    this.writers = new ArrayList<>(nrWriters);
+    this.openBatches = new LinkedHashMap<>();
+    this.rowBatches = new ArrayDeque<>();
+    this.maxPendingBatches = 2 * nrWriters;
+  }
+
+  /**
+   * Open the writer connections and start the writer threads.
+   *
+   * @throws HopDatabaseException In case a connection can't be opened
+   */
+  public void open() throws HopDatabaseException {
+    for (int i = 0; i < nrWriters; i++) {
+      Database db = createDatabase();
+      db.connect();
+      db.setCommit(batchSize);
+      Writer writer = new Writer(db);
+      writers.add(writer);
+      idleWriters.add(writer);
+    }
+
+    AtomicInteger threadNr = new AtomicInteger();
+    executor =
+        Executors.newFixedThreadPool(
+            nrWriters,
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      runnable,
+                      parent.getObjectName() + " - batch writer " + threadNr.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Create the connection of a writer, not connected yet */
+  Database createDatabase() {
+    return new Database(parent, variables, databaseMeta);
+  }
+
+  /**
+   * Add a row to the batch of its insert statement. A full batch is handed over to the writers.
+   *
+   * @param tableName The name of the table, for error reporting
+   * @param sql The insert statement
+   * @param insertRowMeta The metadata of the values to insert
+   * @param insertRow The values to insert
+   * @param outputRow The row to pass on once the batch is written
+   */
+  public void addRow(
+      String tableName,
+      String sql,
+      IRowMeta insertRowMeta,
+      Object[] insertRow,
+      Object[] outputRow) {
+    Batch batch = openBatches.get(sql);
+    if (batch == null) {
+      batch = new Batch(tableName, sql, insertRowMeta, batchSize);
+      openBatches.put(sql, batch);
+    }
+    batch.addRow(insertRow, outputRow);
+    rowBatches.addLast(batch);
+    if (batch.insertRows.size() >= batchSize) {
+      openBatches.remove(sql);
+      submit(batch);
+    }
+  }
+
+  /** Hand the batches which aren't full yet over to the writers as well. */
+  public void flush() {
+    for (Batch batch : openBatches.values()) {
+      submit(batch);
+    }
+    openBatches.clear();
+  }
+
+  private void submit(Batch batch) {
+    batch.future = executor.submit(() -> write(batch));
+    nrPendingBatches++;
+  }
+
+  /**
+   * Get the oldest row if its batch was written.
+   *
+   * @param wait true to wait until the batch of the oldest row is written, a batch which isn't full
+   *     yet is handed over to the writers first. Even without this flag, this method waits if too
+   *     many batches are pending.
+   * @return The oldest row or null if there are no rows left or if the batch of the oldest row
+   *     isn't written yet.
+   * @throws HopException In case the writer was interrupted or failed unexpectedly
+   */
+  public WrittenRow nextWrittenRow(boolean wait) throws HopException {
+    Batch batch = rowBatches.peekFirst();
+    if (batch == null) {
+      return null;
+    }
+    boolean mustWait = wait || nrPendingBatches > maxPendingBatches;
+    if (batch.future == null) {
+      // The oldest row waits for more rows of its table: don't hold back the rows after it forever
+      //
+      if (!mustWait) {
+        return null;
+      }
+      openBatches.remove(batch.sql);
+      submit(batch);
+    }
+    if (!mustWait && !batch.future.isDone()) {
+      return null;
+    }
+    try {
+      batch.future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for a batch to be written", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Unexpected error writing a batch of rows", e.getCause());
+    }
+    rowBatches.removeFirst();
+    WrittenRow row = new WrittenRow(batch, batch.nrRowsHandedBack++);
+    if (batch.nrRowsHandedBack == batch.outputRows.size()) {
+      nrPendingBatches--;
+    }
+    return row;
+  }
+
+  /**
+   * @return true if there are batches which are being written or waiting to be written
+   */
+  public boolean hasPendingBatches() {
+    return nrPendingBatches > 0;
+  }
+
+  private Batch write(Batch batch) throws InterruptedException {
+    Writer writer = idleWriters.take();
+    try {
+      PreparedStatement statement = writer.statements.get(batch.sql);
+      if (statement == null) {
+        statement = writer.db.prepareSql(batch.sql);
+        writer.statements.put(batch.sql, statement);
+      }
+      try {
+        for (Object[] row : batch.insertRows) {
+          writer.db.setValues(batch.insertRowMeta, row, statement);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        writer.db.commit();
+        statement.clearBatch();
+      } catch (BatchUpdateException e) {
+        throw Database.createHopDatabaseBatchException("Error updating batch", e);
+      } catch (SQLException e) {
+        throw new HopDatabaseException("Error inserting batch of rows", e);
+      }
+    } catch (HopDatabaseException e) {
+      batch.failed(e);
+      recover(writer);
+    } finally {
+      idleWriters.add(writer);
+    }
+    return batch;
+  }
+
+  /** Get the writer connection ready for the next batch after a failure */
+  private void recover(Writer writer) {
+    try {
+      for (PreparedStatement statement : writer.statements.values()) {
+        writer.db.clearBatch(statement);
+      }
+      if (errorHandling) {
+        // Keep the rows which did make it, the others go to error handling
+        writer.db.commit(true);
+      } else {
+        writer.db.rollback();
+      }
+    } catch (HopDatabaseException e) {
+      log.logError("Unable to recover from a failed batch", e);
+    }
+  }
+
+  /** Stop the writer threads and close the writer connections. */
+  public void close() {
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (Writer writer : writers) {
+      for (PreparedStatement statement : writer.statements.values()) {
+        try {
+          writer.db.closePreparedStatement(statement);
+        } catch (HopDatabaseException e) {
+          log.logDebug("Error closing prepared statement: " + e.getMessage());
+        }
+      }
+      writer.db.disconnect();
+    }
+    writers.clear();
+    openBatches.clear();
+    rowBatches.clear();
+    nrPendingBatches = 0;
+  }
+}
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -69,6 +70,21 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** Writes the batches in the background, null if the batches are written by the transform */
+  public TableOutputBatchWriter batchWriter;
+
+  /** The insert statement per table name, used with the background writers */
+  public Map<String, String> insertStatements;
+
+  /** True if the rows are loaded with the bulk load mechanism of the database */
+  public boolean bulkLoad;
+
+  /** The bulk load in progress, null if there is none */
+  public IBulkLoader bulkLoader;
+
+  /** The number of rows added to the bulk load since the last commit */
+  public int bulkLoadCounter;
+
   public TableOutputData() {
     super();
 
@@ -83,6 +99,7 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
     batchBuffer = new ArrayList<>();
     commitCounterMap = new HashMap<>();
+    insertStatements = new HashMap<>();
 
     releaseSavepoint = true;
   }
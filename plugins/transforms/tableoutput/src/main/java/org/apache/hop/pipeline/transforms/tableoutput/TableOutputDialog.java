@@ -101,6 +101,11 @@ public class TableOutputDialog extends BaseTransformDialog {
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlAsyncWriters;
+  private TextVar wAsyncWriters;
+
+  private Button wBulkLoad;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -549,13 +554,55 @@ public class TableOutputDialog extends BaseTransformDialog {
           }
         });
 
+    // Background batch writers
+    wlAsyncWriters = new Label(wMainComp, SWT.RIGHT);
+    wlAsyncWriters.setText(BaseMessages.getString(PKG, "TableOutputDialog.AsyncWriters.Label"));
+    wlAsyncWriters.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.AsyncWriters.Tooltip"));
+    PropsUi.setLook(wlAsyncWriters);
+    FormData fdlAsyncWriters = new FormData();
+    fdlAsyncWriters.left = new FormAttachment(0, 0);
+    fdlAsyncWriters.top = new FormAttachment(wBatch, margin);
+    fdlAsyncWriters.right = new FormAttachment(middle, -margin);
+    wlAsyncWriters.setLayoutData(fdlAsyncWriters);
+    wAsyncWriters = new TextVar(variables, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wAsyncWriters.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.AsyncWriters.Tooltip"));
+    PropsUi.setLook(wAsyncWriters);
+    wAsyncWriters.addModifyListener(lsMod);
+    FormData fdAsyncWriters = new FormData();
+    fdAsyncWriters.left = new FormAttachment(middle, 0);
+    fdAsyncWriters.top = new FormAttachment(wlAsyncWriters, 0, SWT.CENTER);
+    fdAsyncWriters.right = new FormAttachment(100, 0);
+    wAsyncWriters.setLayoutData(fdAsyncWriters);
+
+    // Bulk load
+    Label wlBulkLoad = new Label(wMainComp, SWT.RIGHT);
+    wlBulkLoad.setText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Label"));
+    wlBulkLoad.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Tooltip"));
+    PropsUi.setLook(wlBulkLoad);
+    FormData fdlBulkLoad = new FormData();
+    fdlBulkLoad.left = new FormAttachment(0, 0);
+    fdlBulkLoad.top = new FormAttachment(wAsyncWriters, margin);
+    fdlBulkLoad.right = new FormAttachment(middle, -margin);
+    wlBulkLoad.setLayoutData(fdlBulkLoad);
+    wBulkLoad = new Button(wMainComp, SWT.CHECK);
+    wBulkLoad.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Tooltip"));
+    PropsUi.setLook(wBulkLoad);
+    FormData fdBulkLoad = new FormData();
+    fdBulkLoad.left = new FormAttachment(middle, 0);
+    fdBulkLoad.top = new FormAttachment(wlBulkLoad, 0, SWT.CENTER);
+    fdBulkLoad.right = new FormAttachment(100, 0);
+    wBulkLoad.setLayoutData(fdBulkLoad);
+    wBulkLoad.addSelectionListener(lsSelMod);
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     PropsUi.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wBulkLoad, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1216,6 +1263,9 @@ public class TableOutputDialog extends BaseTransformDialog {
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
 
+    wlAsyncWriters.setEnabled(useBatch);
+    wAsyncWriters.setEnabled(useBatch);
+
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
     wGetFields.setEnabled(specifyFields);
@@ -1260,6 +1310,8 @@ public class TableOutputDialog extends BaseTransformDialog {
     wOnlyWhenHaveRows.setSelection(input.isOnlyWhenHaveRows());
     wIgnore.setSelection(input.isIgnoreErrors());
     wBatch.setSelection(input.isUseBatchUpdate());
+    wAsyncWriters.setText(Const.NVL(input.getAsyncWriters(), ""));
+    wBulkLoad.setSelection(input.isUseBulkLoad());
 
     wCommit.setText(input.getCommitSize());
 
@@ -1316,6 +1368,8 @@ public class TableOutputDialog extends BaseTransformDialog {
     info.setOnlyWhenHaveRows(wOnlyWhenHaveRows.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setAsyncWriters(wAsyncWriters.getText());
+    info.setUseBulkLoad(wBulkLoad.getSelection());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
@@ -111,6 +111,18 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  @HopMetadataProperty(
+      key = "async_writers",
+      injectionKey = "ASYNC_WRITERS",
+      injectionKeyDescription = "TableOutputMeta.Injection.AsyncWriters.Field")
+  private String asyncWriters;
+
+  @HopMetadataProperty(
+      key = "use_bulk_load",
+      injectionKey = "USE_BULK_LOAD",
+      injectionKeyDescription = "TableOutputMeta.Injection.UseBulkLoad.Field")
+  private boolean useBulkLoad;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -462,6 +474,36 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return useBatchUpdate;
   }
 
+  /**
+   * @return The number of connections writing batches in the background, empty or 0 to write the
+   *     batches in the transform itself.
+   */
+  public String getAsyncWriters() {
+    return asyncWriters;
+  }
+
+  /**
+   * @param asyncWriters The number of connections writing batches in the background
+   */
+  public void setAsyncWriters(String asyncWriters) {
+    this.asyncWriters = asyncWriters;
+  }
+
+  /**
+   * @return true if the rows are loaded with the native bulk load mechanism of the database when
+   *     it has one, for example COPY or LOAD DATA
+   */
+  public boolean isUseBulkLoad() {
+    return useBulkLoad;
+  }
+
+  /**
+   * @param useBulkLoad The useBulkLoad flag to set.
+   */
+  public void setUseBulkLoad(boolean useBulkLoad) {
+    this.useBulkLoad = useBulkLoad;
+  }
+
   @Override
   public void setDefault() {
     tableName = "";
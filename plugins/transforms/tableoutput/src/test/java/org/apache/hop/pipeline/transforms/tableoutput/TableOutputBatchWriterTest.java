@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.logging.LoggingObjectType;
+import org.apache.hop.core.logging.SimpleLoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.variables.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TableOutputBatchWriterTest {
+
+  private static final String SQL = "INSERT INTO test (id) VALUES ( ? )";
+  private static final String OTHER_SQL = "INSERT INTO other (id) VALUES ( ? )";
+
+  private final List<Database> databases = Collections.synchronizedList(new ArrayList<>());
+  private final List<PreparedStatement> statements =
+      Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger commits = new AtomicInteger();
+  private IRowMeta rowMeta;
+  private TableOutputBatchWriter writer;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+  }
+
+  @After
+  public void tearDown() {
+    if (writer != null) {
+      writer.close();
+    }
+  }
+
+  private TableOutputBatchWriter createWriter(int nrWriters, int batchSize, boolean errorHandling)
+      throws Exception {
+    writer =
+        new TableOutputBatchWriter(
+            new SimpleLoggingObject("test", LoggingObjectType.TRANSFORM, null),
+            new Variables(),
+            mock(DatabaseMeta.class),
+            nrWriters,
+            batchSize,
+            errorHandling) {
+          @Override
+          Database createDatabase() {
+            Database db = mock(Database.class);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            try {
+              when(db.prepareSql(SQL)).thenReturn(statement);
+              when(db.prepareSql(OTHER_SQL)).thenReturn(statement);
+              doAnswer(invocation -> commits.incrementAndGet()).when(db).commit();
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+            databases.add(db);
+            statements.add(statement);
+            return db;
+          }
+        };
+    writer.open();
+    return writer;
+  }
+
+  private void addRows(int from, int to) {
+    for (long id = from; id < to; id++) {
+      writer.addRow("test", SQL, rowMeta, new Object[] {id}, new Object[] {id, "out"});
+    }
+  }
+
+  private void assertWrittenRows(long from, long to) throws Exception {
+    for (long id = from; id < to; id++) {
+      TableOutputBatchWriter.WrittenRow row = writer.nextWrittenRow(true);
+      assertNull(row.getException());
+      assertNull(row.getErrorMessage());
+      assertArrayEquals(new Object[] {id, "out"}, row.getOutputRow());
+    }
+  }
+
+  @Test
+  public void testBatchesAreReturnedInOrder() throws Exception {
+    createWriter(2, 2, false);
+
+    // The first writer is slow, the batches after it are written first
+    //
+    doAnswer(
+            invocation -> {
+              Thread.sleep(200);
+              return new int[] {1, 1};
+            })
+        .when(statements.get(0))
+        .executeBatch();
+
+    addRows(0, 6);
+    assertTrue(writer.hasPendingBatches());
+
+    assertWrittenRows(0, 6);
+    assertFalse(writer.hasPendingBatches());
+    assertNull(writer.nextWrittenRow(true));
+  }
+
+  @Test
+  public void testRowsOfDifferentTablesAreReturnedInInputOrder() throws Exception {
+    createWriter(2, 2, false);
+
+    // Alternate the tables: the batches hold every other row
+    //
+    for (long id = 0; id < 7; id++) {
+      writer.addRow(
+          "table" + (id % 2),
+          id % 2 == 0 ? SQL : OTHER_SQL,
+          rowMeta,
+          new Object[] {id},
+          new Object[] {id, "out"});
+    }
+
+    // The last row of the first table waits for its batch to be handed over at the end
+    //
+    assertWrittenRows(0, 7);
+    assertNull(writer.nextWrittenRow(true));
+    assertFalse(writer.hasPendingBatches());
+    assertEquals(4, commits.get());
+  }
+
+  @Test
+  public void testOpenBatchIsWrittenWhenTooManyBatchesArePending() throws Exception {
+    createWriter(1, 2, false);
+
+    // The first row is in a batch which never fills up, the other table keeps on writing
+    //
+    writer.addRow("first", OTHER_SQL, rowMeta, new Object[] {0L}, new Object[] {0L, "out"});
+    addRows(1, 7);
+    TableOutputBatchWriter.WrittenRow row = writer.nextWrittenRow(false);
+    assertArrayEquals(new Object[] {0L, "out"}, row.getOutputRow());
+    assertWrittenRows(1, 7);
+  }
+
+  @Test
+  public void testEveryBatchIsCommitted() throws Exception {
+    createWriter(2, 3, false);
+
+    addRows(0, 9);
+    assertWrittenRows(0, 9);
+
+    assertEquals(2, databases.size());
+    for (Database db : databases) {
+      verify(db).connect();
+      verify(db).setCommit(3);
+    }
+    assertEquals(3, commits.get());
+
+    writer.close();
+    for (Database db : databases) {
+      verify(db).disconnect();
+    }
+  }
+
+  @Test
+  public void testPartialBatchesAreOnlyWrittenOnFlush() throws Exception {
+    createWriter(1, 5, false);
+
+    addRows(0, 3);
+    assertFalse(writer.hasPendingBatches());
+    assertNull(writer.nextWrittenRow(false));
+
+    writer.flush();
+    assertTrue(writer.hasPendingBatches());
+    assertWrittenRows(0, 3);
+    assertFalse(writer.hasPendingBatches());
+    verify(statements.get(0), times(3)).addBatch();
+    verify(databases.get(0)).commit();
+  }
+
+  @Test
+  public void testFailedBatchIsRolledBack() throws Exception {
+    createWriter(1, 2, false);
+    when(statements.get(0).executeBatch())
+        .thenThrow(new BatchUpdateException(new int[] {1, -3}))
+        .thenReturn(new int[] {1, 1});
+
+    addRows(0, 4);
+    TableOutputBatchWriter.WrittenRow failed = writer.nextWrittenRow(true);
+    assertTrue(failed.getException() instanceof HopDatabaseBatchException);
+    assertArrayEquals(
+        new int[] {1, -3}, ((HopDatabaseBatchException) failed.getException()).getUpdateCounts());
+
+    // The update counts tell which row of the batch didn't make it
+    //
+    assertNull(failed.getErrorMessage());
+    TableOutputBatchWriter.WrittenRow failedRow = writer.nextWrittenRow(true);
+    assertArrayEquals(new Object[] {1L, "out"}, failedRow.getOutputRow());
+    assertNotNull(failedRow.getErrorMessage());
+    verify(databases.get(0)).rollback();
+    verify(databases.get(0)).clearBatch(statements.get(0));
+
+    // The writer carries on with the next batch
+    //
+    assertWrittenRows(2, 4);
+    verify(databases.get(0)).commit();
+  }
+
+  @Test
+  public void testFailedBatchKeepsWrittenRowsWithErrorHandling() throws Exception {
+    createWriter(1, 2, true);
+    when(statements.get(0).executeBatch()).thenThrow(new BatchUpdateException(new int[] {1, -3}));
+
+    addRows(0, 2);
+    TableOutputBatchWriter.WrittenRow failed = writer.nextWrittenRow(true);
+    assertTrue(failed.getException() instanceof HopDatabaseBatchException);
+    verify(databases.get(0)).commit(true);
+    verify(databases.get(0), never()).rollback();
+  }
+
+  @Test
+  public void testPendingBatchesAreLimited() throws Exception {
+    createWriter(1, 1, false);
+    AtomicBoolean blocked = new AtomicBoolean(true);
+    doAnswer(
+            invocation -> {
+              while (blocked.get()) {
+                Thread.sleep(10);
+              }
+              return new int[] {1};
+            })
+        .when(statements.get(0))
+        .executeBatch();
+
+    // Twice as many batches as writers can be pending, without waiting
+    //
+    addRows(0, 2);
+    assertNull(writer.nextWrittenRow(false));
+    addRows(2, 3);
+    blocked.set(false);
+    TableOutputBatchWriter.WrittenRow oldest = writer.nextWrittenRow(false);
+    assertArrayEquals(new Object[] {0L, "out"}, oldest.getOutputRow());
+    assertNull(oldest.getException());
+  }
+}
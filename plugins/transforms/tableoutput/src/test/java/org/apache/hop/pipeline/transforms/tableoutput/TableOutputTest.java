@@ -17,12 +17,16 @@
 
 package org.apache.hop.pipeline.transforms.tableoutput;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.nullable;
@@ -32,12 +36,20 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.IBulkLoader;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
@@ -45,6 +57,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 public class TableOutputTest {
   private DatabaseMeta databaseMeta;
@@ -211,4 +224,165 @@ public class TableOutputTest {
     verify(tableOutputSpy, times(1))
         .logError("An error occurred initializing this transform: " + ke.getMessage());
   }
+
+  @Test
+  public void testWriteToTable_bulkLoadCommitsPerCommitSize() throws Exception {
+    IBulkLoader bulkLoader = mock(IBulkLoader.class);
+    when(db.createBulkLoader(nullable(String.class), anyString(), any(IRowMeta.class)))
+        .thenReturn(bulkLoader);
+    doNothing().when(tableOutputSpy).putRow(any(IRowMeta.class), any(Object[].class));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    tableOutputData.insertRowMeta = rowMeta;
+    tableOutputData.outputRowMeta = rowMeta;
+    tableOutputData.batchBuffer = new ArrayList<>();
+    tableOutputData.bulkLoad = true;
+    tableOutputData.commitSize = 2;
+
+    for (int i = 0; i < 3; i++) {
+      tableOutputSpy.writeToTable(rowMeta, new Object[] {"row " + i});
+    }
+
+    verify(bulkLoader, times(3)).addRow(any(Object[].class));
+    verify(bulkLoader, times(1)).finish();
+    verify(bulkLoader, times(1)).close();
+    verify(db, times(1)).commit();
+    verify(db, never()).prepareSql(anyString(), any(Boolean.class));
+    // The rows are passed on right away, none of them are kept until the commit
+    verify(tableOutputSpy, times(3)).putRow(any(IRowMeta.class), any(Object[].class));
+    assertEquals(0, tableOutputData.batchBuffer.size());
+  }
+
+  private List<TableOutputBatchWriter.WrittenRow> writtenBatch(
+      HopDatabaseException exception, Object[]... rows) {
+    TableOutputBatchWriter.Batch batch =
+        new TableOutputBatchWriter.Batch("sas", "INSERT", new RowMeta(), rows.length);
+    List<TableOutputBatchWriter.WrittenRow> writtenRows = new ArrayList<>();
+    for (int i = 0; i < rows.length; i++) {
+      batch.addRow(rows[i], rows[i]);
+      writtenRows.add(new TableOutputBatchWriter.WrittenRow(batch, i));
+    }
+    if (exception != null) {
+      batch.failed(exception);
+    }
+    return writtenRows;
+  }
+
+  @SafeVarargs
+  private TableOutputBatchWriter setUpBatchWriter(
+      List<TableOutputBatchWriter.WrittenRow>... batches) throws Exception {
+    TableOutputBatchWriter batchWriter = mock(TableOutputBatchWriter.class);
+    List<TableOutputBatchWriter.WrittenRow> next = new ArrayList<>();
+    for (List<TableOutputBatchWriter.WrittenRow> batch : batches) {
+      next.addAll(batch);
+    }
+    next.add(null);
+    TableOutputBatchWriter.WrittenRow[] rest =
+        next.subList(1, next.size()).toArray(new TableOutputBatchWriter.WrittenRow[0]);
+    when(batchWriter.nextWrittenRow(true)).thenReturn(next.get(0), rest);
+    tableOutputData.batchWriter = batchWriter;
+    tableOutputData.batchBuffer = new ArrayList<>();
+    tableOutputData.outputRowMeta = new RowMeta();
+    doNothing().when(tableOutputSpy).putRow(any(IRowMeta.class), any(Object[].class));
+    doNothing()
+        .when(tableOutputSpy)
+        .putError(
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyLong(),
+            anyString(),
+            nullable(String.class),
+            anyString());
+    doNothing().when(tableOutputSpy).setOutputDone();
+    doNothing().when(tableOutputSpy).stopAll();
+    return batchWriter;
+  }
+
+  @Test
+  public void testDispose_writtenBatchesArePassedOnBeforeOutputDone() throws Exception {
+    Object[] row1 = new Object[] {"row 1"};
+    Object[] row2 = new Object[] {"row 2"};
+    Object[] row3 = new Object[] {"row 3"};
+    TableOutputBatchWriter batchWriter =
+        setUpBatchWriter(writtenBatch(null, row1, row2), writtenBatch(null, row3));
+
+    tableOutputSpy.dispose();
+
+    InOrder inOrder = inOrder(batchWriter, tableOutputSpy);
+    inOrder.verify(batchWriter).flush();
+    inOrder.verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row1));
+    inOrder.verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row2));
+    inOrder.verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row3));
+    inOrder.verify(tableOutputSpy).setOutputDone();
+    inOrder.verify(batchWriter).close();
+    assertEquals(3, tableOutputSpy.getLinesOutput());
+    assertEquals(0, tableOutputSpy.getErrors());
+  }
+
+  @Test
+  public void testDispose_failedBatchRowsGoToErrorHandling() throws Exception {
+    doReturn(true).when(transformMeta).isDoingErrorHandling();
+    Object[] row1 = new Object[] {"row 1"};
+    Object[] row2 = new Object[] {"row 2"};
+    HopDatabaseBatchException exception = new HopDatabaseBatchException("Batch failed");
+    exception.setUpdateCounts(new int[] {1, -3});
+    exception.setExceptionsList(List.of(new SQLException("Duplicate key")));
+    setUpBatchWriter(writtenBatch(exception, row1, row2));
+
+    tableOutputSpy.dispose();
+
+    verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row1));
+    verify(tableOutputSpy)
+        .putError(
+            any(IRowMeta.class),
+            eq(row2),
+            eq(1L),
+            eq("java.sql.SQLException: Duplicate key"),
+            nullable(String.class),
+            eq("TOP0002"));
+    verify(tableOutputSpy).setOutputDone();
+    assertEquals(0, tableOutputSpy.getErrors());
+  }
+
+  @Test
+  public void testDispose_failedBatchRowsArePassedOnWhenIgnoringErrors() throws Exception {
+    doReturn(true).when(tableOutputMeta).isIgnoreErrors();
+    Object[] row1 = new Object[] {"row 1"};
+    Object[] row2 = new Object[] {"row 2"};
+    HopDatabaseBatchException exception = new HopDatabaseBatchException("Batch failed");
+    exception.setUpdateCounts(new int[] {1, -3});
+    exception.setExceptionsList(List.of(new SQLException("Duplicate key")));
+    setUpBatchWriter(writtenBatch(exception, row1, row2));
+
+    tableOutputSpy.dispose();
+
+    // The same as a single insert which fails: a warning and the row is passed on
+    verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row1));
+    verify(tableOutputSpy).putRow(any(IRowMeta.class), eq(row2));
+    verify(tableOutputSpy, never())
+        .putError(
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyLong(),
+            anyString(),
+            nullable(String.class),
+            anyString());
+    verify(tableOutputSpy).setOutputDone();
+    assertEquals(1, tableOutputData.warnings);
+    assertEquals(0, tableOutputSpy.getErrors());
+  }
+
+  @Test
+  public void testDispose_failedBatchWithoutErrorHandlingFails() throws Exception {
+    Object[] row1 = new Object[] {"row 1"};
+    setUpBatchWriter(writtenBatch(new HopDatabaseException("Batch failed"), row1));
+
+    tableOutputSpy.dispose();
+
+    verify(tableOutputSpy, never()).putRow(any(IRowMeta.class), any(Object[].class));
+    verify(tableOutputSpy).setOutputDone();
+    verify(db).rollback();
+    assertTrue(tableOutputSpy.getErrors() > 0);
+  }
 }
@@ -0,0 +1,461 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+
+/**
+ * Parses a local CSV file on a pool of threads. The file is memory mapped and split in chunks which
+ * end right after a line feed, so every chunk holds complete lines and can be parsed on its own.
+ * Files in which the lines end with a carriage return only are split after the carriage returns
+ * instead. The chunks are returned in the order of the file or as soon as they are parsed. Just
+ * like when running in parallel, new lines inside fields are not supported.
+ */
+public class CsvChunkReader implements Closeable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+  private static final byte LINE_FEED = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /** The rows parsed from one chunk of the file, in the order of the file. */
+  public static class Chunk {
+    private final List<Object[]> rows = new ArrayList<>();
+    private List<RowErrors> errors;
+
+    public int size() {
+      return rows.size();
+    }
+
+    public Object[] getRow(int index) {
+      return rows.get(index);
+    }
+
+    /**
+     * @param index The index of the row in the chunk
+     * @return The conversion errors of the row or null if all fields were converted
+     */
+    public RowErrors getErrors(int index) {
+      return errors == null ? null : errors.get(index);
+    }
+
+    private void add(Object[] row, RowErrors rowErrors) {
+      if (rowErrors != null && errors == null) {
+        errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+          errors.add(null);
+        }
+      }
+      rows.add(row);
+      if (errors != null) {
+        errors.add(rowErrors);
+      }
+    }
+  }
+
+  /** The fields of a row which couldn't be converted, with the reason why. */
+  public static class RowErrors {
+    private final List<Exception> causes = new ArrayList<>();
+    private final List<IValueMeta> fields = new ArrayList<>();
+
+    /**
+     * Gets causes
+     *
+     * @return value of causes
+     */
+    public List<Exception> getCauses() {
+      return causes;
+    }
+
+    /**
+     * Gets fields
+     *
+     * @return value of fields
+     */
+    public List<IValueMeta> getFields() {
+      return fields;
+    }
+  }
+
+  private final FileChannel channel;
+  private final long size;
+  private final int chunkSize;
+  private final int maxChunksInFlight;
+  private final boolean preservingOrder;
+  private final ExecutorService executor;
+  private final CompletionService<Chunk> completionService;
+  private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+  /** The byte which ends a line: a line feed or for old Mac files a carriage return */
+  private final byte lineSeparator;
+
+  private final byte[] delimiter;
+  private final byte[] enclosure;
+  private final int nrFields;
+  private final int rowSize;
+  private final boolean lazyConversion;
+
+  /** Every parser thread converts with its own copy of the value metadata */
+  private final ThreadLocal<IRowMeta> convertRowMeta;
+
+  private long nextChunkStart;
+  private boolean skippingFirstLine;
+
+  /**
+   * @param channel The channel of the local file, closed by this reader
+   * @param start The position of the first line, after the byte order mark if any
+   * @param skippingFirstLine Skip the first line, the header row
+   * @param data The data of the transform with the delimiter, enclosure, metadata and parser pool
+   * @param nrFields The number of fields to read from every line
+   * @param lazyConversion Return the fields as binary strings instead of converting them
+   * @param preservingOrder Return the chunks in the order of the file
+   * @param chunkSize The approximate size of a chunk in bytes
+   * @throws IOException In case the size of the file can't be determined
+   */
+  public CsvChunkReader(
+      FileChannel channel,
+      long start,
+      boolean skippingFirstLine,
+      CsvInputData data,
+      int nrFields,
+      boolean lazyConversion,
+      boolean preservingOrder,
+      int chunkSize)
+      throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.lineSeparator = findLineSeparator(channel, start, size);
+    this.nextChunkStart = start;
+    this.skippingFirstLine = skippingFirstLine;
+    this.delimiter = data.delimiter;
+    this.enclosure = data.enclosure;
+    this.nrFields = nrFields;
+    this.rowSize = data.outputRowMeta.size();
+    this.lazyConversion = lazyConversion;
+    this.preservingOrder = preservingOrder;
+    this.chunkSize = chunkSize;
+    this.executor = data.parserPool;
+    this.completionService = new ExecutorCompletionService<>(executor);
+    this.maxChunksInFlight = data.parserThreads * 2;
+
+    IRowMeta rowMeta = data.convertRowMeta;
+    this.convertRowMeta = ThreadLocal.withInitial(rowMeta::clone);
+  }
+
+  /**
+   * Get the next parsed chunk of the file while the following ones are parsed in the background.
+   *
+   * @return The next chunk or null if the whole file was read
+   * @throws HopException In case the file can't be read
+   */
+  public Chunk nextChunk() throws HopException {
+    try {
+      submitChunks();
+      if (pending.isEmpty()) {
+        return null;
+      }
+      Future<Chunk> future;
+      if (preservingOrder) {
+        future = pending.poll();
+      } else {
+        future = completionService.take();
+        pending.remove(future);
+      }
+      return future.get();
+    } catch (IOException e) {
+      throw new HopFileException("Error splitting the file in chunks", e);
+    } catch (ExecutionException e) {
+      throw new HopFileException("Error parsing a chunk of the file", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while parsing the file", e);
+    }
+  }
+
+  private void submitChunks() throws IOException {
+    while (pending.size() < maxChunksInFlight && nextChunkStart < size) {
+      long start = nextChunkStart;
+      long end = findChunkEnd(start);
+      boolean skipFirstLine = skippingFirstLine;
+      nextChunkStart = end;
+      skippingFirstLine = false;
+
+      if (preservingOrder) {
+        pending.add(executor.submit(() -> parse(start, end, skipFirstLine)));
+      } else {
+        pending.add(completionService.submit(() -> parse(start, end, skipFirstLine)));
+      }
+    }
+  }
+
+  /**
+   * Look at the end of the first line: a carriage return which isn't followed by a line feed means
+   * that all the lines end with a carriage return only.
+   */
+  private static byte findLineSeparator(FileChannel channel, long start, long size)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    long position = start;
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        byte value = buffer.get(i);
+        if (value == LINE_FEED) {
+          return LINE_FEED;
+        }
+        if (value == CARRIAGE_RETURN) {
+          ByteBuffer next = ByteBuffer.allocate(1);
+          if (channel.read(next, position + i + 1) > 0 && next.get(0) == LINE_FEED) {
+            return LINE_FEED;
+          }
+          return CARRIAGE_RETURN;
+        }
+      }
+      position += read;
+    }
+    return LINE_FEED;
+  }
+
+  /** Find the end of the first line which ends after the start plus the chunk size */
+  private long findChunkEnd(long start) throws IOException {
+    long position = start + chunkSize;
+    if (position >= size) {
+      return size;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      int index = indexOf(buffer, lineSeparator, 0, read);
+      if (index < read) {
+        return position + index + 1;
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  private Chunk parse(long start, long end, boolean skipFirstLine) throws IOException {
+    if (end - start > Integer.MAX_VALUE) {
+      throw new IOException("Line at position " + start + " is larger than 2GB");
+    }
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+    IRowMeta rowMeta = lazyConversion ? null : convertRowMeta.get();
+    Chunk chunk = new Chunk();
+    int limit = buffer.limit();
+    int lineStart = 0;
+    boolean skip = skipFirstLine;
+    while (lineStart < limit) {
+      int lineEnd = indexOf(buffer, lineSeparator, lineStart, limit);
+      int nextLineStart = lineEnd + 1;
+      if (lineSeparator == LINE_FEED
+          && lineEnd > lineStart
+          && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+        lineEnd--;
+      }
+      if (skip) {
+        skip = false;
+      } else if (lineEnd > lineStart) {
+        // Empty lines are skipped, just like consecutive line ends in the sequential reader
+        parseLine(buffer, lineStart, lineEnd, rowMeta, chunk);
+      }
+      lineStart = nextLineStart;
+    }
+    return chunk;
+  }
+
+  private void parseLine(
+      ByteBuffer buffer, int lineStart, int lineEnd, IRowMeta rowMeta, Chunk chunk) {
+    Object[] row = RowDataUtil.allocateRowData(rowSize);
+    RowErrors rowErrors = null;
+
+    int position = lineStart;
+    for (int index = 0; index < nrFields; index++) {
+      int fieldStart = position;
+      int escapedEnclosures = 0;
+      boolean enclosed = enclosure != null && matches(buffer, position, lineEnd, enclosure);
+      if (enclosed) {
+        // Skip over the enclosed part, a doubled enclosure is an escaped one
+        //
+        position += enclosure.length;
+        while (position < lineEnd) {
+          if (!matches(buffer, position, lineEnd, enclosure)) {
+            position++;
+          } else if (matches(buffer, position + enclosure.length, lineEnd, enclosure)) {
+            escapedEnclosures++;
+            position += 2 * enclosure.length;
+          } else {
+            break;
+          }
+        }
+      }
+      int delimiterPosition = indexOf(buffer, delimiter, position, lineEnd);
+
+      byte[] field;
+      if (enclosed) {
+        field =
+            getField(
+                buffer,
+                fieldStart + enclosure.length,
+                delimiterPosition - enclosure.length,
+                escapedEnclosures);
+      } else {
+        field = getField(buffer, fieldStart, delimiterPosition, 0);
+      }
+
+      if (lazyConversion) {
+        row[index] = field;
+      } else {
+        IValueMeta sourceValueMeta = rowMeta.getValueMeta(index);
+        try {
+          row[index] = sourceValueMeta.convertBinaryStringToNativeType(field);
+        } catch (HopValueException e) {
+          if (rowErrors == null) {
+            rowErrors = new RowErrors();
+          }
+          rowErrors.causes.add(e);
+          rowErrors.fields.add(sourceValueMeta);
+        }
+      }
+
+      if (delimiterPosition >= lineEnd) {
+        break;
+      }
+      position = delimiterPosition + delimiter.length;
+    }
+    chunk.add(row, rowErrors);
+  }
+
+  private byte[] getField(ByteBuffer buffer, int start, int end, int escapedEnclosures) {
+    int length = Math.max(0, end - start);
+    if (escapedEnclosures == 0) {
+      byte[] field = new byte[length];
+      buffer.get(start, field);
+      return field;
+    }
+    byte[] field = new byte[length - escapedEnclosures * enclosure.length];
+    int fieldIndex = 0;
+    int position = start;
+    while (position < end) {
+      if (matches(buffer, position, end, enclosure)
+          && matches(buffer, position + enclosure.length, end, enclosure)) {
+        buffer.get(position, field, fieldIndex, enclosure.length);
+        fieldIndex += enclosure.length;
+        position += 2 * enclosure.length;
+      } else {
+        field[fieldIndex++] = buffer.get(position++);
+      }
+    }
+    return field;
+  }
+
+  private static boolean matches(ByteBuffer buffer, int position, int end, byte[] pattern) {
+    if (position + pattern.length > end) {
+      return false;
+    }
+    for (int i = 0; i < pattern.length; i++) {
+      if (buffer.get(position + i) != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find a pattern of one or more bytes.
+   *
+   * @return The position of the first match or the end if there is none
+   */
+  static int indexOf(ByteBuffer buffer, byte[] pattern, int from, int to) {
+    int position = from;
+    while (true) {
+      position = indexOf(buffer, pattern[0], position, to);
+      if (position >= to || pattern.length == 1 || matches(buffer, position, to, pattern)) {
+        return position;
+      }
+      position++;
+    }
+  }
+
+  /**
+   * Find a byte, testing 8 bytes at a time: the bytes which are equal to the one we look for are
+   * zero after the xor and the subtraction sets the high bit of the first zero byte. The buffer
+   * needs to be in little endian order so the first byte in the buffer is the lowest in the long.
+   *
+   * @return The position of the first match or the end if there is none
+   */
+  static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+    long pattern = (value & 0xFFL) * ONES;
+    int position = from;
+    for (; position + Long.BYTES <= to; position += Long.BYTES) {
+      long word = buffer.getLong(position) ^ pattern;
+      long found = (word - ONES) & ~word & HIGH_BITS;
+      if (found != 0) {
+        return position + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; position < to; position++) {
+      if (buffer.get(position) == value) {
+        return position;
+      }
+    }
+    return to;
+  }
+
+  /** Stop parsing the chunks which are not started yet and close the file. */
+  @Override
+  public void close() throws IOException {
+    for (Future<Chunk> future : pending) {
+      future.cancel(false);
+    }
+    pending.clear();
+    channel.close();
+  }
+}
@@ -23,12 +23,17 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.provider.local.LocalFile;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.exception.HopConversionException;
 import org.apache.hop.core.exception.HopException;
@@ -86,6 +91,20 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       //
       data.parallel = meta.isRunningInParallel() && data.totalNumberOfTransforms > 1;
 
+      // Parse chunks of the files on a pool of threads if they can be split on line ends
+      //
+      data.chunked = data.parserThreads > 1 && isChunkedParsingPossible();
+      if (data.chunked) {
+        data.parserPool =
+            Executors.newFixedThreadPool(
+                data.parserThreads,
+                runnable -> {
+                  Thread thread = new Thread(runnable, getTransformName() + " - CSV parser");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+      }
+
       // The conversion logic for when the lazy conversion is turned of is simple:
       // Pretend it's a lazy conversion object anyway and get the native type during conversion.
       //
@@ -133,7 +152,8 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
     }
 
     try {
-      Object[] outputRowData = readOneRow(false, false); // get row, set busy!
+      Object[] outputRowData =
+          data.chunked ? readChunkedRow() : readOneRow(false, false); // get row, set busy!
       // no more input to be expected...
       if (outputRowData == null) {
         if (openNextFile()) {
@@ -257,6 +277,19 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
     }
   }
 
+  private boolean isChunkedParsingPossible() {
+    if (data.parallel
+        || meta.isNewlinePossibleInFields()
+        || data.encodingType != EncodingType.SINGLE) {
+      logBasic(BaseMessages.getString(PKG, "CsvInput.Log.ChunkedParsingNotPossible"));
+      return false;
+    }
+    logBasic(
+        BaseMessages.getString(
+            PKG, "CsvInput.Log.ChunkedParsing", Integer.toString(data.parserThreads)));
+    return true;
+  }
+
   private void getFilenamesFromPreviousTransforms() throws HopException {
     List<String> filenames = new ArrayList<>();
     boolean firstRow = true;
@@ -311,6 +344,18 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       logError("Error closing file input stream", e);
     }
 
+    try {
+      if (data.chunkReader != null) {
+        data.chunkReader.close();
+      }
+    } catch (Exception e) {
+      logError("Error closing file channel", e);
+    }
+
+    if (data.parserPool != null) {
+      data.parserPool.shutdownNow();
+    }
+
     super.dispose();
   }
 
@@ -344,13 +389,29 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
 
       int bomSize = getBOMSize(vfsFilename);
 
-      data.fis = new FileInputStream(vfsFilename);
-      if (0 != bomSize) {
-        data.fis.skip(bomSize);
-      }
+      if (data.chunked) {
+        // The chunk reader maps the file itself and skips the header row if there is one
+        //
+        FileChannel channel = FileChannel.open(Paths.get(vfsFilename), StandardOpenOption.READ);
+        data.chunkReader =
+            new CsvChunkReader(
+                channel,
+                bomSize,
+                meta.isHeaderPresent(),
+                data,
+                meta.getInputFields().length,
+                meta.isLazyConversionActive(),
+                meta.isPreservingRowOrder(),
+                CsvChunkReader.DEFAULT_CHUNK_SIZE);
+      } else {
+        data.fis = new FileInputStream(vfsFilename);
+        if (0 != bomSize) {
+          data.fis.skip(bomSize);
+        }
 
-      data.fc = data.fis.getChannel();
-      data.bb = ByteBuffer.allocateDirect(data.preferredBufferSize);
+        data.fc = data.fis.getChannel();
+        data.bb = ByteBuffer.allocateDirect(data.preferredBufferSize);
+      }
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so
       // here.
@@ -403,7 +464,9 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       if (meta.isHeaderPresent()) {
         // Standard flat file : skip header
         if (!data.parallel || data.bytesToSkipInFirstFile <= 0) {
-          readOneRow(true, false); // skip this row.
+          if (!data.chunked) {
+            readOneRow(true, false); // skip this row.
+          }
           logBasic(
               BaseMessages.getString(
                   PKG, "CsvInput.Log.HeaderRowSkipped", data.filenames[data.filenr - 1]));
@@ -574,6 +637,52 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
     return true;
   }
 
+  /**
+   * Read the next row parsed by the chunk reader, the next chunk is taken when all rows of the
+   * current one are read.
+   *
+   * @return a row of data or null if the file is read completely
+   * @throws HopException in case the file can't be read or the row has conversion errors
+   */
+  private Object[] readChunkedRow() throws HopException {
+    while (data.chunk == null || data.chunkRowIndex >= data.chunk.size()) {
+      data.chunk = data.chunkReader.nextChunk();
+      data.chunkRowIndex = 0;
+      if (data.chunk == null) {
+        return null;
+      }
+    }
+    int index = data.chunkRowIndex++;
+    Object[] outputRowData = data.chunk.getRow(index);
+
+    if (meta.isIncludingFilename() && !Utils.isEmpty(meta.getFilenameField())) {
+      if (meta.isLazyConversionActive()) {
+        outputRowData[data.filenameFieldIndex] = data.binaryFilename;
+      } else {
+        outputRowData[data.filenameFieldIndex] = data.filenames[data.filenr - 1];
+      }
+    }
+
+    if (data.isAddingRowNumber) {
+      outputRowData[data.rownumFieldIndex] = data.rowNumber++;
+    }
+
+    incrementLinesInput();
+
+    CsvChunkReader.RowErrors rowErrors = data.chunk.getErrors(index);
+    if (rowErrors != null) {
+      throw new HopConversionException(
+          "There were "
+              + rowErrors.getCauses().size()
+              + " conversion errors on line "
+              + getLinesInput(),
+          rowErrors.getCauses(),
+          rowErrors.getFields(),
+          outputRowData);
+    }
+    return outputRowData;
+  }
+
   /**
    * Read a single row of data from the file...
    *
@@ -924,6 +1033,7 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       }
 
       data.isAddingRowNumber = !Utils.isEmpty(meta.getRowNumField());
+      data.parserThreads = Const.toInt(resolve(meta.getParserThreads()), 1);
 
       // Handle parallel reading capabilities...
       //
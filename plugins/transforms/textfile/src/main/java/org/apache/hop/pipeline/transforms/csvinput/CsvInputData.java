@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.row.IRowMeta;
@@ -74,6 +75,15 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
 
   public IFieldsMapping fieldsMapping;
 
+  /** The number of threads parsing chunks of the files, one or less to parse while reading */
+  public int parserThreads;
+
+  public boolean chunked;
+  public ExecutorService parserPool;
+  public CsvChunkReader chunkReader;
+  public CsvChunkReader.Chunk chunk;
+  public int chunkRowIndex;
+
   /**
    * Data class for CsvInput transform
    *
@@ -268,6 +278,11 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
       if (fis != null) {
         fis.close();
       }
+      if (chunkReader != null) {
+        chunkReader.close();
+        chunkReader = null;
+        chunk = null;
+      }
     } catch (IOException e) {
       throw new HopException("Unable to close file channel for file '" + filenames[filenr - 1], e);
     }
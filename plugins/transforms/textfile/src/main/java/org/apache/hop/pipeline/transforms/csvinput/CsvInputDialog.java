@@ -115,6 +115,8 @@ public class CsvInputDialog extends BaseTransformDialog
   private boolean isReceivingInput;
   private Button wRunningInParallel;
   private Button wNewlinePossible;
+  private TextVar wParserThreads;
+  private Button wPreserveRowOrder;
   private ComboVar wEncoding;
 
   private boolean gotEncodings = false;
@@ -477,6 +479,49 @@ public class CsvInputDialog extends BaseTransformDialog
         });
     lastControl = wlNewlinePossible;
 
+    // Number of threads parsing chunks of the file
+    //
+    Label wlParserThreads = new Label(shell, SWT.RIGHT);
+    wlParserThreads.setText(BaseMessages.getString(PKG, "CsvInputDialog.ParserThreads.Label"));
+    PropsUi.setLook(wlParserThreads);
+    FormData fdlParserThreads = new FormData();
+    fdlParserThreads.top = new FormAttachment(lastControl, margin);
+    fdlParserThreads.left = new FormAttachment(0, 0);
+    fdlParserThreads.right = new FormAttachment(middle, -margin);
+    wlParserThreads.setLayoutData(fdlParserThreads);
+    wParserThreads = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wParserThreads);
+    wParserThreads.setToolTipText(
+        BaseMessages.getString(PKG, "CsvInputDialog.ParserThreads.Tooltip"));
+    wParserThreads.addModifyListener(lsMod);
+    FormData fdParserThreads = new FormData();
+    fdParserThreads.top = new FormAttachment(wlParserThreads, 0, SWT.CENTER);
+    fdParserThreads.left = new FormAttachment(middle, 0);
+    fdParserThreads.right = new FormAttachment(100, 0);
+    wParserThreads.setLayoutData(fdParserThreads);
+    lastControl = wParserThreads;
+
+    // Output the rows parsed by several threads in the order of the file?
+    //
+    Label wlPreserveRowOrder = new Label(shell, SWT.RIGHT);
+    wlPreserveRowOrder.setText(
+        BaseMessages.getString(PKG, "CsvInputDialog.PreserveRowOrder.Label"));
+    PropsUi.setLook(wlPreserveRowOrder);
+    FormData fdlPreserveRowOrder = new FormData();
+    fdlPreserveRowOrder.top = new FormAttachment(lastControl, margin);
+    fdlPreserveRowOrder.left = new FormAttachment(0, 0);
+    fdlPreserveRowOrder.right = new FormAttachment(middle, -margin);
+    wlPreserveRowOrder.setLayoutData(fdlPreserveRowOrder);
+    wPreserveRowOrder = new Button(shell, SWT.CHECK);
+    PropsUi.setLook(wPreserveRowOrder);
+    wPreserveRowOrder.setToolTipText(
+        BaseMessages.getString(PKG, "CsvInputDialog.PreserveRowOrder.Tooltip"));
+    FormData fdPreserveRowOrder = new FormData();
+    fdPreserveRowOrder.top = new FormAttachment(wlPreserveRowOrder, 0, SWT.CENTER);
+    fdPreserveRowOrder.left = new FormAttachment(middle, 0);
+    wPreserveRowOrder.setLayoutData(fdPreserveRowOrder);
+    lastControl = wlPreserveRowOrder;
+
     // Encoding
     Label wlEncoding = new Label(shell, SWT.RIGHT);
     wlEncoding.setText(BaseMessages.getString(PKG, "CsvInputDialog.Encoding.Label"));
@@ -819,6 +864,8 @@ public class CsvInputDialog extends BaseTransformDialog
     wHeaderPresent.setSelection(inputMeta.isHeaderPresent());
     wRunningInParallel.setSelection(inputMeta.isRunningInParallel());
     wNewlinePossible.setSelection(inputMeta.isNewlinePossibleInFields());
+    wParserThreads.setText(Const.NVL(inputMeta.getParserThreads(), ""));
+    wPreserveRowOrder.setSelection(inputMeta.isPreservingRowOrder());
     wRowNumField.setText(Const.NVL(inputMeta.getRowNumField(), ""));
     wAddResult.setSelection(inputMeta.isAddResultFile());
     wEncoding.setText(Const.NVL(inputMeta.getEncoding(), ""));
@@ -878,6 +925,8 @@ public class CsvInputDialog extends BaseTransformDialog
     inputMeta.setAddResultFile(wAddResult.getSelection());
     inputMeta.setRunningInParallel(wRunningInParallel.getSelection());
     inputMeta.setNewlinePossibleInFields(wNewlinePossible.getSelection());
+    inputMeta.setParserThreads(wParserThreads.getText());
+    inputMeta.setPreservingRowOrder(wPreserveRowOrder.getSelection());
     inputMeta.setEncoding(wEncoding.getText());
     inputMeta.setSchemaDefinition(wSchemaDefinition.getText());
 
@@ -122,6 +122,12 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
   @Injection(name = "SCHEMA_DEFINITION")
   private String schemaDefinition;
 
+  @Injection(name = "PARSER_THREADS")
+  private String parserThreads;
+
+  @Injection(name = "PRESERVE_ROW_ORDER")
+  private boolean preservingRowOrder;
+
   public CsvInputMeta() {
     super();
     allocate(0);
@@ -159,6 +165,8 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
     lazyConversionActive = true;
     isaddresult = false;
     bufferSize = "50000";
+    parserThreads = "1";
+    preservingRowOrder = true;
   }
 
   private void readData(Node transformNode) throws HopXmlException {
@@ -189,6 +197,9 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
         newlinePossibleInFields = "Y".equalsIgnoreCase(nlp);
       }
       encoding = XmlHandler.getTagValue(transformNode, "encoding");
+      parserThreads = XmlHandler.getTagValue(transformNode, "parser_threads");
+      preservingRowOrder =
+          !"N".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "preserve_row_order"));
 
       Node fields = XmlHandler.getSubNode(transformNode, CONST_FIELDS);
       int nrFields = XmlHandler.countNodes(fields, CONST_FIELD);
@@ -241,6 +252,8 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
         .append("    ")
         .append(XmlHandler.addTagValue("newline_possible", newlinePossibleInFields));
     retval.append("    ").append(XmlHandler.addTagValue("encoding", encoding));
+    retval.append("    ").append(XmlHandler.addTagValue("parser_threads", parserThreads));
+    retval.append("    ").append(XmlHandler.addTagValue("preserve_row_order", preservingRowOrder));
 
     retval.append("    ").append(XmlHandler.openTag(CONST_FIELDS)).append(Const.CR);
     for (int i = 0; i < inputFields.length; i++) {
@@ -731,6 +744,34 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
     this.newlinePossibleInFields = newlinePossibleInFields;
   }
 
+  /**
+   * @return the number of threads parsing chunks of the files
+   */
+  public String getParserThreads() {
+    return parserThreads;
+  }
+
+  /**
+   * @param parserThreads the number of threads parsing chunks of the files
+   */
+  public void setParserThreads(String parserThreads) {
+    this.parserThreads = parserThreads;
+  }
+
+  /**
+   * @return true if the rows parsed by several threads are output in the order of the file
+   */
+  public boolean isPreservingRowOrder() {
+    return preservingRowOrder;
+  }
+
+  /**
+   * @param preservingRowOrder the preservingRowOrder to set
+   */
+  public void setPreservingRowOrder(boolean preservingRowOrder) {
+    this.preservingRowOrder = preservingRowOrder;
+  }
+
   @Override
   public FileObject getHeaderFileObject(final IVariables variables) {
     final String filename = variables.resolve(getFilename());
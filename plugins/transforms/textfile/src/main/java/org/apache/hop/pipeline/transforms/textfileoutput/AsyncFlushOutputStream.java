@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A buffered output stream which hands every full buffer to a separate thread that writes it to
+ * the target stream. This way formatting the next rows overlaps with compressing and writing the
+ * previous ones. A small fixed number of buffers is used so a slow disk blocks the writer instead
+ * of filling up the memory. An error writing in the background is thrown by the next write, flush
+ * or close.
+ */
+public class AsyncFlushOutputStream extends OutputStream {
+
+  private static final int NR_OF_BUFFERS = 3;
+
+  /** A buffer to write or, without data, a request to flush the target stream */
+  private record Block(byte[] data, int length, CountDownLatch flushed, boolean last) {}
+
+  private final OutputStream target;
+  private final BlockingQueue<Block> blocks;
+  private final BlockingQueue<byte[]> freeBuffers;
+  private final Thread writerThread;
+
+  private byte[] buffer;
+  private int count;
+  private boolean finished;
+
+  private volatile IOException exception;
+
+  /**
+   * @param target The stream to write to
+   * @param bufferSize The size of each of the buffers
+   * @param threadName The name of the thread writing to the target stream
+   */
+  public AsyncFlushOutputStream(OutputStream target, int bufferSize, String threadName) {
+    this.target = target;
+    this.blocks = new ArrayBlockingQueue<>(NR_OF_BUFFERS + 1);
+    this.freeBuffers = new ArrayBlockingQueue<>(NR_OF_BUFFERS);
+    this.buffer = new byte[bufferSize];
+    for (int i = 1; i < NR_OF_BUFFERS; i++) {
+      freeBuffers.add(new byte[bufferSize]);
+    }
+
+    writerThread = new Thread(this::writeBlocks, threadName);
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  private void writeBlocks() {
+    try {
+      while (true) {
+        Block block = blocks.take();
+        try {
+          // After an error the blocks are only drained so the producer never blocks forever
+          //
+          if (exception == null) {
+            if (block.data() != null) {
+              target.write(block.data(), 0, block.length());
+            } else {
+              target.flush();
+            }
+          }
+        } catch (IOException e) {
+          exception = e;
+        } catch (Exception e) {
+          // A compression provider may fail with a runtime exception, report it all the same
+          //
+          exception = new IOException(e);
+        }
+        if (block.data() != null) {
+          freeBuffers.put(block.data());
+        } else {
+          block.flushed().countDown();
+          if (block.last()) {
+            return;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (count == buffer.length) {
+      handOver();
+    }
+    buffer[count++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (count == buffer.length) {
+        handOver();
+      }
+      int chunk = Math.min(length, buffer.length - count);
+      System.arraycopy(bytes, offset, buffer, count, chunk);
+      count += chunk;
+      offset += chunk;
+      length -= chunk;
+    }
+  }
+
+  /** Writes all buffered data and waits until the target stream is flushed */
+  @Override
+  public void flush() throws IOException {
+    if (!finished) {
+      sync(false);
+    }
+  }
+
+  /**
+   * Writes all buffered data and stops the writer thread. The target stream is left open.
+   *
+   * @throws IOException The first error writing to the target stream
+   */
+  public void finish() throws IOException {
+    if (!finished) {
+      finished = true;
+      sync(true);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      target.close();
+    }
+  }
+
+  private void handOver() throws IOException {
+    if (finished) {
+      throw new IOException("The stream is already finished");
+    }
+    checkException();
+    try {
+      queueBuffer();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while handing over data to write");
+    }
+  }
+
+  private void sync(boolean last) throws IOException {
+    CountDownLatch flushed = new CountDownLatch(1);
+    try {
+      if (count > 0) {
+        queueBuffer();
+      }
+      blocks.put(new Block(null, 0, flushed, last));
+      flushed.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for data to be written");
+    }
+    checkException();
+  }
+
+  private void queueBuffer() throws InterruptedException {
+    blocks.put(new Block(buffer, count, null, false));
+    buffer = freeBuffers.take();
+    count = 0;
+  }
+
+  private void checkException() throws IOException {
+    if (exception != null) {
+      throw new IOException("Error writing data in the background", exception);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer in which a complete output line is encoded before it is written in one
+ * go. The buffer is re-used for every row so that formatting a row doesn't allocate once the buffer
+ * has grown to the size of the widest line.
+ */
+public class EncodedRowBuffer {
+
+  private static final int INITIAL_SIZE = 1024;
+
+  private byte[] bytes;
+  private int size;
+
+  /** Scratch space used to double the enclosures of a field */
+  private byte[] scratch;
+
+  public EncodedRowBuffer() {
+    bytes = new byte[INITIAL_SIZE];
+    scratch = new byte[0];
+  }
+
+  public void reset() {
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The backing array, only the first {@link #size()} bytes are in use
+   */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  public void append(byte[] source) {
+    append(source, 0, source.length);
+  }
+
+  public void append(byte[] source, int offset, int length) {
+    ensureCapacity(length);
+    System.arraycopy(source, offset, bytes, size, length);
+    size += length;
+  }
+
+  /**
+   * Append the characters of the string as single bytes if they are all 7-bit ASCII.
+   *
+   * @param string The string to append
+   * @return true if the string was appended, false if it contains other characters and has to be
+   *     encoded with a character set instead. Nothing is appended in that case.
+   */
+  public boolean appendAscii(String string) {
+    int length = string.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (c >= 0x80) {
+        return false;
+      }
+      bytes[size + i] = (byte) c;
+    }
+    size += length;
+    return true;
+  }
+
+  /**
+   * Append the decimal digits of the value, the same as the bytes of {@link Long#toString(long)}.
+   *
+   * @param value The value to append
+   */
+  public void appendLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      appendAscii(Long.toString(value));
+      return;
+    }
+    ensureCapacity(20);
+    if (value < 0) {
+      bytes[size++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    int position = size + digits;
+    do {
+      bytes[--position] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value > 0);
+    size += digits;
+  }
+
+  /**
+   * Surround the bytes from the given position on with the enclosure, doubling every enclosure
+   * found inside of them.
+   *
+   * @param start The start of the field in the buffer
+   * @param enclosure The encoded enclosure
+   */
+  public void enclose(int start, byte[] enclosure) {
+    int length = size - start;
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    System.arraycopy(bytes, start, scratch, 0, length);
+    size = start;
+
+    append(enclosure);
+    int from = 0;
+    if (enclosure.length > 0) {
+      // +1 because otherwise we will not find it at the end
+      for (int i = 0, last = length - enclosure.length + 1; i < last; i++) {
+        if (matches(scratch, i, enclosure)) {
+          // Write up to and including the enclosure, then write it a second time
+          append(scratch, from, i + enclosure.length - from);
+          append(enclosure);
+          from = i + enclosure.length;
+        }
+      }
+    }
+    append(scratch, from, length - from);
+    append(enclosure);
+  }
+
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(bytes, 0, size);
+  }
+
+  private static boolean matches(byte[] source, int offset, byte[] pattern) {
+    for (int x = 0; x < pattern.length; x++) {
+      if (source[offset + x] != pattern[x]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+    }
+  }
+}
@@ -21,9 +21,11 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
@@ -38,6 +40,7 @@ import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.fileinput.CharsetToolkit;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
@@ -57,6 +60,14 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
       TextFileOutputMeta.fileCompressionTypeCodes[TextFileOutputMeta.FILE_COMPRESSION_TYPE_NONE];
   public static final String CONST_ERROR_OPENING_NEW_FILE = "Error opening new file : ";
 
+  /** The ways a field can be formatted into the row buffer */
+  private static final int FIELD_FORMAT_DEFAULT = 0;
+  private static final int FIELD_FORMAT_ASCII_STRING = 1;
+  private static final int FIELD_FORMAT_PLAIN_INTEGER = 2;
+  private static final int FIELD_FORMAT_DATE = 3;
+
+  private static final boolean DEFAULT_CHARSET_ASCII_COMPATIBLE = isAsciiCompatible(null);
+
   public TextFileOutput(
       TransformMeta transformMeta,
       Meta meta,
@@ -193,8 +204,8 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
             }
           }
 
-          BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+          OutputStream bufferedOutputStream =
+              createBufferedOutputStream(compressionOutputStream, filename);
 
           fileStreams =
               data.new FileStream(fileOutputStream, compressionOutputStream, bufferedOutputStream);
@@ -217,8 +228,8 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           CompressionOutputStream compressionOutputStream =
               compressionProvider.createOutputStream(fileOutputStream);
           compressionOutputStream.addEntry(filename, resolve(meta.getExtension()));
-          BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+          OutputStream bufferedOutputStream =
+              createBufferedOutputStream(compressionOutputStream, filename);
 
           fileStreams.setFileOutputStream(fileOutputStream);
           fileStreams.setCompressedOutputStream(compressionOutputStream);
@@ -244,6 +255,23 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
+  /**
+   * Buffer the output of a file with the configured buffer size. With asynchronous flushing the
+   * full buffers are compressed and written by a separate thread.
+   */
+  private OutputStream createBufferedOutputStream(OutputStream outputStream, String filename) {
+    int bufferSize =
+        Const.toInt(resolve(meta.getBufferSize()), TextFileOutputMeta.DEFAULT_BUFFER_SIZE);
+    if (bufferSize <= 0) {
+      bufferSize = TextFileOutputMeta.DEFAULT_BUFFER_SIZE;
+    }
+    if (meta.isAsyncFlush()) {
+      return new AsyncFlushOutputStream(
+          outputStream, bufferSize, getTransformName() + " - " + HopVfs.getFriendlyURI(filename));
+    }
+    return new BufferedOutputStream(outputStream, bufferSize);
+  }
+
   public String getOutputFileName(Object[] row) throws HopException {
     String filename = null;
     if (row == null) {
@@ -450,9 +478,10 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
         /*
          * Write all values in stream to text file.
          */
+        EncodedRowBuffer rowBuffer = getRowBuffer(rowMeta.size());
         for (int i = 0; i < rowMeta.size(); i++) {
-          if (i > 0 && data.binarySeparator.length > 0) {
-            data.writer.write(data.binarySeparator);
+          if (i > 0) {
+            rowBuffer.append(data.binarySeparator);
           }
           IValueMeta v = rowMeta.getValueMeta(i);
           Object valueData = r[i];
@@ -460,23 +489,26 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           // no special null value default was specified since no fields are specified at all
           // As such, we pass null
           //
-          writeField(v, valueData, null);
+          appendField(i, v, valueData, null);
         }
-        data.writer.write(data.binaryNewline);
+        rowBuffer.append(data.binaryNewline);
+        rowBuffer.writeTo(data.writer);
       } else {
         /*
          * Only write the fields specified!
          */
+        EncodedRowBuffer rowBuffer = getRowBuffer(meta.getOutputFields().length);
         for (int i = 0; i < meta.getOutputFields().length; i++) {
-          if (i > 0 && data.binarySeparator.length > 0) {
-            data.writer.write(data.binarySeparator);
+          if (i > 0) {
+            rowBuffer.append(data.binarySeparator);
           }
 
           IValueMeta v = rowMeta.getValueMeta(data.fieldnrs[i]);
           Object valueData = r[data.fieldnrs[i]];
-          writeField(v, valueData, data.binaryNullValue[i]);
+          appendField(i, v, valueData, data.binaryNullValue[i]);
         }
-        data.writer.write(data.binaryNewline);
+        rowBuffer.append(data.binaryNewline);
+        rowBuffer.writeTo(data.writer);
       }
 
       incrementLinesOutput();
@@ -486,6 +518,130 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
+  /**
+   * Get the empty row buffer, preparing the field formats the first time or when the number of
+   * fields changes.
+   */
+  private EncodedRowBuffer getRowBuffer(int nrFields) {
+    if (data.rowBuffer == null) {
+      data.rowBuffer = new EncodedRowBuffer();
+      data.asciiCompatible = isAsciiCompatible(meta.getEncoding());
+    }
+    if (data.fieldFormats == null || data.fieldFormats.length != nrFields) {
+      data.formatValueMetas = new IValueMeta[nrFields];
+      data.fieldFormats = new int[nrFields];
+      data.lastDates = new long[nrFields];
+      data.lastDateBytes = new byte[nrFields][];
+    }
+    data.rowBuffer.reset();
+    return data.rowBuffer;
+  }
+
+  /**
+   * @return true if the encoding writes the 7-bit ASCII characters as the same single bytes
+   */
+  private static boolean isAsciiCompatible(String encoding) {
+    try {
+      Charset charset =
+          Utils.isEmpty(encoding) ? Charset.defaultCharset() : Charset.forName(encoding);
+      byte[] ascii = new byte[128];
+      for (int i = 0; i < ascii.length; i++) {
+        ascii[i] = (byte) i;
+      }
+      return Arrays.equals(ascii, new String(ascii, StandardCharsets.US_ASCII).getBytes(charset));
+    } catch (IllegalArgumentException e) {
+      // Unknown encoding, the regular conversion reports the error
+      return false;
+    }
+  }
+
+  /**
+   * Determine how the values of a field can be formatted. The fast paths produce exactly the same
+   * bytes as {@link #formatField(IValueMeta, Object)} without creating intermediate strings.
+   */
+  private int getFieldFormat(IValueMeta v) {
+    if (!v.isStorageNormal()) {
+      return FIELD_FORMAT_DEFAULT;
+    }
+    if (v.isString()
+        && data.asciiCompatible
+        && v.getTrimType() == IValueMeta.TRIM_TYPE_NONE
+        && v.getLength() < 0) {
+      return FIELD_FORMAT_ASCII_STRING;
+    }
+    if (v instanceof ValueMetaInteger
+        && DEFAULT_CHARSET_ASCII_COMPATIBLE
+        && Utils.isEmpty(v.getStringEncoding())
+        && isPlainIntegerFormat(v.getDecimalFormat(false))) {
+      return FIELD_FORMAT_PLAIN_INTEGER;
+    }
+    if (v.getType() == IValueMeta.TYPE_DATE) {
+      return FIELD_FORMAT_DATE;
+    }
+    return FIELD_FORMAT_DEFAULT;
+  }
+
+  /**
+   * @return true if the format writes a long as its plain digits, like {@link Long#toString()}
+   */
+  private static boolean isPlainIntegerFormat(DecimalFormat format) {
+    return format.getMultiplier() == 1
+        && (!format.isGroupingUsed() || format.getGroupingSize() == 0)
+        && format.getMinimumIntegerDigits() <= 1
+        && format.getMaximumIntegerDigits() >= 19
+        && format.getMinimumFractionDigits() == 0
+        && !format.isDecimalSeparatorAlwaysShown()
+        && format.getPositivePrefix().isEmpty()
+        && format.getPositiveSuffix().isEmpty()
+        && "-".equals(format.getNegativePrefix())
+        && format.getNegativeSuffix().isEmpty()
+        && format.getDecimalFormatSymbols().getZeroDigit() == '0'
+        && format.toPattern().indexOf('E') < 0;
+  }
+
+  private void appendFormattedField(int index, IValueMeta v, Object valueData)
+      throws HopValueException {
+    if (data.formatValueMetas[index] != v) {
+      data.formatValueMetas[index] = v;
+      data.fieldFormats[index] = getFieldFormat(v);
+      data.lastDateBytes[index] = null;
+    }
+
+    switch (data.fieldFormats[index]) {
+      case FIELD_FORMAT_ASCII_STRING:
+        if (valueData instanceof String string && data.rowBuffer.appendAscii(string)) {
+          return;
+        }
+        break;
+      case FIELD_FORMAT_PLAIN_INTEGER:
+        if (valueData instanceof Long value) {
+          data.rowBuffer.appendLong(value);
+          return;
+        }
+        break;
+      case FIELD_FORMAT_DATE:
+        if (valueData instanceof Date date) {
+          // Dates often repeat in consecutive rows, re-use the last formatted one
+          //
+          long time = date.getTime();
+          if (data.lastDateBytes[index] == null || data.lastDates[index] != time) {
+            data.lastDateBytes[index] = formatField(v, date);
+            data.lastDates[index] = time;
+          }
+          data.rowBuffer.append(data.lastDateBytes[index]);
+          return;
+        }
+        break;
+      default:
+        break;
+    }
+
+    byte[] str = formatField(v, valueData);
+    if (str != null) {
+      data.rowBuffer.append(str);
+    }
+  }
+
   private byte[] formatField(IValueMeta v, Object valueData) throws HopValueException {
     if (v.isString()) {
       if (v.isStorageBinaryString()
@@ -592,64 +748,50 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
-  private void writeField(IValueMeta v, Object valueData, byte[] nullString)
+  private void appendField(int index, IValueMeta v, Object valueData, byte[] nullString)
       throws HopTransformException {
     try {
-      byte[] str;
+      EncodedRowBuffer rowBuffer = data.rowBuffer;
+      int start = rowBuffer.size();
 
       // First check whether or not we have a null string set
       // These values should be set when a null value passes
       //
       if (nullString != null && v.isNull(valueData)) {
-        str = nullString;
+        rowBuffer.append(nullString);
       } else {
         if (meta.isFastDump()) {
           if (valueData instanceof byte[] bytesValueData) {
-            str = bytesValueData;
+            rowBuffer.append(bytesValueData);
           } else {
-            str = getBinaryString((valueData == null) ? "" : valueData.toString());
+            String string = (valueData == null) ? "" : valueData.toString();
+            if (!data.asciiCompatible || !rowBuffer.appendAscii(string)) {
+              rowBuffer.append(getBinaryString(string));
+            }
           }
         } else {
-          str = formatField(v, valueData);
+          appendFormattedField(index, v, valueData);
         }
       }
 
-      if (str != null && str.length > 0) {
-        List<Integer> enclosures = null;
+      if (rowBuffer.size() > start && v.isString()) {
         boolean writeEnclosures = false;
-
-        if (v.isString()) {
-          if (meta.isEnclosureForced() && !meta.isPadded()) {
-            writeEnclosures = true;
-          } else if (!meta.isEnclosureFixDisabled()
-              && containsSeparatorOrEnclosure(str, data.binarySeparator, data.binaryEnclosure)) {
-            writeEnclosures = true;
-          }
-        }
-
-        if (writeEnclosures) {
-          data.writer.write(data.binaryEnclosure);
-          enclosures = getEnclosurePositions(str);
-        }
-
-        if (enclosures == null) {
-          data.writer.write(str);
-        } else {
-          // Skip the enclosures, double them instead...
-          int from = 0;
-          for (int i = 0; i < enclosures.size(); i++) {
-            int position = enclosures.get(i);
-            data.writer.write(str, from, position + data.binaryEnclosure.length - from);
-            data.writer.write(data.binaryEnclosure); // write enclosure a second time
-            from = position + data.binaryEnclosure.length;
-          }
-          if (from < str.length) {
-            data.writer.write(str, from, str.length - from);
-          }
+        if (meta.isEnclosureForced() && !meta.isPadded()) {
+          writeEnclosures = true;
+        } else if (!meta.isEnclosureFixDisabled()
+            && containsSeparatorOrEnclosure(
+                rowBuffer.getBytes(),
+                start,
+                rowBuffer.size(),
+                data.binarySeparator,
+                data.binaryEnclosure)) {
+          writeEnclosures = true;
         }
 
         if (writeEnclosures) {
-          data.writer.write(data.binaryEnclosure);
+          // Surround the field with enclosures, doubling the enclosures inside of it
+          //
+          rowBuffer.enclose(start, data.binaryEnclosure);
         }
       }
     } catch (Exception e) {
@@ -657,30 +799,6 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
-  private List<Integer> getEnclosurePositions(byte[] str) {
-    List<Integer> positions = null;
-    if (data.binaryEnclosure != null && data.binaryEnclosure.length > 0) {
-      // +1 because otherwise we will not find it at the end
-      for (int i = 0, len = str.length - data.binaryEnclosure.length + 1; i < len; i++) {
-        // verify if on position i there is an enclosure
-        //
-        boolean found = true;
-        for (int x = 0; found && x < data.binaryEnclosure.length; x++) {
-          if (str[i + x] != data.binaryEnclosure[x]) {
-            found = false;
-          }
-        }
-        if (found) {
-          if (positions == null) {
-            positions = new ArrayList<>();
-          }
-          positions.add(i);
-        }
-      }
-    }
-    return positions;
-  }
-
   protected boolean writeEndedLine() {
     boolean retval = false;
     try {
@@ -933,6 +1051,11 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
   }
 
   public boolean containsSeparatorOrEnclosure(byte[] source, byte[] separator, byte[] enclosure) {
+    return containsSeparatorOrEnclosure(source, 0, source.length, separator, enclosure);
+  }
+
+  public boolean containsSeparatorOrEnclosure(
+      byte[] source, int offset, int end, byte[] separator, byte[] enclosure) {
     boolean result = false;
 
     boolean enclosureExists = enclosure != null && enclosure.length > 0;
@@ -942,11 +1065,11 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     if (separatorExists || enclosureExists) {
 
       // Search for the first occurrence of the separator or enclosure
-      for (int index = 0; !result && index < source.length; index++) {
+      for (int index = offset; !result && index < end; index++) {
         if (enclosureExists && source[index] == enclosure[0]) {
 
           // Potential match found, make sure there are enough bytes to support a full match
-          if (index + enclosure.length <= source.length) {
+          if (index + enclosure.length <= end) {
             // First byte of enclosure found
             result = true; // Assume match
             for (int i = 1; i < enclosure.length; i++) {
@@ -960,7 +1083,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
 
         } else if (separatorExists
             && source[index] == separator[0]
-            && index + separator.length <= source.length) {
+            && index + separator.length <= end) {
           // Potential match found, make sure there are enough bytes to support a full match
           // First byte of separator found
           result = true; // Assume match
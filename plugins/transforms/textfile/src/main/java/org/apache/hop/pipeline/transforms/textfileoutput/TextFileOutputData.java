@@ -17,7 +17,6 @@
 
 package org.apache.hop.pipeline.transforms.textfileoutput;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.DateFormatSymbols;
@@ -98,13 +97,13 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
   public class FileStream {
     OutputStream fileOutputStream;
     CompressionOutputStream compressedOutputStream;
-    BufferedOutputStream bufferedOutputStream;
+    OutputStream bufferedOutputStream;
     boolean isDirty;
 
     public FileStream(
         OutputStream fileOutputStream,
         CompressionOutputStream compressedOutputStream,
-        BufferedOutputStream bufferedOutputStream) {
+        OutputStream bufferedOutputStream) {
       this.fileOutputStream = fileOutputStream;
       this.compressedOutputStream = compressedOutputStream;
       this.bufferedOutputStream = bufferedOutputStream;
@@ -127,6 +126,9 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
     }
 
     public void close() throws IOException {
+      if (bufferedOutputStream instanceof AsyncFlushOutputStream asyncFlushOutputStream) {
+        asyncFlushOutputStream.finish();
+      }
       setBufferedOutputStream(null);
       getCompressedOutputStream().close();
       setCompressedOutputStream(null);
@@ -141,11 +143,11 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
           || (bufferedOutputStream != null);
     }
 
-    public BufferedOutputStream getBufferedOutputStream() {
+    public OutputStream getBufferedOutputStream() {
       return bufferedOutputStream;
     }
 
-    public void setBufferedOutputStream(BufferedOutputStream outputStream) {
+    public void setBufferedOutputStream(OutputStream outputStream) {
       this.bufferedOutputStream = outputStream;
     }
 
@@ -427,6 +429,23 @@ public class TextFileOutputData extends BaseTransformData implements ITransformD
 
   public byte[][] binaryNullValue;
 
+  /** The current line, encoded field by field and written in one go */
+  public EncodedRowBuffer rowBuffer;
+
+  /** Strings are encoded in a character set which writes 7-bit ASCII as single identical bytes */
+  public boolean asciiCompatible;
+
+  /** The value metadata for which the field formats below were determined */
+  public IValueMeta[] formatValueMetas;
+
+  /** How each field is formatted into the row buffer */
+  public int[] fieldFormats;
+
+  /** The last date written in each field and its encoded form */
+  public long[] lastDates;
+
+  public byte[][] lastDateBytes;
+
   public boolean oneFileOpened;
 
   public int fileNameFieldIndex;
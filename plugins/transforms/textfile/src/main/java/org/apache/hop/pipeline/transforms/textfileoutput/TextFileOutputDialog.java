@@ -137,6 +137,10 @@ public class TextFileOutputDialog extends BaseTransformDialog {
   private Label wlSplitEvery;
   private TextVar wSplitEvery;
 
+  private TextVar wBufferSize;
+
+  private Button wAsyncFlush;
+
   private TableView wFields;
 
   protected TextFileOutputMeta input;
@@ -997,13 +1001,57 @@ public class TextFileOutputDialog extends BaseTransformDialog {
     fdSplitEvery.right = new FormAttachment(100, 0);
     wSplitEvery.setLayoutData(fdSplitEvery);
 
+    Label wlBufferSize = new Label(wContentComp, SWT.RIGHT);
+    wlBufferSize.setText(BaseMessages.getString(PKG, "TextFileOutputDialog.BufferSize.Label"));
+    PropsUi.setLook(wlBufferSize);
+    FormData fdlBufferSize = new FormData();
+    fdlBufferSize.left = new FormAttachment(0, 0);
+    fdlBufferSize.top = new FormAttachment(wSplitEvery, margin);
+    fdlBufferSize.right = new FormAttachment(middle, -margin);
+    wlBufferSize.setLayoutData(fdlBufferSize);
+    wBufferSize = new TextVar(variables, wContentComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBufferSize.setToolTipText(
+        BaseMessages.getString(PKG, "TextFileOutputDialog.BufferSize.Tooltip"));
+    PropsUi.setLook(wBufferSize);
+    wBufferSize.addModifyListener(lsMod);
+    FormData fdBufferSize = new FormData();
+    fdBufferSize.left = new FormAttachment(middle, 0);
+    fdBufferSize.top = new FormAttachment(wSplitEvery, margin);
+    fdBufferSize.right = new FormAttachment(100, 0);
+    wBufferSize.setLayoutData(fdBufferSize);
+
+    Label wlAsyncFlush = new Label(wContentComp, SWT.RIGHT);
+    wlAsyncFlush.setText(BaseMessages.getString(PKG, "TextFileOutputDialog.AsyncFlush.Label"));
+    PropsUi.setLook(wlAsyncFlush);
+    FormData fdlAsyncFlush = new FormData();
+    fdlAsyncFlush.left = new FormAttachment(0, 0);
+    fdlAsyncFlush.top = new FormAttachment(wBufferSize, margin);
+    fdlAsyncFlush.right = new FormAttachment(middle, -margin);
+    wlAsyncFlush.setLayoutData(fdlAsyncFlush);
+    wAsyncFlush = new Button(wContentComp, SWT.CHECK);
+    wAsyncFlush.setToolTipText(
+        BaseMessages.getString(PKG, "TextFileOutputDialog.AsyncFlush.Tooltip"));
+    PropsUi.setLook(wAsyncFlush);
+    FormData fdAsyncFlush = new FormData();
+    fdAsyncFlush.left = new FormAttachment(middle, 0);
+    fdAsyncFlush.top = new FormAttachment(wlAsyncFlush, 0, SWT.CENTER);
+    fdAsyncFlush.right = new FormAttachment(100, 0);
+    wAsyncFlush.setLayoutData(fdAsyncFlush);
+    wAsyncFlush.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
     // Bruise:
     Label wlEndedLine = new Label(wContentComp, SWT.RIGHT);
     wlEndedLine.setText(BaseMessages.getString(PKG, "TextFileOutputDialog.EndedLine.Label"));
     PropsUi.setLook(wlEndedLine);
     FormData fdlEndedLine = new FormData();
     fdlEndedLine.left = new FormAttachment(0, 0);
-    fdlEndedLine.top = new FormAttachment(wSplitEvery, margin);
+    fdlEndedLine.top = new FormAttachment(wAsyncFlush, margin);
     fdlEndedLine.right = new FormAttachment(middle, -margin);
     wlEndedLine.setLayoutData(fdlEndedLine);
     wEndedLine = new TextVar(variables, wContentComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
@@ -1011,7 +1059,7 @@ public class TextFileOutputDialog extends BaseTransformDialog {
     wEndedLine.addModifyListener(lsMod);
     FormData fdEndedLine = new FormData();
     fdEndedLine.left = new FormAttachment(middle, 0);
-    fdEndedLine.top = new FormAttachment(wSplitEvery, margin);
+    fdEndedLine.top = new FormAttachment(wAsyncFlush, margin);
     fdEndedLine.right = new FormAttachment(100, 0);
     wEndedLine.setLayoutData(fdEndedLine);
 
@@ -1512,6 +1560,8 @@ public class TextFileOutputDialog extends BaseTransformDialog {
     wAddPartnr.setSelection(input.isPartNrInFilename());
     wPad.setSelection(input.isPadded());
     wFastDump.setSelection(input.isFastDump());
+    wBufferSize.setText(Const.NVL(input.getBufferSize(), ""));
+    wAsyncFlush.setSelection(input.isAsyncFlush());
     wAddToResult.setSelection(input.isAddToResultFiles());
 
     logDebug("getting fields info...");
@@ -1597,6 +1647,8 @@ public class TextFileOutputDialog extends BaseTransformDialog {
     tfoi.setPadded(wPad.getSelection());
     tfoi.setAddToResultFiles(wAddToResult.getSelection());
     tfoi.setFastDump(wFastDump.getSelection());
+    tfoi.setBufferSize(wBufferSize.getText());
+    tfoi.setAsyncFlush(wAsyncFlush.getSelection());
 
     int i;
 
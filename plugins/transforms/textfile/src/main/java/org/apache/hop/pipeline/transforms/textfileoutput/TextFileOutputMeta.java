@@ -77,6 +77,9 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
   public static final String CONST_SPACES_LONG = "        ";
   public static final String CONST_SPACES = "      ";
 
+  /** The size of the output buffer when none is specified */
+  public static final int DEFAULT_BUFFER_SIZE = 65536;
+
   /** Flag: add the transformnr in the filename */
   @Injection(name = "INC_TRANSFORMNR_IN_FILENAME")
   protected boolean transformNrInFilename;
@@ -182,6 +185,14 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
   @Injection(name = "FAST_DATA_DUMP")
   private boolean fastDump;
 
+  /** The size of the output buffer in bytes, empty means the default size */
+  @Injection(name = "BUFFER_SIZE")
+  private String bufferSize;
+
+  /** Flag: write the full output buffers to the file in a separate thread */
+  @Injection(name = "ASYNC_FLUSH")
+  private boolean asyncFlush;
+
   /* THE FIELD SPECIFICATIONS ... */
 
   /** The output fields */
@@ -417,6 +428,34 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     this.fastDump = fastDump;
   }
 
+  /**
+   * @return Returns the size of the output buffer in bytes.
+   */
+  public String getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @param bufferSize The size of the output buffer in bytes to set.
+   */
+  public void setBufferSize(String bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * @return Returns the asyncFlush flag.
+   */
+  public boolean isAsyncFlush() {
+    return asyncFlush;
+  }
+
+  /**
+   * @param asyncFlush The asyncFlush flag to set.
+   */
+  public void setAsyncFlush(boolean asyncFlush) {
+    this.asyncFlush = asyncFlush;
+  }
+
   /**
    * @return Returns the separator.
    */
@@ -693,6 +732,9 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
       padded = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "file", "pad"));
       fastDump = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "file", "fast_dump"));
       splitEveryRows = XmlHandler.getTagValue(transformNode, "file", "splitevery");
+      bufferSize = XmlHandler.getTagValue(transformNode, "file", "buffer_size");
+      asyncFlush =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "file", "async_flush"));
 
       newline = getNewLine(fileFormat);
 
@@ -771,6 +813,8 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     timeInFilename = false;
     padded = false;
     fastDump = false;
+    bufferSize = Integer.toString(DEFAULT_BUFFER_SIZE);
+    asyncFlush = false;
     addToResultFilenames = true;
 
     newline = getNewLine(fileFormat);
@@ -956,6 +1000,8 @@ public class TextFileOutputMeta extends BaseTransformMeta<TextFileOutput, TextFi
     retval.append(CONST_SPACES).append(XmlHandler.addTagValue("pad", padded));
     retval.append(CONST_SPACES).append(XmlHandler.addTagValue("fast_dump", fastDump));
     retval.append(CONST_SPACES).append(XmlHandler.addTagValue("splitevery", splitEveryRows));
+    retval.append(CONST_SPACES).append(XmlHandler.addTagValue("buffer_size", bufferSize));
+    retval.append(CONST_SPACES).append(XmlHandler.addTagValue("async_flush", asyncFlush));
   }
 
   @Override
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaFactory;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CsvChunkReaderTest extends CsvInputUnitTestBase {
+
+  private CsvInputData data;
+
+  @Before
+  public void setUp() throws Exception {
+    data = new CsvInputData();
+    data.delimiter = DELIMITER.getBytes(StandardCharsets.UTF_8);
+    data.enclosure = ENCLOSURE.getBytes(StandardCharsets.UTF_8);
+    data.parserThreads = 3;
+    data.parserPool = Executors.newFixedThreadPool(data.parserThreads);
+
+    data.outputRowMeta = new RowMeta();
+    data.outputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    data.outputRowMeta.addValueMeta(new ValueMetaString("name"));
+    data.convertRowMeta = data.outputRowMeta.clone();
+    for (IValueMeta valueMeta : data.convertRowMeta.getValueMetaList()) {
+      IValueMeta storageMetadata =
+          ValueMetaFactory.cloneValueMeta(valueMeta, IValueMeta.TYPE_STRING);
+      valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+      valueMeta.setStorageMetadata(storageMetadata);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    data.parserPool.shutdownNow();
+  }
+
+  private CsvChunkReader createReader(String content, boolean preservingOrder) throws Exception {
+    File file = createTestFile(ENCODING, content);
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    return new CsvChunkReader(channel, 0, true, data, 2, false, preservingOrder, 16);
+  }
+
+  private static List<Object[]> readAll(CsvChunkReader reader) throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    CsvChunkReader.Chunk chunk;
+    while ((chunk = reader.nextChunk()) != null) {
+      for (int i = 0; i < chunk.size(); i++) {
+        assertNull(chunk.getErrors(i));
+        rows.add(chunk.getRow(i));
+      }
+    }
+    reader.close();
+    return rows;
+  }
+
+  private static String createContent(int nrRows) {
+    return createContent(nrRows, "\r\n");
+  }
+
+  private static String createContent(int nrRows, String lineEnd) {
+    StringBuilder content = new StringBuilder("id,name").append(lineEnd);
+    for (int i = 0; i < nrRows; i++) {
+      content.append(i).append(",\"say \"\"").append(i).append("\"\", ok\"").append(lineEnd);
+    }
+    return content.toString();
+  }
+
+  @Test
+  public void testRowsInFileOrder() throws Exception {
+    List<Object[]> rows = readAll(createReader(createContent(100), true));
+
+    assertEquals(100, rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals((long) i, rows.get(i)[0]);
+      assertEquals("say \"" + i + "\", ok", rows.get(i)[1]);
+    }
+  }
+
+  @Test
+  public void testAllRowsWithoutOrder() throws Exception {
+    List<Object[]> rows = readAll(createReader(createContent(100), false));
+
+    assertEquals(100, rows.size());
+    rows.sort(Comparator.comparing(row -> (Long) row[0]));
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals((long) i, rows.get(i)[0]);
+    }
+  }
+
+  @Test
+  public void testCarriageReturnLineEnds() throws Exception {
+    List<Object[]> rows = readAll(createReader(createContent(100, "\r"), true));
+
+    assertEquals(100, rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals((long) i, rows.get(i)[0]);
+      assertEquals("say \"" + i + "\", ok", rows.get(i)[1]);
+    }
+  }
+
+  @Test
+  public void testLineFeedLineEnds() throws Exception {
+    List<Object[]> rows = readAll(createReader(createContent(100, "\n"), true));
+
+    assertEquals(100, rows.size());
+    assertEquals("say \"99\", ok", rows.get(99)[1]);
+  }
+
+  @Test
+  public void testShortLinesAndLastLineWithoutLineEnd() throws Exception {
+    List<Object[]> rows =
+        readAll(createReader("id,name\n1\n2,two,extra\n\n\r\n3,\"three\"", true));
+
+    // The empty lines are skipped
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {1L, null}, rows.get(0));
+    assertArrayEquals(new Object[] {2L, "two"}, rows.get(1));
+    assertArrayEquals(new Object[] {3L, "three"}, rows.get(2));
+  }
+
+  @Test
+  public void testConversionErrors() throws Exception {
+    CsvChunkReader reader = createReader("id,name\nabc,name\n", true);
+
+    CsvChunkReader.Chunk chunk = reader.nextChunk();
+    reader.close();
+
+    assertEquals(1, chunk.size());
+    assertNotNull(chunk.getErrors(0));
+    assertEquals("id", chunk.getErrors(0).getFields().get(0).getName());
+    assertNull(chunk.getRow(0)[0]);
+    assertEquals("name", chunk.getRow(0)[1]);
+  }
+
+  @Test
+  public void testIndexOf() {
+    Random random = new Random(42);
+    byte[] bytes = new byte[1000];
+    random.nextBytes(bytes);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+    for (int value = -128; value < 128; value++) {
+      int from = random.nextInt(100);
+      int expected = bytes.length;
+      for (int i = from; i < bytes.length; i++) {
+        if (bytes[i] == value) {
+          expected = i;
+          break;
+        }
+      }
+      assertEquals(expected, CsvChunkReader.indexOf(buffer, (byte) value, from, bytes.length));
+    }
+    assertEquals(5, CsvChunkReader.indexOf(buffer, new byte[] {bytes[5], bytes[6]}, 5, 1000));
+  }
+}
@@ -87,7 +87,9 @@ public class CsvInputMetaTest implements IInitializer<ITransformMeta> {
             "includingFilename",
             "lazyConversionActive",
             "newlinePossibleInFields",
-            "runningInParallel");
+            "runningInParallel",
+            "parserThreads",
+            "preservingRowOrder");
 
     Map<String, String> getterMap =
         new HashMap<String, String>() {
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.Test;
+
+public class AsyncFlushOutputStreamTest {
+
+  private static class TrackingOutputStream extends ByteArrayOutputStream {
+    private boolean flushed;
+    private boolean closed;
+
+    @Override
+    public void flush() {
+      flushed = true;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  @Test
+  public void testAllDataIsWrittenInOrder() throws Exception {
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    TrackingOutputStream target = new TrackingOutputStream();
+    AsyncFlushOutputStream out = new AsyncFlushOutputStream(target, 16, "test");
+    for (int i = 0; i < 1000; i++) {
+      byte[] bytes = ("line " + i + "\n").getBytes();
+      out.write(bytes);
+      expected.write(bytes);
+      out.write('.');
+      expected.write('.');
+    }
+
+    out.flush();
+    assertTrue(target.flushed);
+    assertArrayEquals(expected.toByteArray(), target.toByteArray());
+
+    out.write(new byte[100]);
+    expected.write(new byte[100]);
+    out.finish();
+    assertFalse(target.closed);
+    assertArrayEquals(expected.toByteArray(), target.toByteArray());
+
+    out.close();
+    assertTrue(target.closed);
+  }
+
+  @Test
+  public void testWriteErrorIsReported() throws Exception {
+    OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("disk full");
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("disk full");
+          }
+        };
+
+    AsyncFlushOutputStream out = new AsyncFlushOutputStream(failing, 8, "test");
+    IOException exception = null;
+    try {
+      // The error is reported by a later write or at the latest by finish()
+      //
+      out.write(new byte[100]);
+      out.finish();
+    } catch (IOException e) {
+      exception = e;
+    }
+    assertNotNull(exception);
+    assertEquals("disk full", exception.getCause().getMessage());
+  }
+
+  @Test
+  public void testRuntimeErrorIsReported() throws Exception {
+    OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            throw new IllegalStateException("compression failed");
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+            throw new IllegalStateException("compression failed");
+          }
+        };
+
+    AsyncFlushOutputStream out = new AsyncFlushOutputStream(failing, 8, "test");
+    IOException exception = null;
+    try {
+      out.write(new byte[100]);
+      out.finish();
+    } catch (IOException e) {
+      exception = e;
+    }
+    assertNotNull(exception);
+    assertEquals("compression failed", exception.getCause().getCause().getMessage());
+  }
+}
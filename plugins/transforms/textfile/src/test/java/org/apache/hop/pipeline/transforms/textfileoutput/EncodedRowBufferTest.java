@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.textfileoutput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class EncodedRowBufferTest {
+
+  private static String toString(EncodedRowBuffer buffer) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    buffer.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testAppendLong() throws Exception {
+    long[] values = {0L, 7L, -7L, 10L, 1234567890L, Long.MAX_VALUE, Long.MIN_VALUE};
+    EncodedRowBuffer buffer = new EncodedRowBuffer();
+    for (long value : values) {
+      buffer.reset();
+      buffer.appendLong(value);
+      assertEquals(Long.toString(value), toString(buffer));
+    }
+  }
+
+  @Test
+  public void testAppendAscii() throws Exception {
+    EncodedRowBuffer buffer = new EncodedRowBuffer();
+    assertTrue(buffer.appendAscii("abc"));
+    assertFalse(buffer.appendAscii("dé"));
+    assertEquals("abc", toString(buffer));
+  }
+
+  @Test
+  public void testEncloseDoublesEnclosures() throws Exception {
+    EncodedRowBuffer buffer = new EncodedRowBuffer();
+    buffer.append("x,".getBytes(StandardCharsets.UTF_8));
+    buffer.append("say \"hi\"".getBytes(StandardCharsets.UTF_8));
+    buffer.enclose(2, "\"".getBytes(StandardCharsets.UTF_8));
+    assertEquals("x,\"say \"\"hi\"\"\"", toString(buffer));
+  }
+
+  @Test
+  public void testGrowsForLongRows() throws Exception {
+    String value = "0123456789".repeat(500);
+    EncodedRowBuffer buffer = new EncodedRowBuffer();
+    assertTrue(buffer.appendAscii(value));
+    buffer.enclose(0, "'".getBytes(StandardCharsets.UTF_8));
+    assertEquals("'" + value + "'", toString(buffer));
+  }
+}
@@ -57,6 +57,8 @@ public class TextFileOutputMetaInjectionTest extends BaseMetadataInjectionTest<T
     check("INC_TIME_IN_FILENAME", () -> meta.isTimeInFilename());
     check("RIGHT_PAD_FIELDS", () -> meta.isPadded());
     check("FAST_DATA_DUMP", () -> meta.isFastDump());
+    check("BUFFER_SIZE", () -> meta.getBufferSize());
+    check("ASYNC_FLUSH", () -> meta.isAsyncFlush());
     check("ENCODING", () -> meta.getEncoding());
     check("ADD_ENDING_LINE", () -> meta.getEndedLine());
     check("FILENAME_IN_FIELD", () -> meta.isFileNameInField());
@@ -76,6 +76,8 @@ public class TextFileOutputMetaTest {
         "pad",
         "fast_dump",
         "splitevery",
+        "buffer_size",
+        "async_flush",
         "OutputFields");
   }
 
@@ -109,6 +111,8 @@ public class TextFileOutputMetaTest {
     getterMap.put("pad", "isPadded");
     getterMap.put("fast_dump", "isFastDump");
     getterMap.put("splitevery", "getSplitEvery");
+    getterMap.put("buffer_size", "getBufferSize");
+    getterMap.put("async_flush", "isAsyncFlush");
     getterMap.put("OutputFields", "getOutputFields");
     return getterMap;
   }
@@ -143,6 +147,8 @@ public class TextFileOutputMetaTest {
     setterMap.put("pad", "setPadded");
     setterMap.put("fast_dump", "setFastDump");
     setterMap.put("splitevery", "setSplitEvery");
+    setterMap.put("buffer_size", "setBufferSize");
+    setterMap.put("async_flush", "setAsyncFlush");
     setterMap.put("OutputFields", "setOutputFields");
     return setterMap;
   }
@@ -20,11 +20,11 @@ package org.apache.hop.pipeline.transforms.textfileoutput;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -41,6 +41,8 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
@@ -757,9 +759,60 @@ public class TextFileOutputTest {
             transformMockHelper.pipeline);
 
     Mockito.doReturn(outputEncode).when(transformMockHelper.iTransformMeta).getEncoding();
-    textFileOutput.getData().writer = Mockito.mock(BufferedOutputStream.class);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    textFileOutput.getData().writer = baos;
 
     textFileOutput.writeRow(rowMeta, rows);
-    Mockito.verify(textFileOutput.getData().writer).write(testString.getBytes(outputEncode));
+    assertEquals(testString + "\n", baos.toString(outputEncode));
+  }
+
+  @Test
+  public void testWriteRowFormatsFields() throws Exception {
+    TextFileOutputMeta meta = new TextFileOutputMeta();
+    meta.setDefault();
+    meta.setEncoding("UTF-8");
+
+    TextFileOutputData data = new TextFileOutputData();
+    data.binarySeparator = ",".getBytes();
+    data.binaryEnclosure = "\"".getBytes();
+    data.binaryNewline = "\n".getBytes();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    data.writer = baos;
+
+    TextFileOutput transform =
+        new TextFileOutput(
+            transformMockHelper.transformMeta,
+            meta,
+            data,
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("plain"));
+    rowMeta.addValueMeta(new ValueMetaString("separator"));
+    rowMeta.addValueMeta(new ValueMetaString("enclosure"));
+    rowMeta.addValueMeta(new ValueMetaString("accents"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+
+    Date date = new Date(1700000000000L);
+    String formattedDate = rowMeta.getValueMeta(5).getString(date);
+
+    transform.writeRow(
+        rowMeta, new Object[] {"abc", "a,b", "say \"hi\"", "ÖÜä", -1234L, date});
+    transform.writeRow(
+        rowMeta, new Object[] {"", null, "x", "y", Long.MIN_VALUE, new Date(date.getTime())});
+    transform.writeRow(rowMeta, new Object[] {"abc", "d", "e", "f", null, null});
+
+    assertEquals(
+        "abc,\"a,b\",\"say \"\"hi\"\"\",ÖÜä,-1234,"
+            + formattedDate
+            + "\n"
+            + ",,x,y,-9223372036854775808,"
+            + formattedDate
+            + "\n"
+            + "abc,d,e,f,,\n",
+        baos.toString("UTF-8"));
   }
 }
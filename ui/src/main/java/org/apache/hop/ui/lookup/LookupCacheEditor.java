@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.ui.lookup;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.lookup.LookupCache;
+import org.apache.hop.ui.core.PropsUi;
+import org.apache.hop.ui.core.metadata.MetadataEditor;
+import org.apache.hop.ui.core.metadata.MetadataManager;
+import org.apache.hop.ui.core.widget.TextVar;
+import org.apache.hop.ui.hopgui.HopGui;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FormAttachment;
+import org.eclipse.swt.layout.FormData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * Editor for the settings of a lookup cache
+ *
+ * @see LookupCache
+ */
+public class LookupCacheEditor extends MetadataEditor<LookupCache> {
+  private static final Class<?> PKG = LookupCacheEditor.class;
+
+  private Text wName;
+  private Text wDescription;
+  private TextVar wMaximumRows;
+  private TextVar wTimeToLive;
+  private TextVar wDirectory;
+
+  public LookupCacheEditor(
+      HopGui hopGui, MetadataManager<LookupCache> manager, LookupCache metadata) {
+    super(hopGui, manager, metadata);
+  }
+
+  @Override
+  public void createControl(Composite parent) {
+    PropsUi props = PropsUi.getInstance();
+
+    int middle = props.getMiddlePct();
+    int margin = PropsUi.getMargin();
+
+    Label wlName = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlName);
+    wlName.setText(BaseMessages.getString(PKG, "LookupCacheEditor.Name.Label"));
+    FormData fdlName = new FormData();
+    fdlName.top = new FormAttachment(0, margin * 2);
+    fdlName.left = new FormAttachment(0, 0);
+    fdlName.right = new FormAttachment(middle, 0);
+    wlName.setLayoutData(fdlName);
+    wName = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wName);
+    FormData fdName = new FormData();
+    fdName.top = new FormAttachment(wlName, 0, SWT.CENTER);
+    fdName.left = new FormAttachment(middle, margin);
+    fdName.right = new FormAttachment(100, 0);
+    wName.setLayoutData(fdName);
+    Control lastControl = wName;
+
+    Label wlDescription = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlDescription);
+    wlDescription.setText(BaseMessages.getString(PKG, "LookupCacheEditor.Description.Label"));
+    FormData fdlDescription = new FormData();
+    fdlDescription.top = new FormAttachment(lastControl, margin * 2);
+    fdlDescription.left = new FormAttachment(0, 0);
+    fdlDescription.right = new FormAttachment(middle, 0);
+    wlDescription.setLayoutData(fdlDescription);
+    wDescription = new Text(parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wDescription);
+    FormData fdDescription = new FormData();
+    fdDescription.top = new FormAttachment(wlDescription, 0, SWT.CENTER);
+    fdDescription.left = new FormAttachment(middle, margin);
+    fdDescription.right = new FormAttachment(100, 0);
+    wDescription.setLayoutData(fdDescription);
+    lastControl = wDescription;
+
+    Label wlMaximumRows = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlMaximumRows);
+    wlMaximumRows.setText(BaseMessages.getString(PKG, "LookupCacheEditor.MaximumRows.Label"));
+    FormData fdlMaximumRows = new FormData();
+    fdlMaximumRows.top = new FormAttachment(lastControl, margin * 2);
+    fdlMaximumRows.left = new FormAttachment(0, 0);
+    fdlMaximumRows.right = new FormAttachment(middle, 0);
+    wlMaximumRows.setLayoutData(fdlMaximumRows);
+    wMaximumRows =
+        new TextVar(
+            manager.getVariables(),
+            parent,
+            SWT.SINGLE | SWT.LEFT | SWT.BORDER,
+            BaseMessages.getString(PKG, "LookupCacheEditor.MaximumRows.Tooltip"));
+    PropsUi.setLook(wMaximumRows);
+    FormData fdMaximumRows = new FormData();
+    fdMaximumRows.top = new FormAttachment(wlMaximumRows, 0, SWT.CENTER);
+    fdMaximumRows.left = new FormAttachment(middle, margin);
+    fdMaximumRows.right = new FormAttachment(100, 0);
+    wMaximumRows.setLayoutData(fdMaximumRows);
+    lastControl = wMaximumRows;
+
+    Label wlTimeToLive = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlTimeToLive);
+    wlTimeToLive.setText(BaseMessages.getString(PKG, "LookupCacheEditor.TimeToLive.Label"));
+    FormData fdlTimeToLive = new FormData();
+    fdlTimeToLive.top = new FormAttachment(lastControl, margin * 2);
+    fdlTimeToLive.left = new FormAttachment(0, 0);
+    fdlTimeToLive.right = new FormAttachment(middle, 0);
+    wlTimeToLive.setLayoutData(fdlTimeToLive);
+    wTimeToLive =
+        new TextVar(
+            manager.getVariables(),
+            parent,
+            SWT.SINGLE | SWT.LEFT | SWT.BORDER,
+            BaseMessages.getString(PKG, "LookupCacheEditor.TimeToLive.Tooltip"));
+    PropsUi.setLook(wTimeToLive);
+    FormData fdTimeToLive = new FormData();
+    fdTimeToLive.top = new FormAttachment(wlTimeToLive, 0, SWT.CENTER);
+    fdTimeToLive.left = new FormAttachment(middle, margin);
+    fdTimeToLive.right = new FormAttachment(100, 0);
+    wTimeToLive.setLayoutData(fdTimeToLive);
+    lastControl = wTimeToLive;
+
+    Label wlDirectory = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlDirectory);
+    wlDirectory.setText(BaseMessages.getString(PKG, "LookupCacheEditor.Directory.Label"));
+    FormData fdlDirectory = new FormData();
+    fdlDirectory.top = new FormAttachment(lastControl, margin * 2);
+    fdlDirectory.left = new FormAttachment(0, 0);
+    fdlDirectory.right = new FormAttachment(middle, 0);
+    wlDirectory.setLayoutData(fdlDirectory);
+    wDirectory =
+        new TextVar(
+            manager.getVariables(),
+            parent,
+            SWT.SINGLE | SWT.LEFT | SWT.BORDER,
+            BaseMessages.getString(PKG, "LookupCacheEditor.Directory.Tooltip"));
+    PropsUi.setLook(wDirectory);
+    FormData fdDirectory = new FormData();
+    fdDirectory.top = new FormAttachment(wlDirectory, 0, SWT.CENTER);
+    fdDirectory.left = new FormAttachment(middle, margin);
+    fdDirectory.right = new FormAttachment(100, 0);
+    wDirectory.setLayoutData(fdDirectory);
+
+    setWidgetsContent();
+    resetChanged();
+
+    Listener modifyListener = e -> setChanged();
+    wName.addListener(SWT.Modify, modifyListener);
+    wDescription.addListener(SWT.Modify, modifyListener);
+    wMaximumRows.addListener(SWT.Modify, modifyListener);
+    wTimeToLive.addListener(SWT.Modify, modifyListener);
+    wDirectory.addListener(SWT.Modify, modifyListener);
+  }
+
+  @Override
+  public void setWidgetsContent() {
+    LookupCache lookupCache = getMetadata();
+
+    wName.setText(Const.NVL(lookupCache.getName(), ""));
+    wDescription.setText(Const.NVL(lookupCache.getDescription(), ""));
+    wMaximumRows.setText(Const.NVL(lookupCache.getMaximumRows(), ""));
+    wTimeToLive.setText(Const.NVL(lookupCache.getTimeToLive(), ""));
+    wDirectory.setText(Const.NVL(lookupCache.getDirectory(), ""));
+  }
+
+  @Override
+  public void getWidgetsContent(LookupCache lookupCache) {
+    lookupCache.setName(wName.getText());
+    lookupCache.setDescription(wDescription.getText());
+    lookupCache.setMaximumRows(wMaximumRows.getText());
+    lookupCache.setTimeToLive(wTimeToLive.getText());
+    lookupCache.setDirectory(wDirectory.getText());
+  }
+
+  @Override
+  public boolean setFocus() {
+    if (wName == null || wName.isDisposed()) {
+      return false;
+    }
+    return wName.setFocus();
+  }
+}